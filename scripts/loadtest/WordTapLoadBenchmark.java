@@ -0,0 +1,147 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Banc de charge des taps de mots (POST /api/words/analyze) : compare une instance lancée en threads
+ * plateforme et une instance lancée en threads virtuels (VIRTUAL_THREADS_ENABLED=true).
+ * Aucune dépendance, lancé directement depuis les sources (JDK 21) :
+ *
+ * <pre>
+ * java scripts/loadtest/WordTapLoadBenchmark.java \
+ *     --target platform=http://localhost:8080 --target virtual=http://localhost:8081 \
+ *     --token "$JWT" --payloads taps.ndjson --concurrency 200 --requests 2000 --warmup 100
+ * </pre>
+ *
+ * taps.ndjson contient un corps WordAnalysisRequest JSON par ligne (bookId, pageNumber, wordInstanceId,
+ * wordText, paragraphText, targetLanguageCode), rejoués en boucle. Les mots déjà analysés mesurent le
+ * chemin base de données ; des mots nouveaux incluent l'appel Gemini.
+ */
+public class WordTapLoadBenchmark {
+
+    record Result(String label, int requests, long elapsedNanos, long[] latenciesNanos, Map<String, Integer> statuses) {
+
+        double throughput() {
+            return requests * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        double percentileMs(double percentile) {
+            if (latenciesNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * latenciesNanos.length) - 1;
+            return latenciesNanos[Math.max(0, Math.min(index, latenciesNanos.length - 1))] / 1_000_000.0;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> targets = new LinkedHashMap<>();
+        String token = System.getenv("BENCH_JWT");
+        Path payloadFile = null;
+        int concurrency = 100;
+        int requests = 1000;
+        int warmup = 50;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--target" -> {
+                    String[] target = args[++i].split("=", 2);
+                    targets.put(target[0], target[1].replaceAll("/$", ""));
+                }
+                case "--token" -> token = args[++i];
+                case "--payloads" -> payloadFile = Path.of(args[++i]);
+                case "--concurrency" -> concurrency = Integer.parseInt(args[++i]);
+                case "--requests" -> requests = Integer.parseInt(args[++i]);
+                case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+        if (targets.isEmpty() || token == null || payloadFile == null) {
+            System.err.println("Usage: --target label=url [--target ...] --token JWT --payloads file.ndjson "
+                    + "[--concurrency N] [--requests N] [--warmup N]");
+            System.exit(2);
+        }
+
+        List<String> payloads = Files.readAllLines(payloadFile).stream().filter(line -> !line.isBlank()).toList();
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        List<Result> results = new ArrayList<>();
+        for (Map.Entry<String, String> target : targets.entrySet()) {
+            URI uri = URI.create(target.getValue() + "/api/words/analyze");
+            System.out.printf("%n== %s (%s) ==%n", target.getKey(), uri);
+            run(client, uri, token, payloads, concurrency, warmup, "warmup");
+            results.add(run(client, uri, token, payloads, concurrency, requests, target.getKey()));
+        }
+
+        System.out.printf("%n%-12s %8s %10s %9s %9s %9s %9s  %s%n",
+                "mode", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "statuses");
+        for (Result result : results) {
+            System.out.printf("%-12s %8d %10.1f %9.1f %9.1f %9.1f %9.1f  %s%n",
+                    result.label(), result.requests(), result.throughput(),
+                    result.percentileMs(50), result.percentileMs(95), result.percentileMs(99),
+                    result.percentileMs(100), new TreeMap<>(result.statuses()));
+        }
+    }
+
+    private static Result run(HttpClient client, URI uri, String token, List<String> payloads,
+                              int concurrency, int requests, String label) throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        long start = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < concurrency; worker++) {
+                workers.submit(() -> {
+                    int index;
+                    while ((index = next.getAndIncrement()) < requests) {
+                        HttpRequest request = HttpRequest.newBuilder(uri)
+                                .timeout(Duration.ofSeconds(120))
+                                .header("Authorization", "Bearer " + token)
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(payloads.get(index % payloads.size())))
+                                .build();
+                        long sent = System.nanoTime();
+                        String status;
+                        try {
+                            status = String.valueOf(client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+                        } catch (IOException e) {
+                            status = e.getClass().getSimpleName();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        latencies[index] = System.nanoTime() - sent;
+                        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.intValue()));
+        System.out.printf("%s: %d requests in %.1f s%n", label, requests, elapsed / 1_000_000_000.0);
+        return new Result(label, requests, elapsed, latencies, counts);
+    }
+}
@@ -0,0 +1,47 @@
+package com.backcover.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Données des benchmarks : réponses Gemini enregistrées (src/jmh/resources/bench) et
+ * ObjectMapper configuré comme celui de Spring Boot.
+ */
+public final class BenchmarkFixtures {
+
+    public static final String WORD_ANALYSIS_RESPONSE = "bench/gemini-word-analysis-response.json";
+    public static final String STRUCTURED_BOOK_RESPONSE = "bench/structured-book-response.json";
+
+    private BenchmarkFixtures() {
+    }
+
+    public static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    public static String resource(String path) {
+        try (InputStream input = BenchmarkFixtures.class.getClassLoader().getResourceAsStream(path)) {
+            if (input == null) {
+                throw new IllegalStateException("Missing benchmark fixture: " + path);
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Contenu pseudo-PDF de taille donnée (l'encodage base64 ne dépend que de la taille)
+     */
+    public static byte[] pdfBytes(int sizeKb) {
+        byte[] content = new byte[sizeKb * 1024];
+        new Random(42).nextBytes(content);
+        return content;
+    }
+}
@@ -0,0 +1,68 @@
+package com.backcover.service;
+
+import com.backcover.bench.BenchmarkFixtures;
+import com.backcover.dto.WordAnalysisDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chemin JSON d'un tap de mot : extraction de l'analyse depuis la réponse brute de Gemini,
+ * puis conversion du JsonNode en WordAnalysisDto.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WordAnalysisJsonBenchmark {
+
+    @Param({"fr", "en"})
+    public String targetLanguage;
+
+    private WordAnalysisService wordAnalysisService;
+    private String rawResponse;
+    private JsonNode analysisNode;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = BenchmarkFixtures.objectMapper();
+        // Seuls l'ObjectMapper et la traduction des champs lexicaux servent sur ce chemin
+        wordAnalysisService = new WordAnalysisService(null, objectMapper, null, null, null, null, null, null,
+                null, null, new LexicalFieldTranslationService(), null, null, null, null);
+        rawResponse = BenchmarkFixtures.resource(BenchmarkFixtures.WORD_ANALYSIS_RESPONSE);
+        analysisNode = wordAnalysisService.parseAndExtractJsonResponse(rawResponse);
+    }
+
+    @Benchmark
+    public JsonNode parseAndExtractJsonResponse() throws IOException {
+        return wordAnalysisService.parseAndExtractJsonResponse(rawResponse);
+    }
+
+    @Benchmark
+    public WordAnalysisDto convertToWordAnalysisDto() throws IOException {
+        return wordAnalysisService.convertToWordAnalysisDto(analysisNode,
+                analysisNode.path("translation").asText(null), "بِالكِتَابِ", null, targetLanguage);
+    }
+
+    @Benchmark
+    public WordAnalysisDto parseThenConvert() throws IOException {
+        JsonNode node = wordAnalysisService.parseAndExtractJsonResponse(rawResponse);
+        return wordAnalysisService.convertToWordAnalysisDto(node,
+                node.path("translation").asText(null), "بِالكِتَابِ", null, targetLanguage);
+    }
+}
@@ -0,0 +1,85 @@
+package com.backcover.service.gemini;
+
+import com.backcover.bench.BenchmarkFixtures;
+import com.backcover.dto.gemini.GeminiRequest;
+import com.backcover.dto.gemini.StructuredBookResponse;
+import com.backcover.dto.gemini.StructuredBookResponse.StructuredPage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chemins JSON de l'enrichissement d'un livre : parsing de la sortie structurée de Gemini,
+ * conversion au format structured.json, sérialisation indentée persistée dans R2,
+ * et sérialisation de la requête (PDF encodé en base64).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EnrichmentJsonBenchmark {
+
+    @Param({"512", "8192"})
+    public int pdfSizeKb;
+
+    private ObjectMapper objectMapper;
+    private EnrichmentResultPersister persister;
+    private String structuredResponseJson;
+    private StructuredBookResponse structuredResponse;
+    private List<StructuredPage> structuredPages;
+    private byte[] pdfBytes;
+    private String prompt;
+    private Map<String, Object> schema;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        // Pas d'accès R2 : seule la sérialisation est mesurée
+        persister = new EnrichmentResultPersister(null, objectMapper);
+        structuredResponseJson = BenchmarkFixtures.resource(BenchmarkFixtures.STRUCTURED_BOOK_RESPONSE);
+        structuredResponse = objectMapper.readValue(structuredResponseJson, StructuredBookResponse.class);
+        structuredPages = structuredResponse.toStructuredFormat();
+
+        BookStructureSchema bookStructureSchema = new BookStructureSchema();
+        schema = bookStructureSchema.getSchema();
+        prompt = bookStructureSchema.getEnrichmentPrompt();
+        pdfBytes = BenchmarkFixtures.pdfBytes(pdfSizeKb);
+    }
+
+    @Benchmark
+    public StructuredBookResponse parseStructuredResponse() throws JsonProcessingException {
+        return objectMapper.readValue(structuredResponseJson, StructuredBookResponse.class);
+    }
+
+    @Benchmark
+    public List<StructuredPage> toStructuredFormat() {
+        return structuredResponse.toStructuredFormat();
+    }
+
+    @Benchmark
+    public String persistPrettyJson() throws JsonProcessingException {
+        return persister.toPrettyJson(structuredPages);
+    }
+
+    @Benchmark
+    public byte[] serializePdfRequest() throws JsonProcessingException {
+        GeminiRequest request = GeminiRequest.forPdfEnrichment(pdfBytes, prompt, schema, 0.1, 65536);
+        return objectMapper.writeValueAsBytes(request);
+    }
+}
@@ -0,0 +1,114 @@
+package com.backcover.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Substitut de Supabase Auth : découverte OIDC et JWKS sous {@code /auth/v1} (l'application valide les
+ * jetons via {@code SUPABASE_URL/auth/v1}), plus {@code GET /_standin/token?sub=&email=} qui émet un jeton
+ * RS256 signé par la clé publiée, pour les sessions du scénario de charge.
+ */
+class AuthStandIn extends StandInHandler {
+
+    static final String ISSUER_PATH = "/auth/v1";
+    static final String TOKEN_PATH = "/_standin/token";
+
+    private final ObjectMapper objectMapper;
+    private final String issuer;
+    private final RSAKey signingKey;
+    private final RSASSASigner signer;
+
+    AuthStandIn(LatencyProfile profile, ObjectMapper objectMapper, String publicUrl) {
+        super("auth", profile);
+        this.objectMapper = objectMapper;
+        this.issuer = publicUrl + ISSUER_PATH;
+        try {
+            this.signingKey = new RSAKeyGenerator(2048).keyID("standin-" + UUID.randomUUID()).generate();
+            this.signer = new RSASSASigner(signingKey);
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Unable to generate the stand-in signing key", e);
+        }
+    }
+
+    @Override
+    protected void serve(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals(ISSUER_PATH + "/.well-known/openid-configuration")) {
+            Map<String, Object> configuration = new HashMap<>();
+            configuration.put("issuer", issuer);
+            configuration.put("jwks_uri", issuer + "/.well-known/jwks.json");
+            configuration.put("authorization_endpoint", issuer + "/authorize");
+            configuration.put("token_endpoint", issuer + "/token");
+            configuration.put("response_types_supported", List.of("code"));
+            configuration.put("subject_types_supported", List.of("public"));
+            configuration.put("id_token_signing_alg_values_supported", List.of("RS256"));
+            send(exchange, 200, "application/json", objectMapper.writeValueAsBytes(configuration));
+        } else if (path.equals(ISSUER_PATH + "/.well-known/jwks.json")) {
+            String jwks = new JWKSet(signingKey.toPublicJWK()).toString();
+            send(exchange, 200, "application/json", jwks.getBytes(StandardCharsets.UTF_8));
+        } else if (path.equals(TOKEN_PATH)) {
+            Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            String subject = query.getOrDefault("sub", UUID.randomUUID().toString());
+            String email = query.getOrDefault("email", subject + "@standin.local");
+            long ttlSeconds = Long.parseLong(query.getOrDefault("ttl", "3600"));
+            send(exchange, 200, "text/plain", token(subject, email, ttlSeconds).getBytes(StandardCharsets.UTF_8));
+        } else {
+            sendError(exchange, 404, "Unknown auth path " + path);
+        }
+    }
+
+    String token(String subject, String email, long ttlSeconds) {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject(subject)
+                .audience("authenticated")
+                .claim("email", email)
+                .claim("role", "authenticated")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(ttlSeconds)))
+                .build();
+        SignedJWT jwt = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).type(JOSEObjectType.JWT).build(),
+                claims);
+        try {
+            jwt.sign(signer);
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Unable to sign stand-in token", e);
+        }
+        return jwt.serialize();
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery != null) {
+            for (String parameter : rawQuery.split("&")) {
+                String[] pair = parameter.split("=", 2);
+                if (pair.length == 2) {
+                    query.put(pair[0], URLDecoder.decode(pair[1], StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return query;
+    }
+}
@@ -0,0 +1,183 @@
+package com.backcover.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Substitut de {@code POST /v1beta/models/{model}:generateContent}.
+ *
+ * <ul>
+ *   <li>requête texte seule : analyse de mot (gabarit standin/word-analysis.json, forme canonique
+ *       choisie dans un vocabulaire fini pour que les taps partagent des formes canoniques comme en production) ;</li>
+ *   <li>PDF/image avec responseSchema : instance générée depuis le schéma (livre structuré, métadonnées) ;</li>
+ *   <li>image sans schéma : analyse de page au format keep_page/blocks.</li>
+ * </ul>
+ */
+class GeminiStandIn extends StandInHandler {
+
+    private static final List<String[]> VOCABULARY = List.of(
+            new String[]{"كِتَاب", "ك ت ب", "livre"},
+            new String[]{"عِلْم", "ع ل م", "science"},
+            new String[]{"قَلَم", "ق ل م", "plume"},
+            new String[]{"مَدْرَسَة", "د ر س", "école"},
+            new String[]{"طَرِيق", "ط ر ق", "chemin"},
+            new String[]{"نُور", "ن و ر", "lumière"},
+            new String[]{"شَيْخ", "ش ي خ", "maître"},
+            new String[]{"سَفَر", "س ف ر", "voyage"},
+            new String[]{"حَدِيث", "ح د ث", "récit"},
+            new String[]{"لُغَة", "ل غ و", "langue"},
+            new String[]{"شِعْر", "ش ع ر", "poésie"},
+            new String[]{"مَعْرِفَة", "ع ر ف", "connaissance"});
+
+    static final List<String> WORDS = List.of(
+            "العلم", "نور", "والجهل", "ظلمة", "طلب", "الحديث", "في", "بغداد", "الشيخ", "يسمعون",
+            "الكتاب", "رفيق", "لا", "يخون", "المدارس", "والشعر", "واللغة", "الطريق", "إلى", "المعرفة");
+
+    private final ObjectMapper objectMapper;
+    private final ObjectNode wordAnalysisTemplate;
+    private final int structuredPages;
+    private final int wordsPerBlock;
+
+    GeminiStandIn(LatencyProfile profile, ObjectMapper objectMapper, int structuredPages, int wordsPerBlock) {
+        super("gemini", profile);
+        this.objectMapper = objectMapper;
+        this.structuredPages = structuredPages;
+        this.wordsPerBlock = wordsPerBlock;
+        try (InputStream input = GeminiStandIn.class.getClassLoader().getResourceAsStream("standin/word-analysis.json")) {
+            this.wordAnalysisTemplate = (ObjectNode) objectMapper.readTree(input);
+        } catch (IOException e) {
+            throw new IllegalStateException("Missing stand-in fixture standin/word-analysis.json", e);
+        }
+    }
+
+    @Override
+    protected void serve(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod()) || !exchange.getRequestURI().getPath().endsWith(":generateContent")) {
+            sendError(exchange, 404, "Unsupported Gemini method " + exchange.getRequestURI().getPath());
+            return;
+        }
+        byte[] requestBody = exchange.getRequestBody().readAllBytes();
+        JsonNode request = objectMapper.readTree(requestBody);
+
+        boolean hasInlineData = false;
+        StringBuilder prompt = new StringBuilder();
+        for (JsonNode content : request.path("contents")) {
+            for (JsonNode part : content.path("parts")) {
+                hasInlineData |= part.has("inlineData") || part.has("inline_data");
+                prompt.append(part.path("text").asText(""));
+            }
+        }
+        JsonNode schema = request.path("generationConfig").path("responseSchema");
+
+        String text;
+        if (!hasInlineData) {
+            text = "```json\n" + objectMapper.writeValueAsString(wordAnalysis(prompt.toString())) + "\n```";
+        } else if (schema.isObject()) {
+            text = objectMapper.writeValueAsString(fromSchema(schema, null, 0));
+        } else {
+            text = objectMapper.writeValueAsString(pageAnalysis());
+        }
+
+        ObjectNode response = objectMapper.createObjectNode();
+        ObjectNode candidate = response.putArray("candidates").addObject();
+        candidate.putObject("content").put("role", "model").putArray("parts").addObject().put("text", text);
+        candidate.put("finishReason", "STOP");
+        int promptTokens = Math.max(1, requestBody.length / 4);
+        int candidateTokens = Math.max(1, text.length() / 4);
+        response.putObject("usageMetadata")
+                .put("promptTokenCount", promptTokens)
+                .put("candidatesTokenCount", candidateTokens)
+                .put("totalTokenCount", promptTokens + candidateTokens);
+        response.put("modelVersion", "standin");
+        send(exchange, 200, "application/json; charset=UTF-8", objectMapper.writeValueAsBytes(response));
+    }
+
+    private ObjectNode wordAnalysis(String prompt) {
+        String[] entry = VOCABULARY.get(Math.floorMod(prompt.hashCode(), VOCABULARY.size()));
+        ObjectNode analysis = wordAnalysisTemplate.deepCopy();
+        analysis.put("word", entry[0]);
+        analysis.put("canonical_form", entry[0]);
+        analysis.put("root", entry[1]);
+        analysis.put("jidar", entry[0]);
+        analysis.put("translation", entry[2]);
+        return analysis;
+    }
+
+    private ObjectNode pageAnalysis() {
+        ObjectNode page = objectMapper.createObjectNode();
+        page.put("keep_page", true);
+        ArrayNode blocks = page.putArray("blocks");
+        for (int block = 0; block < 3; block++) {
+            blocks.addObject().put("block_type", "paragraph").put("block_text", sentence(block));
+        }
+        return page;
+    }
+
+    /**
+     * Instance minimale conforme au schéma de réponse demandé. Les champs connus des schémas de
+     * l'application (pages, blocs, métadonnées) reçoivent des valeurs plausibles.
+     */
+    private JsonNode fromSchema(JsonNode schema, String fieldName, int index) {
+        String type = schema.path("type").asText("object").toLowerCase();
+        switch (type) {
+            case "object" -> {
+                ObjectNode node = objectMapper.createObjectNode();
+                schema.path("properties").fields().forEachRemaining(
+                        property -> node.set(property.getKey(), fromSchema(property.getValue(), property.getKey(), index)));
+                return node;
+            }
+            case "array" -> {
+                ArrayNode array = objectMapper.createArrayNode();
+                int size = "pages".equals(fieldName) ? structuredPages : 3;
+                for (int i = 0; i < size; i++) {
+                    array.add(fromSchema(schema.path("items"), fieldName, i));
+                }
+                return array;
+            }
+            case "integer", "number" -> {
+                return objectMapper.getNodeFactory().numberNode(index + 1);
+            }
+            case "boolean" -> {
+                return objectMapper.getNodeFactory().booleanNode(true);
+            }
+            default -> {
+                if (schema.has("enum")) {
+                    return schema.path("enum").path(0);
+                }
+                return objectMapper.getNodeFactory().textNode(sampleString(fieldName, index));
+            }
+        }
+    }
+
+    private String sampleString(String fieldName, int index) {
+        if (fieldName == null) {
+            return sentence(index);
+        }
+        return switch (fieldName) {
+            case "blockType", "block_type" -> "paragraph";
+            case "title" -> "كتاب الاختبار";
+            case "author" -> "مؤلف مجهول";
+            case "genre" -> "أدب";
+            case "publishedDate" -> "1990";
+            default -> sentence(index);
+        };
+    }
+
+    private String sentence(int seed) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < wordsPerBlock; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS.get(Math.floorMod(seed * 7 + i * 3, WORDS.size())));
+        }
+        return sentence.toString();
+    }
+}
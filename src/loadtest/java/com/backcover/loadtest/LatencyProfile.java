@@ -0,0 +1,61 @@
+package com.backcover.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Latence simulée et injection d'erreurs d'un service de substitution.
+ *
+ * <p>Latence : {@code fixed:ms}, {@code uniform:min:max} ou {@code lognormal:median:sigma}
+ * (la lognormale reproduit la longue traîne des appels Gemini). Erreurs : {@code probabilité:statut},
+ * ex. {@code 0.02:503}.
+ */
+record LatencyProfile(String distribution, double a, double b, double errorRate, int errorStatus) {
+
+    static LatencyProfile parse(String latencySpec, String errorSpec) {
+        String[] latency = latencySpec.split(":");
+        double a = latency.length > 1 ? Double.parseDouble(latency[1]) : 0;
+        double b = latency.length > 2 ? Double.parseDouble(latency[2]) : 0;
+        switch (latency[0]) {
+            case "fixed", "uniform", "lognormal" -> { }
+            default -> throw new IllegalArgumentException("Unknown latency distribution: " + latencySpec);
+        }
+
+        double errorRate = 0;
+        int errorStatus = 503;
+        if (errorSpec != null && !errorSpec.isBlank()) {
+            String[] error = errorSpec.split(":");
+            errorRate = Double.parseDouble(error[0]);
+            if (error.length > 1) {
+                errorStatus = Integer.parseInt(error[1]);
+            }
+        }
+        return new LatencyProfile(latency[0], a, b, errorRate, errorStatus);
+    }
+
+    long sampleMillis() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (distribution) {
+            case "fixed" -> (long) a;
+            case "uniform" -> (long) (a + random.nextDouble() * Math.max(0, b - a));
+            case "lognormal" -> (long) (a * Math.exp(b * random.nextGaussian()));
+            default -> 0;
+        };
+    }
+
+    /**
+     * @return le statut HTTP à renvoyer si une erreur est injectée pour cet appel, sinon 0
+     */
+    int sampleError() {
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate ? errorStatus : 0;
+    }
+
+    @Override
+    public String toString() {
+        String latency = switch (distribution) {
+            case "fixed" -> "fixed " + (long) a + " ms";
+            case "uniform" -> "uniform " + (long) a + "-" + (long) b + " ms";
+            default -> "lognormal median " + (long) a + " ms, sigma " + b;
+        };
+        return errorRate > 0 ? latency + ", " + (errorRate * 100) + "% -> " + errorStatus : latency;
+    }
+}
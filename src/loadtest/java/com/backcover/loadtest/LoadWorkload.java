@@ -0,0 +1,365 @@
+package com.backcover.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Scénario de charge de bout en bout contre l'application réelle (Postgres local, dépendances externes
+ * servies par {@link StandInServer}). Chaque utilisateur virtuel enchaîne, par itération :
+ * bibliothèque → ouverture du livre → taps de mots → ajout à la liste de mots → prononciation TTS.
+ * Le rapport donne, par étape, le débit et les percentiles de latence.
+ *
+ * <pre>
+ * ./mvnw -P loadtest test-compile exec:java -Dloadtest.main=com.backcover.loadtest.LoadWorkload -Dexec.args="\
+ *     --app http://localhost:8080 --standin http://localhost:9090 --users 50 --iterations 3 \
+ *     --jdbc-url jdbc:postgresql://localhost:5432/backcover --jdbc-user postgres --jdbc-password postgres"
+ * </pre>
+ *
+ * Sans {@code --book-id}, un PDF généré est uploadé puis enrichi par le stand-in Gemini : le propriétaire doit être
+ * PRO, d'où la promotion des comptes de charge via {@code --jdbc-*} (rôle {@code --role}, ROLE_PRO par défaut, qui
+ * lève aussi le quota quotidien des taps). Sans promotion, les comptes restent FREE et les taps au-delà du quota
+ * répondent 429. Les taps n'envoient que (bookId, wordInstanceId, langue) ; {@code --full-tap-payload} envoie
+ * aussi page, mot et paragraphe comme les anciens clients.
+ */
+public final class LoadWorkload {
+
+    private static final String EMAIL_DOMAIN = "@standin.local";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, StepStats> steps = new LinkedHashMap<>();
+
+    private String app = "http://localhost:8080";
+    private String standIn = "http://localhost:9090";
+    private int users = 20;
+    private int iterations = 3;
+    private int taps = 5;
+    private int adds = 2;
+    private int ttsCalls = 2;
+    private int rampUpSeconds = 5;
+    private int bookPages = 5;
+    private String bookId;
+    private String language = "fr";
+    private boolean fullTapPayload;
+    private String jdbcUrl;
+    private String jdbcUser;
+    private String jdbcPassword;
+    private String role = "ROLE_PRO";
+    private String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private LoadWorkload() {
+        for (String step : List.of("library", "open-book", "tap-word", "add-to-list", "tts")) {
+            steps.put(step, new StepStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadWorkload workload = new LoadWorkload();
+        workload.parse(args);
+        workload.run();
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--app" -> app = args[++i].replaceAll("/$", "");
+                case "--standin" -> standIn = args[++i].replaceAll("/$", "");
+                case "--users" -> users = Integer.parseInt(args[++i]);
+                case "--iterations" -> iterations = Integer.parseInt(args[++i]);
+                case "--taps" -> taps = Integer.parseInt(args[++i]);
+                case "--adds" -> adds = Integer.parseInt(args[++i]);
+                case "--tts" -> ttsCalls = Integer.parseInt(args[++i]);
+                case "--ramp-up" -> rampUpSeconds = Integer.parseInt(args[++i]);
+                case "--book-id" -> bookId = args[++i];
+                case "--book-pages" -> bookPages = Integer.parseInt(args[++i]);
+                case "--lang" -> language = args[++i];
+                case "--full-tap-payload" -> fullTapPayload = true;
+                case "--jdbc-url" -> jdbcUrl = args[++i];
+                case "--jdbc-user" -> jdbcUser = args[++i];
+                case "--jdbc-password" -> jdbcPassword = args[++i];
+                case "--role" -> role = args[++i];
+                case "--run-id" -> runId = args[++i];
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+    }
+
+    private void run() throws Exception {
+        // Setup (non mesuré) : jetons, création des comptes au premier appel, promotion, livre
+        List<String> tokens = new ArrayList<>();
+        for (int user = 0; user < users; user++) {
+            String email = "loadtest-" + runId + "-" + user + EMAIL_DOMAIN;
+            String subject = UUID.nameUUIDFromBytes(email.getBytes(StandardCharsets.UTF_8)).toString();
+            String token = get(URI.create(standIn + AuthStandIn.TOKEN_PATH + "?sub=" + subject + "&email=" + email), null).body();
+            tokens.add(token);
+            expectOk(get(URI.create(app + "/api/books"), token), "account creation for " + email);
+        }
+        if (jdbcUrl != null) {
+            promoteAccounts();
+        }
+        if (bookId == null) {
+            bookId = uploadBook(tokens.get(0));
+        }
+        List<Tap> bookWords = loadTaps(tokens.get(0));
+        System.out.printf("[LOADTEST] %d users x %d iterations on book %s (%d tappable words)%n",
+                users, iterations, bookId, bookWords.size());
+
+        long start = System.nanoTime();
+        try (ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < users; user++) {
+                String token = tokens.get(user);
+                long delayMillis = users > 1 ? rampUpSeconds * 1000L * user / (users - 1) : 0;
+                sessions.submit(() -> {
+                    Thread.sleep(delayMillis);
+                    for (int iteration = 0; iteration < iterations; iteration++) {
+                        session(token, bookWords);
+                    }
+                    return null;
+                });
+            }
+        }
+        report(System.nanoTime() - start);
+    }
+
+    private void session(String token, List<Tap> bookWords) throws InterruptedException {
+        call("library", HttpRequest.newBuilder(URI.create(app + "/api/books?lang=" + language)).GET(), token);
+        call("open-book", HttpRequest.newBuilder(URI.create(app + "/api/books/" + bookId + "/structure")).GET(), token);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Tap> tapped = new ArrayList<>();
+        for (int i = 0; i < taps; i++) {
+            Tap tap = bookWords.get(random.nextInt(bookWords.size()));
+            tapped.add(tap);
+            ObjectNode body;
+            if (fullTapPayload) {
+                body = tap.toJson(objectMapper, bookId, language).put("paragraphText", tap.paragraphText());
+            } else {
+                // Page, mot et paragraphe résolus côté serveur par l'index de mots du livre
+                body = objectMapper.createObjectNode()
+                        .put("bookId", bookId)
+                        .put("wordInstanceId", tap.wordInstanceId())
+                        .put("targetLanguageCode", language);
+            }
+            call("tap-word", post(app + "/api/words/analyze", body), token);
+        }
+        for (int i = 0; i < Math.min(adds, tapped.size()); i++) {
+            call("add-to-list", post(app + "/api/user/wordlist/items", tapped.get(i).toJson(objectMapper, bookId, language)), token);
+        }
+        for (int i = 0; i < Math.min(ttsCalls, tapped.size()); i++) {
+            ObjectNode body = objectMapper.createObjectNode().put("text", tapped.get(i).wordText());
+            call("tts", post(app + "/api/tts/pronounce", body), token);
+        }
+    }
+
+    private void call(String step, HttpRequest.Builder request, String token) throws InterruptedException {
+        request.timeout(Duration.ofSeconds(120)).header("Authorization", "Bearer " + token);
+        long sent = System.nanoTime();
+        String status;
+        try {
+            status = String.valueOf(client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode());
+        } catch (IOException e) {
+            status = e.getClass().getSimpleName();
+        }
+        steps.get(step).record(System.nanoTime() - sent, status);
+    }
+
+    private HttpRequest.Builder post(String url, JsonNode body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(url))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void promoteAccounts() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, jdbcUser, jdbcPassword);
+             PreparedStatement update = connection.prepareStatement("UPDATE users SET role = ? WHERE email LIKE ?")) {
+            update.setString(1, role);
+            update.setString(2, "loadtest-" + runId + "-%" + EMAIL_DOMAIN);
+            System.out.printf("[LOADTEST] %d load-test accounts promoted to %s%n", update.executeUpdate(), role);
+        }
+    }
+
+    /**
+     * Upload d'un PDF généré puis attente de la structure, produite par le pipeline d'enrichissement
+     * à partir des réponses du stand-in Gemini.
+     */
+    private String uploadBook(String token) throws IOException, InterruptedException {
+        String boundary = "loadtest-" + UUID.randomUUID();
+        ByteArrayOutputStream multipart = new ByteArrayOutputStream();
+        multipart.writeBytes(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"visibility\"\r\n\r\nPUBLIC\r\n"
+                + "--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"loadtest-" + runId + ".pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        multipart.writeBytes(generatePdf(bookPages));
+        multipart.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpResponse<String> upload = client.send(HttpRequest.newBuilder(URI.create(app + "/api/books/upload"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(multipart.toByteArray()))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        expectOk(upload, "book upload (the owner must be PRO: pass --jdbc-url or --book-id)");
+        String uploadedId = upload.body().trim();
+
+        URI structure = URI.create(app + "/api/books/" + uploadedId + "/structure");
+        long deadline = System.nanoTime() + Duration.ofMinutes(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            if (get(structure, token).statusCode() == 200) {
+                System.out.printf("[LOADTEST] Book %s uploaded and enriched%n", uploadedId);
+                return uploadedId;
+            }
+            Thread.sleep(2000);
+        }
+        throw new IllegalStateException("Book " + uploadedId + " structure not available after 5 minutes");
+    }
+
+    private List<Tap> loadTaps(String token) throws IOException, InterruptedException {
+        HttpResponse<String> response = get(URI.create(app + "/api/books/" + bookId + "/structure"), token);
+        expectOk(response, "book structure");
+        List<Tap> result = new ArrayList<>();
+        for (JsonNode page : objectMapper.readTree(response.body())) {
+            int pageNumber = page.path("pageNumber").asInt();
+            for (JsonNode block : page.path("content")) {
+                JsonNode words = block.path("words");
+                if (!words.isArray() || words.isEmpty()) {
+                    continue;
+                }
+                StringBuilder paragraph = new StringBuilder();
+                words.forEach(word -> paragraph.append(paragraph.isEmpty() ? "" : " ").append(word.path("text").asText()));
+                for (JsonNode word : words) {
+                    result.add(new Tap(pageNumber, word.path("id").asText(), word.path("text").asText(), paragraph.toString()));
+                }
+            }
+        }
+        if (result.isEmpty()) {
+            throw new IllegalStateException("Book " + bookId + " has no tappable words");
+        }
+        return result;
+    }
+
+    private HttpResponse<String> get(URI uri, String token) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET();
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void expectOk(HttpResponse<String> response, String what) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(what + " failed: HTTP " + response.statusCode() + " " + response.body());
+        }
+    }
+
+    private static byte[] generatePdf(int pages) throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+            for (int pageIndex = 0; pageIndex < pages; pageIndex++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 14);
+                    content.newLineAtOffset(72, 700);
+                    content.showText("Load test book, page " + (pageIndex + 1));
+                    content.endText();
+                }
+            }
+            document.save(output);
+            return output.toByteArray();
+        }
+    }
+
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        long total = steps.values().stream().mapToLong(StepStats::count).sum();
+        System.out.printf("%n[LOADTEST] %d requests in %.1f s (%.1f req/s)%n", total, seconds, total / seconds);
+        System.out.printf("%-12s %8s %9s %9s %9s %9s %9s  %s%n",
+                "step", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "statuses");
+        steps.forEach((step, stats) -> {
+            long[] latencies = stats.sortedLatencies();
+            System.out.printf("%-12s %8d %9.1f %9.1f %9.1f %9.1f %9.1f  %s%n",
+                    step, latencies.length, latencies.length / seconds,
+                    percentileMs(latencies, 50), percentileMs(latencies, 95), percentileMs(latencies, 99),
+                    percentileMs(latencies, 100), stats.statuses());
+        });
+    }
+
+    private static double percentileMs(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, Math.min(index, sortedNanos.length - 1))] / 1_000_000.0;
+    }
+
+    record Tap(int pageNumber, String wordInstanceId, String wordText, String paragraphText) {
+
+        ObjectNode toJson(ObjectMapper objectMapper, String bookId, String targetLanguageCode) {
+            return objectMapper.createObjectNode()
+                    .put("bookId", bookId)
+                    .put("pageNumber", pageNumber)
+                    .put("wordInstanceId", wordInstanceId)
+                    .put("wordText", wordText)
+                    .put("targetLanguageCode", targetLanguageCode);
+        }
+    }
+
+    private static final class StepStats {
+
+        private final List<Long> latencies = new ArrayList<>();
+        private final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        synchronized void record(long latencyNanos, String status) {
+            latencies.add(latencyNanos);
+            statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        }
+
+        synchronized long count() {
+            return latencies.size();
+        }
+
+        synchronized long[] sortedLatencies() {
+            return latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+
+        Map<String, Long> statuses() {
+            Map<String, Long> counts = new TreeMap<>();
+            statuses.forEach((status, count) -> counts.put(status, count.sum()));
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.backcover.loadtest;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Substitut S3 (R2) en mémoire, adressage path-style ({@code /{bucket}/{key}}) comme configuré
+ * dans R2Config. Couvre les opérations utilisées par l'application : Put/Get (Range, If-None-Match)/
+ * Head/Delete, ListObjectsV2, DeleteObjects et upload multipart. Les signatures ne sont pas vérifiées.
+ */
+class S3StandIn extends StandInHandler {
+
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+    private static final Pattern DELETE_KEY = Pattern.compile("<Key>(.*?)</Key>", Pattern.DOTALL);
+    private static final Pattern PART = Pattern.compile("<PartNumber>(\\d+)</PartNumber>");
+
+    record StoredObject(byte[] data, String contentType, Map<String, String> metadata, String etag, Instant lastModified) {
+    }
+
+    private final ConcurrentSkipListMap<String, StoredObject> objects = new ConcurrentSkipListMap<>();
+    private final Map<String, Map<Integer, byte[]>> multipartUploads = new ConcurrentHashMap<>();
+    // En-têtes (Content-Type, x-amz-meta-*) de CreateMultipartUpload, appliqués à la complétion
+    private final Map<String, Headers> pendingHeaders = new ConcurrentHashMap<>();
+
+    S3StandIn(LatencyProfile profile) {
+        super("s3", profile);
+    }
+
+    @Override
+    protected void serve(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String[] bucketAndKey = path.replaceFirst("^/", "").split("/", 2);
+        String bucket = bucketAndKey[0];
+        String key = bucketAndKey.length > 1 ? bucketAndKey[1] : "";
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        String method = exchange.getRequestMethod();
+
+        if (key.isEmpty()) {
+            switch (method) {
+                case "GET" -> listObjects(exchange, bucket, query);
+                case "POST" -> {
+                    if (query.containsKey("delete")) {
+                        deleteObjects(exchange, bucket);
+                    } else {
+                        sendError(exchange, 400, "Unsupported bucket operation");
+                    }
+                }
+                // HeadBucket / CreateBucket : le bucket existe toujours
+                default -> send(exchange, 200, null, null);
+            }
+            return;
+        }
+
+        String objectKey = bucket + "/" + key;
+        switch (method) {
+            case "PUT" -> {
+                byte[] body = readBody(exchange);
+                if (query.containsKey("uploadId")) {
+                    Map<Integer, byte[]> parts = multipartUploads.get(query.get("uploadId"));
+                    if (parts == null) {
+                        sendS3Error(exchange, 404, "NoSuchUpload", "The specified upload does not exist.");
+                        return;
+                    }
+                    parts.put(Integer.parseInt(query.get("partNumber")), body);
+                    exchange.getResponseHeaders().set("ETag", etag(body));
+                    send(exchange, 200, null, null);
+                } else {
+                    StoredObject stored = store(objectKey, body, exchange.getRequestHeaders());
+                    exchange.getResponseHeaders().set("ETag", stored.etag());
+                    send(exchange, 200, null, null);
+                }
+            }
+            case "GET", "HEAD" -> getObject(exchange, objectKey);
+            case "DELETE" -> {
+                if (query.containsKey("uploadId")) {
+                    multipartUploads.remove(query.get("uploadId"));
+                } else {
+                    objects.remove(objectKey);
+                }
+                send(exchange, 204, null, null);
+            }
+            case "POST" -> {
+                if (query.containsKey("uploads")) {
+                    String uploadId = UUID.randomUUID().toString();
+                    multipartUploads.put(uploadId, new ConcurrentHashMap<>());
+                    pendingHeaders.put(uploadId, copyHeaders(exchange.getRequestHeaders()));
+                    sendXml(exchange, 200, "<InitiateMultipartUploadResult><Bucket>" + xml(bucket) + "</Bucket><Key>"
+                            + xml(key) + "</Key><UploadId>" + uploadId + "</UploadId></InitiateMultipartUploadResult>");
+                } else if (query.containsKey("uploadId")) {
+                    completeMultipartUpload(exchange, bucket, key, query.get("uploadId"));
+                } else {
+                    sendError(exchange, 400, "Unsupported object operation");
+                }
+            }
+            default -> sendError(exchange, 405, "Method not allowed");
+        }
+    }
+
+    private void completeMultipartUpload(HttpExchange exchange, String bucket, String key, String uploadId) throws IOException {
+        String request = new String(readBody(exchange), StandardCharsets.UTF_8);
+        Map<Integer, byte[]> parts = multipartUploads.remove(uploadId);
+        Headers headers = pendingHeaders.remove(uploadId);
+        if (parts == null) {
+            sendS3Error(exchange, 404, "NoSuchUpload", "The specified upload does not exist.");
+            return;
+        }
+        ByteArrayOutputStream assembled = new ByteArrayOutputStream();
+        Matcher partNumbers = PART.matcher(request);
+        Map<Integer, byte[]> ordered = new TreeMap<>(parts);
+        if (partNumbers.find()) {
+            // Seules les parties listées dans la requête composent l'objet
+            ordered = new TreeMap<>();
+            do {
+                int number = Integer.parseInt(partNumbers.group(1));
+                ordered.put(number, parts.get(number));
+            } while (partNumbers.find());
+        }
+        for (byte[] part : ordered.values()) {
+            assembled.writeBytes(part);
+        }
+        StoredObject stored = store(bucket + "/" + key, assembled.toByteArray(), headers != null ? headers : new Headers());
+        sendXml(exchange, 200, "<CompleteMultipartUploadResult><Bucket>" + xml(bucket) + "</Bucket><Key>" + xml(key)
+                + "</Key><ETag>" + xml(stored.etag()) + "</ETag></CompleteMultipartUploadResult>");
+    }
+
+    private void getObject(HttpExchange exchange, String objectKey) throws IOException {
+        StoredObject stored = objects.get(objectKey);
+        if (stored == null) {
+            sendS3Error(exchange, 404, "NoSuchKey", "The specified key does not exist.");
+            return;
+        }
+        Headers responseHeaders = exchange.getResponseHeaders();
+        responseHeaders.set("ETag", stored.etag());
+        responseHeaders.set("Last-Modified", HTTP_DATE.format(stored.lastModified()));
+        responseHeaders.set("Accept-Ranges", "bytes");
+        stored.metadata().forEach((name, value) -> responseHeaders.set("x-amz-meta-" + name, value));
+
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch != null && ifNoneMatch.equals(stored.etag())) {
+            send(exchange, 304, null, null);
+            return;
+        }
+
+        byte[] data = stored.data();
+        int status = 200;
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        if (range != null) {
+            Matcher matcher = RANGE.matcher(range);
+            if (matcher.matches() && data.length > 0) {
+                int start;
+                int end;
+                if (matcher.group(1).isEmpty()) {
+                    start = Math.max(0, data.length - Integer.parseInt(matcher.group(2)));
+                    end = data.length - 1;
+                } else {
+                    start = Integer.parseInt(matcher.group(1));
+                    end = matcher.group(2).isEmpty() ? data.length - 1 : Math.min(Integer.parseInt(matcher.group(2)), data.length - 1);
+                }
+                if (start >= data.length || start > end) {
+                    responseHeaders.set("Content-Range", "bytes */" + data.length);
+                    sendS3Error(exchange, 416, "InvalidRange", "The requested range is not satisfiable");
+                    return;
+                }
+                responseHeaders.set("Content-Range", "bytes " + start + "-" + end + "/" + data.length);
+                data = Arrays.copyOfRange(data, start, end + 1);
+                status = 206;
+            }
+        }
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            responseHeaders.set("Content-Length", String.valueOf(data.length));
+        }
+        send(exchange, status, stored.contentType(), data);
+    }
+
+    private void listObjects(HttpExchange exchange, String bucket, Map<String, String> query) throws IOException {
+        String prefix = bucket + "/" + query.getOrDefault("prefix", "");
+        int maxKeys = Integer.parseInt(query.getOrDefault("max-keys", "1000"));
+        String startAfter = query.containsKey("continuation-token")
+                ? bucket + "/" + query.get("continuation-token")
+                : bucket + "/" + query.getOrDefault("start-after", "");
+
+        StringBuilder contents = new StringBuilder();
+        int count = 0;
+        String lastKey = null;
+        boolean truncated = false;
+        for (Map.Entry<String, StoredObject> entry : objects.tailMap(startAfter, false).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                if (entry.getKey().compareTo(prefix) > 0) {
+                    break;
+                }
+                continue;
+            }
+            if (count == maxKeys) {
+                truncated = true;
+                break;
+            }
+            lastKey = entry.getKey().substring(bucket.length() + 1);
+            StoredObject stored = entry.getValue();
+            contents.append("<Contents><Key>").append(xml(lastKey)).append("</Key><LastModified>")
+                    .append(stored.lastModified()).append("</LastModified><ETag>").append(xml(stored.etag()))
+                    .append("</ETag><Size>").append(stored.data().length).append("</Size><StorageClass>STANDARD</StorageClass></Contents>");
+            count++;
+        }
+        StringBuilder body = new StringBuilder("<ListBucketResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\"><Name>")
+                .append(xml(bucket)).append("</Name><Prefix>").append(xml(query.getOrDefault("prefix", "")))
+                .append("</Prefix><KeyCount>").append(count).append("</KeyCount><MaxKeys>").append(maxKeys)
+                .append("</MaxKeys><IsTruncated>").append(truncated).append("</IsTruncated>");
+        if (truncated) {
+            body.append("<NextContinuationToken>").append(xml(lastKey)).append("</NextContinuationToken>");
+        }
+        body.append(contents).append("</ListBucketResult>");
+        sendXml(exchange, 200, body.toString());
+    }
+
+    private void deleteObjects(HttpExchange exchange, String bucket) throws IOException {
+        String request = new String(readBody(exchange), StandardCharsets.UTF_8);
+        StringBuilder deleted = new StringBuilder();
+        Matcher matcher = DELETE_KEY.matcher(request);
+        while (matcher.find()) {
+            String key = matcher.group(1);
+            objects.remove(bucket + "/" + key);
+            deleted.append("<Deleted><Key>").append(key).append("</Key></Deleted>");
+        }
+        sendXml(exchange, 200, "<DeleteResult>" + deleted + "</DeleteResult>");
+    }
+
+    private StoredObject store(String objectKey, byte[] body, Headers headers) {
+        Map<String, String> metadata = new LinkedHashMap<>();
+        headers.forEach((name, values) -> {
+            String lower = name.toLowerCase();
+            if (lower.startsWith("x-amz-meta-") && !values.isEmpty()) {
+                metadata.put(lower.substring("x-amz-meta-".length()), values.get(0));
+            }
+        });
+        String contentType = headers.getFirst("Content-Type");
+        StoredObject stored = new StoredObject(body, contentType != null ? contentType : "application/octet-stream",
+                metadata, etag(body), Instant.now());
+        objects.put(objectKey, stored);
+        return stored;
+    }
+
+    /**
+     * Corps de la requête, décodé s'il est envoyé en aws-chunked (SDK v2 sur endpoint http,
+     * ou checksums en trailer).
+     */
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        byte[] raw = exchange.getRequestBody().readAllBytes();
+        Headers headers = exchange.getRequestHeaders();
+        String encoding = headers.getFirst("Content-Encoding");
+        String sha256 = headers.getFirst("x-amz-content-sha256");
+        boolean chunked = (encoding != null && encoding.contains("aws-chunked"))
+                || (sha256 != null && sha256.startsWith("STREAMING-"));
+        return chunked ? decodeAwsChunked(raw) : raw;
+    }
+
+    static byte[] decodeAwsChunked(byte[] raw) {
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream(raw.length);
+        int position = 0;
+        while (position < raw.length) {
+            int lineEnd = indexOfCrlf(raw, position);
+            if (lineEnd < 0) {
+                break;
+            }
+            String header = new String(raw, position, lineEnd - position, StandardCharsets.US_ASCII);
+            int size = Integer.parseInt(header.split(";", 2)[0].trim(), 16);
+            position = lineEnd + 2;
+            if (size == 0) {
+                break; // Trailers éventuels (checksums) ignorés
+            }
+            decoded.write(raw, position, size);
+            position += size + 2;
+        }
+        return decoded.toByteArray();
+    }
+
+    private static int indexOfCrlf(byte[] data, int from) {
+        for (int i = from; i < data.length - 1; i++) {
+            if (data[i] == '\r' && data[i + 1] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Headers copyHeaders(Headers headers) {
+        Headers copy = new Headers();
+        headers.forEach(copy::put);
+        return copy;
+    }
+
+    private static String etag(byte[] data) {
+        try {
+            return "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(data)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            String[] pair = parameter.split("=", 2);
+            query.put(URLDecoder.decode(pair[0], StandardCharsets.UTF_8),
+                    pair.length > 1 ? URLDecoder.decode(pair[1], StandardCharsets.UTF_8) : "");
+        }
+        return query;
+    }
+
+    private static String xml(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static void sendXml(HttpExchange exchange, int status, String body) throws IOException {
+        send(exchange, status, "application/xml",
+                ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + body).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void sendS3Error(HttpExchange exchange, int status, String code, String message) throws IOException {
+        sendXml(exchange, status, "<Error><Code>" + code + "</Code><Message>" + xml(message) + "</Message></Error>");
+    }
+
+    @Override
+    protected void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        String code = switch (status) {
+            case 503 -> "SlowDown";
+            case 500 -> "InternalError";
+            case 404 -> "NotFound";
+            default -> "InvalidRequest";
+        };
+        sendS3Error(exchange, status, code, message);
+    }
+
+    int objectCount() {
+        return objects.size();
+    }
+}
@@ -0,0 +1,83 @@
+package com.backcover.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Base des services de substitution : applique la latence simulée et l'injection d'erreurs
+ * du groupe avant de servir la requête.
+ */
+abstract class StandInHandler implements HttpHandler {
+
+    private final String group;
+    private final LatencyProfile profile;
+    private final LongAdder served = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+
+    StandInHandler(String group, LatencyProfile profile) {
+        this.group = group;
+        this.profile = profile;
+    }
+
+    @Override
+    public final void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            long delay = profile.sampleMillis();
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+            int errorStatus = profile.sampleError();
+            if (errorStatus > 0) {
+                injectedErrors.increment();
+                exchange.getRequestBody().readAllBytes();
+                sendError(exchange, errorStatus, "Injected error");
+                return;
+            }
+            served.increment();
+            serve(exchange);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            System.err.printf("[STANDIN] %s %s %s failed: %s%n",
+                    group, exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            sendError(exchange, 500, e.getMessage());
+        }
+    }
+
+    protected abstract void serve(HttpExchange exchange) throws IOException;
+
+    /**
+     * Erreur au format JSON des API Google ; le stand-in S3 la surcharge au format XML.
+     */
+    protected void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        String body = "{\"error\":{\"code\":" + status + ",\"message\":\"" + message + "\",\"status\":\"UNAVAILABLE\"}}";
+        send(exchange, status, "application/json", body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        if (contentType != null) {
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+        }
+        boolean noBody = body == null || body.length == 0 || "HEAD".equals(exchange.getRequestMethod());
+        exchange.sendResponseHeaders(status, noBody ? -1 : body.length);
+        if (!noBody) {
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        }
+    }
+
+    String group() {
+        return group;
+    }
+
+    String summary() {
+        return String.format("%-7s %8d served %6d injected errors  (%s)",
+                group, served.sum(), injectedErrors.sum(), profile);
+    }
+}
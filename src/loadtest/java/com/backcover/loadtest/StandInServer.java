@@ -0,0 +1,71 @@
+package com.backcover.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * Serveur de substitution local des dépendances externes, pour les tests de charge de bout en bout :
+ * Gemini (generateContent), R2 (API S3), Google TTS (REST) et Supabase Auth (OIDC/JWKS).
+ *
+ * <p>Lancement : {@code ./mvnw -P loadtest test-compile exec:java}, puis démarrer l'application avec
+ * <pre>
+ * GEMINI_BASE_URL=http://localhost:9090/v1beta/models/  GEMINI_API_KEY=standin
+ * R2_ENDPOINT=http://localhost:9090  R2_ACCESS_KEY_ID=standin  R2_SECRET_ACCESS_KEY=standin  R2_BUCKET_NAME=backcover
+ * TTS_ENDPOINT=http://localhost:9090
+ * SUPABASE_URL=http://localhost:9090
+ * </pre>
+ *
+ * <p>Propriétés système (-D) : {@code standin.port} (9090), {@code standin.public-url},
+ * {@code standin.latency.<groupe>} et {@code standin.errors.<groupe>} pour les groupes gemini, s3, tts, auth
+ * (voir {@link LatencyProfile}), {@code standin.gemini.pages} (20), {@code standin.gemini.words-per-block} (40).
+ */
+public final class StandInServer {
+
+    private StandInServer() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.getInteger("standin.port", 9090);
+        String publicUrl = System.getProperty("standin.public-url", "http://localhost:" + port);
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        GeminiStandIn gemini = new GeminiStandIn(profile("gemini", "lognormal:1200:0.5"), objectMapper,
+                Integer.getInteger("standin.gemini.pages", 20), Integer.getInteger("standin.gemini.words-per-block", 40));
+        S3StandIn s3 = new S3StandIn(profile("s3", "uniform:5:30"));
+        TtsStandIn tts = new TtsStandIn(profile("tts", "lognormal:250:0.3"), objectMapper);
+        AuthStandIn auth = new AuthStandIn(profile("auth", "fixed:0"), objectMapper, publicUrl);
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/v1beta/models/", gemini);
+        server.createContext("/v1/text:synthesize", tts);
+        server.createContext("/v1beta1/text:synthesize", tts);
+        server.createContext(AuthStandIn.ISSUER_PATH + "/", auth);
+        server.createContext(AuthStandIn.TOKEN_PATH, auth);
+        // Tout le reste est traité comme une requête S3 path-style
+        server.createContext("/", s3);
+        server.start();
+
+        List<StandInHandler> handlers = List.of(gemini, s3, tts, auth);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(0);
+            System.out.println("[STANDIN] Summary");
+            handlers.forEach(handler -> System.out.println("  " + handler.summary()));
+            System.out.println("  s3 objects stored: " + s3.objectCount());
+        }));
+
+        System.out.printf("[STANDIN] Listening on %s (issuer %s%s)%n", publicUrl, publicUrl, AuthStandIn.ISSUER_PATH);
+        handlers.forEach(handler -> System.out.println("  " + handler.summary()));
+    }
+
+    private static LatencyProfile profile(String group, String defaultLatency) {
+        return LatencyProfile.parse(
+                System.getProperty("standin.latency." + group, defaultLatency),
+                System.getProperty("standin.errors." + group));
+    }
+}
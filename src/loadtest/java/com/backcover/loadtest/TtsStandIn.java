@@ -0,0 +1,72 @@
+package com.backcover.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Substitut REST de {@code text:synthesize} (v1 et v1beta1, transport HTTP/JSON activé par TTS_ENDPOINT).
+ * Renvoie un MP3 silencieux dont la durée suit la longueur du texte, et un timepoint par balise SSML &lt;mark&gt;.
+ */
+class TtsStandIn extends StandInHandler {
+
+    private static final Pattern MARK = Pattern.compile("<mark\\s+name=\"([^\"]+)\"\\s*/>");
+    // Trame MPEG-1 Layer III, 128 kbit/s, 44,1 kHz : 417 octets, ~26 ms
+    private static final int FRAME_BYTES = 417;
+    private static final double FRAME_SECONDS = 1152 / 44100.0;
+    private static final double SECONDS_PER_CHARACTER = 0.08;
+
+    private final ObjectMapper objectMapper;
+
+    TtsStandIn(LatencyProfile profile, ObjectMapper objectMapper) {
+        super("tts", profile);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void serve(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            sendError(exchange, 405, "Method not allowed");
+            return;
+        }
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody().readAllBytes());
+        JsonNode input = request.path("input");
+        String ssml = input.path("ssml").asText("");
+        String text = ssml.isEmpty() ? input.path("text").asText("") : ssml.replaceAll("<[^>]+>", "");
+
+        double durationSeconds = Math.max(0.3, text.length() * SECONDS_PER_CHARACTER);
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("audioContent", silentMp3(durationSeconds));
+
+        ArrayNode timepoints = response.putArray("timepoints");
+        Matcher marks = MARK.matcher(ssml);
+        while (marks.find()) {
+            // Instant du mark proportionnel au texte qui le précède
+            int position = ssml.substring(0, marks.start()).replaceAll("<[^>]+>", "").length();
+            timepoints.addObject()
+                    .put("markName", marks.group(1))
+                    .put("timeSeconds", position * SECONDS_PER_CHARACTER);
+        }
+        response.putObject("audioConfig").put("audioEncoding", "MP3");
+        send(exchange, 200, "application/json; charset=UTF-8", objectMapper.writeValueAsBytes(response));
+    }
+
+    private static byte[] silentMp3(double durationSeconds) {
+        int frames = (int) Math.ceil(durationSeconds / FRAME_SECONDS);
+        byte[] audio = new byte[frames * FRAME_BYTES];
+        for (int frame = 0; frame < frames; frame++) {
+            int offset = frame * FRAME_BYTES;
+            audio[offset] = (byte) 0xFF;
+            audio[offset + 1] = (byte) 0xFB;
+            audio[offset + 2] = (byte) 0x90;
+            audio[offset + 3] = (byte) 0x64;
+        }
+        return audio;
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Supabase authentication adapter implementing the hexagonal architecture pattern.
@@ -58,30 +59,19 @@ public class SupabaseAuthenticationAdapter implements UserAuthenticationPort {
     }
     
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public User findOrCreateUser(String email, String name) {
-        // First attempt: try to find existing user
+        // Existing users: one read-only SELECT
         Optional<User> existingUser = userRepository.findByEmail(email);
         if (existingUser.isPresent()) {
             return existingUser.get();
         }
         
-        // Second attempt: try to create new user
-        try {
-            log.info("Creating new user with email: {}", email);
-            User newUser = new User(email);
-            // Set name if available
-            if (name != null && !name.isBlank()) {
-                // Add name field to User model if needed
-            }
-            return userRepository.save(newUser);
-        } catch (Exception e) {
-            // Handle race condition: another thread may have created the user
-            log.debug("User creation failed (likely already exists), attempting to find again: {}", email);
-            return userRepository.findByEmail(email)
-                    .orElseThrow(() -> new IllegalStateException(
-                            "Failed to create user and user not found: " + email, e));
-        }
+        // Miss: INSERT ... ON CONFLICT DO NOTHING in its own write transaction, returning the new or
+        // existing user; empty only if a concurrent transaction committed it meanwhile, so read it again
+        return userRepository.findOrInsertByEmail(UUID.randomUUID(), email)
+                .or(() -> userRepository.findByEmail(email))
+                .orElseThrow(() -> new IllegalStateException("User neither inserted nor found: " + email));
     }
     
     @Override
@@ -2,7 +2,9 @@ package com.backcover.config;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -16,6 +18,7 @@ import org.springframework.web.server.ResponseStatusException;
 import jakarta.validation.ConstraintViolationException;
 import java.io.IOException;
 
+import com.backcover.exception.ServiceUnavailableException;
 import com.backcover.exception.WordAnalysisException;
 import java.util.HashMap;
 import java.util.Map;
@@ -28,6 +31,9 @@ public class GlobalExceptionHandler {
     
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
     
+    @Value("${concurrency.retry-after-seconds:5}")
+    private long retryAfterSeconds;
+    
     @ExceptionHandler(ResponseStatusException.class)
     public ResponseEntity<Map<String, Object>> handleResponseStatusException(
             ResponseStatusException ex, WebRequest request) {
@@ -79,10 +85,37 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
     }
     
+    /**
+     * Limiteur de concurrence saturé (permis non obtenu à temps) : 503 avec Retry-After
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleServiceUnavailable(
+            ServiceUnavailableException ex, WebRequest request) {
+        
+        log.warn("Service unavailable: {}", ex.getMessage());
+        
+        Map<String, Object> response = createErrorResponse(
+            "SERVICE_UNAVAILABLE", 
+            "Service temporarily overloaded, retry later", 
+            HttpStatus.SERVICE_UNAVAILABLE,
+            null
+        );
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(response);
+    }
+    
     @ExceptionHandler(DataAccessException.class)
     public ResponseEntity<Map<String, Object>> handleDataAccessException(
             DataAccessException ex, WebRequest request) {
         
+        // Permis de connexion refusé par LimitedDataSource, enveloppé par Spring ou Hibernate
+        ServiceUnavailableException unavailable = findServiceUnavailable(ex);
+        if (unavailable != null) {
+            return handleServiceUnavailable(unavailable, request);
+        }
+        
         log.error("Database error: {}", ex.getMessage(), ex);
         
         Map<String, Object> response = createErrorResponse(
@@ -168,6 +201,12 @@ public class GlobalExceptionHandler {
     public ResponseEntity<Map<String, Object>> handleGenericException(
             Exception ex, WebRequest request) {
 
+        // Ex. CannotCreateTransactionException (TransactionException) quand LimitedDataSource refuse la connexion
+        ServiceUnavailableException unavailable = findServiceUnavailable(ex);
+        if (unavailable != null) {
+            return handleServiceUnavailable(unavailable, request);
+        }
+
         log.error("Unexpected error: {}", ex.getMessage(), ex);
 
         Map<String, Object> response = createErrorResponse(
@@ -180,6 +219,18 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
     
+    private static ServiceUnavailableException findServiceUnavailable(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ServiceUnavailableException unavailable) {
+                return unavailable;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return null;
+    }
+    
     private Map<String, Object> createErrorResponse(String errorCode, String message, 
                                                    HttpStatus status, Object details) {
         Map<String, Object> response = new HashMap<>();
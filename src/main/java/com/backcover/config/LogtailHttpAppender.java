@@ -1,91 +1,306 @@
 package com.backcover.config;
 
+import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.AppenderBase;
 import net.logstash.logback.encoder.LogstashEncoder;
 
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
 
 /**
- * Custom Logback appender to send logs directly to Logtail via HTTP
+ * Custom Logback appender to send logs to Logtail via HTTP, without blocking the logging thread.
+ * Events go into a bounded queue; a background worker sends them in gzipped NDJSON batches
+ * over a single persistent HTTP connection. When the queue is nearly full, events below WARN
+ * are dropped first, then everything; drops are counted and reported. Remaining events are
+ * flushed on stop.
  */
 public class LogtailHttpAppender extends AppenderBase<ILoggingEvent> {
-    
+
     private String sourceToken;
     private String endpointUrl = "https://s1390626.eu-nbg-2.betterstackdata.com/";
+    private int queueSize = 8192;
+    private int discardingThreshold = -1;
+    private int batchSize = 500;
+    private int maxBatchBytes = 1024 * 1024;
+    private long flushIntervalMs = 1000;
+    private long requestTimeoutMs = 10000;
+    private long shutdownTimeoutMs = 5000;
+    private int maxAttempts = 3;
+
     private LogstashEncoder encoder;
-    
+    private BlockingQueue<ILoggingEvent> queue;
+    private HttpClient httpClient;
+    private URI endpoint;
+    private Thread worker;
+    private volatile boolean running;
+
+    private final AtomicLong sentEvents = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong failedEvents = new AtomicLong();
+    private long reportedDrops;
+
     @Override
     public void start() {
         if (sourceToken == null || sourceToken.isEmpty()) {
             addError("Source token is not set for LogtailHttpAppender");
             return;
         }
-        
+
         encoder = new LogstashEncoder();
         encoder.setContext(getContext());
         encoder.start();
-        
+
+        queue = new ArrayBlockingQueue<>(queueSize);
+        if (discardingThreshold < 0) {
+            discardingThreshold = queueSize / 5;
+        }
+        endpoint = URI.create(endpointUrl);
+        // Un seul client : la connexion est réutilisée (keep-alive) d'un lot à l'autre
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(requestTimeoutMs))
+                .build();
+
+        running = true;
+        worker = new Thread(this::runWorker, "logtail-appender");
+        worker.setDaemon(true);
+        worker.start();
+
         super.start();
     }
-    
+
     @Override
     protected void append(ILoggingEvent event) {
         if (!isStarted()) {
             return;
         }
-        
-        try {
-            byte[] jsonBytes = encoder.encode(event);
-            sendToLogtail(jsonBytes);
-        } catch (Exception e) {
-            addError("Failed to send log to Logtail", e);
+
+        // Sous pression, on sacrifie d'abord les logs INFO/DEBUG
+        if (queue.remainingCapacity() < discardingThreshold && !event.getLevel().isGreaterOrEqual(Level.WARN)) {
+            droppedEvents.incrementAndGet();
+            return;
+        }
+
+        // Fige MDC, message formaté et thread avant de passer l'événement à un autre thread
+        event.prepareForDeferredProcessing();
+        if (!queue.offer(event)) {
+            droppedEvents.incrementAndGet();
         }
     }
-    
-    private void sendToLogtail(byte[] jsonBytes) throws Exception {
-        URL url = new URL(endpointUrl);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        
+
+    private void runWorker() {
+        List<ILoggingEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                ILoggingEvent first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    reportDrops();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+            reportDrops();
+        }
+    }
+
+    private void sendBatch(List<ILoggingEvent> batch) {
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream(batch.size() * 512);
+        int pending = 0;
+        for (ILoggingEvent event : batch) {
+            try {
+                byte[] line = encoder.encode(event);
+                ndjson.write(line);
+                if (line.length == 0 || line[line.length - 1] != '\n') {
+                    ndjson.write('\n');
+                }
+                pending++;
+            } catch (Exception e) {
+                failedEvents.incrementAndGet();
+                addError("Failed to encode log event for Logtail", e);
+            }
+            if (ndjson.size() >= maxBatchBytes) {
+                post(ndjson.toByteArray(), pending);
+                ndjson.reset();
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            post(ndjson.toByteArray(), pending);
+        }
+    }
+
+    private void post(byte[] ndjson, int eventCount) {
+        byte[] body;
         try {
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Authorization", "Bearer " + sourceToken);
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setRequestProperty("Content-Length", String.valueOf(jsonBytes.length));
-            conn.setDoOutput(true);
-            conn.setConnectTimeout(5000);
-            conn.setReadTimeout(5000);
-            
-            try (OutputStream os = conn.getOutputStream()) {
-                os.write(jsonBytes);
-                os.flush();
+            body = gzip(ndjson);
+        } catch (IOException e) {
+            failedEvents.addAndGet(eventCount);
+            addError("Failed to compress log batch for Logtail", e);
+            return;
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(Duration.ofMillis(requestTimeoutMs))
+                .header("Authorization", "Bearer " + sourceToken)
+                .header("Content-Type", "application/x-ndjson")
+                .header("Content-Encoding", "gzip")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                int status = response.statusCode();
+                if (status >= 200 && status < 300) {
+                    sentEvents.addAndGet(eventCount);
+                    return;
+                }
+                if (status < 500 && status != 429) {
+                    // Erreur client : inutile de réessayer le même lot
+                    failedEvents.addAndGet(eventCount);
+                    addError("Logtail returned response code: " + status);
+                    return;
+                }
+                addWarn("Logtail returned response code " + status + " (attempt " + attempt + "/" + maxAttempts + ")");
+            } catch (IOException e) {
+                addWarn("Failed to send log batch to Logtail (attempt " + attempt + "/" + maxAttempts + "): " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
             }
-            
-            int responseCode = conn.getResponseCode();
-            if (responseCode != 200 && responseCode != 201 && responseCode != 204) {
-                addError("Logtail returned response code: " + responseCode);
+            if (attempt < maxAttempts && !sleepBeforeRetry(attempt)) {
+                break;
             }
-        } finally {
-            conn.disconnect();
         }
+        failedEvents.addAndGet(eventCount);
+        addError("Dropped a batch of " + eventCount + " log events after " + maxAttempts + " attempts");
     }
-    
+
+    private boolean sleepBeforeRetry(int attempt) {
+        try {
+            Thread.sleep(200L * (1L << (attempt - 1)));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(content);
+        }
+        return compressed.toByteArray();
+    }
+
+    private void reportDrops() {
+        long dropped = droppedEvents.get();
+        if (dropped > reportedDrops) {
+            addWarn("LogtailHttpAppender dropped " + (dropped - reportedDrops) + " log events (queue full)");
+            reportedDrops = dropped;
+        }
+    }
+
     @Override
     public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+
+        // Le worker vide la file puis s'arrête ; pas d'interruption pour ne pas couper un envoi en cours
+        running = false;
+        if (worker != null) {
+            try {
+                worker.join(shutdownTimeoutMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (worker.isAlive()) {
+                addWarn("LogtailHttpAppender stopped with " + queue.size() + " unsent log events");
+            }
+        }
+        addInfo("LogtailHttpAppender stopped - sent=" + sentEvents.get() + ", dropped=" + droppedEvents.get()
+                + ", failed=" + failedEvents.get());
+
         if (encoder != null) {
             encoder.stop();
         }
-        super.stop();
     }
-    
+
+    public long getSentEvents() {
+        return sentEvents.get();
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    public long getFailedEvents() {
+        return failedEvents.get();
+    }
+
+    public int getQueuedEvents() {
+        return queue != null ? queue.size() : 0;
+    }
+
     public void setSourceToken(String sourceToken) {
         this.sourceToken = sourceToken;
     }
-    
+
     public void setEndpointUrl(String endpointUrl) {
         this.endpointUrl = endpointUrl;
     }
-}
\ No newline at end of file
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public void setDiscardingThreshold(int discardingThreshold) {
+        this.discardingThreshold = discardingThreshold;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setMaxBatchBytes(int maxBatchBytes) {
+        this.maxBatchBytes = maxBatchBytes;
+    }
+
+    public void setFlushIntervalMs(long flushIntervalMs) {
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    public void setRequestTimeoutMs(long requestTimeoutMs) {
+        this.requestTimeoutMs = requestTimeoutMs;
+    }
+
+    public void setShutdownTimeoutMs(long shutdownTimeoutMs) {
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+}
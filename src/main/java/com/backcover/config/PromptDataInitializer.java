@@ -2,6 +2,7 @@ package com.backcover.config;
 
 import com.backcover.model.prompt.PromptTemplate;
 import com.backcover.repository.PromptTemplateRepository;
+import com.backcover.service.prompt.PromptTemplateCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
@@ -88,7 +89,8 @@ public class PromptDataInitializer {
 
     @Bean
     @Transactional
-    CommandLineRunner initializePrompts(PromptTemplateRepository promptRepository) {
+    CommandLineRunner initializePrompts(PromptTemplateRepository promptRepository,
+                                        PromptTemplateCache promptTemplateCache) {
         return args -> {
             log.info("=== PromptDataInitializer: Checking essential prompts ===");
 
@@ -101,6 +103,7 @@ public class PromptDataInitializer {
                 wordAnalysis.setVersion("5.0");
                 wordAnalysis.setIsActive(true);
                 promptRepository.save(wordAnalysis);
+                promptTemplateCache.invalidate("WORD_ANALYSIS_V1");
                 log.info("WORD_ANALYSIS_V1 prompt created successfully");
             } else {
                 log.info("WORD_ANALYSIS_V1 prompt already exists");
@@ -115,6 +118,7 @@ public class PromptDataInitializer {
                 pageStructuring.setVersion("5.0");
                 pageStructuring.setIsActive(true);
                 promptRepository.save(pageStructuring);
+                promptTemplateCache.invalidate("PAGE_STRUCTURING_V5");
                 log.info("PAGE_STRUCTURING_V5 prompt created successfully");
             } else {
                 log.info("PAGE_STRUCTURING_V5 prompt already exists");
@@ -1,7 +1,9 @@
 package com.backcover.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -10,15 +12,21 @@ import java.util.concurrent.Executor;
 @Configuration
 @EnableScheduling
 public class SchedulingConfig {
-    
+
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    public Executor taskExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(2);
         executor.setMaxPoolSize(5);
         executor.setQueueCapacity(100);
         executor.setThreadNamePrefix("BookProcessing-");
+        if (virtualThreads) {
+            // Mêmes bornes (2-5 tâches, file de 100), mais les attentes I/O ne bloquent plus de thread plateforme
+            executor.setThreadFactory(Thread.ofVirtual().name("BookProcessing-", 1).factory());
+        }
+        // Propage le contexte d'observation (trace) aux tâches asynchrones
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+}
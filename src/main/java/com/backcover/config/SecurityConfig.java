@@ -53,6 +53,9 @@ public class SecurityConfig {
                         .requestMatchers("/actuator/health").permitAll()
                         .requestMatchers("/actuator/health/**").permitAll()
 
+                        // Métriques (latences, tokens, erreurs par modèle et version de prompt) : admins seulement
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+
                         // Stripe webhook (must be public, Stripe validates via signature)
                         .requestMatchers("/api/stripe/webhook").permitAll()
 
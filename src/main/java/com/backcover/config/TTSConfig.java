@@ -1,14 +1,20 @@
 package com.backcover.config;
 
+import com.google.api.gax.core.NoCredentialsProvider;
 import com.google.cloud.texttospeech.v1.TextToSpeechClient;
 import com.google.cloud.texttospeech.v1.TextToSpeechSettings;
 import com.google.auth.oauth2.GoogleCredentials;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.Executor;
 
 @Slf4j
 @Configuration
@@ -16,24 +22,21 @@ public class TTSConfig {
 
     @Bean
     @Profile("!mock-tts")
-    public TextToSpeechClient textToSpeechClient() throws IOException {
+    public TextToSpeechClient textToSpeechClient(@Value("${tts.endpoint:}") String endpoint) throws IOException {
+        if (!endpoint.isBlank()) {
+            log.info("Initializing Text-to-Speech client against {} (REST, no credentials)", endpoint);
+            return TextToSpeechClient.create(TextToSpeechSettings.newHttpJsonBuilder()
+                .setEndpoint(endpoint)
+                .setCredentialsProvider(NoCredentialsProvider.create())
+                .build());
+        }
         log.info("Initializing Google Cloud Text-to-Speech client");
         try {
-            // Use GCP_CREDENTIALS_JSON if available
-            String gcpCredentialsJson = System.getenv("GCP_CREDENTIALS_JSON");
-            if (gcpCredentialsJson != null && !gcpCredentialsJson.isEmpty()) {
+            Optional<GoogleCredentials> credentials = loadCredentialsFromEnv();
+            if (credentials.isPresent()) {
                 log.info("Using GCP_CREDENTIALS_JSON for TTS client");
-                // The JSON from environment variables has escaped newlines that need to be unescaped
-                String unescapedJson = gcpCredentialsJson
-                    .replace("\\n", "\n")
-                    .replace("\\\"", "\"")
-                    .replace("\\\\", "\\");
-                
-                GoogleCredentials credentials = GoogleCredentials.fromStream(
-                    new java.io.ByteArrayInputStream(unescapedJson.getBytes())
-                );
                 TextToSpeechSettings settings = TextToSpeechSettings.newBuilder()
-                    .setCredentialsProvider(() -> credentials)
+                    .setCredentialsProvider(credentials::get)
                     .build();
                 return TextToSpeechClient.create(settings);
             }
@@ -42,13 +45,66 @@ public class TTSConfig {
             log.info("Using default application credentials for TTS client");
             return TextToSpeechClient.create();
         } catch (Exception e) {
-            log.error("Failed to create TextToSpeechClient. Make sure:");
-            log.error("1. Cloud Text-to-Speech API is enabled in your GCP project");
-            log.error("2. GOOGLE_APPLICATION_CREDENTIALS or GCP_CREDENTIALS_JSON is properly configured");
-            log.error("3. The service account has the necessary permissions");
+            logClientCreationFailure();
+            throw e;
+        }
+    }
+
+    /**
+     * Client v1beta1 : seule version de l'API exposant les timepoints des balises SSML &lt;mark&gt;,
+     * utilisés par l'audio de page pour situer chaque mot dans le fichier.
+     */
+    @Bean
+    @Profile("!mock-tts")
+    public com.google.cloud.texttospeech.v1beta1.TextToSpeechClient timepointTextToSpeechClient(
+            @Value("${tts.endpoint:}") String endpoint) throws IOException {
+        if (!endpoint.isBlank()) {
+            return com.google.cloud.texttospeech.v1beta1.TextToSpeechClient.create(
+                com.google.cloud.texttospeech.v1beta1.TextToSpeechSettings.newHttpJsonBuilder()
+                    .setEndpoint(endpoint)
+                    .setCredentialsProvider(NoCredentialsProvider.create())
+                    .build());
+        }
+        log.info("Initializing Google Cloud Text-to-Speech v1beta1 client (SSML timepoints)");
+        try {
+            Optional<GoogleCredentials> credentials = loadCredentialsFromEnv();
+            if (credentials.isPresent()) {
+                com.google.cloud.texttospeech.v1beta1.TextToSpeechSettings settings =
+                    com.google.cloud.texttospeech.v1beta1.TextToSpeechSettings.newBuilder()
+                        .setCredentialsProvider(credentials::get)
+                        .build();
+                return com.google.cloud.texttospeech.v1beta1.TextToSpeechClient.create(settings);
+            }
+            return com.google.cloud.texttospeech.v1beta1.TextToSpeechClient.create();
+        } catch (Exception e) {
+            logClientCreationFailure();
             throw e;
         }
     }
+
+    private Optional<GoogleCredentials> loadCredentialsFromEnv() throws IOException {
+        // Use GCP_CREDENTIALS_JSON if available
+        String gcpCredentialsJson = System.getenv("GCP_CREDENTIALS_JSON");
+        if (gcpCredentialsJson == null || gcpCredentialsJson.isEmpty()) {
+            return Optional.empty();
+        }
+        // The JSON from environment variables has escaped newlines that need to be unescaped
+        String unescapedJson = gcpCredentialsJson
+            .replace("\\n", "\n")
+            .replace("\\\"", "\"")
+            .replace("\\\\", "\\");
+        
+        return Optional.of(GoogleCredentials.fromStream(
+            new java.io.ByteArrayInputStream(unescapedJson.getBytes())
+        ));
+    }
+
+    private void logClientCreationFailure() {
+        log.error("Failed to create TextToSpeechClient. Make sure:");
+        log.error("1. Cloud Text-to-Speech API is enabled in your GCP project");
+        log.error("2. GOOGLE_APPLICATION_CREDENTIALS or GCP_CREDENTIALS_JSON is properly configured");
+        log.error("3. The service account has the necessary permissions");
+    }
     
     @Bean
     @Profile("mock-tts")
@@ -56,4 +112,45 @@ public class TTSConfig {
         log.info("Using MOCK Text-to-Speech client (no real TTS)");
         return null; // MockTTSService doesn't need a real client
     }
-}
\ No newline at end of file
+
+    @Bean
+    @Profile("mock-tts")
+    public com.google.cloud.texttospeech.v1beta1.TextToSpeechClient mockTimepointTextToSpeechClient() {
+        return null; // Page audio is unavailable without a real client
+    }
+
+    /**
+     * Pool borné pour le préchargement TTS : limite le nombre d'appels Google TTS
+     * simultanés, quel que soit le nombre de pages préchargées en parallèle.
+     */
+    @Bean(name = "ttsPrefetchExecutor")
+    public Executor ttsPrefetchExecutor(
+            @Value("${tts.prefetch.concurrency:4}") int concurrency,
+            @Value("${tts.prefetch.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("TTSPrefetch-");
+        // Propage le contexte d'observation (trace) aux tâches asynchrones
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool dédié aux uploads R2 du cache TTS, pour que le premier appelant reçoive
+     * l'audio dès la réponse de Google sans attendre l'écriture dans R2.
+     */
+    @Bean(name = "ttsCacheWriteExecutor")
+    public Executor ttsCacheWriteExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("TTSCacheWrite-");
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,59 @@
+package com.backcover.config.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Limiteurs de concurrence des ressources partagées.
+ * "gemini" est toujours actif (quota de l'API) ; "database" est activé par défaut avec
+ * les threads virtuels (concurrency.database.enabled), où le nombre de requêtes
+ * simultanées n'est plus borné par le pool Tomcat.
+ */
+@Configuration
+public class ConcurrencyConfig {
+
+    @Bean(name = "geminiLimiter")
+    public ConcurrencyLimiter geminiLimiter(
+            @Value("${concurrency.gemini.max-concurrent:16}") int maxConcurrent,
+            @Value("${concurrency.gemini.acquire-timeout-ms:30000}") long acquireTimeoutMs,
+            MeterRegistry meterRegistry) {
+        return new ConcurrencyLimiter("gemini", maxConcurrent, Duration.ofMillis(acquireTimeoutMs), meterRegistry);
+    }
+
+    @Bean(name = "databaseLimiter")
+    @ConditionalOnProperty(name = "concurrency.database.enabled", havingValue = "true")
+    public ConcurrencyLimiter databaseLimiter(
+            @Value("${concurrency.database.max-concurrent:10}") int maxConcurrent,
+            @Value("${concurrency.database.acquire-timeout-ms:10000}") long acquireTimeoutMs,
+            MeterRegistry meterRegistry) {
+        return new ConcurrencyLimiter("database", maxConcurrent, Duration.ofMillis(acquireTimeoutMs), meterRegistry);
+    }
+
+    /**
+     * Enveloppe la DataSource ; le limiteur est résolu à la première connexion
+     * (un BeanPostProcessor ne doit pas forcer l'initialisation du MeterRegistry)
+     */
+    @Bean
+    @ConditionalOnProperty(name = "concurrency.database.enabled", havingValue = "true")
+    public static BeanPostProcessor limitedDataSourcePostProcessor(
+            @Qualifier("databaseLimiter") ObjectProvider<ConcurrencyLimiter> databaseLimiter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof LimitedDataSource)) {
+                    return new LimitedDataSource(dataSource, databaseLimiter::getObject);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,111 @@
+package com.backcover.config.concurrency;
+
+import com.backcover.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sémaphore nommé protégeant une ressource rare (pool de connexions, quota Gemini).
+ * Indispensable en mode threads virtuels, où le nombre de requêtes concurrentes n'est plus borné
+ * par le pool Tomcat : les appelants attendent leur tour (FIFO) au lieu de saturer la ressource,
+ * et échouent en 503 au-delà du délai d'attente.
+ *
+ * <pre>
+ * try (ConcurrencyLimiter.Permit permit = geminiLimiter.acquire()) {
+ *     ... appel protégé ...
+ * }
+ * </pre>
+ */
+public class ConcurrencyLimiter {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final Duration acquireTimeout;
+    private final Semaphore semaphore;
+    private final Timer waitTimer;
+    private final Counter rejections;
+
+    public ConcurrencyLimiter(String name, int maxConcurrent, Duration acquireTimeout, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeout = acquireTimeout;
+        this.semaphore = new Semaphore(maxConcurrent, true);
+
+        this.waitTimer = Timer.builder("concurrency.limiter.wait")
+                .description("Time spent waiting for a permit")
+                .tag("limiter", name)
+                .register(meterRegistry);
+        this.rejections = Counter.builder("concurrency.limiter.rejected")
+                .description("Callers that gave up waiting for a permit")
+                .tag("limiter", name)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.limiter.in_use", this, ConcurrencyLimiter::inUse)
+                .description("Permits currently held")
+                .tag("limiter", name)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.limiter.waiting", semaphore, Semaphore::getQueueLength)
+                .description("Callers waiting for a permit")
+                .tag("limiter", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Permis à libérer par close() (try-with-resources) ; une seule libération effective
+     */
+    public final class Permit implements AutoCloseable {
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Permit() {
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                semaphore.release();
+            }
+        }
+    }
+
+    /**
+     * Attend un permis, au plus acquireTimeout
+     *
+     * @throws ServiceUnavailableException si aucun permis ne se libère à temps
+     */
+    public Permit acquire() {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for " + name + " permit", e);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            rejections.increment();
+            throw new ServiceUnavailableException(
+                    "No " + name + " permit available after " + acquireTimeout.toMillis() + " ms");
+        }
+        return new Permit();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int inUse() {
+        return maxConcurrent - semaphore.availablePermits();
+    }
+}
@@ -0,0 +1,68 @@
+package com.backcover.config.concurrency;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * DataSource dont chaque connexion empruntée tient un permis du limiteur "database",
+ * rendu à la fermeture de la connexion. Les threads virtuels attendent ainsi dans une file
+ * équitable et mesurée plutôt que de s'entasser sur le timeout de Hikari.
+ */
+public class LimitedDataSource extends DelegatingDataSource {
+
+    private final Supplier<ConcurrencyLimiter> limiter;
+
+    public LimitedDataSource(DataSource targetDataSource, Supplier<ConcurrencyLimiter> limiter) {
+        super(targetDataSource);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        ConcurrencyLimiter.Permit permit = limiter.get().acquire();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection(), permit);
+        } catch (SQLException | RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        ConcurrencyLimiter.Permit permit = limiter.get().acquire();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection(username, password), permit);
+        } catch (SQLException | RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+    }
+
+    private static Connection releasingOnClose(Connection connection, ConcurrencyLimiter.Permit permit) {
+        return (Connection) Proxy.newProxyInstance(
+                LimitedDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> invoke(connection, permit, method, args));
+    }
+
+    private static Object invoke(Connection connection, ConcurrencyLimiter.Permit permit,
+                                 Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        } finally {
+            if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                permit.close();
+            }
+        }
+    }
+}
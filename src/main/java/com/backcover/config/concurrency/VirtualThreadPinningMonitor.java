@@ -0,0 +1,115 @@
+package com.backcover.config.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Diagnostic de l'épinglage des threads virtuels (bloc synchronized ou appel natif pendant une I/O
+ * bloquante, typiquement dans une dépendance : driver JDBC, SDK AWS/Google...).
+ * S'abonne à l'événement JFR jdk.VirtualThreadPinned et, pour chaque site d'épinglage,
+ * compte les occurrences (jvm.threads.virtual.pinned) et logue la pile une fois par intervalle.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Long> lastLoggedAt = new ConcurrentHashMap<>();
+    private RecordingStream recordingStream;
+
+    @Value("${virtual-threads.pinning.enabled:true}")
+    private boolean enabled;
+
+    @Value("${virtual-threads.pinning.threshold-ms:20}")
+    private long thresholdMs;
+
+    @Value("${virtual-threads.pinning.log-interval-seconds:300}")
+    private long logIntervalSeconds;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("[VIRTUAL-THREADS] Diagnostic d'épinglage désactivé");
+            return;
+        }
+        try {
+            recordingStream = new RecordingStream();
+            recordingStream.enable(PINNED_EVENT)
+                    .withThreshold(Duration.ofMillis(thresholdMs))
+                    .withStackTrace();
+            recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+            recordingStream.startAsync();
+            log.info("[VIRTUAL-THREADS] Diagnostic d'épinglage actif (seuil {} ms)", thresholdMs);
+        } catch (Exception e) {
+            log.warn("[VIRTUAL-THREADS] Impossible de démarrer le flux JFR d'épinglage: {}", e.getMessage());
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+        String site = pinningSite(frames);
+
+        Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual thread pinning events above threshold, by pinning site")
+                .tag("site", site)
+                .register(meterRegistry)
+                .increment();
+
+        long now = System.currentTimeMillis();
+        Long last = lastLoggedAt.get(site);
+        if (last == null || now - last > logIntervalSeconds * 1000) {
+            lastLoggedAt.put(site, now);
+            String stack = frames.stream()
+                    .limit(LOGGED_FRAMES)
+                    .map(frame -> "    at " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                            + "(line " + frame.getLineNumber() + ")")
+                    .collect(Collectors.joining("\n"));
+            log.warn("[VIRTUAL-THREADS] Thread virtuel épinglé {} ms sur {}\n{}",
+                    event.getDuration().toMillis(), site, stack);
+        }
+    }
+
+    /**
+     * Première frame hors JDK : le code (souvent une dépendance) qui tient le moniteur
+     */
+    private String pinningSite(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "#" + frame.getMethod().getName();
+            }
+        }
+        return frames.isEmpty() ? "unknown" : frames.get(0).getMethod().getType().getName();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.backcover.config.tracing;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exporteur en mémoire : conserve les derniers spans terminés, de façon synchrone (pas de délai
+ * de batch), pour que les tests et le diagnostic local puissent lire la décomposition d'une requête
+ * (JWT, quota, requêtes SQL, R2, Gemini) sans collecteur externe.
+ * Activé par tracing.in-process.enabled=true (voir {@link TracingConfig}).
+ */
+public class InProcessSpanRecorder implements SpanProcessor {
+
+    /**
+     * Durée d'un span et son décalage par rapport au début de la trace
+     */
+    public record SpanTiming(
+            String name,
+            String spanId,
+            String parentSpanId,
+            long startOffsetMs,
+            double durationMs,
+            String status) {}
+
+    private final int maxSpans;
+    private final Deque<SpanData> spans = new ArrayDeque<>();
+
+    public InProcessSpanRecorder(int maxSpans) {
+        this.maxSpans = maxSpans;
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        SpanData data = span.toSpanData();
+        synchronized (spans) {
+            if (spans.size() >= maxSpans) {
+                spans.removeFirst();
+            }
+            spans.addLast(data);
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    /**
+     * Tous les spans terminés conservés, du plus ancien au plus récent
+     */
+    public List<SpanData> getFinishedSpans() {
+        synchronized (spans) {
+            return new ArrayList<>(spans);
+        }
+    }
+
+    /**
+     * Spans d'une trace
+     */
+    public List<SpanData> getSpans(String traceId) {
+        synchronized (spans) {
+            return spans.stream()
+                    .filter(span -> span.getTraceId().equals(traceId))
+                    .toList();
+        }
+    }
+
+    /**
+     * Décomposition de la latence d'une trace, par ordre de démarrage des spans
+     */
+    public List<SpanTiming> breakdown(String traceId) {
+        List<SpanData> traceSpans = new ArrayList<>(getSpans(traceId));
+        if (traceSpans.isEmpty()) {
+            return List.of();
+        }
+        traceSpans.sort(Comparator.comparingLong(SpanData::getStartEpochNanos));
+        long traceStart = traceSpans.get(0).getStartEpochNanos();
+
+        return traceSpans.stream()
+                .map(span -> new SpanTiming(
+                        span.getName(),
+                        span.getSpanId(),
+                        span.getParentSpanContext().isValid() ? span.getParentSpanId() : null,
+                        TimeUnit.NANOSECONDS.toMillis(span.getStartEpochNanos() - traceStart),
+                        (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000_000.0,
+                        span.getStatus().getStatusCode().name()))
+                .toList();
+    }
+
+    public void reset() {
+        synchronized (spans) {
+            spans.clear();
+        }
+    }
+}
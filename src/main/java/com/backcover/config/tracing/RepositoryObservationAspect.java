@@ -0,0 +1,61 @@
+package com.backcover.config.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Observe chaque appel de repository Spring Data (méthodes héritées de JpaRepository comprises),
+ * pour qu'une requête lente se décompose en spans "WordContextRepository#findBy..." dans la trace.
+ */
+@Aspect
+@Component
+public class RepositoryObservationAspect {
+
+    public static final String OBSERVATION_NAME = "db.repository";
+    private static final String REPOSITORY_PACKAGE = "com.backcover.repository.";
+
+    private final ObservationRegistry observationRegistry;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    public RepositoryObservationAspect(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object observe(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryName(joinPoint);
+        String method = joinPoint.getSignature().getName();
+
+        return Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                .contextualName(repository + "#" + method)
+                .lowCardinalityKeyValue("repository", repository)
+                .lowCardinalityKeyValue("method", method)
+                .observeChecked(() -> joinPoint.proceed());
+    }
+
+    /**
+     * Nom de l'interface applicative implémentée par le proxy Spring Data
+     * (la signature d'une méthode héritée ne donne que CrudRepository/JpaRepository)
+     */
+    private String repositoryName(ProceedingJoinPoint joinPoint) {
+        Object target = joinPoint.getTarget();
+        if (target == null) {
+            return joinPoint.getSignature().getDeclaringType().getSimpleName();
+        }
+        return repositoryNames.computeIfAbsent(target.getClass(), type -> {
+            for (Class<?> candidate : type.getInterfaces()) {
+                if (candidate.getName().startsWith(REPOSITORY_PACKAGE)) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return joinPoint.getSignature().getDeclaringType().getSimpleName();
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package com.backcover.config.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tracing des requêtes : Spring Boot instrumente déjà les contrôleurs (http.server.requests),
+ * la chaîne Spring Security (conversion du JWT comprise) et les clients HTTP construits par ses builders.
+ * L'application ajoute les spans des repositories ({@link RepositoryObservationAspect}), de R2, TTS et
+ * du quota (@Observed) et des appels Gemini (llm.call, via PromptUsageTracker).
+ */
+@Configuration
+public class TracingConfig {
+
+    /**
+     * Enregistreur en mémoire, ajouté aux SpanProcessor du SdkTracerProvider auto-configuré
+     */
+    @Bean
+    @ConditionalOnProperty(name = "tracing.in-process.enabled", havingValue = "true")
+    public InProcessSpanRecorder inProcessSpanRecorder(@Value("${tracing.in-process.max-spans:10000}") int maxSpans) {
+        return new InProcessSpanRecorder(maxSpans);
+    }
+}
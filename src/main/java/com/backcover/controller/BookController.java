@@ -4,6 +4,7 @@ package com.backcover.controller;
 import com.backcover.dto.book.BookSummaryDto;
 import com.backcover.dto.book.BookDetailDto;
 import com.backcover.dto.BookProgressDto;
+import com.backcover.dto.PipelineStageDto;
 import com.backcover.model.Book;
 import com.backcover.model.BookVisibilityStatus;
 import com.backcover.model.User;
@@ -15,13 +16,20 @@ import com.backcover.repository.BookRepository;
 import com.backcover.repository.BookMetadataTranslationRepository;
 import com.backcover.model.BookMetadataTranslation;
 import com.backcover.util.security.AuthenticationHelper; // <<< IMPORT DU HELPER
+import com.backcover.service.storage.AsyncR2StorageService;
+import com.backcover.service.storage.CloudStorageService.ConditionalRead;
 import com.backcover.service.storage.R2StorageService;
 import com.backcover.service.AsyncEnrichmentService;
+import com.backcover.service.BookPipelineStageService;
+import com.backcover.service.BookUploadPipeline;
+import com.backcover.service.BookWordIndexService;
+import com.backcover.service.tts.PageAudioService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -36,8 +44,11 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @RestController
@@ -53,8 +64,13 @@ public class BookController {
     private final ReadingActivityService readingActivityService;
     private final AuthenticationHelper authenticationHelper;
     private final R2StorageService r2StorageService;
+    private final AsyncR2StorageService asyncR2Storage;
     private final BookCoverService bookCoverService;
     private final AsyncEnrichmentService asyncEnrichmentService;
+    private final PageAudioService pageAudioService;
+    private final BookUploadPipeline uploadPipeline;
+    private final BookPipelineStageService stageService;
+    private final BookWordIndexService bookWordIndexService;
 
     @Autowired
     public BookController(UserService userService,
@@ -63,16 +79,26 @@ public class BookController {
                           ReadingActivityService readingActivityService,
                           AuthenticationHelper authenticationHelper,
                           @Qualifier("mainR2Storage") R2StorageService r2StorageService,
+                          @Qualifier("asyncR2Storage") AsyncR2StorageService asyncR2Storage,
                           BookCoverService bookCoverService,
-                          AsyncEnrichmentService asyncEnrichmentService) {
+                          AsyncEnrichmentService asyncEnrichmentService,
+                          PageAudioService pageAudioService,
+                          BookUploadPipeline uploadPipeline,
+                          BookPipelineStageService stageService,
+                          BookWordIndexService bookWordIndexService) {
         this.userService = userService;
         this.bookRepository = bookRepository;
         this.translationRepository = translationRepository;
         this.readingActivityService = readingActivityService;
         this.authenticationHelper = authenticationHelper;
         this.r2StorageService = r2StorageService;
+        this.asyncR2Storage = asyncR2Storage;
         this.bookCoverService = bookCoverService;
         this.asyncEnrichmentService = asyncEnrichmentService;
+        this.pageAudioService = pageAudioService;
+        this.uploadPipeline = uploadPipeline;
+        this.stageService = stageService;
+        this.bookWordIndexService = bookWordIndexService;
     }
 
     @GetMapping
@@ -248,6 +274,9 @@ public class BookController {
                 currentStep
         );
         progressDto.setProcessingDetails(book.getProcessingDetails());
+        progressDto.setStages(stageService.getStages(bookId).stream()
+                .map(PipelineStageDto::fromEntity)
+                .toList());
 
         log.debug("Progress requested for book {}: {}/{} pages ({}%)", 
                   bookId, currentPage, book.getTotalPages(), progressDto.getProgressPercentage());
@@ -271,7 +300,9 @@ public class BookController {
 // Dans com/backcover/controller/BookController.java
 
     @GetMapping("/{bookId}/structure")
-    public ResponseEntity<String> getBookStructure(@PathVariable UUID bookId, @AuthenticationPrincipal Jwt jwtPrincipal) {
+    public ResponseEntity<String> getBookStructure(@PathVariable UUID bookId,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                   @AuthenticationPrincipal Jwt jwtPrincipal) {
         // 1. Trouver le livre par son ID
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Book not found."));
@@ -301,12 +332,30 @@ public class BookController {
         String r2StructuredKey = "batch/structured/" + bookId + "-structured.json";
         log.debug("Fetching structured content from R2: {}", r2StructuredKey);
 
-        Optional<byte[]> r2Content = r2StorageService.downloadFile(r2StructuredKey);
+        // Lecture conditionnelle : si le client a déjà la version courante, R2 répond 304 sans contenu
+        Optional<ConditionalRead> r2Content = r2StorageService.downloadIfChanged(r2StructuredKey, toStorageETag(ifNoneMatch), null);
 
         if (r2Content.isPresent()) {
+            CacheControl cacheControl = book.getVisibilityStatus() == BookVisibilityStatus.PUBLIC
+                    ? CacheControl.noCache().cachePublic()
+                    : CacheControl.noCache().cachePrivate();
+            ConditionalRead read = r2Content.get();
+
+            if (read.notModified()) {
+                log.debug("Structured content unchanged for bookId: {}", bookId);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(read.metadata().eTag())
+                        .cacheControl(cacheControl)
+                        .build();
+            }
+
             log.info("Structured content found in R2 for bookId: {}", bookId);
-            String bookStructure = new String(r2Content.get(), java.nio.charset.StandardCharsets.UTF_8);
-            return ResponseEntity.ok(bookStructure);
+            String bookStructure = new String(read.content(), java.nio.charset.StandardCharsets.UTF_8);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(cacheControl);
+            if (read.metadata().eTag() != null) {
+                response.eTag(read.metadata().eTag());
+            }
+            return response.body(bookStructure);
         }
 
         log.info("Structure not found in R2 for bookId: {}", bookId);
@@ -331,29 +380,70 @@ public class BookController {
         log.info("Upload pour le livre '{}' par l'utilisateur local ID: {}, Supabase ID: {}", title, currentUser.getId(), currentUser.getSupabaseUserId());
 
         UUID bookId = UUID.randomUUID();
-        String coverPath = null;
-        byte[] pdfBytes = null;
-        
+        String r2Key = "books/raw/" + bookId + ".pdf";
+
+        // Copie locale du PDF : envoyée en streaming vers R2, puis réutilisée par le pipeline
+        // (couverture, métadonnées) sans re-téléchargement
+        Path localPdf;
         try {
-            pdfBytes = file.getBytes();
-            // Générer et sauvegarder la couverture dans R2
-            coverPath = bookCoverService.generateAndSaveCover(pdfBytes, bookId);
-            if (coverPath != null) {
-                log.info("Couverture générée et sauvegardée dans R2: {}", coverPath);
-            } else {
-                log.warn("La génération de la couverture a échoué pour le livre {}", bookId);
-            }
+            localPdf = Files.createTempFile("upload-" + bookId, ".pdf");
+            file.transferTo(localPdf);
         } catch (IOException e) {
             log.error("Erreur lors de la lecture du PDF pour le livre {}: {}", bookId, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erreur lors de la lecture du fichier PDF.");
         }
 
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("content-type", "application/pdf");
+        metadata.put("book-id", bookId.toString());
+
+        // Nettoyer le titre pour éviter les problèmes de signature S3
+        // Les caractères non-ASCII dans les metadata peuvent casser la signature AWS
+        if (title != null) {
+            // Remplacer les caractères problématiques par des alternatives sûres
+            String cleanTitle = title.replaceAll("[^\\x00-\\x7F]", "_") // Remplacer non-ASCII
+                                    .replaceAll("[\\p{Cntrl}]", "") // Enlever caractères de contrôle
+                                    .trim();
+            metadata.put("title", cleanTitle);
+            if (!cleanTitle.equals(title)) {
+                log.warn("Title contained special characters that were sanitized. Original: '{}', Clean: '{}'", 
+                        title, cleanTitle);
+            }
+        }
+
+        // Nettoyer l'ID utilisateur au cas où
+        String userId = currentUser.getSupabaseUserId();
+        if (userId != null) {
+            String cleanUserId = userId.replaceAll("[^\\x00-\\x7F]", "_").trim();
+            metadata.put("uploaded-by", cleanUserId);
+        }
+
+        // ============================================================
+        // 1. PDF durable dans R2 (upload multipart en streaming depuis le fichier local)
+        // Aucune ligne Book n'est créée tant que le PDF n'est pas stocké
+        // ============================================================
+        log.debug("Uploading to R2 with metadata: {}", metadata);
+        try {
+            asyncR2Storage.uploadFileAsync(r2Key, localPdf, metadata).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error("Failed to upload PDF to R2 for book {}: {}", bookId, cause.getMessage(), cause);
+            deleteQuietly(localPdf);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erreur lors du stockage du fichier PDF.");
+        }
+        log.info("PDF uploaded to R2: {} ({} KB)", r2Key, file.getSize() / 1024);
+
+        // ============================================================
+        // 2. Ligne Book + étapes du pipeline, dans une seule transaction
+        // ============================================================
         Book book = new Book();
         book.setId(bookId);
-        book.setTitle(title); // Nom du fichier, sera remplacé par l'extraction async
+        book.setTitle(title); // Nom du fichier, sera remplacé par l'extraction des métadonnées
 
-        book.setCoverImagePath(coverPath); // Chemin R2 de la couverture
+        // Chemin R2 de la couverture pleine taille (générée par le pipeline)
+        book.setCoverImagePath(bookCoverService.coverKey(bookId, BookCoverService.CoverSize.FULL, "jpg"));
         book.setStatus(BookStatus.PENDING);
+        book.setProcessingDetails("Upload terminé, traitement en cours...");
         book.setUploadedAt(Instant.now());
         book.setUser(currentUser);
 
@@ -365,99 +455,97 @@ public class BookController {
             book.setVisibilityStatus(BookVisibilityStatus.PRIVATE);
         }
 
-        // Pour l'instant, pas de source "officielle" de métadonnées
-        // book.setIsMetadataVerified(false); // Si vous aviez ajouté ce champ
-        // book.setMetadataSource("USER_INPUT"); // Si vous aviez ajouté ce champ
-
-        Book savedBook = bookRepository.save(book);
-
-        // Upload du PDF vers R2 pour le module batch (réutilise les bytes déjà lus)
-        String r2Key = "books/raw/" + bookId + ".pdf";
+        Book savedBook;
         try {
-            if (pdfBytes == null) {
-                pdfBytes = file.getBytes();
-            }
-            Map<String, String> metadata = new HashMap<>();
-            metadata.put("content-type", "application/pdf");
-            metadata.put("book-id", bookId.toString());
-            
-            // Nettoyer le titre pour éviter les problèmes de signature S3
-            // Les caractères non-ASCII dans les metadata peuvent casser la signature AWS
-            if (title != null) {
-                // Remplacer les caractères problématiques par des alternatives sûres
-                String cleanTitle = title.replaceAll("[^\\x00-\\x7F]", "_") // Remplacer non-ASCII
-                                        .replaceAll("[\\p{Cntrl}]", "") // Enlever caractères de contrôle
-                                        .trim();
-                metadata.put("title", cleanTitle);
-                if (!cleanTitle.equals(title)) {
-                    log.warn("Title contained special characters that were sanitized. Original: '{}', Clean: '{}'", 
-                            title, cleanTitle);
-                }
-            }
-            
-            // Nettoyer l'ID utilisateur au cas où
-            String userId = currentUser.getSupabaseUserId();
-            if (userId != null) {
-                String cleanUserId = userId.replaceAll("[^\\x00-\\x7F]", "_").trim();
-                metadata.put("uploaded-by", cleanUserId);
-            }
-            
-            log.debug("Uploading to R2 with metadata: {}", metadata);
-            r2StorageService.uploadFile(r2Key, pdfBytes, metadata);
-            log.info("PDF uploaded to R2: {} ({} KB)", r2Key, pdfBytes.length / 1024);
-        } catch (Exception e) {
-            // CRITIQUE: Si R2 échoue, le batch processor ne pourra pas traiter le livre
-            log.error("Failed to upload PDF to R2 for book {} - Batch processing will NOT occur: {}",
-                    bookId, e.getMessage(), e);
-
-            // Marquer le livre comme FAILED car le batch processor ne le verra pas
-            savedBook.setStatus(BookStatus.FAILED);
-            savedBook.setProcessingDetails("R2 upload failed: " + e.getMessage());
-            bookRepository.save(savedBook);
-
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Failed to upload PDF for processing. Please try again.");
+            savedBook = uploadPipeline.registerUpload(book);
+        } catch (RuntimeException e) {
+            log.error("Failed to register book {} after R2 upload: {}", bookId, e.getMessage(), e);
+            deleteQuietly(localPdf);
+            asyncR2Storage.deleteFilesAsync(List.of(r2Key));
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erreur lors de l'enregistrement du livre.");
         }
 
         // ============================================================
-        // ENRICHISSEMENT v2 ASYNCHRONE - Retour immédiat
+        // 3. Pipeline en arrière-plan : couverture -> métadonnées -> enrichissement
         // ============================================================
-        log.info("[BOOK-UPLOAD] Launching async enrichment v2 for book: {}", bookId);
-
-        // Le status reste PENDING, l'enrichissement se fait en background
-        savedBook.setProcessingDetails("Upload terminé, enrichissement en cours...");
-        bookRepository.save(savedBook);
-
-        // Lancer l'enrichissement en arrière-plan (retourne immédiatement)
-        asyncEnrichmentService.enrichBookAsync(bookId);
+        uploadPipeline.runAsync(bookId, localPdf);
 
-        log.info("[BOOK-UPLOAD] Upload complete (async enrichment started) - ID: {}, Status: {}, Title: {}",
+        log.info("[BOOK-UPLOAD] Upload accepted (pipeline in background) - ID: {}, Status: {}, Title: {}",
                 savedBook.getId(), savedBook.getStatus(), savedBook.getTitle());
 
         // Retourne 202 Accepted pour indiquer que le traitement est en cours
         return ResponseEntity.accepted().body(savedBook.getId().toString());
     }
 
+    /**
+     * Couverture d'un livre. {@code ?w=} choisit la plus petite taille couvrant la largeur demandée,
+     * et le WebP est servi si le client l'accepte. Les déclinaisons ne changent jamais : cache immuable.
+     */
     @GetMapping("/{bookId}/cover")
-    public ResponseEntity<byte[]> getBookCover(@PathVariable UUID bookId) {
-        log.debug("Attempting to get cover for book ID: {}", bookId);
+    public ResponseEntity<byte[]> getBookCover(
+            @PathVariable UUID bookId,
+            @RequestParam(name = "w", required = false) Integer width,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.debug("Attempting to get cover for book ID: {} (w={})", bookId, width);
 
         if (!bookRepository.existsById(bookId)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Book not found.");
         }
 
-        Optional<byte[]> coverBytes = bookCoverService.getCover(bookId);
+        boolean acceptsWebp = accept != null && accept.contains("image/webp");
+        Optional<BookCoverService.CoverRead> cover =
+                bookCoverService.getCoverIfChanged(bookId, width, acceptsWebp, toStorageETag(ifNoneMatch));
 
-        if (coverBytes.isPresent()) {
-            return ResponseEntity.ok()
-                    .contentType(MediaType.IMAGE_PNG)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"cover-" + bookId + ".png\"")
-                    .body(coverBytes.get());
+        if (cover.isPresent()) {
+            BookCoverService.CoverRead coverRead = cover.get();
+            ConditionalRead read = coverRead.read();
+
+            CacheControl cacheControl;
+            if (coverRead.derivative()) {
+                cacheControl = CacheControl.maxAge(java.time.Duration.ofDays(365)).cachePublic().immutable();
+            } else {
+                // Ancien livre sans déclinaisons : on les génère pour les prochains affichages
+                bookCoverService.backfillDerivativesAsync(bookId);
+                cacheControl = CacheControl.noCache().cachePublic();
+            }
+
+            if (read.notModified()) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(read.metadata().eTag())
+                        .cacheControl(cacheControl)
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .build();
+            }
+
+            String extension = coverRead.contentType().substring("image/".length()).replace("jpeg", "jpg");
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(coverRead.contentType()))
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"cover-" + bookId + "." + extension + "\"");
+            if (read.metadata().eTag() != null) {
+                response.eTag(read.metadata().eTag());
+            }
+            return response.body(read.content());
         }
 
         throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Cover not available.");
     }
 
+    /**
+     * Convertit un header If-None-Match client en ETag comparable à celui de R2.
+     * Les proxies qui compressent la réponse affaiblissent l'ETag (préfixe W/) : on le retire,
+     * et seul le premier ETag d'une liste est transmis.
+     */
+    private String toStorageETag(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || "*".equals(ifNoneMatch.trim())) {
+            return null;
+        }
+        String first = ifNoneMatch.split(",")[0].trim();
+        return first.startsWith("W/") ? first.substring(2) : first;
+    }
+
     /**
      * Delete a book and all associated data
      */
@@ -563,32 +651,37 @@ public class BookController {
         return ResponseEntity.accepted().body(response);
     }
 
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete temp file {}: {}", file, e.getMessage());
+        }
+    }
+
     /**
      * Delete all files associated with a book from R2
      */
     private void deleteBookFiles(Book book) {
         UUID bookId = book.getId();
 
-        // Delete cover image from R2
-        if (bookCoverService.coverExists(bookId)) {
-            if (bookCoverService.deleteCover(bookId)) {
-                log.info("Deleted cover image from R2 for book {}", bookId);
+        // Covers, raw PDF and structured JSON in one DeleteObjects call, without HEAD checks
+        List<String> keys = new ArrayList<>(bookCoverService.allCoverKeys(bookId));
+        keys.add("books/raw/" + bookId + ".pdf");
+        keys.add("batch/structured/" + bookId + "-structured.json");
+        keys.add(bookWordIndexService.indexKey(bookId));
+        bookWordIndexService.evict(bookId);
+
+        asyncR2Storage.deleteFilesAsync(keys).whenComplete((deleted, error) -> {
+            if (error != null) {
+                log.warn("Failed to delete R2 files for book {}: {}", bookId, error.getMessage());
             } else {
-                log.warn("Failed to delete cover image from R2 for book {}", bookId);
+                log.info("Deleted {} R2 files for book {}", deleted, bookId);
             }
-        }
+        });
 
-        // Delete raw PDF from R2
-        String rawPdfKey = "books/raw/" + bookId + ".pdf";
-        if (r2StorageService.deleteFile(rawPdfKey)) {
-            log.info("Deleted raw PDF from R2: {}", rawPdfKey);
-        }
-
-        // Delete structured JSON from R2
-        String structuredKey = "batch/structured/" + bookId + "-structured.json";
-        if (r2StorageService.deleteFile(structuredKey)) {
-            log.info("Deleted structured JSON from R2: {}", structuredKey);
-        }
+        // Delete page-level TTS audio from R2
+        pageAudioService.deletePageAudio(bookId);
     }
 
     /**
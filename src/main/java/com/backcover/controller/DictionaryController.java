@@ -0,0 +1,66 @@
+package com.backcover.controller;
+
+import com.backcover.config.LanguageConfig;
+import com.backcover.dto.DictionarySearchResultDto;
+import com.backcover.service.DictionarySearchService;
+import com.backcover.service.DictionarySearchService.SearchCriteria;
+import com.backcover.util.security.AuthenticationHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/dictionary")
+public class DictionaryController {
+
+    private static final Logger log = LoggerFactory.getLogger(DictionaryController.class);
+
+    private final DictionarySearchService dictionarySearchService;
+    private final AuthenticationHelper authenticationHelper;
+    private final LanguageConfig languageConfig;
+
+    public DictionaryController(DictionarySearchService dictionarySearchService,
+                                AuthenticationHelper authenticationHelper, LanguageConfig languageConfig) {
+        this.dictionarySearchService = dictionarySearchService;
+        this.authenticationHelper = authenticationHelper;
+        this.languageConfig = languageConfig;
+    }
+
+    /**
+     * Search the dictionary; all given filters must match
+     * @param root Root letters, separators and diacritics ignored (e.g. ك-ت-ب)
+     * @param pattern Morphological pattern (wazn), exact when vocalized
+     * @param lexicalField Arabic lexical field
+     * @param translation Text contained in a translation, any language
+     * @param prefix Prefix of the Arabic canonical form, diacritics ignored
+     * @param seenOnly Only words saved in the user's lists
+     * @param targetLanguageCode Language of the returned translation
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<DictionarySearchResultDto>> search(
+            @AuthenticationPrincipal Jwt jwtPrincipal,
+            @RequestParam(value = "root", required = false) String root,
+            @RequestParam(value = "pattern", required = false) String pattern,
+            @RequestParam(value = "lexicalField", required = false) String lexicalField,
+            @RequestParam(value = "translation", required = false) String translation,
+            @RequestParam(value = "prefix", required = false) String prefix,
+            @RequestParam(value = "seenOnly", defaultValue = "false") boolean seenOnly,
+            @RequestParam(value = "targetLanguageCode", defaultValue = "fr") String targetLanguageCode,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+
+        String supabaseUserId = authenticationHelper.getSupabaseUserId(jwtPrincipal);
+        String normalizedLanguage = languageConfig.validateAndNormalize(targetLanguageCode);
+        SearchCriteria criteria = new SearchCriteria(root, pattern, lexicalField, translation, prefix, seenOnly);
+        log.debug("Dictionary search for user {}: {}", supabaseUserId, criteria);
+
+        return ResponseEntity.ok(dictionarySearchService.search(supabaseUserId, criteria, normalizedLanguage, limit));
+    }
+}
@@ -4,6 +4,7 @@ import com.backcover.model.prompt.ModelConfiguration;
 import com.backcover.model.AIFlowConfiguration;
 import com.backcover.repository.ModelConfigurationRepository;
 import com.backcover.service.AIModelConfigurationService;
+import com.backcover.service.prompt.PromptUsageTracker;
 import com.backcover.util.security.AuthenticationHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,14 +29,17 @@ public class ModelConfigurationController {
     private final ModelConfigurationRepository modelConfigurationRepository;
     private final AuthenticationHelper authenticationHelper;
     private final AIModelConfigurationService aiModelConfigurationService;
+    private final PromptUsageTracker promptUsageTracker;
     
     public ModelConfigurationController(
             ModelConfigurationRepository modelConfigurationRepository,
             AuthenticationHelper authenticationHelper,
-            AIModelConfigurationService aiModelConfigurationService) {
+            AIModelConfigurationService aiModelConfigurationService,
+            PromptUsageTracker promptUsageTracker) {
         this.modelConfigurationRepository = modelConfigurationRepository;
         this.authenticationHelper = authenticationHelper;
         this.aiModelConfigurationService = aiModelConfigurationService;
+        this.promptUsageTracker = promptUsageTracker;
     }
     
     /**
@@ -151,7 +155,8 @@ public class ModelConfigurationController {
     }
     
     /**
-     * Get performance metrics for a specific model (stub)
+     * Get performance metrics for a specific model, aggregated from the LLM call metrics
+     * recorded since application startup (see /actuator/prometheus for time series)
      */
     @GetMapping("/{modelId}/performance")
     public ResponseEntity<Map<String, Object>> getModelPerformance(
@@ -163,16 +168,24 @@ public class ModelConfigurationController {
         log.info("User {} requested performance metrics for model: {} (last {} days)", 
                 supabaseUserId, modelId, days);
         
-        // Stub response for now
+        PromptUsageTracker.ModelPerformance stats = promptUsageTracker.getModelPerformance(modelId);
+
         Map<String, Object> performance = new HashMap<>();
         performance.put("modelId", modelId);
-        performance.put("averageResponseTime", 0);
-        performance.put("successRate", 100.0);
-        performance.put("totalRequests", 0);
-        performance.put("averageCost", 0.0);
-        performance.put("period", days + " days");
-        performance.put("message", "Performance metrics API will be implemented in Sprint 2");
+        performance.put("averageResponseTime", stats.averageResponseTimeMs());
+        performance.put("successRate", stats.successRate());
+        performance.put("totalRequests", stats.totalRequests());
+        performance.put("failedRequests", stats.failedRequests());
+        performance.put("promptTokens", stats.promptTokens());
+        performance.put("candidatesTokens", stats.candidatesTokens());
+        performance.put("retries", stats.retries());
+        performance.put("finishReasons", stats.finishReasons());
+        performance.put("errors", stats.errors());
+        performance.put("flows", stats.flows());
+        // Metrics are in-memory: the window is the current process uptime, not the requested days
+        performance.put("period", "since startup");
+        performance.put("requestedDays", days);
         
         return ResponseEntity.ok(performance);
     }
-}
\ No newline at end of file
+}
@@ -4,6 +4,7 @@ import com.backcover.dto.prompt.*;
 import com.backcover.model.User;
 import com.backcover.model.prompt.PromptTemplate;
 import com.backcover.repository.PromptTemplateRepository;
+import com.backcover.service.prompt.PromptTemplateCache;
 import com.backcover.util.security.AuthenticationHelper;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -29,12 +30,15 @@ public class PromptTemplateController {
     private static final Logger log = LoggerFactory.getLogger(PromptTemplateController.class);
     
     private final PromptTemplateRepository promptTemplateRepository;
+    private final PromptTemplateCache promptTemplateCache;
     private final AuthenticationHelper authenticationHelper;
     
     public PromptTemplateController(
             PromptTemplateRepository promptTemplateRepository,
+            PromptTemplateCache promptTemplateCache,
             AuthenticationHelper authenticationHelper) {
         this.promptTemplateRepository = promptTemplateRepository;
+        this.promptTemplateCache = promptTemplateCache;
         this.authenticationHelper = authenticationHelper;
     }
     
@@ -193,6 +197,7 @@ public class PromptTemplateController {
             template.setIsActive(true);
             
             PromptTemplate savedTemplate = promptTemplateRepository.save(template);
+            promptTemplateCache.invalidate(savedTemplate.getIdentifier());
             
             log.info("Prompt template created: {} by user: {}", 
                 savedTemplate.getId(), authenticationHelper.getEmail(jwt));
@@ -243,6 +248,7 @@ public class PromptTemplateController {
             // updatedBy column removed from database schema
             
             PromptTemplate savedTemplate = promptTemplateRepository.save(template);
+            promptTemplateCache.invalidate(savedTemplate.getIdentifier());
             
             log.info("Prompt template updated: {} by user: {}", 
                 savedTemplate.getId(), authenticationHelper.getEmail(jwt));
@@ -273,6 +279,7 @@ public class PromptTemplateController {
             }
             
             promptTemplateRepository.delete(template);
+            promptTemplateCache.invalidate(template.getIdentifier());
             
             log.info("Prompt template deleted: {} by user: {}", 
                 id, authenticationHelper.getEmail(jwt));
@@ -316,6 +323,7 @@ public class PromptTemplateController {
             template.setIsActive(true);
             // updatedBy column removed from database schema
             PromptTemplate savedTemplate = promptTemplateRepository.save(template);
+            promptTemplateCache.invalidate(savedTemplate.getIdentifier());
             
             log.info("Prompt template activated: {} (identifier: {}) by user: {}", 
                 savedTemplate.getId(), savedTemplate.getIdentifier(), 
@@ -0,0 +1,76 @@
+package com.backcover.controller;
+
+import com.backcover.dto.prompt.CostTrend;
+import com.backcover.dto.prompt.TokenUsageTrend;
+import com.backcover.dto.prompt.TopPromptDto;
+import com.backcover.service.prompt.PromptUsageStatsService;
+import com.backcover.service.prompt.PromptUsageStatsService.Granularity;
+import com.backcover.util.security.AuthenticationHelper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * LLM usage dashboards (tokens, cost, top prompts), served from hourly rollups.
+ * Admin access required.
+ */
+@RestController
+@RequestMapping("/api/prompt-usage")
+public class PromptUsageController {
+
+    private static final int MAX_DAYS = 366;
+
+    private final PromptUsageStatsService statsService;
+    private final AuthenticationHelper authenticationHelper;
+
+    public PromptUsageController(PromptUsageStatsService statsService, AuthenticationHelper authenticationHelper) {
+        this.statsService = statsService;
+        this.authenticationHelper = authenticationHelper;
+    }
+
+    @GetMapping("/token-trend")
+    public ResponseEntity<List<TokenUsageTrend>> getTokenUsageTrend(
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "DAY") Granularity granularity,
+            @RequestParam(required = false) String prompt,
+            @AuthenticationPrincipal Jwt jwt) {
+        authenticationHelper.requireAdmin(jwt);
+        Instant now = Instant.now();
+        return ResponseEntity.ok(statsService.getTokenUsageTrend(since(now, days), now, granularity, prompt));
+    }
+
+    @GetMapping("/cost-trend")
+    public ResponseEntity<List<CostTrend>> getCostTrend(
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "DAY") Granularity granularity,
+            @RequestParam(required = false) String prompt,
+            @AuthenticationPrincipal Jwt jwt) {
+        authenticationHelper.requireAdmin(jwt);
+        Instant now = Instant.now();
+        return ResponseEntity.ok(statsService.getCostTrend(since(now, days), now, granularity, prompt));
+    }
+
+    @GetMapping("/top-prompts")
+    public ResponseEntity<List<TopPromptDto>> getTopPrompts(
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "10") int limit,
+            @AuthenticationPrincipal Jwt jwt) {
+        authenticationHelper.requireAdmin(jwt);
+        Instant now = Instant.now();
+        return ResponseEntity.ok(statsService.getTopPrompts(since(now, days), now, Math.max(1, Math.min(limit, 100))));
+    }
+
+    private Instant since(Instant now, int days) {
+        if (days < 1 || days > MAX_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "days must be between 1 and " + MAX_DAYS);
+        }
+        return now.minus(days, ChronoUnit.DAYS);
+    }
+}
@@ -1,16 +1,27 @@
 package com.backcover.controller;
 
+import com.backcover.dto.PageAudioIndex;
+import com.backcover.dto.TTSPrefetchRequest;
+import com.backcover.dto.TTSPrefetchResponse;
 import com.backcover.dto.TTSRequest;
 import com.backcover.dto.TTSResponse;
+import com.backcover.model.Book;
+import com.backcover.model.BookVisibilityStatus;
 import com.backcover.model.User;
+import com.backcover.repository.BookRepository;
 import com.backcover.service.QuotaService;
 import com.backcover.service.UserService;
+import com.backcover.service.tts.PageAudioService;
+import com.backcover.service.tts.TTSPrefetchService;
 import com.backcover.service.tts.TTSService;
 import com.backcover.util.security.AuthenticationHelper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -20,7 +31,10 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
 
 @Slf4j
 @RestController
@@ -29,6 +43,9 @@ import java.util.Base64;
 public class TTSController {
 
     private final TTSService ttsService;
+    private final TTSPrefetchService ttsPrefetchService;
+    private final PageAudioService pageAudioService;
+    private final BookRepository bookRepository;
     private final AuthenticationHelper authHelper;
     private final UserService userService;
     private final QuotaService quotaService;
@@ -110,6 +127,152 @@ public class TTSController {
         }
     }
     
+    /**
+     * Précharge le cache TTS pour tous les mots d'une page (retour immédiat, synthèse en arrière-plan)
+     */
+    @PostMapping("/prefetch")
+    public ResponseEntity<TTSPrefetchResponse> prefetchPage(
+            @Valid @RequestBody TTSPrefetchRequest request,
+            @AuthenticationPrincipal Jwt jwtPrincipal) {
+
+        String email = jwtPrincipal.getClaimAsString("email");
+        if (email == null || email.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Email not found in token.");
+        }
+
+        User currentUser = userService.findOrCreateUserByEmail(email);
+
+        // Same rule as single-word TTS: no synthesis once the daily quota is exhausted.
+        // Each word actually synthesized then consumes one consultation (see TTSPrefetchService).
+        if (!quotaService.canConsultWord(currentUser)) {
+            log.info("User {} TTS prefetch blocked - daily quota exceeded", email);
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                "Limite quotidienne atteinte. Passez à Premium pour un accès illimité.");
+        }
+
+        log.info("TTS prefetch request for {} words by user: {}", request.getWords().size(), email);
+
+        TTSPrefetchResponse response = ttsPrefetchService.prefetch(request.getWords(), currentUser);
+        return ResponseEntity.accepted().body(response);
+    }
+
+    /**
+     * Index audio d'une page : position (temps et octets) de chaque mot dans l'audio de la page.
+     * La page est synthétisée en une seule fois au premier appel.
+     */
+    @GetMapping("/pages/{bookId}/{pageNumber}")
+    public ResponseEntity<PageAudioIndex> getPageAudioIndex(
+            @PathVariable UUID bookId,
+            @PathVariable int pageNumber,
+            @AuthenticationPrincipal Jwt jwtPrincipal) {
+
+        requireReadableBook(bookId, requireUserWithinQuota(jwtPrincipal));
+
+        try {
+            PageAudioIndex index = pageAudioService.getOrCreatePageAudio(bookId, pageNumber)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Page not available."));
+            return ResponseEntity.ok(index);
+        } catch (IOException e) {
+            log.error("Error synthesizing page audio for book {} page {}", bookId, pageNumber, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Audio complet de la page, streamé depuis R2. Supporte les requêtes Range, pour lire un mot
+     * à partir de son index : seule la plage demandée est lue dans R2.
+     */
+    @GetMapping("/pages/{bookId}/{pageNumber}/audio")
+    public ResponseEntity<Resource> getPageAudio(
+            @PathVariable UUID bookId,
+            @PathVariable int pageNumber,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+            @AuthenticationPrincipal Jwt jwtPrincipal) {
+
+        requireReadableBook(bookId, requireUserWithinQuota(jwtPrincipal));
+
+        try {
+            if (pageAudioService.getOrCreatePageAudio(bookId, pageNumber).isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Page not available.");
+            }
+        } catch (IOException e) {
+            log.error("Error synthesizing page audio for book {} page {}", bookId, pageNumber, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+
+        long length = pageAudioService.getPageAudioLength(bookId, pageNumber)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Page audio not available."));
+
+        if (rangeHeader == null) {
+            InputStream audio = pageAudioService.openPageAudio(bookId, pageNumber)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Page audio not available."));
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("audio/mpeg"))
+                    .contentLength(length)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .header(HttpHeaders.CACHE_CONTROL, "public, max-age=3600")
+                    .body(new InputStreamResource(audio));
+        }
+
+        // Plusieurs plages : servies en une seule, de la première à la dernière (pas de multipart/byteranges)
+        long start;
+        long end;
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            if (ranges.isEmpty()) {
+                throw new IllegalArgumentException("Empty range");
+            }
+            start = length;
+            end = -1;
+            for (HttpRange range : ranges) {
+                start = Math.min(start, range.getRangeStart(length));
+                end = Math.max(end, range.getRangeEnd(length));
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                    .build();
+        }
+
+        InputStream audio = pageAudioService.openPageAudio(bookId, pageNumber, start, end)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Page audio not available."));
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .contentType(MediaType.parseMediaType("audio/mpeg"))
+                .contentLength(end - start + 1)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length)
+                .header(HttpHeaders.CACHE_CONTROL, "public, max-age=3600")
+                .body(new InputStreamResource(audio));
+    }
+
+    /**
+     * Audio d'un seul mot, découpé dans l'audio de la page
+     */
+    @GetMapping("/pages/{bookId}/{pageNumber}/words/{wordId}")
+    public ResponseEntity<byte[]> getPageWordAudio(
+            @PathVariable UUID bookId,
+            @PathVariable int pageNumber,
+            @PathVariable String wordId,
+            @AuthenticationPrincipal Jwt jwtPrincipal) {
+
+        requireReadableBook(bookId, requireUserWithinQuota(jwtPrincipal));
+
+        try {
+            byte[] audioData = pageAudioService.getWordAudio(bookId, pageNumber, wordId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Word audio not available."));
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.parseMediaType("audio/mpeg"));
+            headers.setContentLength(audioData.length);
+            headers.set("Cache-Control", "public, max-age=3600");
+
+            return new ResponseEntity<>(audioData, headers, HttpStatus.OK);
+        } catch (IOException e) {
+            log.error("Error synthesizing page audio for book {} page {}", bookId, pageNumber, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @DeleteMapping("/cache")
     public ResponseEntity<Void> clearCache(@AuthenticationPrincipal Jwt jwtPrincipal) {
         String userId = authHelper.getSupabaseUserId(jwtPrincipal);
@@ -118,4 +281,30 @@ public class TTSController {
         ttsService.clearCache();
         return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+
+    private User requireUserWithinQuota(Jwt jwtPrincipal) {
+        String email = jwtPrincipal.getClaimAsString("email");
+        if (email == null || email.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Email not found in token.");
+        }
+
+        User currentUser = userService.findOrCreateUserByEmail(email);
+
+        if (!quotaService.canConsultWord(currentUser)) {
+            log.info("User {} TTS blocked - daily quota exceeded", email);
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                "Limite quotidienne atteinte. Passez à Premium pour un accès illimité.");
+        }
+        return currentUser;
+    }
+
+    private void requireReadableBook(UUID bookId, User currentUser) {
+        Book book = bookRepository.findById(bookId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Book not found."));
+
+        boolean isOwner = book.getUser() != null && book.getUser().getId().equals(currentUser.getId());
+        if (book.getVisibilityStatus() == BookVisibilityStatus.PRIVATE && !isOwner) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied to this book.");
+        }
+    }
+}
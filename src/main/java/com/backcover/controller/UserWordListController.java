@@ -2,21 +2,31 @@ package com.backcover.controller;
 
 import com.backcover.config.LanguageConfig;
 import com.backcover.dto.wordlist.AddWordToListRequestDto;
+import com.backcover.dto.wordlist.BulkAddWordsToListRequestDto;
+import com.backcover.dto.wordlist.BulkAddWordsToListResultDto;
+import com.backcover.dto.wordlist.BulkRemoveWordsRequestDto;
+import com.backcover.dto.wordlist.UserWordListChangesDto;
 import com.backcover.dto.wordlist.UserWordListItemDto;
 import com.backcover.dto.wordlist.UserWordListItemWithDetailsDto;
+import com.backcover.dto.wordlist.UserWordListPageDto;
 import com.backcover.dto.wordlist.UserWordListSummaryDto;
+import com.backcover.dto.wordlist.VocabularyStatsDto;
+import com.backcover.service.UserWordListBulkService;
 import com.backcover.service.UserWordListService;
+import com.backcover.service.VocabularyStatsService;
 import com.backcover.util.security.AuthenticationHelper;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.List;
+import java.util.Map;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @RestController
@@ -26,11 +36,17 @@ public class UserWordListController {
     private static final Logger log = LoggerFactory.getLogger(UserWordListController.class);
     
     private final UserWordListService userWordListService;
+    private final UserWordListBulkService userWordListBulkService;
+    private final VocabularyStatsService vocabularyStatsService;
     private final AuthenticationHelper authenticationHelper;
     private final LanguageConfig languageConfig;
     
-    public UserWordListController(UserWordListService userWordListService, AuthenticationHelper authenticationHelper, LanguageConfig languageConfig) {
+    public UserWordListController(UserWordListService userWordListService, UserWordListBulkService userWordListBulkService,
+                                  VocabularyStatsService vocabularyStatsService,
+                                  AuthenticationHelper authenticationHelper, LanguageConfig languageConfig) {
         this.userWordListService = userWordListService;
+        this.userWordListBulkService = userWordListBulkService;
+        this.vocabularyStatsService = vocabularyStatsService;
         this.authenticationHelper = authenticationHelper;
         this.languageConfig = languageConfig;
     }
@@ -90,6 +106,55 @@ public class UserWordListController {
         return ResponseEntity.status(HttpStatus.CREATED).body(addedItem);
     }
     
+    /**
+     * Add many words of a book to its book-specific list in one request
+     * (words already in the list are ignored, words that cannot be added are returned in skipped)
+     */
+    @PostMapping("/items/bulk")
+    public ResponseEntity<BulkAddWordsToListResultDto> addWordsToList(
+            @AuthenticationPrincipal Jwt jwtPrincipal,
+            @Valid @RequestBody BulkAddWordsToListRequestDto bulkRequest) {
+        
+        String supabaseUserId = authenticationHelper.getSupabaseUserId(jwtPrincipal);
+        log.info("Request to bulk add {} words to book-specific list for user: {}, book: {}", 
+                bulkRequest.getWords().size(), supabaseUserId, bulkRequest.getBookId());
+        
+        BulkAddWordsToListResultDto result = userWordListBulkService.addWords(supabaseUserId, bulkRequest, true);
+        return ResponseEntity.ok(result);
+    }
+    
+    /**
+     * Add many words of a book to the user's default/language list in one request
+     */
+    @PostMapping("/default/items/bulk")
+    public ResponseEntity<BulkAddWordsToListResultDto> addWordsToDefaultList(
+            @AuthenticationPrincipal Jwt jwtPrincipal,
+            @Valid @RequestBody BulkAddWordsToListRequestDto bulkRequest) {
+        
+        String supabaseUserId = authenticationHelper.getSupabaseUserId(jwtPrincipal);
+        log.info("Request to bulk add {} words to default/language list for user: {}", 
+                bulkRequest.getWords().size(), supabaseUserId);
+        
+        BulkAddWordsToListResultDto result = userWordListBulkService.addWords(supabaseUserId, bulkRequest, false);
+        return ResponseEntity.ok(result);
+    }
+    
+    /**
+     * Remove many items from the user's lists in one request
+     * @return number of removed items (unknown ids or items of other users are ignored)
+     */
+    @PostMapping("/items/bulk-delete")
+    public ResponseEntity<Map<String, Integer>> removeWordsFromLists(
+            @AuthenticationPrincipal Jwt jwtPrincipal,
+            @Valid @RequestBody BulkRemoveWordsRequestDto removeRequest) {
+        
+        String supabaseUserId = authenticationHelper.getSupabaseUserId(jwtPrincipal);
+        log.info("Request to bulk remove {} word items for user: {}", removeRequest.getItemIds().size(), supabaseUserId);
+        
+        int removedCount = userWordListBulkService.removeWords(supabaseUserId, removeRequest.getItemIds());
+        return ResponseEntity.ok(Map.of("removed", removedCount));
+    }
+    
     /**
      * Get words from the user's default list
      * @deprecated This endpoint returns empty results since we use book-specific lists.
@@ -154,6 +219,84 @@ public class UserWordListController {
         return ResponseEntity.ok(wordLists);
     }
     
+    /**
+     * Get one page of a word list with details (mobile clients).
+     * Follow nextCursor until it is null, then keep serverTime of the first page for /changes.
+     * @param cursor nextCursor of the previous page (omit for the first page)
+     * @param limit page size
+     */
+    @GetMapping("/lists/{listId}/items")
+    public ResponseEntity<UserWordListPageDto> getWordListPage(
+            @PathVariable UUID listId,
+            @AuthenticationPrincipal Jwt jwtPrincipal,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        
+        String supabaseUserId = authenticationHelper.getSupabaseUserId(jwtPrincipal);
+        log.debug("Request to get page of word list {} for user: {}", listId, supabaseUserId);
+        
+        return ResponseEntity.ok(userWordListService.getWordListPage(supabaseUserId, listId, cursor, limit));
+    }
+    
+    /**
+     * Get items added to and removed from a word list since a previous sync (mobile clients)
+     * @param since serverTime returned by the previous sync (ISO-8601 instant)
+     */
+    @GetMapping("/lists/{listId}/changes")
+    public ResponseEntity<UserWordListChangesDto> getWordListChanges(
+            @PathVariable UUID listId,
+            @AuthenticationPrincipal Jwt jwtPrincipal,
+            @RequestParam("since") Instant since) {
+        
+        String supabaseUserId = authenticationHelper.getSupabaseUserId(jwtPrincipal);
+        log.debug("Request to get changes of word list {} since {} for user: {}", listId, since, supabaseUserId);
+        
+        return ResponseEntity.ok(userWordListService.getWordListChanges(supabaseUserId, listId, since));
+    }
+    
+    /**
+     * Get vocabulary totals of the user (words saved, distinct dictionary words, last addition), one entry per list language
+     * @param targetLanguageCode Only this language (optional)
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<VocabularyStatsDto>> getVocabularyStats(
+            @AuthenticationPrincipal Jwt jwtPrincipal,
+            @RequestParam(value = "targetLanguageCode", required = false) String targetLanguageCode) {
+        
+        String supabaseUserId = authenticationHelper.getSupabaseUserId(jwtPrincipal);
+        String normalizedLanguage = targetLanguageCode != null && !targetLanguageCode.isBlank()
+                ? languageConfig.validateAndNormalize(targetLanguageCode)
+                : null;
+        return ResponseEntity.ok(vocabularyStatsService.getTotals(supabaseUserId, normalizedLanguage));
+    }
+    
+    /**
+     * Get vocabulary statistics of the user per book in a list language
+     */
+    @GetMapping("/stats/books")
+    public ResponseEntity<List<VocabularyStatsDto>> getVocabularyStatsPerBook(
+            @AuthenticationPrincipal Jwt jwtPrincipal,
+            @RequestParam(value = "targetLanguageCode", defaultValue = "fr") String targetLanguageCode) {
+        
+        String supabaseUserId = authenticationHelper.getSupabaseUserId(jwtPrincipal);
+        String normalizedLanguage = languageConfig.validateAndNormalize(targetLanguageCode);
+        return ResponseEntity.ok(vocabularyStatsService.getBooksStats(supabaseUserId, normalizedLanguage));
+    }
+    
+    /**
+     * Get vocabulary statistics of the user for one book in a list language
+     */
+    @GetMapping("/book/{bookId}/stats")
+    public ResponseEntity<VocabularyStatsDto> getBookVocabularyStats(
+            @PathVariable UUID bookId,
+            @AuthenticationPrincipal Jwt jwtPrincipal,
+            @RequestParam(value = "targetLanguageCode", defaultValue = "fr") String targetLanguageCode) {
+        
+        String supabaseUserId = authenticationHelper.getSupabaseUserId(jwtPrincipal);
+        String normalizedLanguage = languageConfig.validateAndNormalize(targetLanguageCode);
+        return ResponseEntity.ok(vocabularyStatsService.getBookStats(supabaseUserId, bookId, normalizedLanguage));
+    }
+    
     /**
      * Get words from a specific book for the user with word analysis details (from book-specific list in target language)
      * @param targetLanguageCode Code de la langue pour les traductions (ex: 'fr', 'en', 'ar')
@@ -4,7 +4,12 @@ package com.backcover.controller;
 import com.backcover.config.LanguageConfig;
 import com.backcover.dto.WordAnalysisDto;
 import com.backcover.dto.WordAnalysisRequest;
+import com.backcover.model.Book;
+import com.backcover.model.BookVisibilityStatus;
 import com.backcover.model.User;
+import com.backcover.repository.BookRepository;
+import com.backcover.service.BookWordIndexService;
+import com.backcover.service.BookWordIndexService.IndexedWord;
 import com.backcover.service.QuotaService;
 import com.backcover.service.UserService;
 import com.backcover.service.ia.DetailedWordAnalyzerService;
@@ -24,6 +29,8 @@ import org.springframework.web.server.ResponseStatusException;
 import com.backcover.exception.WordAnalysisException;
 
 import java.io.IOException;
+import java.util.Optional;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/words")
@@ -35,16 +42,22 @@ public class WordAnalysisController {
     private final UserService userService;
     private final LanguageConfig languageConfig;
     private final QuotaService quotaService;
+    private final BookWordIndexService bookWordIndexService;
+    private final BookRepository bookRepository;
 
     public WordAnalysisController(
             DetailedWordAnalyzerService detailedWordAnalyzerService, // Injection automatique via @Primary
             UserService userService,
             LanguageConfig languageConfig,
-            QuotaService quotaService) {
+            QuotaService quotaService,
+            BookWordIndexService bookWordIndexService,
+            BookRepository bookRepository) {
         this.detailedWordAnalyzerService = detailedWordAnalyzerService;
         this.userService = userService;
         this.languageConfig = languageConfig;
         this.quotaService = quotaService;
+        this.bookWordIndexService = bookWordIndexService;
+        this.bookRepository = bookRepository;
     }
 
     @PostMapping("/analyze")
@@ -83,21 +96,48 @@ public class WordAnalysisController {
                 "Langue non supportée. Langues disponibles: " + languageConfig.getSupportedLanguageCodes());
         }
 
+        // Requête réduite (bookId, wordInstanceId, langue) : page, mot et paragraphe viennent de l'index du livre
+        String wordText = request.getWordText();
+        String paragraphText = request.getParagraphText();
+        String paragraphContextHash = null;
+        Integer pageNumber = request.getPageNumber();
+        if (wordText == null || paragraphText == null || pageNumber == null) {
+            // Le texte vient alors du livre lui-même : mêmes droits de lecture que pour le livre
+            requireReadableBook(request.getBookId(), currentUser);
+            Optional<IndexedWord> indexed = bookWordIndexService.resolve(request.getBookId(), request.getWordInstanceId());
+            if (indexed.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Mot inconnu pour ce livre : fournir wordText, paragraphText et pageNumber.");
+            }
+            IndexedWord word = indexed.get();
+            if (wordText == null) {
+                wordText = word.wordText();
+            }
+            if (paragraphText == null) {
+                paragraphText = word.paragraphText();
+                paragraphContextHash = word.contextHash();
+            }
+            if (pageNumber == null) {
+                pageNumber = word.pageNumber();
+            }
+        }
+
         // Nettoyer le wordText en supprimant les signes de ponctuation attachés
-        String cleanedWordText = cleanWordText(request.getWordText());
+        String cleanedWordText = cleanWordText(wordText);
         
         // Log pour déboguer le problème de découpage du mot
         log.info("Analyse de mot demandée - wordText original: '{}', wordText nettoyé: '{}', wordInstanceId: '{}', paragraphText: '{}'", 
-                request.getWordText(), cleanedWordText, request.getWordInstanceId(), 
-                request.getParagraphText() != null ? request.getParagraphText().substring(0, Math.min(50, request.getParagraphText().length())) + "..." : "null");
+                wordText, cleanedWordText, request.getWordInstanceId(),
+                paragraphText != null ? paragraphText.substring(0, Math.min(50, paragraphText.length())) + "..." : "null");
         
         try {
             WordAnalysisDto analysisResult = detailedWordAnalyzerService.analyzeWord(
                     cleanedWordText,
-                    request.getParagraphText(),
+                    paragraphText,
+                    paragraphContextHash,
                     request.getBookTitle(),
                     request.getBookId(),
-                    request.getPageNumber(),
+                    pageNumber,
                     request.getWordInstanceId(),
                     targetLanguageCode
             );
@@ -111,14 +151,27 @@ public class WordAnalysisController {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         } catch (WordAnalysisException e) {
             log.error("Word analysis failed for '{}': {} (type: {})",
-                request.getWordText(), e.getMessage(), e.getErrorType());
+                wordText, e.getMessage(), e.getErrorType());
             throw e; // GlobalExceptionHandler will handle this
         } catch (IOException e) {
-            log.error("IO error during word analysis for '{}': {}", request.getWordText(), e.getMessage());
+            log.error("IO error during word analysis for '{}': {}", wordText, e.getMessage());
             throw new WordAnalysisException(WordAnalysisException.ErrorType.INTERNAL_ERROR, e);
         }
     }
     
+    private void requireReadableBook(UUID bookId, User currentUser) {
+        if (bookId == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "bookId is required.");
+        }
+        Book book = bookRepository.findById(bookId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Book not found."));
+
+        boolean isOwner = book.getUser() != null && book.getUser().getId().equals(currentUser.getId());
+        if (book.getVisibilityStatus() == BookVisibilityStatus.PRIVATE && !isOwner) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied to this book.");
+        }
+    }
+
     /**
      * Nettoie le texte du mot en supprimant les signes de ponctuation attachés
      * (virgules, points, guillemets, virgule arabe ، etc.)
@@ -0,0 +1,70 @@
+package com.backcover.controller;
+
+import com.backcover.config.LanguageConfig;
+import com.backcover.dto.wordlist.ReviewAnswerRequestDto;
+import com.backcover.dto.wordlist.ReviewCardDto;
+import com.backcover.dto.wordlist.ReviewScheduleDto;
+import com.backcover.service.WordReviewService;
+import com.backcover.util.security.AuthenticationHelper;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/user/wordlist/review")
+public class WordReviewController {
+    
+    private static final Logger log = LoggerFactory.getLogger(WordReviewController.class);
+    
+    private final WordReviewService wordReviewService;
+    private final AuthenticationHelper authenticationHelper;
+    private final LanguageConfig languageConfig;
+    
+    public WordReviewController(WordReviewService wordReviewService, AuthenticationHelper authenticationHelper, LanguageConfig languageConfig) {
+        this.wordReviewService = wordReviewService;
+        this.authenticationHelper = authenticationHelper;
+        this.languageConfig = languageConfig;
+    }
+    
+    /**
+     * Get the next cards due for review (most overdue first), with translation and analysis
+     * @param targetLanguageCode Only review lists in this language (optional)
+     * @param limit Number of cards
+     */
+    @GetMapping("/due")
+    public ResponseEntity<List<ReviewCardDto>> getDueCards(
+            @AuthenticationPrincipal Jwt jwtPrincipal,
+            @RequestParam(value = "targetLanguageCode", required = false) String targetLanguageCode,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        
+        String supabaseUserId = authenticationHelper.getSupabaseUserId(jwtPrincipal);
+        log.debug("Request to get due review cards for user: {} in language: {}", supabaseUserId, targetLanguageCode);
+        
+        String normalizedLanguage = targetLanguageCode != null && !targetLanguageCode.isBlank()
+                ? languageConfig.validateAndNormalize(targetLanguageCode)
+                : null;
+        return ResponseEntity.ok(wordReviewService.getDueCards(supabaseUserId, normalizedLanguage, limit));
+    }
+    
+    /**
+     * Record the answer to a due card and get its next schedule (409 if the card is not due yet)
+     */
+    @PostMapping("/items/{itemId}")
+    public ResponseEntity<ReviewScheduleDto> answerCard(
+            @AuthenticationPrincipal Jwt jwtPrincipal,
+            @PathVariable UUID itemId,
+            @Valid @RequestBody ReviewAnswerRequestDto answer) {
+        
+        String supabaseUserId = authenticationHelper.getSupabaseUserId(jwtPrincipal);
+        log.debug("Request to answer review of item {} with {} for user: {}", itemId, answer.getGrade(), supabaseUserId);
+        
+        return ResponseEntity.ok(wordReviewService.answer(supabaseUserId, itemId, answer.getGrade()));
+    }
+}
@@ -2,6 +2,8 @@ package com.backcover.dto;
 
 import com.backcover.model.BookStatus;
 
+import java.util.List;
+
 public class BookProgressDto {
     private Integer currentPage;
     private Integer totalPages;
@@ -11,6 +13,7 @@ public class BookProgressDto {
     private Integer currentBatch;
     private Integer totalBatches;
     private String processingDetails;
+    private List<PipelineStageDto> stages;
 
     public BookProgressDto() {}
 
@@ -74,6 +77,9 @@ public class BookProgressDto {
     public String getProcessingDetails() { return processingDetails; }
     public void setProcessingDetails(String processingDetails) { this.processingDetails = processingDetails; }
 
+    public List<PipelineStageDto> getStages() { return stages; }
+    public void setStages(List<PipelineStageDto> stages) { this.stages = stages; }
+
     @Override
     public String toString() {
         return "BookProgressDto{" +
@@ -0,0 +1,40 @@
+package com.backcover.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Index des mots d'un livre, construit à la fin de l'enrichissement : pour chaque bloc,
+ * son texte de paragraphe, le hash SHA-256 de ce texte (clé de paragraph_context) et les ids
+ * de ses mots. La forme de surface du i-ème mot est le i-ème token du texte (mots joints par
+ * un espace), ce qui évite de la stocker deux fois.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookWordIndex {
+    private String bookId;
+    private int version;
+    private int pageCount;
+    private List<Paragraph> paragraphs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Paragraph {
+        private int pageNumber;
+        private int blockIndex;
+        private String contextHash;
+        private String text;
+        private List<String> wordIds;
+        // Renseigné seulement si un mot contient lui-même un espace (tokens non alignés sur wordIds)
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private List<String> wordTexts;
+    }
+}
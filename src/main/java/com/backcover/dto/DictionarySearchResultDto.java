@@ -0,0 +1,27 @@
+package com.backcover.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Résultat de recherche dans le dictionnaire : une analyse d'un mot canonique,
+ * avec sa meilleure traduction dans la langue demandée.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DictionarySearchResultDto {
+    private UUID dictionaryWordId;
+    private String wordText;
+    private UUID wordAnalysisId;
+    private String type;
+    private String root;
+    private String wazn;
+    private List<String> lexicalFields;
+    private String translation;
+    private String translationLanguageCode;
+}
@@ -0,0 +1,39 @@
+package com.backcover.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Index temporel de l'audio d'une page : position de chaque mot (id "p1b0w0"...)
+ * dans le fichier MP3 unique synthétisé pour la page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageAudioIndex {
+    private String bookId;
+    private int pageNumber;
+    private String voiceName;
+    private String audioFormat;
+    private long audioSizeBytes;
+    private double durationSeconds;
+    private List<WordTiming> words;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WordTiming {
+        private String id;
+        private String text;
+        private double startSeconds;
+        private double endSeconds;
+        // Plage d'octets alignée sur les frames MP3 (bornes incluses, utilisable telle quelle dans un header Range)
+        private long byteStart;
+        private long byteEnd;
+    }
+}
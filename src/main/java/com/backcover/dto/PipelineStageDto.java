@@ -0,0 +1,24 @@
+package com.backcover.dto;
+
+import com.backcover.model.BookPipelineStage;
+
+import java.time.Instant;
+
+public record PipelineStageDto(
+        String stage,        // COVER, METADATA, ENRICHMENT
+        String status,       // PENDING, RUNNING, COMPLETED, FAILED, SKIPPED
+        Integer attempts,
+        String errorMessage,
+        Instant startedAt,
+        Instant finishedAt
+) {
+    public static PipelineStageDto fromEntity(BookPipelineStage stage) {
+        return new PipelineStageDto(
+                stage.getStage().name(),
+                stage.getStatus().name(),
+                stage.getAttempts(),
+                stage.getErrorMessage(),
+                stage.getStartedAt(),
+                stage.getFinishedAt());
+    }
+}
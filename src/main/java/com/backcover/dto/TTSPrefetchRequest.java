@@ -0,0 +1,16 @@
+package com.backcover.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TTSPrefetchRequest {
+
+    @NotEmpty(message = "Words are required")
+    @Size(max = 500, message = "A page must not contain more than 500 words")
+    private List<@NotBlank @Size(max = 500, message = "Text must not exceed 500 characters") String> words;
+}
@@ -0,0 +1,13 @@
+package com.backcover.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class TTSPrefetchResponse {
+    private int requestedCount;
+    private int uniqueCount;
+    private int queuedCount;
+    private int skippedCount;
+}
@@ -7,6 +7,8 @@ import java.util.UUID; // Importer UUID
  * Data Transfer Object (DTO) pour les requêtes d'analyse de mot contextuelle.
  * Contient les informations nécessaires pour identifier l'instance exacte du mot
  * et fournir le contexte (maintenant le paragraphe) à l'analyse.
+ * Seuls bookId, wordInstanceId et targetLanguageCode sont requis : les champs absents
+ * (page, mot, paragraphe) sont résolus par l'index de mots du livre (BookWordIndexService).
  */
 public class WordAnalysisRequest {
 
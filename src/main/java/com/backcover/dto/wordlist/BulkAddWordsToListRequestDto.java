@@ -0,0 +1,122 @@
+package com.backcover.dto.wordlist;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public class BulkAddWordsToListRequestDto {
+    
+    public static final int MAX_WORDS = 500;
+    
+    @NotNull(message = "Book ID is required")
+    private UUID bookId;
+    
+    @NotBlank(message = "Target language code is required")
+    private String targetLanguageCode;
+    
+    @NotEmpty(message = "At least one word is required")
+    @Size(max = MAX_WORDS, message = "At most " + MAX_WORDS + " words per request")
+    @Valid
+    private List<WordEntry> words;
+
+    // Constructors
+    public BulkAddWordsToListRequestDto() {
+    }
+
+    public BulkAddWordsToListRequestDto(UUID bookId, String targetLanguageCode, List<WordEntry> words) {
+        this.bookId = bookId;
+        this.targetLanguageCode = targetLanguageCode;
+        this.words = words;
+    }
+
+    // Getters and Setters
+    public UUID getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(UUID bookId) {
+        this.bookId = bookId;
+    }
+
+    public String getTargetLanguageCode() {
+        return targetLanguageCode;
+    }
+
+    public void setTargetLanguageCode(String targetLanguageCode) {
+        this.targetLanguageCode = targetLanguageCode;
+    }
+
+    public List<WordEntry> getWords() {
+        return words;
+    }
+
+    public void setWords(List<WordEntry> words) {
+        this.words = words;
+    }
+
+    /**
+     * One word to add. pageNumber and wordText are optional: when missing they are
+     * resolved from the book's word index.
+     */
+    public static class WordEntry {
+        
+        @NotBlank(message = "Word instance ID is required")
+        private String wordInstanceId;
+        
+        @NotNull(message = "Word analysis ID is required")
+        private UUID wordAnalysisId;
+        
+        private Integer pageNumber; // Optional
+        
+        private String wordText; // Optional
+
+        // Constructors
+        public WordEntry() {
+        }
+
+        public WordEntry(String wordInstanceId, UUID wordAnalysisId, Integer pageNumber, String wordText) {
+            this.wordInstanceId = wordInstanceId;
+            this.wordAnalysisId = wordAnalysisId;
+            this.pageNumber = pageNumber;
+            this.wordText = wordText;
+        }
+
+        // Getters and Setters
+        public String getWordInstanceId() {
+            return wordInstanceId;
+        }
+
+        public void setWordInstanceId(String wordInstanceId) {
+            this.wordInstanceId = wordInstanceId;
+        }
+
+        public UUID getWordAnalysisId() {
+            return wordAnalysisId;
+        }
+
+        public void setWordAnalysisId(UUID wordAnalysisId) {
+            this.wordAnalysisId = wordAnalysisId;
+        }
+
+        public Integer getPageNumber() {
+            return pageNumber;
+        }
+
+        public void setPageNumber(Integer pageNumber) {
+            this.pageNumber = pageNumber;
+        }
+
+        public String getWordText() {
+            return wordText;
+        }
+
+        public void setWordText(String wordText) {
+            this.wordText = wordText;
+        }
+    }
+}
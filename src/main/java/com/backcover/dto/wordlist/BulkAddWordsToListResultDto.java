@@ -0,0 +1,63 @@
+package com.backcover.dto.wordlist;
+
+import java.util.List;
+import java.util.UUID;
+
+public class BulkAddWordsToListResultDto {
+    private UUID listId;
+    private List<UserWordListItemDto> added;
+    private int alreadyPresentCount; // Mots déjà dans la liste (ignorés)
+    private List<SkippedWord> skipped; // Mots refusés, avec la raison
+
+    // Constructors
+    public BulkAddWordsToListResultDto() {
+    }
+
+    public BulkAddWordsToListResultDto(UUID listId, List<UserWordListItemDto> added, int alreadyPresentCount,
+                                       List<SkippedWord> skipped) {
+        this.listId = listId;
+        this.added = added;
+        this.alreadyPresentCount = alreadyPresentCount;
+        this.skipped = skipped;
+    }
+
+    // Getters and Setters
+    public UUID getListId() {
+        return listId;
+    }
+
+    public void setListId(UUID listId) {
+        this.listId = listId;
+    }
+
+    public List<UserWordListItemDto> getAdded() {
+        return added;
+    }
+
+    public void setAdded(List<UserWordListItemDto> added) {
+        this.added = added;
+    }
+
+    public int getAlreadyPresentCount() {
+        return alreadyPresentCount;
+    }
+
+    public void setAlreadyPresentCount(int alreadyPresentCount) {
+        this.alreadyPresentCount = alreadyPresentCount;
+    }
+
+    public List<SkippedWord> getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(List<SkippedWord> skipped) {
+        this.skipped = skipped;
+    }
+
+    /**
+     * @param reason WORD_NEVER_TRANSLATED (no translation of the analysis in the list language)
+     *               or UNKNOWN_WORD (page/text not given and not found in the book's word index)
+     */
+    public record SkippedWord(String wordInstanceId, String reason) {
+    }
+}
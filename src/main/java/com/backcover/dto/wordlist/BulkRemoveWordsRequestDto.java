@@ -0,0 +1,31 @@
+package com.backcover.dto.wordlist;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public class BulkRemoveWordsRequestDto {
+    
+    @NotEmpty(message = "At least one item ID is required")
+    @Size(max = BulkAddWordsToListRequestDto.MAX_WORDS, message = "At most " + BulkAddWordsToListRequestDto.MAX_WORDS + " items per request")
+    private List<UUID> itemIds;
+
+    // Constructors
+    public BulkRemoveWordsRequestDto() {
+    }
+
+    public BulkRemoveWordsRequestDto(List<UUID> itemIds) {
+        this.itemIds = itemIds;
+    }
+
+    // Getters and Setters
+    public List<UUID> getItemIds() {
+        return itemIds;
+    }
+
+    public void setItemIds(List<UUID> itemIds) {
+        this.itemIds = itemIds;
+    }
+}
@@ -0,0 +1,27 @@
+package com.backcover.dto.wordlist;
+
+import com.backcover.service.SpacedRepetitionScheduler.Grade;
+import jakarta.validation.constraints.NotNull;
+
+public class ReviewAnswerRequestDto {
+    
+    @NotNull(message = "Grade is required (AGAIN, HARD, GOOD or EASY)")
+    private Grade grade;
+
+    // Constructors
+    public ReviewAnswerRequestDto() {
+    }
+
+    public ReviewAnswerRequestDto(Grade grade) {
+        this.grade = grade;
+    }
+
+    // Getters and Setters
+    public Grade getGrade() {
+        return grade;
+    }
+
+    public void setGrade(Grade grade) {
+        this.grade = grade;
+    }
+}
@@ -0,0 +1,42 @@
+package com.backcover.dto.wordlist;
+
+public class ReviewCardDto {
+    private UserWordListItemWithDetailsDto item; // Mot, traduction et analyse dans la langue de sa liste
+    private String languageCode;
+    private ReviewScheduleDto schedule;
+
+    // Constructors
+    public ReviewCardDto() {
+    }
+
+    public ReviewCardDto(UserWordListItemWithDetailsDto item, String languageCode, ReviewScheduleDto schedule) {
+        this.item = item;
+        this.languageCode = languageCode;
+        this.schedule = schedule;
+    }
+
+    // Getters and Setters
+    public UserWordListItemWithDetailsDto getItem() {
+        return item;
+    }
+
+    public void setItem(UserWordListItemWithDetailsDto item) {
+        this.item = item;
+    }
+
+    public String getLanguageCode() {
+        return languageCode;
+    }
+
+    public void setLanguageCode(String languageCode) {
+        this.languageCode = languageCode;
+    }
+
+    public ReviewScheduleDto getSchedule() {
+        return schedule;
+    }
+
+    public void setSchedule(ReviewScheduleDto schedule) {
+        this.schedule = schedule;
+    }
+}
@@ -0,0 +1,105 @@
+package com.backcover.dto.wordlist;
+
+import com.backcover.model.user.UserWordListItem;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class ReviewScheduleDto {
+    private UUID itemId;
+    private double ease;
+    private int intervalDays;
+    private int repetitions;
+    private int lapses;
+    private Instant dueAt;
+    private Instant lastReviewedAt;
+
+    // Constructors
+    public ReviewScheduleDto() {
+    }
+
+    public ReviewScheduleDto(UUID itemId, double ease, int intervalDays, int repetitions, int lapses,
+                             Instant dueAt, Instant lastReviewedAt) {
+        this.itemId = itemId;
+        this.ease = ease;
+        this.intervalDays = intervalDays;
+        this.repetitions = repetitions;
+        this.lapses = lapses;
+        this.dueAt = dueAt;
+        this.lastReviewedAt = lastReviewedAt;
+    }
+
+    // Factory method to create DTO from entity
+    public static ReviewScheduleDto fromEntity(UserWordListItem entity) {
+        if (entity == null) {
+            return null;
+        }
+        
+        return new ReviewScheduleDto(
+            entity.getId(),
+            entity.getReviewEase(),
+            entity.getReviewIntervalDays(),
+            entity.getReviewRepetitions(),
+            entity.getReviewLapses(),
+            entity.getReviewDueAt(),
+            entity.getLastReviewedAt()
+        );
+    }
+
+    // Getters and Setters
+    public UUID getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(UUID itemId) {
+        this.itemId = itemId;
+    }
+
+    public double getEase() {
+        return ease;
+    }
+
+    public void setEase(double ease) {
+        this.ease = ease;
+    }
+
+    public int getIntervalDays() {
+        return intervalDays;
+    }
+
+    public void setIntervalDays(int intervalDays) {
+        this.intervalDays = intervalDays;
+    }
+
+    public int getRepetitions() {
+        return repetitions;
+    }
+
+    public void setRepetitions(int repetitions) {
+        this.repetitions = repetitions;
+    }
+
+    public int getLapses() {
+        return lapses;
+    }
+
+    public void setLapses(int lapses) {
+        this.lapses = lapses;
+    }
+
+    public Instant getDueAt() {
+        return dueAt;
+    }
+
+    public void setDueAt(Instant dueAt) {
+        this.dueAt = dueAt;
+    }
+
+    public Instant getLastReviewedAt() {
+        return lastReviewedAt;
+    }
+
+    public void setLastReviewedAt(Instant lastReviewedAt) {
+        this.lastReviewedAt = lastReviewedAt;
+    }
+}
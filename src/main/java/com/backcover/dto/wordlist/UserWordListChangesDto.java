@@ -0,0 +1,82 @@
+package com.backcover.dto.wordlist;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public class UserWordListChangesDto {
+    private UUID listId;
+    private Instant since;
+    private Instant serverTime; // since= de la prochaine synchronisation
+    private boolean fullResyncRequired; // trop de changements ou since= hors de la rétention des suppressions
+    private List<UserWordListItemWithDetailsDto> added;
+    private List<UUID> removed; // ids des items supprimés
+
+    // Constructors
+    public UserWordListChangesDto() {
+    }
+
+    public UserWordListChangesDto(UUID listId, Instant since, Instant serverTime, boolean fullResyncRequired,
+                                  List<UserWordListItemWithDetailsDto> added, List<UUID> removed) {
+        this.listId = listId;
+        this.since = since;
+        this.serverTime = serverTime;
+        this.fullResyncRequired = fullResyncRequired;
+        this.added = added;
+        this.removed = removed;
+    }
+
+    // Factory method for a client that must re-download the list page by page
+    public static UserWordListChangesDto fullResync(UUID listId, Instant since, Instant serverTime) {
+        return new UserWordListChangesDto(listId, since, serverTime, true, List.of(), List.of());
+    }
+
+    // Getters and Setters
+    public UUID getListId() {
+        return listId;
+    }
+
+    public void setListId(UUID listId) {
+        this.listId = listId;
+    }
+
+    public Instant getSince() {
+        return since;
+    }
+
+    public void setSince(Instant since) {
+        this.since = since;
+    }
+
+    public Instant getServerTime() {
+        return serverTime;
+    }
+
+    public void setServerTime(Instant serverTime) {
+        this.serverTime = serverTime;
+    }
+
+    public boolean isFullResyncRequired() {
+        return fullResyncRequired;
+    }
+
+    public void setFullResyncRequired(boolean fullResyncRequired) {
+        this.fullResyncRequired = fullResyncRequired;
+    }
+
+    public List<UserWordListItemWithDetailsDto> getAdded() {
+        return added;
+    }
+
+    public void setAdded(List<UserWordListItemWithDetailsDto> added) {
+        this.added = added;
+    }
+
+    public List<UUID> getRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(List<UUID> removed) {
+        this.removed = removed;
+    }
+}
@@ -59,14 +59,9 @@ public class UserWordListItemWithDetailsDto {
             return null;
         }
 
-        UUID wordAnalysisId = null;
         WordAnalysisDetailsDto analysisDetails = null;
-        String analysisSource = null;
 
         if (entity.getWordAnalysis() != null) {
-            wordAnalysisId = entity.getWordAnalysis().getId();
-            analysisSource = entity.getWordAnalysis().getSource();
-
             // Parse JSON to structured DTO
             String rawAnalysisData = entity.getWordAnalysis().getAnalysisData();
             if (rawAnalysisData != null && !rawAnalysisData.isBlank()) {
@@ -79,6 +74,23 @@ public class UserWordListItemWithDetailsDto {
             }
         }
 
+        return fromEntity(entity, analysisDetails);
+    }
+
+    // Factory method to create DTO from entity with analysis details already built (from the analysis projection)
+    public static UserWordListItemWithDetailsDto fromEntity(UserWordListItem entity, WordAnalysisDetailsDto analysisDetails) {
+        if (entity == null) {
+            return null;
+        }
+
+        UUID wordAnalysisId = null;
+        String analysisSource = null;
+
+        if (entity.getWordAnalysis() != null) {
+            wordAnalysisId = entity.getWordAnalysis().getId();
+            analysisSource = entity.getWordAnalysis().getSource();
+        }
+
         return new UserWordListItemWithDetailsDto(
             entity.getId(),
             entity.getWordList().getId(),
@@ -0,0 +1,67 @@
+package com.backcover.dto.wordlist;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public class UserWordListPageDto {
+    private UUID listId;
+    private String languageCode;
+    private List<UserWordListItemWithDetailsDto> items;
+    private String nextCursor; // null sur la dernière page
+    private Instant serverTime; // à réutiliser comme since= après la première synchronisation complète
+
+    // Constructors
+    public UserWordListPageDto() {
+    }
+
+    public UserWordListPageDto(UUID listId, String languageCode, List<UserWordListItemWithDetailsDto> items,
+                               String nextCursor, Instant serverTime) {
+        this.listId = listId;
+        this.languageCode = languageCode;
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.serverTime = serverTime;
+    }
+
+    // Getters and Setters
+    public UUID getListId() {
+        return listId;
+    }
+
+    public void setListId(UUID listId) {
+        this.listId = listId;
+    }
+
+    public String getLanguageCode() {
+        return languageCode;
+    }
+
+    public void setLanguageCode(String languageCode) {
+        this.languageCode = languageCode;
+    }
+
+    public List<UserWordListItemWithDetailsDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<UserWordListItemWithDetailsDto> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Instant getServerTime() {
+        return serverTime;
+    }
+
+    public void setServerTime(Instant serverTime) {
+        this.serverTime = serverTime;
+    }
+}
@@ -0,0 +1,76 @@
+package com.backcover.dto.wordlist;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class VocabularyStatsDto {
+    private String languageCode;
+    private UUID bookId; // null pour le total toutes œuvres confondues
+    private String bookTitle;
+    private int itemCount; // Mots enregistrés dans les listes
+    private int distinctLemmas; // Mots distincts du dictionnaire
+    private Instant lastAddedAt;
+
+    // Constructors
+    public VocabularyStatsDto() {
+    }
+
+    public VocabularyStatsDto(String languageCode, UUID bookId, String bookTitle, int itemCount,
+                              int distinctLemmas, Instant lastAddedAt) {
+        this.languageCode = languageCode;
+        this.bookId = bookId;
+        this.bookTitle = bookTitle;
+        this.itemCount = itemCount;
+        this.distinctLemmas = distinctLemmas;
+        this.lastAddedAt = lastAddedAt;
+    }
+
+    // Getters and Setters
+    public String getLanguageCode() {
+        return languageCode;
+    }
+
+    public void setLanguageCode(String languageCode) {
+        this.languageCode = languageCode;
+    }
+
+    public UUID getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(UUID bookId) {
+        this.bookId = bookId;
+    }
+
+    public String getBookTitle() {
+        return bookTitle;
+    }
+
+    public void setBookTitle(String bookTitle) {
+        this.bookTitle = bookTitle;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(int itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public int getDistinctLemmas() {
+        return distinctLemmas;
+    }
+
+    public void setDistinctLemmas(int distinctLemmas) {
+        this.distinctLemmas = distinctLemmas;
+    }
+
+    public Instant getLastAddedAt() {
+        return lastAddedAt;
+    }
+
+    public void setLastAddedAt(Instant lastAddedAt) {
+        this.lastAddedAt = lastAddedAt;
+    }
+}
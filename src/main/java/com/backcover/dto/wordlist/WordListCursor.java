@@ -0,0 +1,38 @@
+package com.backcover.dto.wordlist;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a word list ordered by (pageNumber ASC, addedAt DESC, id ASC).
+ * Sent to clients as an opaque base64url token.
+ */
+public record WordListCursor(int pageNumber, Instant addedAt, UUID id) {
+
+    public static WordListCursor of(UserWordListItemWithDetailsDto item) {
+        return new WordListCursor(item.getPageNumber(), item.getAddedAt(), item.getId());
+    }
+
+    public String encode() {
+        String raw = pageNumber + "|" + addedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static WordListCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new WordListCursor(Integer.parseInt(parts[0]), Instant.parse(parts[1]), UUID.fromString(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
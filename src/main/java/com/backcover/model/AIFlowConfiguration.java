@@ -54,7 +54,9 @@ public class AIFlowConfiguration {
     // Keep the enums for the workflow types only
     public enum FlowType {
         WORD_ANALYSIS("Word Analysis"),
-        PAGE_STRUCTURING("Page Structuring");
+        PAGE_STRUCTURING("Page Structuring"),
+        PDF_ENRICHMENT("PDF Enrichment"),           // Model from gemini.sync config, not from ai_workflow_config
+        METADATA_EXTRACTION("Metadata Extraction"); // Model from gemini.sync config, not from ai_workflow_config
         
         private final String displayName;
         
@@ -0,0 +1,123 @@
+package com.backcover.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Statut d'une étape du pipeline exécuté en arrière-plan après l'upload d'un livre.
+ * Les étapes s'exécutent dans l'ordre de l'enum {@link Stage}.
+ */
+@Entity
+@Table(name = "book_pipeline_stage", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_book_pipeline_stage_book_stage", columnNames = {"book_id", "stage"})
+})
+public class BookPipelineStage {
+
+    public enum Stage {
+        COVER,
+        METADATA,
+        ENRICHMENT
+    }
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        SKIPPED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "book_id", nullable = false, updatable = false)
+    private UUID bookId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "stage", nullable = false, length = 50, updatable = false)
+    private Stage stage;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 50)
+    private Status status = Status.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    public BookPipelineStage() {
+    }
+
+    public BookPipelineStage(UUID bookId, Stage stage) {
+        this.bookId = bookId;
+        this.stage = stage;
+        this.status = Status.PENDING;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+        updatedAt = Instant.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = Instant.now();
+    }
+
+    public void markRunning() {
+        this.status = Status.RUNNING;
+        this.attempts++;
+        this.errorMessage = null;
+        this.startedAt = Instant.now();
+        this.finishedAt = null;
+    }
+
+    public void markFinished(Status status, String errorMessage) {
+        this.status = status;
+        this.errorMessage = errorMessage;
+        this.finishedAt = Instant.now();
+    }
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public UUID getBookId() { return bookId; }
+    public void setBookId(UUID bookId) { this.bookId = bookId; }
+
+    public Stage getStage() { return stage; }
+    public void setStage(Stage stage) { this.stage = stage; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public Instant getStartedAt() { return startedAt; }
+    public Instant getFinishedAt() { return finishedAt; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public Instant getUpdatedAt() { return updatedAt; }
+}
@@ -11,10 +11,7 @@ import java.util.Objects;
  * Permet de dédupliquer le stockage des textes de paragraphe identiques.
  */
 @Entity
-@Table(name = "paragraph_context",
-       indexes = {
-           @Index(name = "idx_paragraph_context_hash", columnList = "context_hash")
-       })
+@Table(name = "paragraph_context")
 public class ParagraphContext {
 
     @Id
@@ -52,6 +52,12 @@ public class ModelConfiguration {
     
     @Column(name = "api_version", length = 20)
     private String apiVersion;
+
+    @Column(name = "input_price_per_million_usd", precision = 12, scale = 6)
+    private BigDecimal inputPricePerMillionUsd;
+
+    @Column(name = "output_price_per_million_usd", precision = 12, scale = 6)
+    private BigDecimal outputPricePerMillionUsd;
     
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -159,6 +165,22 @@ public class ModelConfiguration {
         this.apiVersion = apiVersion;
     }
     
+    public BigDecimal getInputPricePerMillionUsd() {
+        return inputPricePerMillionUsd;
+    }
+    
+    public void setInputPricePerMillionUsd(BigDecimal inputPricePerMillionUsd) {
+        this.inputPricePerMillionUsd = inputPricePerMillionUsd;
+    }
+    
+    public BigDecimal getOutputPricePerMillionUsd() {
+        return outputPricePerMillionUsd;
+    }
+    
+    public void setOutputPricePerMillionUsd(BigDecimal outputPricePerMillionUsd) {
+        this.outputPricePerMillionUsd = outputPricePerMillionUsd;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
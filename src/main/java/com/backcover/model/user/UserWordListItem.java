@@ -52,6 +52,25 @@ public class UserWordListItem {
     @Column(name = "added_at", updatable = false, nullable = false)
     private Instant addedAt;
 
+    // Planification de révision (SM-2), voir SpacedRepetitionScheduler
+    @Column(name = "review_ease", nullable = false)
+    private double reviewEase = 2.5;
+
+    @Column(name = "review_interval_days", nullable = false)
+    private int reviewIntervalDays;
+
+    @Column(name = "review_repetitions", nullable = false)
+    private int reviewRepetitions;
+
+    @Column(name = "review_lapses", nullable = false)
+    private int reviewLapses;
+
+    @Column(name = "review_due_at", nullable = false)
+    private Instant reviewDueAt;
+
+    @Column(name = "last_reviewed_at")
+    private Instant lastReviewedAt;
+
     // Constructors
     public UserWordListItem() {
     }
@@ -135,4 +154,61 @@ public class UserWordListItem {
     public Instant getAddedAt() {
         return addedAt;
     }
+
+    public double getReviewEase() {
+        return reviewEase;
+    }
+
+    public void setReviewEase(double reviewEase) {
+        this.reviewEase = reviewEase;
+    }
+
+    public int getReviewIntervalDays() {
+        return reviewIntervalDays;
+    }
+
+    public void setReviewIntervalDays(int reviewIntervalDays) {
+        this.reviewIntervalDays = reviewIntervalDays;
+    }
+
+    public int getReviewRepetitions() {
+        return reviewRepetitions;
+    }
+
+    public void setReviewRepetitions(int reviewRepetitions) {
+        this.reviewRepetitions = reviewRepetitions;
+    }
+
+    public int getReviewLapses() {
+        return reviewLapses;
+    }
+
+    public void setReviewLapses(int reviewLapses) {
+        this.reviewLapses = reviewLapses;
+    }
+
+    public Instant getReviewDueAt() {
+        return reviewDueAt;
+    }
+
+    public void setReviewDueAt(Instant reviewDueAt) {
+        this.reviewDueAt = reviewDueAt;
+    }
+
+    public Instant getLastReviewedAt() {
+        return lastReviewedAt;
+    }
+
+    public void setLastReviewedAt(Instant lastReviewedAt) {
+        this.lastReviewedAt = lastReviewedAt;
+    }
+
+    // --- Callbacks JPA ---
+    @PrePersist
+    protected void onCreate() {
+        // Un nouveau mot est à réviser immédiatement
+        if (reviewDueAt == null) {
+            reviewDueAt = Instant.now();
+        }
+    }
 }
\ No newline at end of file
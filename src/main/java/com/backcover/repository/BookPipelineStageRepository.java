@@ -0,0 +1,21 @@
+package com.backcover.repository;
+
+import com.backcover.model.BookPipelineStage;
+import com.backcover.model.BookPipelineStage.Stage;
+import com.backcover.model.BookPipelineStage.Status;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BookPipelineStageRepository extends JpaRepository<BookPipelineStage, UUID> {
+
+    Optional<BookPipelineStage> findByBookIdAndStage(UUID bookId, Stage stage);
+
+    List<BookPipelineStage> findByBookId(UUID bookId);
+
+    boolean existsByBookIdAndStageAndStatus(UUID bookId, Stage stage, Status status);
+}
@@ -2,7 +2,10 @@ package com.backcover.repository;
 
 import com.backcover.model.DictionaryWord; // Importer l'entité DictionaryWord
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -27,6 +30,26 @@ public interface DictionaryWordRepository extends JpaRepository<DictionaryWord,
      */
     Optional<DictionaryWord> findByWordTextAndLanguageCode(String wordText, String languageCode);
 
+    /**
+     * Insère le mot s'il n'existe pas et renvoie la ligne, nouvelle ou existante, en un aller-retour.
+     * Vide seulement si une transaction concurrente l'a validé pendant la requête : il suffit alors de relire.
+     */
+    @Transactional
+    @Query(value = "WITH inserted AS (" +
+                   "INSERT INTO dictionary_word (id, word_text, language_code, created_at) " +
+                   "VALUES (:id, :wordText, :languageCode, NOW()) " +
+                   "ON CONFLICT (word_text, language_code) DO NOTHING " +
+                   "RETURNING id, word_text, language_code, created_at) " +
+                   "SELECT * FROM inserted " +
+                   "UNION ALL " +
+                   "SELECT id, word_text, language_code, created_at FROM dictionary_word " +
+                   "WHERE word_text = :wordText AND language_code = :languageCode " +
+                   "LIMIT 1",
+           nativeQuery = true)
+    Optional<DictionaryWord> findOrInsert(@Param("id") UUID id,
+                                          @Param("wordText") String wordText,
+                                          @Param("languageCode") String languageCode);
+
     // --- Autres méthodes potentielles (optionnelles pour l'instant) ---
 
     /**
@@ -3,8 +3,12 @@ package com.backcover.repository;
 import com.backcover.model.User;
 import com.backcover.model.UserDailyQuota;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,4 +19,15 @@ public interface UserDailyQuotaRepository extends JpaRepository<UserDailyQuota,
     Optional<UserDailyQuota> findByUserAndQuotaDate(User user, LocalDate quotaDate);
 
     Optional<UserDailyQuota> findByUserIdAndQuotaDate(UUID userId, LocalDate quotaDate);
+
+    /**
+     * Atomically consume one word consultation if the limit is not reached yet
+     * (safe when several threads consume the quota of the same user)
+     * @return 1 if consumed, 0 if the limit is reached or the quota row does not exist
+     */
+    @Modifying
+    @Query("UPDATE UserDailyQuota q SET q.wordConsultations = q.wordConsultations + 1, q.updatedAt = :now " +
+           "WHERE q.user.id = :userId AND q.quotaDate = :quotaDate AND q.wordConsultations < :limit")
+    int incrementIfBelowLimit(@Param("userId") UUID userId, @Param("quotaDate") LocalDate quotaDate,
+                              @Param("limit") int limit, @Param("now") Instant now);
 }
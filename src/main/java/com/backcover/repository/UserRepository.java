@@ -2,7 +2,11 @@ package com.backcover.repository;
 
 import com.backcover.model.User; // Assurez-vous que l'import pointe vers votre package model/entity
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +18,23 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     // Primary method to find user by email - the main identifier
     Optional<User> findByEmail(String email);
 
+    // Insert the user unless the email exists, and return it (new or existing) in one round-trip.
+    // Empty only if a concurrent transaction committed it during the statement: read it again then.
+    // Own write transaction (like the former createUser), so read-only callers can use it on a miss.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "WITH inserted AS (" +
+                   "INSERT INTO users (id, email, role, subscription_status, created_at) " +
+                   "VALUES (:id, :email, 'ROLE_FREE', 'none', NOW()) " +
+                   "ON CONFLICT (email) DO NOTHING " +
+                   "RETURNING id, email, created_at, updated_at, role, stripe_customer_id, stripe_subscription_id, subscription_status) " +
+                   "SELECT * FROM inserted " +
+                   "UNION ALL " +
+                   "SELECT id, email, created_at, updated_at, role, stripe_customer_id, stripe_subscription_id, subscription_status " +
+                   "FROM users WHERE email = :email " +
+                   "LIMIT 1",
+           nativeQuery = true)
+    Optional<User> findOrInsertByEmail(@Param("id") UUID id, @Param("email") String email);
+
     // Find user by Stripe customer ID for webhook processing
     Optional<User> findByStripeCustomerId(String stripeCustomerId);
 
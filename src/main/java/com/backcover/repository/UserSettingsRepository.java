@@ -2,7 +2,11 @@ package com.backcover.repository;
 
 import com.backcover.model.settings.UserSettings;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -18,6 +22,25 @@ public interface UserSettingsRepository extends JpaRepository<UserSettings, UUID
      */
     Optional<UserSettings> findByUserId(UUID userId);
 
+    /**
+     * Inserts the settings of a user unless they exist, and returns them (new or existing) in one round-trip.
+     * Empty only if a concurrent transaction committed them during the statement: read them again then.
+     * Runs in its own write transaction, so read-only callers can use it on a miss.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "WITH inserted AS (" +
+                   "INSERT INTO user_settings (id, user_id, reading_theme) " +
+                   "VALUES (:id, :userId, :readingTheme) " +
+                   "ON CONFLICT (user_id) DO NOTHING " +
+                   "RETURNING id, user_id, reading_theme) " +
+                   "SELECT * FROM inserted " +
+                   "UNION ALL " +
+                   "SELECT id, user_id, reading_theme FROM user_settings WHERE user_id = :userId " +
+                   "LIMIT 1",
+           nativeQuery = true)
+    Optional<UserSettings> findOrInsert(@Param("id") UUID id, @Param("userId") UUID userId,
+                                        @Param("readingTheme") String readingTheme);
+
     /**
      * Finds UserSettings by the User's Supabase ID.
      * This might be more convenient in some service layers.
@@ -1,6 +1,7 @@
 package com.backcover.repository;
 
 import com.backcover.model.user.UserWordListItem;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import java.util.List;
@@ -10,6 +11,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -134,6 +137,150 @@ public interface UserWordListItemRepository extends JpaRepository<UserWordListIt
         return findByUserEmailAndBookIdAndListLanguageOrderByPageNumberAscAddedAtDesc(supabaseUserId, bookId, languageCode);
     }
     
+    /**
+     * Items of a word list with their book and analysis fetched in the same query (detail views)
+     */
+    @Query("SELECT i FROM UserWordListItem i JOIN FETCH i.book LEFT JOIN FETCH i.wordAnalysis " +
+           "WHERE i.wordList.id = :wordListId ORDER BY i.pageNumber ASC, i.addedAt DESC")
+    List<UserWordListItem> findWithDetailsByWordListId(@Param("wordListId") UUID wordListId);
+    
+    /**
+     * Items of a user for a book with their book and analysis fetched in the same query (detail views)
+     */
+    @Query("SELECT i FROM UserWordListItem i JOIN FETCH i.book LEFT JOIN FETCH i.wordAnalysis " +
+           "WHERE i.user.email = :email AND i.book.id = :bookId ORDER BY i.pageNumber ASC, i.addedAt DESC")
+    List<UserWordListItem> findWithDetailsByUserEmailAndBookId(@Param("email") String email, @Param("bookId") UUID bookId);
+    
+    /**
+     * Items of a user for a book and list language with their book and analysis fetched in the same query
+     */
+    @Query("SELECT i FROM UserWordListItem i JOIN FETCH i.book LEFT JOIN FETCH i.wordAnalysis " +
+           "WHERE i.user.email = :email AND i.book.id = :bookId AND i.wordList.languageCode = :languageCode " +
+           "ORDER BY i.pageNumber ASC, i.addedAt DESC")
+    List<UserWordListItem> findWithDetailsByUserEmailAndBookIdAndListLanguage(@Param("email") String email,
+                                                                             @Param("bookId") UUID bookId,
+                                                                             @Param("languageCode") String languageCode);
+    
+    /**
+     * Item counts of several word lists in one grouped query (list id, count) - empty lists are absent
+     */
+    @Query("SELECT i.wordList.id, COUNT(i) FROM UserWordListItem i WHERE i.wordList.id IN :wordListIds GROUP BY i.wordList.id")
+    List<Object[]> countByWordListIds(@Param("wordListIds") Collection<UUID> wordListIds);
+    
+    /**
+     * First page of a word list, ordered by the (pageNumber, addedAt DESC, id) cursor
+     */
+    @Query("SELECT i FROM UserWordListItem i JOIN FETCH i.book LEFT JOIN FETCH i.wordAnalysis " +
+           "WHERE i.wordList.id = :wordListId ORDER BY i.pageNumber ASC, i.addedAt DESC, i.id ASC")
+    List<UserWordListItem> findPageByWordListId(@Param("wordListId") UUID wordListId, Limit limit);
+    
+    /**
+     * Next page of a word list, strictly after the given cursor position
+     */
+    @Query("SELECT i FROM UserWordListItem i JOIN FETCH i.book LEFT JOIN FETCH i.wordAnalysis " +
+           "WHERE i.wordList.id = :wordListId AND (i.pageNumber > :pageNumber " +
+           "OR (i.pageNumber = :pageNumber AND (i.addedAt < :addedAt OR (i.addedAt = :addedAt AND i.id > :id)))) " +
+           "ORDER BY i.pageNumber ASC, i.addedAt DESC, i.id ASC")
+    List<UserWordListItem> findPageByWordListIdAfter(@Param("wordListId") UUID wordListId,
+                                                    @Param("pageNumber") Integer pageNumber,
+                                                    @Param("addedAt") Instant addedAt,
+                                                    @Param("id") UUID id,
+                                                    Limit limit);
+    
+    /**
+     * Items added to a word list after the given instant (delta sync)
+     */
+    @Query("SELECT i FROM UserWordListItem i JOIN FETCH i.book LEFT JOIN FETCH i.wordAnalysis " +
+           "WHERE i.wordList.id = :wordListId AND i.addedAt > :since ORDER BY i.addedAt ASC, i.id ASC")
+    List<UserWordListItem> findAddedToWordListSince(@Param("wordListId") UUID wordListId,
+                                                   @Param("since") Instant since,
+                                                   Limit limit);
+    
+    /**
+     * Ids of the items removed from a word list after the given instant (delta sync)
+     */
+    @Query(value = "SELECT t.item_id FROM user_word_list_item_tombstone t " +
+                   "WHERE t.list_id = :wordListId AND t.removed_at > :since",
+           nativeQuery = true)
+    List<UUID> findRemovedFromWordListSince(@Param("wordListId") UUID wordListId, @Param("since") Instant since);
+    
+    /**
+     * Delete an item belonging to the user (by email) and record its tombstone in the same statement
+     * @return number of deleted rows
+     */
+    @Modifying
+    @Query(value = "WITH deleted AS (DELETE FROM user_word_list_item i USING user_word_list l, users u " +
+                   "WHERE i.id = :itemId AND l.id = i.list_id AND u.id = l.user_id AND u.email = :email " +
+                   "RETURNING i.id, i.list_id, i.user_id) " +
+                   "INSERT INTO user_word_list_item_tombstone (item_id, list_id, user_id, removed_at) " +
+                   "SELECT id, list_id, user_id, NOW() FROM deleted",
+           nativeQuery = true)
+    int deleteWithTombstoneByIdAndUserEmail(@Param("itemId") UUID itemId, @Param("email") String email);
+    
+    /**
+     * Delete an item of a given list belonging to the user (by email) and record its tombstone
+     * @return number of deleted rows
+     */
+    @Modifying
+    @Query(value = "WITH deleted AS (DELETE FROM user_word_list_item i USING user_word_list l, users u " +
+                   "WHERE i.id = :itemId AND i.list_id = :listId AND l.id = i.list_id AND u.id = l.user_id AND u.email = :email " +
+                   "RETURNING i.id, i.list_id, i.user_id) " +
+                   "INSERT INTO user_word_list_item_tombstone (item_id, list_id, user_id, removed_at) " +
+                   "SELECT id, list_id, user_id, NOW() FROM deleted",
+           nativeQuery = true)
+    int deleteWithTombstoneByIdAndListIdAndUserEmail(@Param("itemId") UUID itemId, @Param("listId") UUID listId,
+                                                     @Param("email") String email);
+    
+    /**
+     * Delete an item by ID only (security check done separately) and record its tombstone
+     * @return number of deleted rows
+     */
+    @Modifying
+    @Query(value = "WITH deleted AS (DELETE FROM user_word_list_item i WHERE i.id = :itemId " +
+                   "RETURNING i.id, i.list_id, i.user_id) " +
+                   "INSERT INTO user_word_list_item_tombstone (item_id, list_id, user_id, removed_at) " +
+                   "SELECT id, list_id, user_id, NOW() FROM deleted",
+           nativeQuery = true)
+    int deleteWithTombstoneById(@Param("itemId") UUID itemId);
+    
+    /**
+     * Delete several items belonging to the user (by email) and record their tombstones in one statement
+     * @return number of deleted rows
+     */
+    @Modifying
+    @Query(value = "WITH deleted AS (DELETE FROM user_word_list_item i USING user_word_list l, users u " +
+                   "WHERE i.id IN (:itemIds) AND l.id = i.list_id AND u.id = l.user_id AND u.email = :email " +
+                   "RETURNING i.id, i.list_id, i.user_id) " +
+                   "INSERT INTO user_word_list_item_tombstone (item_id, list_id, user_id, removed_at) " +
+                   "SELECT id, list_id, user_id, NOW() FROM deleted",
+           nativeQuery = true)
+    int deleteWithTombstoneByIdInAndUserEmail(@Param("itemIds") Collection<UUID> itemIds, @Param("email") String email);
+    
+    /**
+     * Next items due for review of a user (range scan on the (user_id, review_due_at) index),
+     * with book, list and analysis fetched in the same query
+     */
+    @Query("SELECT i FROM UserWordListItem i JOIN FETCH i.book JOIN FETCH i.wordList LEFT JOIN FETCH i.wordAnalysis " +
+           "WHERE i.user.id = :userId AND i.reviewDueAt <= :now ORDER BY i.reviewDueAt ASC")
+    List<UserWordListItem> findDueForReview(@Param("userId") UUID userId, @Param("now") Instant now, Limit limit);
+    
+    /**
+     * Next items due for review of a user in lists of the given language
+     */
+    @Query("SELECT i FROM UserWordListItem i JOIN FETCH i.book JOIN FETCH i.wordList LEFT JOIN FETCH i.wordAnalysis " +
+           "WHERE i.user.id = :userId AND i.reviewDueAt <= :now AND i.wordList.languageCode = :languageCode " +
+           "ORDER BY i.reviewDueAt ASC")
+    List<UserWordListItem> findDueForReviewInLanguage(@Param("userId") UUID userId, @Param("now") Instant now,
+                                                      @Param("languageCode") String languageCode, Limit limit);
+    
+    /**
+     * Purge tombstones older than the sync retention window
+     * @return number of purged tombstones
+     */
+    @Modifying
+    @Query(value = "DELETE FROM user_word_list_item_tombstone WHERE removed_at < :cutoff", nativeQuery = true)
+    int deleteTombstonesRemovedBefore(@Param("cutoff") Instant cutoff);
+    
     /**
      * Delete all items by word list ID (for test cleanup)
      */
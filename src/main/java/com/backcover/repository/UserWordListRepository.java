@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -147,6 +148,67 @@ public interface UserWordListRepository extends JpaRepository<UserWordList, UUID
         return findByUserEmailAndLanguageCodeAndBookIsNull(supabaseUserId, languageCode);
     }
     
+    /**
+     * Find a word list by ID, ensuring it belongs to the user (by email)
+     */
+    @Query("SELECT uwl FROM UserWordList uwl WHERE uwl.id = :id AND uwl.user.email = :email")
+    Optional<UserWordList> findByIdAndUserEmail(@Param("id") UUID id, @Param("email") String email);
+    
+    /**
+     * Find all word lists for a user with their book fetched in the same query (inventory)
+     */
+    @Query("SELECT uwl FROM UserWordList uwl LEFT JOIN FETCH uwl.book WHERE uwl.user.id = :userId")
+    List<UserWordList> findWithBookByUserId(@Param("userId") UUID userId);
+    
+    /**
+     * Find word lists for a user and language with their book fetched in the same query (inventory)
+     */
+    @Query("SELECT uwl FROM UserWordList uwl LEFT JOIN FETCH uwl.book WHERE uwl.user.id = :userId AND uwl.languageCode = :languageCode")
+    List<UserWordList> findWithBookByUserIdAndLanguageCode(@Param("userId") UUID userId, @Param("languageCode") String languageCode);
+    
+    /**
+     * Insert the default list of a user in a language unless it exists, and return it (new or existing) in one round-trip.
+     * Empty only if a concurrent transaction committed it during the statement: read it again then.
+     */
+    @Transactional
+    @Query(value = "WITH inserted AS (" +
+                   "INSERT INTO user_word_list (id, user_id, list_name, is_default, language_code, book_id, created_at, updated_at) " +
+                   "VALUES (:id, :userId, :listName, TRUE, :languageCode, NULL, NOW(), NOW()) " +
+                   "ON CONFLICT (user_id, language_code) WHERE is_default AND book_id IS NULL DO NOTHING " +
+                   "RETURNING id, user_id, list_name, is_default, language_code, book_id, created_at, updated_at) " +
+                   "SELECT * FROM inserted " +
+                   "UNION ALL " +
+                   "SELECT id, user_id, list_name, is_default, language_code, book_id, created_at, updated_at " +
+                   "FROM user_word_list " +
+                   "WHERE user_id = :userId AND language_code = :languageCode AND is_default AND book_id IS NULL " +
+                   "LIMIT 1",
+           nativeQuery = true)
+    Optional<UserWordList> findOrInsertDefaultList(@Param("id") UUID id, @Param("userId") UUID userId,
+                                                   @Param("listName") String listName,
+                                                   @Param("languageCode") String languageCode);
+    
+    /**
+     * Insert the book-specific list of a user in a language unless it exists, and return it (new or existing) in one round-trip.
+     * Empty only if a concurrent transaction committed it during the statement: read it again then.
+     */
+    @Transactional
+    @Query(value = "WITH inserted AS (" +
+                   "INSERT INTO user_word_list (id, user_id, list_name, is_default, language_code, book_id, created_at, updated_at) " +
+                   "VALUES (:id, :userId, :listName, FALSE, :languageCode, :bookId, NOW(), NOW()) " +
+                   "ON CONFLICT (user_id, language_code, book_id) WHERE book_id IS NOT NULL DO NOTHING " +
+                   "RETURNING id, user_id, list_name, is_default, language_code, book_id, created_at, updated_at) " +
+                   "SELECT * FROM inserted " +
+                   "UNION ALL " +
+                   "SELECT id, user_id, list_name, is_default, language_code, book_id, created_at, updated_at " +
+                   "FROM user_word_list " +
+                   "WHERE user_id = :userId AND language_code = :languageCode AND book_id = :bookId " +
+                   "LIMIT 1",
+           nativeQuery = true)
+    Optional<UserWordList> findOrInsertBookList(@Param("id") UUID id, @Param("userId") UUID userId,
+                                                @Param("listName") String listName,
+                                                @Param("languageCode") String languageCode,
+                                                @Param("bookId") UUID bookId);
+    
     /**
      * Delete all word lists by user ID (for test cleanup)
      */
@@ -5,7 +5,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,6 +21,32 @@ public interface WordContextRepository extends JpaRepository<WordContext, UUID>
     Optional<WordContext> findByBookIdAndPageNumberAndWordInstanceId(
             UUID bookId, Integer pageNumber, String wordInstanceId);
     
+    /**
+     * Crée le contexte de l'instance ou met à jour sa traduction, son analyse et son paragraphe,
+     * en une seule requête (ON CONFLICT sur l'instance de mot)
+     */
+    @Transactional
+    @Query(value = "INSERT INTO word_context (id, book_id, page_number, word_instance_id, word_text_in_context, " +
+                   "word_analysis_id, word_translation_id, context_hash, created_at) " +
+                   "VALUES (:id, :bookId, :pageNumber, :wordInstanceId, :wordTextInContext, " +
+                   ":wordAnalysisId, :wordTranslationId, :contextHash, NOW()) " +
+                   "ON CONFLICT (book_id, page_number, word_instance_id) DO UPDATE SET " +
+                   "word_text_in_context = EXCLUDED.word_text_in_context, " +
+                   "word_analysis_id = EXCLUDED.word_analysis_id, " +
+                   "word_translation_id = EXCLUDED.word_translation_id, " +
+                   "context_hash = EXCLUDED.context_hash " +
+                   "RETURNING id, book_id, page_number, word_instance_id, word_text_in_context, " +
+                   "word_analysis_id, word_translation_id, context_hash, created_at",
+           nativeQuery = true)
+    WordContext upsert(@Param("id") UUID id,
+                       @Param("bookId") UUID bookId,
+                       @Param("pageNumber") Integer pageNumber,
+                       @Param("wordInstanceId") String wordInstanceId,
+                       @Param("wordTextInContext") String wordTextInContext,
+                       @Param("wordAnalysisId") UUID wordAnalysisId,
+                       @Param("wordTranslationId") UUID wordTranslationId,
+                       @Param("contextHash") String contextHash);
+    
     /**
      * Trouve tous les contextes pour un livre et une page
      */
@@ -47,6 +75,15 @@ public interface WordContextRepository extends JpaRepository<WordContext, UUID>
                                            @Param("pageNumber") Integer pageNumber, 
                                            @Param("wordInstanceId") String wordInstanceId);
     
+    /**
+     * Contextes d'un lot d'instances de mots d'un livre, avec leur paragraphe
+     */
+    @Query("SELECT wc FROM WordContext wc " +
+           "LEFT JOIN FETCH wc.paragraphContext " +
+           "WHERE wc.bookId = :bookId AND wc.wordInstanceId IN :wordInstanceIds")
+    List<WordContext> findWithParagraphByBookIdAndWordInstanceIdIn(@Param("bookId") UUID bookId,
+                                                                   @Param("wordInstanceIds") Collection<String> wordInstanceIds);
+    
     /**
      * Trouve tous les contextes d'un livre avec détails
      */
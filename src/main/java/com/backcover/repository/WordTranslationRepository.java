@@ -5,7 +5,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,6 +21,30 @@ public interface WordTranslationRepository extends JpaRepository<WordTranslation
     Optional<WordTranslation> findByWordAnalysisIdAndLanguageCodeAndTranslationText(
             UUID wordAnalysisId, String languageCode, String translationText);
     
+    /**
+     * Insère la traduction si elle n'existe pas et renvoie la ligne, nouvelle ou existante, en un aller-retour.
+     * Vide seulement si une transaction concurrente l'a validée pendant la requête : il suffit alors de relire.
+     */
+    @Transactional
+    @Query(value = "WITH inserted AS (" +
+                   "INSERT INTO word_translation (id, word_analysis_id, language_code, translation_text, confidence_score, source, created_at) " +
+                   "VALUES (:id, :wordAnalysisId, :languageCode, :translationText, :confidenceScore, :source, NOW()) " +
+                   "ON CONFLICT (word_analysis_id, language_code, translation_text) DO NOTHING " +
+                   "RETURNING id, word_analysis_id, language_code, translation_text, confidence_score, source, created_at) " +
+                   "SELECT * FROM inserted " +
+                   "UNION ALL " +
+                   "SELECT id, word_analysis_id, language_code, translation_text, confidence_score, source, created_at " +
+                   "FROM word_translation " +
+                   "WHERE word_analysis_id = :wordAnalysisId AND language_code = :languageCode AND translation_text = :translationText " +
+                   "LIMIT 1",
+           nativeQuery = true)
+    Optional<WordTranslation> findOrInsert(@Param("id") UUID id,
+                                           @Param("wordAnalysisId") UUID wordAnalysisId,
+                                           @Param("languageCode") String languageCode,
+                                           @Param("translationText") String translationText,
+                                           @Param("confidenceScore") Double confidenceScore,
+                                           @Param("source") String source);
+    
     /**
      * Trouve toutes les traductions pour une analyse de mot dans une langue donnée
      */
@@ -32,13 +58,30 @@ public interface WordTranslationRepository extends JpaRepository<WordTranslation
             UUID wordAnalysisId);
     
     /**
-     * Trouve la meilleure traduction (plus haut score de confiance) pour une analyse et une langue
+     * Trouve la meilleure traduction pour une analyse et une langue : plus haut score de confiance,
+     * scores absents en dernier, puis la plus ancienne. Même ordre dans {@link #findBestTranslations}
+     * et dans la recherche du dictionnaire (DictionarySearchService).
      */
     @Query("SELECT wt FROM WordTranslation wt WHERE wt.wordAnalysisId = :wordAnalysisId " +
-           "AND wt.languageCode = :languageCode ORDER BY wt.confidenceScore DESC LIMIT 1")
+           "AND wt.languageCode = :languageCode ORDER BY wt.confidenceScore DESC NULLS LAST, wt.createdAt LIMIT 1")
     Optional<WordTranslation> findBestTranslation(@Param("wordAnalysisId") UUID wordAnalysisId, 
                                                  @Param("languageCode") String languageCode);
     
+    /**
+     * Meilleure traduction de chaque analyse d'un lot, en une requête (même ordre que
+     * {@link #findBestTranslation} : score de confiance décroissant, scores absents en dernier, puis la plus ancienne)
+     */
+    @Query(value = "SELECT ranked.id, ranked.word_analysis_id, ranked.language_code, ranked.translation_text, " +
+                   "ranked.confidence_score, ranked.source, ranked.created_at FROM (" +
+                   "SELECT wt.*, ROW_NUMBER() OVER (PARTITION BY wt.word_analysis_id " +
+                   "ORDER BY wt.confidence_score DESC NULLS LAST, wt.created_at) AS rn " +
+                   "FROM word_translation wt " +
+                   "WHERE wt.word_analysis_id IN (:wordAnalysisIds) AND wt.language_code = :languageCode" +
+                   ") ranked WHERE ranked.rn = 1",
+           nativeQuery = true)
+    List<WordTranslation> findBestTranslations(@Param("wordAnalysisIds") Collection<UUID> wordAnalysisIds,
+                                               @Param("languageCode") String languageCode);
+    
     /**
      * Compte le nombre de traductions distinctes pour une analyse de mot
      */
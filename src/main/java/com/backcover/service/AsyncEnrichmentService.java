@@ -11,6 +11,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.backcover.model.Book;
 import com.backcover.model.BookMetadataTranslation;
+import com.backcover.model.BookPipelineStage.Stage;
 import com.backcover.model.BookStatus;
 import com.backcover.repository.BookMetadataTranslationRepository;
 import com.backcover.repository.BookRepository;
@@ -38,6 +39,8 @@ public class AsyncEnrichmentService {
     private final EnrichmentResultPersister resultPersister;
     private final PdfMetadataService pdfMetadataService;
     private final R2StorageService r2StorageService;
+    private final BookPipelineStageService stageService;
+    private final BookWordIndexService wordIndexService;
 
     public AsyncEnrichmentService(
             BookRepository bookRepository,
@@ -45,13 +48,17 @@ public class AsyncEnrichmentService {
             GeminiPdfEnrichmentService geminiEnrichmentService,
             EnrichmentResultPersister resultPersister,
             PdfMetadataService pdfMetadataService,
-            R2StorageService r2StorageService) {
+            R2StorageService r2StorageService,
+            BookPipelineStageService stageService,
+            BookWordIndexService wordIndexService) {
         this.bookRepository = bookRepository;
         this.translationRepository = translationRepository;
         this.geminiEnrichmentService = geminiEnrichmentService;
         this.resultPersister = resultPersister;
         this.pdfMetadataService = pdfMetadataService;
         this.r2StorageService = r2StorageService;
+        this.stageService = stageService;
+        this.wordIndexService = wordIndexService;
     }
 
     /**
@@ -64,6 +71,16 @@ public class AsyncEnrichmentService {
     @Async
     @Transactional
     public void enrichBookAsync(UUID bookId) {
+        enrichBook(bookId);
+    }
+
+    /**
+     * Enriches a book in the calling thread (ENRICHMENT stage of the upload pipeline).
+     * Metadata is only extracted here when the METADATA stage has not already completed.
+     *
+     * @param bookId The UUID of the book to enrich
+     */
+    public void enrichBook(UUID bookId) {
         log.info("[ASYNC-ENRICH] Starting async enrichment for book: {}", bookId);
 
         Book book = bookRepository.findById(bookId)
@@ -77,19 +94,28 @@ public class AsyncEnrichmentService {
             log.info("[ASYNC-ENRICH] Resuming from page {} for book: {}", resumeFromPage, bookId);
         }
 
+        // Only extract metadata on fresh start (not resume), unless the pipeline already did it
+        boolean needsMetadata = !isResume && !stageService.isCompleted(bookId, Stage.METADATA);
+
         // Update status to PROCESSING
         book.setStatus(BookStatus.ENRICHMENT_IN_PROGRESS);
         book.setProcessingDetails(isResume
             ? "Reprise de l'enrichissement depuis la page " + (resumeFromPage + 1) + "..."
-            : "Extraction des métadonnées multi-langues...");
+            : needsMetadata ? "Extraction des métadonnées multi-langues..." : "Enrichissement Gemini en cours...");
         bookRepository.saveAndFlush(book);
 
+        boolean enrichmentStarted = false;
         try {
-            // Only extract metadata on fresh start (not resume)
-            if (!isResume) {
-                extractAndPersistMetadata(book);
+            if (needsMetadata) {
+                String r2Key = "books/raw/" + bookId + ".pdf";
+                byte[] pdfBytes = r2StorageService.downloadFile(r2Key)
+                    .orElseThrow(() -> new RuntimeException("PDF not found: " + r2Key));
+                extractMetadata(bookId, pdfBytes);
             }
 
+            stageService.start(bookId, Stage.ENRICHMENT);
+            enrichmentStarted = true;
+
             // Reload book to get latest state after metadata extraction
             book = bookRepository.findById(bookId).orElseThrow();
 
@@ -115,6 +141,14 @@ public class AsyncEnrichmentService {
             // Result already persisted by chunk processing, but persist final if needed
             String resultPath = resultPersister.mergeAndPersist(bookId.toString(), result.pages());
 
+            // Word-id index for taps sent as (bookId, wordInstanceId), only built here; if this fails,
+            // taps on this book must carry their text until the next enrichment
+            try {
+                wordIndexService.rebuild(bookId);
+            } catch (RuntimeException e) {
+                log.warn("[ASYNC-ENRICH] Word index build failed for book {}: {}", bookId, e.getMessage());
+            }
+
             // Reload book to avoid stale state
             book = bookRepository.findById(bookId).orElse(null);
             if (book == null) {
@@ -126,11 +160,17 @@ public class AsyncEnrichmentService {
             book.setTotalPages(result.pages().size());
             book.setProcessingDetails("Enrichissement terminé");
             book.setFinalContentPath(resultPath);
+            stageService.complete(bookId, Stage.ENRICHMENT);
             log.info("[ASYNC-ENRICH] Enrichment completed for book: {} ({} pages, {} tokens)",
                     bookId, result.pages().size(), result.totalTokens());
 
         } catch (Exception e) {
             log.error("[ASYNC-ENRICH] Enrichment error for book {}: {}", bookId, e.getMessage(), e);
+            if (enrichmentStarted) {
+                stageService.fail(bookId, Stage.ENRICHMENT, e.getMessage());
+            } else {
+                stageService.skip(bookId, Stage.ENRICHMENT, "Metadata extraction failed");
+            }
 
             // Reload book to update status
             book = bookRepository.findById(bookId).orElse(null);
@@ -156,26 +196,36 @@ public class AsyncEnrichmentService {
     }
 
     /**
-     * Extracts metadata from PDF and persists it to the book and translations table.
+     * METADATA stage: extracts metadata from the PDF and persists it to the book and translations table.
+     * Records the stage status; failures are rethrown so the caller stops the pipeline.
      */
-    private void extractAndPersistMetadata(Book book) {
-        UUID bookId = book.getId();
-
-        // 1. Load PDF from R2
-        String r2Key = "books/raw/" + bookId + ".pdf";
-        byte[] pdfBytes = r2StorageService.downloadFile(r2Key)
-            .orElseThrow(() -> new RuntimeException("PDF not found: " + r2Key));
+    public void extractMetadata(UUID bookId, byte[] pdfBytes) {
+        stageService.start(bookId, Stage.METADATA);
+        try {
+            Book book = bookRepository.findById(bookId)
+                .orElseThrow(() -> new IllegalArgumentException("[ASYNC-ENRICH] Book not found: " + bookId));
+            extractAndPersistMetadata(book, pdfBytes);
+            stageService.complete(bookId, Stage.METADATA);
+        } catch (RuntimeException e) {
+            stageService.fail(bookId, Stage.METADATA, e.getMessage());
+            throw e;
+        }
+    }
 
-        // 2. Extract multi-language metadata - NO FALLBACK, will throw if extraction fails
+    /**
+     * Extracts metadata from PDF and persists it to the book and translations table.
+     */
+    private void extractAndPersistMetadata(Book book, byte[] pdfBytes) {
+        // 1. Extract multi-language metadata - NO FALLBACK, will throw if extraction fails
         MultiLangMetadata metadata = pdfMetadataService.extractMultiLangMetadata(pdfBytes);
 
-        // 3. Validate Arabic metadata exists (required)
+        // 2. Validate Arabic metadata exists (required)
         LocalizedMetadata arMetadata = metadata.translations().get("ar");
         if (arMetadata == null || arMetadata.title() == null) {
             throw new RuntimeException("Metadata extraction failed: Arabic title is required but was not extracted");
         }
 
-        // 4. Update Book with Arabic metadata (primary language)
+        // 3. Update Book with Arabic metadata (primary language)
         book.setTitle(arMetadata.title());
         if (arMetadata.genre() != null) {
             book.setGenre(arMetadata.genre());
@@ -194,7 +244,7 @@ public class AsyncEnrichmentService {
         log.info("[ASYNC-ENRICH] Metadata extracted: {} languages, author={}",
             metadata.translations().size(), metadata.author());
 
-        // 5. Persist all translations
+        // 4. Persist all translations
         persistTranslations(book, metadata.translations());
     }
 
@@ -1,5 +1,6 @@
 package com.backcover.service;
 
+import com.backcover.service.storage.CloudStorageService.ConditionalRead;
 import com.backcover.service.storage.R2StorageService;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.rendering.ImageType;
@@ -7,136 +8,309 @@ import org.apache.pdfbox.rendering.PDFRenderer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service pour gérer les couvertures de livres dans R2
- * Extrait la première page du PDF et la stocke comme image de couverture
+ * Extrait la première page du PDF et la stocke en plusieurs tailles compressées
+ * (thumb, card, full), générées par l'étape COVER du pipeline d'upload
  */
 @Service
 public class BookCoverService {
-    
+
     private static final Logger log = LoggerFactory.getLogger(BookCoverService.class);
     private static final String COVERS_PREFIX = "books/covers/";
     private static final int DEFAULT_DPI = 150;
-    
+
+    /**
+     * Tailles de couverture générées (largeur en pixels)
+     */
+    public enum CoverSize {
+        THUMB(160),
+        CARD(320),
+        FULL(800);
+
+        private final int width;
+
+        CoverSize(int width) {
+            this.width = width;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        /**
+         * Plus petite taille couvrant la largeur demandée (FULL si aucune)
+         */
+        public static CoverSize forWidth(Integer requestedWidth) {
+            if (requestedWidth == null) {
+                return FULL;
+            }
+            for (CoverSize size : values()) {
+                if (size.width >= requestedWidth) {
+                    return size;
+                }
+            }
+            return FULL;
+        }
+    }
+
+    /**
+     * Couverture lue depuis R2 avec son type MIME ; derivative=false pour l'ancienne couverture PNG
+     */
+    public record CoverRead(ConditionalRead read, String contentType, boolean derivative) {}
+
     private final R2StorageService r2StorageService;
-    
+    private final boolean webpAvailable;
+
+    // Livres dont les déclinaisons sont en cours de génération (évite les doublons de rattrapage)
+    private final Set<UUID> pendingDerivatives = ConcurrentHashMap.newKeySet();
+
+    @Value("${cover.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    @Value("${cover.webp-quality:0.8}")
+    private float webpQuality;
+
     public BookCoverService(@Qualifier("mainR2Storage") R2StorageService r2StorageService) {
         this.r2StorageService = r2StorageService;
+        // Le JDK n'écrit pas le WebP : on ne le produit que si un plugin ImageIO est présent au classpath
+        this.webpAvailable = ImageIO.getImageWritersByFormatName("webp").hasNext();
+        log.info("[COVER-SERVICE] Déclinaisons: JPEG{}", webpAvailable ? " + WebP" : " (pas de writer WebP)");
     }
-    
+
     /**
-     * Génère et sauvegarde la couverture d'un livre dans R2
+     * Génère et sauvegarde la couverture d'un livre dans R2, dans toutes les tailles
      * @param pdfContent Le contenu du PDF en bytes
      * @param bookId L'ID du livre
-     * @return Le chemin R2 de la couverture sauvegardée, ou null si échec
+     * @return Le chemin R2 de la couverture pleine taille, ou null si échec
      */
     public String generateAndSaveCover(byte[] pdfContent, UUID bookId) {
         try {
             log.info("[COVER-SERVICE] Génération de la couverture pour le livre {}", bookId);
-            
+
             // Extraire la première page comme image
-            byte[] coverImage = extractFirstPageAsImage(pdfContent);
-            if (coverImage == null || coverImage.length == 0) {
+            BufferedImage coverImage = extractFirstPageAsImage(pdfContent);
+            if (coverImage == null) {
                 log.warn("[COVER-SERVICE] Impossible d'extraire la couverture du PDF pour le livre {}", bookId);
                 return null;
             }
-            
-            // Construire le chemin R2
-            String coverKey = COVERS_PREFIX + bookId + ".png";
-            
-            // Préparer les métadonnées
-            Map<String, String> metadata = new HashMap<>();
-            metadata.put("content-type", "image/png");
-            metadata.put("book-id", bookId.toString());
-            metadata.put("type", "book-cover");
-            
-            // Sauvegarder dans R2
-            r2StorageService.uploadFile(coverKey, coverImage, metadata);
-            
-            log.info("[COVER-SERVICE] ✅ Couverture sauvegardée dans R2: {} ({} KB)", 
-                    coverKey, coverImage.length / 1024);
-            
-            return coverKey;
-            
+
+            saveDerivatives(coverImage, bookId);
+            return coverKey(bookId, CoverSize.FULL, "jpg");
+
         } catch (Exception e) {
-            log.error("[COVER-SERVICE] ❌ Erreur lors de la génération de la couverture pour le livre {}: {}", 
+            log.error("[COVER-SERVICE] ❌ Erreur lors de la génération de la couverture pour le livre {}: {}",
                     bookId, e.getMessage(), e);
             return null;
         }
     }
-    
+
+    /**
+     * Rattrapage pour les livres n'ayant que l'ancienne couverture PNG : génère les déclinaisons à partir d'elle
+     */
+    @Async
+    public void backfillDerivativesAsync(UUID bookId) {
+        if (!pendingDerivatives.add(bookId)) {
+            return;
+        }
+        try {
+            Optional<byte[]> legacyCover = r2StorageService.downloadFile(coverKey(bookId));
+            if (legacyCover.isEmpty()) {
+                return;
+            }
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(legacyCover.get()));
+            if (image != null) {
+                log.info("[COVER-SERVICE] Rattrapage des déclinaisons pour le livre {}", bookId);
+                saveDerivatives(image, bookId);
+            }
+        } catch (Exception e) {
+            log.warn("[COVER-SERVICE] Rattrapage impossible pour le livre {}: {}", bookId, e.getMessage());
+        } finally {
+            pendingDerivatives.remove(bookId);
+        }
+    }
+
+    private void saveDerivatives(BufferedImage source, UUID bookId) throws IOException {
+        for (CoverSize size : CoverSize.values()) {
+            BufferedImage resized = resizeToWidth(source, size.getWidth());
+
+            uploadDerivative(bookId, size, "jpg", "image/jpeg", encode(resized, "jpeg", jpegQuality));
+            if (webpAvailable) {
+                uploadDerivative(bookId, size, "webp", "image/webp", encode(resized, "webp", webpQuality));
+            }
+        }
+    }
+
+    private void uploadDerivative(UUID bookId, CoverSize size, String extension, String contentType, byte[] content) {
+        String key = coverKey(bookId, size, extension);
+
+        // Préparer les métadonnées
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("content-type", contentType);
+        metadata.put("book-id", bookId.toString());
+        metadata.put("type", "book-cover");
+        metadata.put("size", size.name().toLowerCase());
+
+        // Sauvegarder dans R2
+        r2StorageService.uploadFile(key, content, metadata);
+
+        log.info("[COVER-SERVICE] ✅ Couverture sauvegardée dans R2: {} ({} KB)", key, content.length / 1024);
+    }
+
     /**
-     * Extrait la première page du PDF comme image PNG
+     * Extrait la première page du PDF comme image
      */
-    private byte[] extractFirstPageAsImage(byte[] pdfContent) {
+    private BufferedImage extractFirstPageAsImage(byte[] pdfContent) {
         try (PDDocument document = PDDocument.load(pdfContent)) {
             if (document.getNumberOfPages() == 0) {
                 log.warn("[COVER-SERVICE] Le PDF n'a aucune page");
                 return null;
             }
-            
+
             // Rendre la première page
             PDFRenderer pdfRenderer = new PDFRenderer(document);
-            BufferedImage image = pdfRenderer.renderImageWithDPI(0, DEFAULT_DPI, ImageType.RGB);
-            
-            // Convertir en bytes PNG
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            boolean written = ImageIO.write(image, "png", baos);
-            
-            if (!written) {
-                log.error("[COVER-SERVICE] Impossible d'écrire l'image PNG");
-                return null;
-            }
-            
-            return baos.toByteArray();
-            
+            return pdfRenderer.renderImageWithDPI(0, DEFAULT_DPI, ImageType.RGB);
+
         } catch (IOException e) {
             log.error("[COVER-SERVICE] Erreur lors de l'extraction de la première page: {}", e.getMessage());
             return null;
         }
     }
-    
+
     /**
-     * Récupère la couverture d'un livre depuis R2
+     * Redimensionne par réductions successives de moitié (plus net qu'un seul passage bilinéaire)
      */
-    public Optional<byte[]> getCover(UUID bookId) {
-        String coverKey = COVERS_PREFIX + bookId + ".png";
-        return r2StorageService.downloadFile(coverKey);
+    private BufferedImage resizeToWidth(BufferedImage source, int targetWidth) {
+        if (source.getWidth() <= targetWidth) {
+            return source;
+        }
+        int targetHeight = Math.max(1, Math.round(source.getHeight() * (float) targetWidth / source.getWidth()));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(current, 0, 0, width, height, null);
+            graphics.dispose();
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+
+        return current;
     }
-    
+
+    private byte[] encode(BufferedImage image, String format, float quality) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("No ImageIO writer for format " + format);
+        }
+        ImageWriter writer = writers.next();
+
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        if (param.canWriteCompressed()) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            if (param.getCompressionTypes() != null && param.getCompressionType() == null) {
+                param.setCompressionType(param.getCompressionTypes()[0]);
+            }
+            param.setCompressionQuality(quality);
+        }
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(baos)) {
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * Récupère la couverture la plus adaptée (taille, format accepté), seulement si son ETag
+     * diffère de celui connu du client. Retombe sur l'ancienne couverture PNG si les déclinaisons n'existent pas.
+     */
+    public Optional<CoverRead> getCoverIfChanged(UUID bookId, Integer requestedWidth, boolean acceptsWebp, String ifNoneMatch) {
+        CoverSize size = CoverSize.forWidth(requestedWidth);
+
+        if (webpAvailable && acceptsWebp) {
+            Optional<ConditionalRead> webp = r2StorageService.downloadIfChanged(coverKey(bookId, size, "webp"), ifNoneMatch, null);
+            if (webp.isPresent()) {
+                return Optional.of(new CoverRead(webp.get(), "image/webp", true));
+            }
+        }
+
+        Optional<ConditionalRead> jpeg = r2StorageService.downloadIfChanged(coverKey(bookId, size, "jpg"), ifNoneMatch, null);
+        if (jpeg.isPresent()) {
+            return Optional.of(new CoverRead(jpeg.get(), "image/jpeg", true));
+        }
+
+        return r2StorageService.downloadIfChanged(coverKey(bookId), ifNoneMatch, null)
+                .map(read -> new CoverRead(read, "image/png", false));
+    }
+
     /**
      * Génère une URL présignée pour accéder directement à la couverture
      */
-    public String generateCoverUrl(UUID bookId, Duration duration) {
-        String coverKey = COVERS_PREFIX + bookId + ".png";
-        return r2StorageService.generatePresignedUrl(coverKey, duration);
+    public String generateCoverUrl(UUID bookId, CoverSize size, Duration duration) {
+        return r2StorageService.generatePresignedUrl(coverKey(bookId, size, "jpg"), duration);
+    }
+
+    /**
+     * Clé R2 de l'ancienne couverture PNG pleine résolution
+     */
+    public String coverKey(UUID bookId) {
+        return COVERS_PREFIX + bookId + ".png";
     }
-    
+
     /**
-     * Vérifie si une couverture existe pour un livre
+     * Clé R2 d'une déclinaison de couverture
      */
-    public boolean coverExists(UUID bookId) {
-        String coverKey = COVERS_PREFIX + bookId + ".png";
-        return r2StorageService.fileExists(coverKey);
+    public String coverKey(UUID bookId, CoverSize size, String extension) {
+        return COVERS_PREFIX + bookId + "/" + size.name().toLowerCase() + "." + extension;
     }
-    
+
     /**
-     * Supprime la couverture d'un livre
+     * Toutes les clés de couverture possibles d'un livre (pour la suppression)
      */
-    public boolean deleteCover(UUID bookId) {
-        String coverKey = COVERS_PREFIX + bookId + ".png";
-        return r2StorageService.deleteFile(coverKey);
+    public List<String> allCoverKeys(UUID bookId) {
+        List<String> keys = new ArrayList<>();
+        keys.add(coverKey(bookId));
+        for (CoverSize size : CoverSize.values()) {
+            keys.add(coverKey(bookId, size, "jpg"));
+            keys.add(coverKey(bookId, size, "webp"));
+        }
+        return keys;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,102 @@
+package com.backcover.service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.backcover.model.BookPipelineStage;
+import com.backcover.model.BookPipelineStage.Stage;
+import com.backcover.model.BookPipelineStage.Status;
+import com.backcover.repository.BookPipelineStageRepository;
+
+/**
+ * Records the status of each post-upload pipeline stage.
+ * Transitions run in their own transaction so they are visible immediately,
+ * even when called from inside a long-running enrichment transaction.
+ */
+@Service
+public class BookPipelineStageService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookPipelineStageService.class);
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final BookPipelineStageRepository stageRepository;
+
+    public BookPipelineStageService(BookPipelineStageRepository stageRepository) {
+        this.stageRepository = stageRepository;
+    }
+
+    /**
+     * Creates the PENDING rows for every stage. Joins the caller's transaction so
+     * the stages are inserted atomically with the book row.
+     */
+    @Transactional
+    public void initStages(UUID bookId) {
+        for (Stage stage : Stage.values()) {
+            stageRepository.save(new BookPipelineStage(bookId, stage));
+        }
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void start(UUID bookId, Stage stage) {
+        BookPipelineStage row = findOrCreate(bookId, stage);
+        row.markRunning();
+        stageRepository.save(row);
+        log.info("[PIPELINE] Book {} - stage {} started (attempt {})", bookId, stage, row.getAttempts());
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void complete(UUID bookId, Stage stage) {
+        finish(bookId, stage, Status.COMPLETED, null);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void fail(UUID bookId, Stage stage, String errorMessage) {
+        finish(bookId, stage, Status.FAILED, errorMessage);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void skip(UUID bookId, Stage stage, String reason) {
+        finish(bookId, stage, Status.SKIPPED, reason);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isCompleted(UUID bookId, Stage stage) {
+        return stageRepository.existsByBookIdAndStageAndStatus(bookId, stage, Status.COMPLETED);
+    }
+
+    /**
+     * Stages of a book in pipeline order (empty for books uploaded before the pipeline existed).
+     */
+    @Transactional(readOnly = true)
+    public List<BookPipelineStage> getStages(UUID bookId) {
+        return stageRepository.findByBookId(bookId).stream()
+                .sorted(Comparator.comparing(BookPipelineStage::getStage))
+                .toList();
+    }
+
+    private void finish(UUID bookId, Stage stage, Status status, String errorMessage) {
+        BookPipelineStage row = findOrCreate(bookId, stage);
+        if (errorMessage != null && errorMessage.length() > MAX_ERROR_LENGTH) {
+            errorMessage = errorMessage.substring(0, MAX_ERROR_LENGTH);
+        }
+        row.markFinished(status, errorMessage);
+        stageRepository.save(row);
+        if (status == Status.FAILED) {
+            log.warn("[PIPELINE] Book {} - stage {} failed: {}", bookId, stage, errorMessage);
+        } else {
+            log.info("[PIPELINE] Book {} - stage {} {}", bookId, stage, status);
+        }
+    }
+
+    private BookPipelineStage findOrCreate(UUID bookId, Stage stage) {
+        return stageRepository.findByBookIdAndStage(bookId, stage)
+                .orElseGet(() -> new BookPipelineStage(bookId, stage));
+    }
+}
@@ -0,0 +1,158 @@
+package com.backcover.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.backcover.model.Book;
+import com.backcover.model.BookPipelineStage.Stage;
+import com.backcover.model.BookStatus;
+import com.backcover.repository.BookRepository;
+import com.backcover.service.storage.R2StorageService;
+
+/**
+ * Background pipeline run after a book upload.
+ * The upload request only stores the PDF in R2 and inserts the book row;
+ * cover generation, metadata extraction and enrichment then run here, in that order,
+ * each recording its own status in book_pipeline_stage.
+ * Stages already COMPLETED are skipped, so the pipeline can be resumed after a restart.
+ */
+@Service
+public class BookUploadPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(BookUploadPipeline.class);
+
+    private final BookRepository bookRepository;
+    private final BookPipelineStageService stageService;
+    private final BookCoverService bookCoverService;
+    private final AsyncEnrichmentService asyncEnrichmentService;
+    private final R2StorageService r2StorageService;
+
+    public BookUploadPipeline(
+            BookRepository bookRepository,
+            BookPipelineStageService stageService,
+            BookCoverService bookCoverService,
+            AsyncEnrichmentService asyncEnrichmentService,
+            @Qualifier("mainR2Storage") R2StorageService r2StorageService) {
+        this.bookRepository = bookRepository;
+        this.stageService = stageService;
+        this.bookCoverService = bookCoverService;
+        this.asyncEnrichmentService = asyncEnrichmentService;
+        this.r2StorageService = r2StorageService;
+    }
+
+    /**
+     * Inserts the book row and its PENDING stages in a single transaction.
+     * Must only be called once the PDF is durably stored in R2.
+     */
+    @Transactional
+    public Book registerUpload(Book book) {
+        Book savedBook = bookRepository.save(book);
+        stageService.initStages(savedBook.getId());
+        return savedBook;
+    }
+
+    /**
+     * Runs the pipeline stages in order in a background thread.
+     *
+     * @param bookId   The UUID of the book
+     * @param localPdf Local copy of the uploaded PDF (avoids downloading it back from R2), may be null.
+     *                 Deleted once the pipeline no longer needs it.
+     */
+    @Async
+    public void runAsync(UUID bookId, Path localPdf) {
+        log.info("[PIPELINE] Starting upload pipeline for book: {}", bookId);
+
+        byte[] pdfBytes;
+        try {
+            pdfBytes = loadPdf(bookId, localPdf);
+        } catch (Exception e) {
+            log.error("[PIPELINE] Cannot load PDF for book {}: {}", bookId, e.getMessage(), e);
+            stageService.fail(bookId, Stage.COVER, "PDF unavailable: " + e.getMessage());
+            stageService.skip(bookId, Stage.METADATA, "PDF unavailable");
+            stageService.skip(bookId, Stage.ENRICHMENT, "PDF unavailable");
+            markBookFailed(bookId, "PDF introuvable: " + e.getMessage());
+            return;
+        } finally {
+            deleteQuietly(localPdf);
+        }
+
+        // 1. COVER - non bloquant : un livre sans couverture reste lisible
+        if (!stageService.isCompleted(bookId, Stage.COVER)) {
+            runCoverStage(bookId, pdfBytes);
+        }
+
+        // 2. METADATA - requis : le titre arabe alimente le contexte de l'enrichissement
+        if (!stageService.isCompleted(bookId, Stage.METADATA)) {
+            updateProcessingDetails(bookId, "Extraction des métadonnées multi-langues...");
+            try {
+                asyncEnrichmentService.extractMetadata(bookId, pdfBytes);
+            } catch (RuntimeException e) {
+                log.error("[PIPELINE] Metadata stage failed for book {}: {}", bookId, e.getMessage(), e);
+                stageService.skip(bookId, Stage.ENRICHMENT, "Metadata extraction failed");
+                markBookFailed(bookId, "Extraction des métadonnées échouée: " + e.getMessage());
+                return;
+            }
+        }
+
+        // 3. ENRICHMENT - gère lui-même ses erreurs, sa progression et la reprise
+        pdfBytes = null;
+        asyncEnrichmentService.enrichBook(bookId);
+
+        log.info("[PIPELINE] Upload pipeline finished for book: {}", bookId);
+    }
+
+    private void runCoverStage(UUID bookId, byte[] pdfBytes) {
+        stageService.start(bookId, Stage.COVER);
+        updateProcessingDetails(bookId, "Génération de la couverture...");
+        String coverPath = bookCoverService.generateAndSaveCover(pdfBytes, bookId);
+        if (coverPath != null) {
+            stageService.complete(bookId, Stage.COVER);
+        } else {
+            stageService.fail(bookId, Stage.COVER, "Cover generation failed");
+        }
+    }
+
+    private byte[] loadPdf(UUID bookId, Path localPdf) throws IOException {
+        if (localPdf != null && Files.exists(localPdf)) {
+            return Files.readAllBytes(localPdf);
+        }
+        String r2Key = "books/raw/" + bookId + ".pdf";
+        return r2StorageService.downloadFile(r2Key)
+                .orElseThrow(() -> new IOException("PDF not found: " + r2Key));
+    }
+
+    private void updateProcessingDetails(UUID bookId, String details) {
+        bookRepository.findById(bookId).ifPresent(book -> {
+            book.setProcessingDetails(details);
+            bookRepository.save(book);
+        });
+    }
+
+    private void markBookFailed(UUID bookId, String details) {
+        bookRepository.findById(bookId).ifPresent(book -> {
+            book.setStatus(BookStatus.FAILED);
+            book.setProcessingDetails(details);
+            bookRepository.save(book);
+        });
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("[PIPELINE] Could not delete temp file {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.backcover.service;
+
+import com.backcover.dto.BookWordIndex;
+import com.backcover.dto.BookWordIndex.Paragraph;
+import com.backcover.dto.gemini.StructuredBookResponse.StructuredBlock;
+import com.backcover.dto.gemini.StructuredBookResponse.StructuredPage;
+import com.backcover.dto.gemini.StructuredBookResponse.StructuredWord;
+import com.backcover.service.gemini.EnrichmentResultPersister;
+import com.backcover.service.storage.R2StorageService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Index wordInstanceId → (page, bloc, paragraphe, forme de surface) par livre.
+ * Construit à la fin de l'enrichissement et stocké dans R2 à côté du structured.json ;
+ * permet à /api/words/analyze de n'accepter que (bookId, wordInstanceId, langue) :
+ * le texte et le hash du paragraphe sont résolus côté serveur, sans re-hachage par tap.
+ * Les requêtes ne font que lire l'index : jamais de construction déclenchée par un tap.
+ */
+@Service
+public class BookWordIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookWordIndexService.class);
+
+    static final int INDEX_VERSION = 1;
+
+    /**
+     * Mot résolu depuis l'index
+     */
+    public record IndexedWord(int pageNumber, int blockIndex, String wordText, String contextHash, String paragraphText) {
+    }
+
+    /**
+     * Index chargé en mémoire : ids de mots → position dans la liste des paragraphes
+     */
+    private record LoadedIndex(BookWordIndex index, Map<String, int[]> positions) {
+    }
+
+    private final R2StorageService r2StorageService;
+    private final EnrichmentResultPersister resultPersister;
+    private final TranslationContextService translationContextService;
+    private final ObjectMapper objectMapper;
+    private final Map<UUID, LoadedIndex> cache;
+    // Livres sans index utilisable dans R2 → instant jusqu'auquel on ne le recherche plus
+    private final Map<UUID, Long> missingUntil;
+    private final long missingTtlMs;
+
+    public BookWordIndexService(@Qualifier("mainR2Storage") R2StorageService r2StorageService,
+                                EnrichmentResultPersister resultPersister,
+                                TranslationContextService translationContextService,
+                                ObjectMapper objectMapper,
+                                @Value("${word-index.cache.max-books:200}") int maxCachedBooks,
+                                @Value("${word-index.missing-ttl-seconds:600}") long missingTtlSeconds) {
+        this.r2StorageService = r2StorageService;
+        this.resultPersister = resultPersister;
+        this.translationContextService = translationContextService;
+        this.objectMapper = objectMapper;
+        // LRU borné : les livres ouverts récemment restent en mémoire
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, LoadedIndex> eldest) {
+                return size() > maxCachedBooks;
+            }
+        });
+        this.missingUntil = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Long> eldest) {
+                return size() > maxCachedBooks;
+            }
+        });
+        this.missingTtlMs = missingTtlSeconds * 1000;
+    }
+
+    /**
+     * Résout un mot par son id. Charge l'index depuis R2 au premier accès ; un livre sans index
+     * (pas encore enrichi, ou enrichi avant l'index) est mémorisé comme absent pendant
+     * word-index.missing-ttl-seconds, et un id inconnu est un simple échec : l'appelant
+     * doit alors fournir le texte.
+     */
+    public Optional<IndexedWord> resolve(UUID bookId, String wordInstanceId) {
+        if (bookId == null || wordInstanceId == null) {
+            return Optional.empty();
+        }
+        LoadedIndex loaded = cache.get(bookId);
+        if (loaded == null) {
+            loaded = load(bookId);
+            if (loaded == null) {
+                return Optional.empty();
+            }
+        }
+
+        int[] position = loaded.positions().get(wordInstanceId);
+        if (position == null) {
+            log.debug("[WORD-INDEX] Unknown word {} in index of book {}", wordInstanceId, bookId);
+            return Optional.empty();
+        }
+
+        Paragraph paragraph = loaded.index().getParagraphs().get(position[0]);
+        return Optional.of(new IndexedWord(paragraph.getPageNumber(), paragraph.getBlockIndex(),
+                surfaceForm(paragraph, position[1]), paragraph.getContextHash(), paragraph.getText()));
+    }
+
+    /**
+     * (Re)construit l'index depuis le structured.json du livre et le stocke dans R2.
+     *
+     * @return l'index, ou null si le livre n'a pas encore de structure
+     */
+    public BookWordIndex rebuild(UUID bookId) {
+        List<StructuredPage> pages = resultPersister.load(bookId.toString());
+        if (pages == null) {
+            log.debug("[WORD-INDEX] No structure for book {}, index not built", bookId);
+            return null;
+        }
+
+        long start = System.currentTimeMillis();
+        BookWordIndex index = build(bookId, pages);
+        try {
+            Map<String, String> metadata = new HashMap<>();
+            metadata.put("content-type", "application/json");
+            metadata.put("book-id", bookId.toString());
+            metadata.put("index-version", String.valueOf(INDEX_VERSION));
+            metadata.put("page-count", String.valueOf(index.getPageCount()));
+            r2StorageService.uploadFile(indexKey(bookId), objectMapper.writeValueAsBytes(index), metadata);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize word index for book " + bookId, e);
+        }
+        LoadedIndex loaded = toLoaded(index);
+        cache.put(bookId, loaded);
+        missingUntil.remove(bookId);
+
+        log.info("[WORD-INDEX] Built index for book {}: {} pages, {} paragraphs, {} words in {}ms",
+                bookId, index.getPageCount(), index.getParagraphs().size(), loaded.positions().size(),
+                System.currentTimeMillis() - start);
+        return index;
+    }
+
+    /**
+     * Oublie l'index en mémoire (suppression ou ré-enrichissement du livre)
+     */
+    public void evict(UUID bookId) {
+        cache.remove(bookId);
+        missingUntil.remove(bookId);
+    }
+
+    public String indexKey(UUID bookId) {
+        return "batch/structured/" + bookId + "-word-index.json";
+    }
+
+    BookWordIndex build(UUID bookId, List<StructuredPage> pages) {
+        List<Paragraph> paragraphs = new ArrayList<>();
+        for (StructuredPage page : pages) {
+            if (page.getContent() == null) {
+                continue;
+            }
+            for (int blockIndex = 0; blockIndex < page.getContent().size(); blockIndex++) {
+                StructuredBlock block = page.getContent().get(blockIndex);
+                List<StructuredWord> words = new ArrayList<>();
+                addAll(words, block.getWords());
+                // Vers : sadr puis ajz forment le contexte du mot
+                addAll(words, block.getSadr());
+                addAll(words, block.getAjz());
+                if (words.isEmpty()) {
+                    continue;
+                }
+
+                List<String> wordIds = new ArrayList<>(words.size());
+                List<String> wordTexts = new ArrayList<>(words.size());
+                boolean aligned = true;
+                for (StructuredWord word : words) {
+                    String text = word.getText() != null ? word.getText() : "";
+                    wordIds.add(word.getId());
+                    wordTexts.add(text);
+                    aligned &= !text.isEmpty() && text.chars().noneMatch(Character::isWhitespace);
+                }
+                String paragraphText = String.join(" ", wordTexts);
+                paragraphs.add(new Paragraph(page.getPageNumber(), blockIndex,
+                        translationContextService.contextHashOf(paragraphText), paragraphText,
+                        wordIds, aligned ? null : wordTexts));
+            }
+        }
+        return BookWordIndex.builder()
+                .bookId(bookId.toString())
+                .version(INDEX_VERSION)
+                .pageCount(pages.size())
+                .paragraphs(paragraphs)
+                .build();
+    }
+
+    private LoadedIndex load(UUID bookId) {
+        Long until = missingUntil.get(bookId);
+        if (until != null && until > System.currentTimeMillis()) {
+            return null;
+        }
+
+        Optional<byte[]> content = r2StorageService.downloadFile(indexKey(bookId));
+        if (content.isPresent()) {
+            try {
+                BookWordIndex index = objectMapper.readValue(content.get(), BookWordIndex.class);
+                if (index.getVersion() == INDEX_VERSION) {
+                    LoadedIndex loaded = toLoaded(index);
+                    cache.put(bookId, loaded);
+                    return loaded;
+                }
+                log.info("[WORD-INDEX] Outdated index version {} for book {}, ignored until re-enrichment",
+                        index.getVersion(), bookId);
+            } catch (IOException e) {
+                log.warn("[WORD-INDEX] Unreadable index for book {}: {}", bookId, e.getMessage());
+            }
+        }
+        missingUntil.put(bookId, System.currentTimeMillis() + missingTtlMs);
+        return null;
+    }
+
+    private LoadedIndex toLoaded(BookWordIndex index) {
+        Map<String, int[]> positions = new HashMap<>();
+        List<Paragraph> paragraphs = index.getParagraphs();
+        for (int paragraphIndex = 0; paragraphIndex < paragraphs.size(); paragraphIndex++) {
+            List<String> wordIds = paragraphs.get(paragraphIndex).getWordIds();
+            for (int wordIndex = 0; wordIndex < wordIds.size(); wordIndex++) {
+                positions.put(wordIds.get(wordIndex), new int[]{paragraphIndex, wordIndex});
+            }
+        }
+        return new LoadedIndex(index, positions);
+    }
+
+    private static String surfaceForm(Paragraph paragraph, int wordIndex) {
+        if (paragraph.getWordTexts() != null) {
+            return paragraph.getWordTexts().get(wordIndex);
+        }
+        String[] tokens = paragraph.getText().split(" ");
+        return wordIndex < tokens.length ? tokens[wordIndex] : null;
+    }
+
+    private static void addAll(List<StructuredWord> target, List<StructuredWord> source) {
+        if (source != null) {
+            target.addAll(source);
+        }
+    }
+}
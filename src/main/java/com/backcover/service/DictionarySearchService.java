@@ -0,0 +1,150 @@
+package com.backcover.service;
+
+import com.backcover.dto.DictionarySearchResultDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Recherche dans le dictionnaire par racine, schème (wazn), champ lexical, texte de traduction
+ * (toutes langues) et préfixe de la forme arabe sans tashkeel. Chaque filtre s'appuie sur un index
+ * (clés normalisées de la projection d'analyse, GIN sur les champs lexicaux, trigrammes sur les
+ * traductions) : jamais de parcours de analysis_data.
+ */
+@Service
+public class DictionarySearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(DictionarySearchService.class);
+
+    // Meilleure traduction : même ordre que WordTranslationRepository.findBestTranslation
+    private static final String SELECT_SQL = """
+            SELECT w.id AS dictionary_word_id, w.word_text, p.word_analysis_id, p.word_type, p.root, p.wazn,
+                   p.lexical_fields, t.translation_text
+            FROM dictionary_word w
+            JOIN word_analysis a ON a.dictionary_word_id = w.id
+            JOIN word_analysis_projection p ON p.word_analysis_id = a.id
+            LEFT JOIN LATERAL (
+                SELECT wt.translation_text
+                FROM word_translation wt
+                WHERE wt.word_analysis_id = a.id AND wt.language_code = ?
+                ORDER BY wt.confidence_score DESC NULLS LAST, wt.created_at
+                LIMIT 1
+            ) t ON TRUE
+            WHERE w.language_code = 'ar'
+            """;
+
+    /**
+     * Filtres de recherche, tous optionnels mais au moins un requis
+     * @param seenOnly limiter aux mots présents dans les listes de l'utilisateur
+     */
+    public record SearchCriteria(String root, String pattern, String lexicalField, String translation,
+                                 String prefix, boolean seenOnly) {
+
+        boolean hasTextFilter() {
+            return !isBlank(root) || !isBlank(pattern) || !isBlank(lexicalField)
+                    || !isBlank(translation) || !isBlank(prefix);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public DictionarySearchService(JdbcTemplate jdbcTemplate,
+                                   @Value("${dictionary.search.default-size:50}") int defaultLimit,
+                                   @Value("${dictionary.search.max-size:200}") int maxLimit) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Recherche les analyses correspondant à tous les filtres fournis
+     * @param supabaseUserId email de l'utilisateur (utilisé seulement avec seenOnly)
+     * @param languageCode langue de la traduction renvoyée
+     */
+    public List<DictionarySearchResultDto> search(String supabaseUserId, SearchCriteria criteria,
+                                                  String languageCode, Integer limit) {
+        if (!criteria.hasTextFilter() && !criteria.seenOnly()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At least one of root, pattern, lexicalField, translation, prefix or seenOnly is required");
+        }
+        long start = System.currentTimeMillis();
+        int size = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> args = new ArrayList<>();
+        args.add(languageCode);
+
+        if (!isBlank(criteria.root())) {
+            sql.append("  AND p.root_key = arabic_root_key(?)\n");
+            args.add(criteria.root());
+        }
+        if (!isBlank(criteria.pattern())) {
+            // Clé sans tashkeel pour l'index ; schème exact en plus si la requête est vocalisée
+            sql.append("  AND p.wazn_key = arabic_search_normalize(?)")
+               .append(" AND (arabic_search_normalize(?) = ? OR p.wazn = ?)\n");
+            args.add(criteria.pattern());
+            args.add(criteria.pattern());
+            args.add(criteria.pattern());
+            args.add(criteria.pattern());
+        }
+        if (!isBlank(criteria.lexicalField())) {
+            sql.append("  AND p.lexical_fields @> ARRAY[CAST(? AS TEXT)]\n");
+            args.add(criteria.lexicalField().strip());
+        }
+        if (!isBlank(criteria.translation())) {
+            sql.append("  AND a.id IN (SELECT wt.word_analysis_id FROM word_translation wt")
+               .append(" WHERE lower(wt.translation_text) LIKE ? ESCAPE '\\')\n");
+            args.add("%" + escapeLike(criteria.translation().strip().toLowerCase()) + "%");
+        }
+        if (!isBlank(criteria.prefix())) {
+            sql.append("  AND w.search_form LIKE arabic_search_normalize(?) || '%'\n");
+            args.add(escapeLike(criteria.prefix().strip()));
+        }
+        if (criteria.seenOnly()) {
+            sql.append("  AND w.id IN (SELECT m.dictionary_word_id FROM user_vocabulary_lemma m")
+               .append(" JOIN users u ON u.id = m.user_id WHERE u.email = ?)\n");
+            args.add(supabaseUserId);
+        }
+        sql.append("ORDER BY w.search_form, p.word_analysis_id\nLIMIT ?");
+        args.add(size);
+
+        List<DictionarySearchResultDto> results = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            Array lexicalFields = rs.getArray("lexical_fields");
+            String translation = rs.getString("translation_text");
+            return new DictionarySearchResultDto(
+                    rs.getObject("dictionary_word_id", UUID.class),
+                    rs.getString("word_text"),
+                    rs.getObject("word_analysis_id", UUID.class),
+                    rs.getString("word_type"),
+                    rs.getString("root"),
+                    rs.getString("wazn"),
+                    lexicalFields != null ? List.of((String[]) lexicalFields.getArray()) : List.of(),
+                    translation,
+                    translation != null ? languageCode : null);
+        }, args.toArray());
+
+        log.debug("Dictionary search {} returned {} results in {}ms", criteria, results.size(),
+                System.currentTimeMillis() - start);
+        return results;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    // Les jokers saisis par l'utilisateur sont cherchés littéralement
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
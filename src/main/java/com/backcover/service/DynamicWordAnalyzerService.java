@@ -36,4 +36,14 @@ public class DynamicWordAnalyzerService implements DetailedWordAnalyzerService {
         return geminiService.analyzeWord(wordTextInContext, paragraphText, bookTitle,
                 bookId, pageNumber, wordInstanceId, targetLanguageCode);
     }
+
+    @Override
+    public WordAnalysisDto analyzeWord(String wordTextInContext, String paragraphText, String paragraphContextHash,
+                                       String bookTitle, UUID bookId, Integer pageNumber, String wordInstanceId,
+                                       String targetLanguageCode) throws IOException, IllegalArgumentException {
+
+        log.info("🔀 WORD ANALYSIS - Using Gemini service (indexed word)");
+        return geminiService.analyzeWord(wordTextInContext, paragraphText, paragraphContextHash, bookTitle,
+                bookId, pageNumber, wordInstanceId, targetLanguageCode);
+    }
 }
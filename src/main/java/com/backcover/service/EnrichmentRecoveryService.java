@@ -11,6 +11,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import com.backcover.model.Book;
+import com.backcover.model.BookPipelineStage;
 import com.backcover.model.BookStatus;
 import com.backcover.repository.BookRepository;
 
@@ -26,15 +27,21 @@ public class EnrichmentRecoveryService {
 
     private final BookRepository bookRepository;
     private final AsyncEnrichmentService asyncEnrichmentService;
+    private final BookUploadPipeline uploadPipeline;
+    private final BookPipelineStageService stageService;
 
     @Value("${enrichment.recovery.enabled:true}")
     private boolean recoveryEnabled;
 
     public EnrichmentRecoveryService(
             BookRepository bookRepository,
-            AsyncEnrichmentService asyncEnrichmentService) {
+            AsyncEnrichmentService asyncEnrichmentService,
+            BookUploadPipeline uploadPipeline,
+            BookPipelineStageService stageService) {
         this.bookRepository = bookRepository;
         this.asyncEnrichmentService = asyncEnrichmentService;
+        this.uploadPipeline = uploadPipeline;
+        this.stageService = stageService;
     }
 
     /**
@@ -47,6 +54,7 @@ public class EnrichmentRecoveryService {
             return;
         }
         log.info("[RECOVERY] Startup check for interrupted enrichments...");
+        recoverInterruptedPipelines();
         recoverInterruptedEnrichments();
     }
 
@@ -93,4 +101,29 @@ public class EnrichmentRecoveryService {
             }
         }
     }
+
+    /**
+     * Resumes upload pipelines interrupted before the enrichment stage (book still PENDING).
+     * Startup only: at runtime a PENDING book may simply be running its cover or metadata stage.
+     */
+    private void recoverInterruptedPipelines() {
+        List<Book> pending = bookRepository.findByStatusIn(List.of(BookStatus.PENDING));
+
+        for (Book book : pending) {
+            List<BookPipelineStage> stages = stageService.getStages(book.getId());
+            boolean unfinished = stages.stream()
+                .anyMatch(stage -> stage.getStatus() == BookPipelineStage.Status.PENDING
+                    || stage.getStatus() == BookPipelineStage.Status.RUNNING);
+            if (stages.isEmpty() || !unfinished) {
+                continue;
+            }
+
+            log.info("[RECOVERY] Resuming upload pipeline for book {} '{}'", book.getId(), book.getTitle());
+            try {
+                uploadPipeline.runAsync(book.getId(), null);
+            } catch (Exception e) {
+                log.error("[RECOVERY] Failed to resume pipeline for book {}: {}", book.getId(), e.getMessage());
+            }
+        }
+    }
 }
@@ -1,14 +1,16 @@
 // Dans com/backcover/service/GeminiAnalysisService.java
 package com.backcover.service; // ou com.backcover.service.ia.impl si vous le déplacez
 
+import com.backcover.config.concurrency.ConcurrencyLimiter;
 import com.backcover.dto.TextBlockDto;
 import com.backcover.model.prompt.PromptTemplate;
-import com.backcover.repository.PromptTemplateRepository;
 import com.backcover.service.ia.PageStructuringService; // <<< IMPORTER L'INTERFACE
+import com.backcover.service.prompt.PromptTemplateCache;
 import com.backcover.service.prompt.PromptUsageTracker;
 import com.backcover.service.AIModelConfigurationService;
 import com.backcover.model.AIFlowConfiguration.FlowType;
 import com.backcover.exception.ConfigurationNotFoundException;
+import com.backcover.exception.ServiceUnavailableException;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -39,20 +41,25 @@ public class GeminiAnalysisService implements PageStructuringService { // <<< IM
     private static final Logger log = LoggerFactory.getLogger(GeminiAnalysisService.class);
     @Value("${gemini.api.key}")
     private String apiKey;
+    @Value("${gemini.api.base-url:https://generativelanguage.googleapis.com/v1beta/models/}")
+    private String geminiBaseUrl;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
     private final PromptUsageTracker promptUsageTracker;
-    private final PromptTemplateRepository promptTemplateRepository;
+    private final PromptTemplateCache promptTemplateCache;
     private final AIModelConfigurationService aiModelConfigService;
+    private final ConcurrencyLimiter geminiLimiter;
 
     public GeminiAnalysisService(RestTemplate restTemplate, ObjectMapper objectMapper,
                                 PromptUsageTracker promptUsageTracker, 
-                                PromptTemplateRepository promptTemplateRepository,
-                                AIModelConfigurationService aiModelConfigService) {
+                                PromptTemplateCache promptTemplateCache,
+                                AIModelConfigurationService aiModelConfigService,
+                                @Qualifier("geminiLimiter") ConcurrencyLimiter geminiLimiter) {
         this.restTemplate = restTemplate;
+        this.geminiLimiter = geminiLimiter;
         this.objectMapper = objectMapper;
         this.promptUsageTracker = promptUsageTracker;
-        this.promptTemplateRepository = promptTemplateRepository;
+        this.promptTemplateCache = promptTemplateCache;
         this.aiModelConfigService = aiModelConfigService;
     }
 
@@ -82,17 +89,11 @@ public class GeminiAnalysisService implements PageStructuringService { // <<< IM
         }
 
         // Get prompt template for PAGE_STRUCTURING_V5 (single version, no cascade)
-        PromptTemplate promptTemplate = promptTemplateRepository
-                .findByIdentifierAndIsActiveTrue("PAGE_STRUCTURING_V5")
+        PromptTemplate promptTemplate = promptTemplateCache
+                .findActive("PAGE_STRUCTURING_V5")
                 .orElse(null);
 
-        if (promptTemplate == null) {
-            log.error("CRITICAL: PAGE_STRUCTURING_V5 prompt not found in database");
-            throw new IllegalStateException("PAGE_STRUCTURING_V5 prompt not found. Database configuration required.");
-        }
-
         String requestJson = null;
-        PromptUsageTracker.TrackingContext trackingContext = null;
         
         // modelId already retrieved at the beginning of the method
         // Ensure we have a valid modelId
@@ -101,35 +102,28 @@ public class GeminiAnalysisService implements PageStructuringService { // <<< IM
                     "No active model configuration found for PAGE_STRUCTURING flow with GOOGLE provider");
         }
         
+        // Every call is tracked, even without an active template (built-in version tag, as in WordAnalysisService)
+        PromptUsageTracker.TrackingContext trackingContext = promptUsageTracker.startTracking(
+                FlowType.PAGE_STRUCTURING, "PAGE_STRUCTURING_V5", modelId,
+                promptTemplate != null ? promptTemplate.getVersion() : PromptUsageTracker.BUILTIN_PROMPT);
+        
         try {
             // Use prompt from database only (NO FALLBACK policy)
             if (promptTemplate == null || promptTemplate.getPromptContent() == null || promptTemplate.getPromptContent().isBlank()) {
-                log.error("CRITICAL: No active prompt template found for PAGE_STRUCTURING. NO FALLBACK ALLOWED.");
-                throw new IllegalStateException("No active prompt template found for page structuring. Database configuration required.");
+                log.error("CRITICAL: No active prompt template found for PAGE_STRUCTURING_V5. NO FALLBACK ALLOWED.");
+                throw new IllegalStateException("PAGE_STRUCTURING_V5 prompt not found. Database configuration required.");
             }
             
             requestJson = buildGeminiRequestWithPrompt(rawOcrText, promptTemplate.getPromptContent());
             log.info("📝 Using prompt from DB - Template: {} v{}", promptTemplate.getIdentifier(), promptTemplate.getVersion());
             
             log.debug("Using model: {} for page structuring", modelId);
-            
-            // Log prompt template details if available
-            if (promptTemplate != null) {
-                log.info("📝 PROMPT TEMPLATE - ID: {}, Version: {}", 
-                    promptTemplate.getIdentifier(), 
-                    promptTemplate.getVersion());
-            }
-            
-            // Start tracking if we have a prompt template
-            if (promptTemplate != null) {
-                trackingContext = promptUsageTracker.startTracking(
-                    promptTemplate, modelId, requestJson, userId, bookId, null);
-            }
+        } catch (IllegalStateException e) {
+            promptUsageTracker.completeTrackingWithError(trackingContext, "prompt_missing");
+            throw e;
         } catch (Exception e) {
             log.error("🤖 LLM CALL ERROR - Model: {} | Task: PAGE_STRUCTURING | Error building request: {}", modelId, e.getMessage(), e);
-            if (trackingContext != null) {
-                promptUsageTracker.completeTrackingWithError(trackingContext, e.getMessage(), 0);
-            }
+            promptUsageTracker.completeTrackingWithError(trackingContext, "request_build");
             throw new RuntimeException("Erreur interne lors de la création de la requête Gemini.", e);
         }
         
@@ -142,12 +136,12 @@ public class GeminiAnalysisService implements PageStructuringService { // <<< IM
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
+            // Clé en en-tête plutôt qu'en query string : l'URL apparaît dans les spans et métriques HTTP client
+            headers.set("x-goog-api-key", apiKey);
             HttpEntity<String> entity = new HttpEntity<>(requestJson, headers);
             
             // Construct URL dynamically with model from DB configuration
-            String baseUrl = "https://generativelanguage.googleapis.com/v1beta/models/";
-            String dynamicApiUrl = baseUrl + modelId + ":generateContent";
-            String urlWithKey = dynamicApiUrl + "?key=" + apiKey;
+            String dynamicApiUrl = geminiBaseUrl + modelId + ":generateContent";
             
             // LOG THE ACTUAL API CALL
             log.info("🌐 GEMINI API CALL - Full URL: {}", dynamicApiUrl);
@@ -168,7 +162,10 @@ public class GeminiAnalysisService implements PageStructuringService { // <<< IM
             
             log.info("🌐 GEMINI API CALL - Request JSON: {}", requestJson);
 
-            ResponseEntity<String> response = restTemplate.exchange(urlWithKey, HttpMethod.POST, entity, String.class);
+            ResponseEntity<String> response;
+            try (ConcurrencyLimiter.Permit permit = geminiLimiter.acquire()) {
+                response = restTemplate.exchange(dynamicApiUrl, HttpMethod.POST, entity, String.class);
+            }
             log.info("🤖 LLM RESPONSE - Model: {} | Status: {} | Response length: {} chars", 
                      modelId, response.getStatusCode(), response.getBody() != null ? response.getBody().length() : 0);
 
@@ -184,7 +181,7 @@ public class GeminiAnalysisService implements PageStructuringService { // <<< IM
                     log.error("Aperçu de la réponse Gemini invalide: {}", preview);
                 }
                 if (trackingContext != null) {
-                    promptUsageTracker.completeTrackingWithError(trackingContext, "Invalid Gemini response structure", 0);
+                    promptUsageTracker.completeTrackingWithError(trackingContext, "invalid_response");
                 }
                 throw new RuntimeException("Réponse Gemini invalide: structure JSON attendue non trouvée");
             }
@@ -200,25 +197,32 @@ public class GeminiAnalysisService implements PageStructuringService { // <<< IM
             log.error("🤖 LLM CALL ERROR - Model: {} | Task: PAGE_STRUCTURING | HTTP Error: {} | Response: {}", 
                      modelId, e.getStatusCode(), responseBodyError, e);
             if (trackingContext != null) {
-                promptUsageTracker.completeTrackingWithError(trackingContext, "HTTP " + e.getStatusCode() + ": " + responseBodyError, 0);
+                promptUsageTracker.completeTrackingWithError(trackingContext, PromptUsageTracker.httpErrorType(e.getStatusCode().value()));
             }
             throw new RuntimeException("Échec appel API Gemini: HTTP " + e.getStatusCode() + " - " + responseBodyError, e);
         } catch (RestClientException e) {
             log.error("🤖 LLM CALL ERROR - Model: {} | Task: PAGE_STRUCTURING | RestClient Error: {}", modelId, e.getMessage(), e);
             if (trackingContext != null) {
-                promptUsageTracker.completeTrackingWithError(trackingContext, "RestClient error: " + e.getMessage(), 0);
+                promptUsageTracker.completeTrackingWithError(trackingContext,
+                    e.getMessage() != null && e.getMessage().toLowerCase().contains("timeout") ? "timeout" : "network");
             }
             throw new RuntimeException("Échec appel API Gemini: " + e.getMessage(), e);
         } catch (IOException e) {
             log.error("🤖 LLM CALL ERROR - Model: {} | Task: PAGE_STRUCTURING | Parse Error: {}", modelId, e.getMessage(), e);
             if (trackingContext != null) {
-                promptUsageTracker.completeTrackingWithError(trackingContext, "Parse error: " + e.getMessage(), 0);
+                promptUsageTracker.completeTrackingWithError(trackingContext, "parse");
             }
             throw new RuntimeException("Échec parsing réponse Gemini: " + e.getMessage(), e);
+        } catch (ServiceUnavailableException e) {
+            log.warn("🤖 LLM CALL THROTTLED - Model: {} | Task: PAGE_STRUCTURING | {}", modelId, e.getMessage());
+            if (trackingContext != null) {
+                promptUsageTracker.completeTrackingWithError(trackingContext, "throttled");
+            }
+            throw e;
         } catch (Exception e) {
             log.error("🤖 LLM CALL ERROR - Model: {} | Task: PAGE_STRUCTURING | Unexpected Error: {}", modelId, e.getMessage(), e);
             if (trackingContext != null) {
-                promptUsageTracker.completeTrackingWithError(trackingContext, "Unexpected error: " + e.getMessage(), 0);
+                promptUsageTracker.completeTrackingWithError(trackingContext, "internal");
             }
             throw new RuntimeException("Échec analyse Gemini: " + e.getMessage(), e);
         }
@@ -444,7 +448,7 @@ public class GeminiAnalysisService implements PageStructuringService { // <<< IM
 
     // Renommer et adapter pour retourner PageStructureResult
     private PageStructureResult parseGeminiResponseToPageStructureResult(String jsonResponse, 
-            Object trackingContext) throws IOException {
+            PromptUsageTracker.TrackingContext trackingContext) throws IOException {
         log.debug("Parsing de la réponse Gemini pour PageStructureResult...");
         // ... (votre logique de parsing existante) ...
         // Assurez-vous que la fin de cette méthode retourne bien :
@@ -463,6 +467,7 @@ public class GeminiAnalysisService implements PageStructuringService { // <<< IM
             int promptTokenCount = 0;
             int candidatesTokenCount = 0;
             int totalTokenCount = 0;
+            String finishReason = root.path("candidates").path(0).path("finishReason").asText(null);
             
             if (!usageMetadata.isMissingNode()) {
                 promptTokenCount = usageMetadata.path("promptTokenCount").asInt(0);
@@ -517,12 +522,11 @@ public class GeminiAnalysisService implements PageStructuringService { // <<< IM
                 // Complete tracking with success if we have a tracking context
                 if (trackingContext != null) {
                     promptUsageTracker.completeTracking(
-                        trackingContext, 
-                        jsonResponse, 
-                        promptTokenCount, 
-                        candidatesTokenCount, 
-                        0.05, // temperature used in buildGeminiRequest
-                        16384 // maxTokens used in buildGeminiRequest
+                        trackingContext,
+                        promptTokenCount,
+                        candidatesTokenCount,
+                        totalTokenCount,
+                        finishReason
                     );
                 }
                 
@@ -530,14 +534,14 @@ public class GeminiAnalysisService implements PageStructuringService { // <<< IM
             } catch (JsonProcessingException e) {
                 log.error("ÉCHEC parsing JSON interne après nettoyage ```. Texte essayé: [{}]. Erreur: {}", cleanedJsonText, e.getMessage());
                 if (trackingContext != null) {
-                    promptUsageTracker.completeTrackingWithError(trackingContext, "JSON parsing error: " + e.getMessage(), promptTokenCount);
+                    promptUsageTracker.completeTrackingWithError(trackingContext, "parse");
                 }
                 throw new IOException("Impossible de parser la réponse JSON interne de Gemini.", e);
             }
         } catch (IOException e) {
             log.error("Erreur lors du traitement global de la réponse Gemini: {}", e.getMessage());
             if (trackingContext != null) {
-                promptUsageTracker.completeTrackingWithError(trackingContext, "Response parsing error: " + e.getMessage(), 0);
+                promptUsageTracker.completeTrackingWithError(trackingContext, "invalid_response");
             }
             throw e;
         }
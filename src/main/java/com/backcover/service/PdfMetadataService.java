@@ -11,6 +11,7 @@ import org.springframework.stereotype.Service;
 
 import com.backcover.dto.gemini.GeminiRequest;
 import com.backcover.dto.gemini.GeminiResponse;
+import com.backcover.model.AIFlowConfiguration.FlowType;
 import com.backcover.service.gemini.GeminiApiClient;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -66,7 +67,7 @@ public class PdfMetadataService {
             4096
         );
 
-        GeminiResponse response = geminiClient.generateContent(request);
+        GeminiResponse response = geminiClient.generateContent(request, FlowType.METADATA_EXTRACTION);
         String jsonContent = response.getTextContent();
         log.info("[METADATA] Raw response: {}", jsonContent);
 
@@ -86,7 +87,7 @@ public class PdfMetadataService {
             8192    // more tokens for 14 languages
         );
 
-        GeminiResponse response = geminiClient.generateContent(request);
+        GeminiResponse response = geminiClient.generateContent(request, FlowType.METADATA_EXTRACTION);
         String jsonContent = response.getTextContent();
         log.info("[METADATA-MULTILANG] Raw response length: {} chars",
             jsonContent != null ? jsonContent.length() : 0);
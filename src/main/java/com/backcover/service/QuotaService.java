@@ -3,14 +3,17 @@ package com.backcover.service;
 import com.backcover.model.User;
 import com.backcover.model.UserDailyQuota;
 import com.backcover.repository.UserDailyQuotaRepository;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Service
+@Observed(name = "quota.check")
 public class QuotaService {
 
     private static final Logger log = LoggerFactory.getLogger(QuotaService.class);
@@ -58,6 +61,18 @@ public class QuotaService {
         return true;
     }
 
+    /**
+     * Consume one word consultation with a single conditional UPDATE, for callers that
+     * consume the quota of the same user from several threads (TTS prefetch)
+     * @return true if consumed, false if quota exceeded
+     */
+    @Transactional
+    public boolean tryConsumeWordConsultation(User user) {
+        UserDailyQuota quota = getOrCreateTodayQuota(user);
+        int limit = getDailyLimitForUser(user);
+        return quotaRepository.incrementIfBelowLimit(user.getId(), quota.getQuotaDate(), limit, Instant.now()) > 0;
+    }
+
     /**
      * Get quota info for user
      */
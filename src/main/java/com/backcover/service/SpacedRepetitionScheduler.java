@@ -0,0 +1,91 @@
+package com.backcover.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Planification des révisions selon SM-2 (SuperMemo 2) :
+ * le facteur de facilité évolue avec la qualité de la réponse, l'intervalle passe à 1 jour,
+ * puis 6 jours, puis est multiplié par la facilité. Un oubli remet la carte en apprentissage
+ * et la représente quelques minutes plus tard dans la même session.
+ * Seule une carte due se répond : répondre avant l'échéance avancerait le calendrier
+ * (double envoi, carte rejouée hors session).
+ */
+@Component
+public class SpacedRepetitionScheduler {
+
+    static final double MIN_EASE = 1.3;
+
+    /**
+     * Réponse de l'utilisateur, avec sa qualité SM-2 (0-5)
+     */
+    public enum Grade {
+        AGAIN(1), HARD(3), GOOD(4), EASY(5);
+
+        private final int quality;
+
+        Grade(int quality) {
+            this.quality = quality;
+        }
+
+        public int quality() {
+            return quality;
+        }
+    }
+
+    /**
+     * État de révision d'une carte
+     */
+    public record ReviewState(double ease, int intervalDays, int repetitions, int lapses, Instant dueAt) {
+    }
+
+    private final Duration relearnDelay;
+    private final int maxIntervalDays;
+
+    public SpacedRepetitionScheduler(@Value("${review.relearn-delay-minutes:10}") int relearnDelayMinutes,
+                                     @Value("${review.max-interval-days:365}") int maxIntervalDays) {
+        this.relearnDelay = Duration.ofMinutes(relearnDelayMinutes);
+        this.maxIntervalDays = maxIntervalDays;
+    }
+
+    /**
+     * Une carte est due quand son échéance est atteinte à l'instant {@code now}
+     */
+    public boolean isDue(ReviewState current, Instant now) {
+        return current.dueAt() == null || !current.dueAt().isAfter(now);
+    }
+
+    /**
+     * Calcule l'état suivant d'une carte due après une réponse donnée à l'instant {@code now}
+     * @throws IllegalStateException si la carte n'est pas encore due
+     */
+    public ReviewState next(ReviewState current, Grade grade, Instant now) {
+        if (!isDue(current, now)) {
+            throw new IllegalStateException("Card not due before " + current.dueAt());
+        }
+        int quality = grade.quality();
+        double ease = Math.max(MIN_EASE,
+                current.ease() + (0.1 - (5 - quality) * (0.08 + (5 - quality) * 0.02)));
+
+        if (quality < 3) {
+            // Oubli : retour en apprentissage, la carte revient en fin de session
+            return new ReviewState(ease, 0, 0, current.lapses() + 1, now.plus(relearnDelay));
+        }
+
+        int intervalDays;
+        if (current.repetitions() == 0) {
+            intervalDays = 1;
+        } else if (current.repetitions() == 1) {
+            intervalDays = 6;
+        } else {
+            // Intervalle calculé avec la facilité d'avant la réponse, comme dans SM-2
+            intervalDays = (int) Math.round(Math.max(1, current.intervalDays()) * current.ease());
+        }
+        intervalDays = Math.min(intervalDays, maxIntervalDays);
+        return new ReviewState(ease, intervalDays, current.repetitions() + 1, current.lapses(),
+                now.plus(Duration.ofDays(intervalDays)));
+    }
+}
@@ -3,18 +3,29 @@ package com.backcover.service;
 import com.backcover.model.ParagraphContext;
 import com.backcover.model.WordContext;
 import com.backcover.model.WordTranslation;
-import com.backcover.repository.ParagraphContextRepository;
 import com.backcover.repository.WordContextRepository;
 import com.backcover.repository.WordTranslationRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -27,16 +38,54 @@ public class TranslationContextService {
 
     private static final Logger log = LoggerFactory.getLogger(TranslationContextService.class);
 
+    private static final int IN_BATCH_SIZE = 1000;
+
+    private static final String INSERT_PARAGRAPH_CONTEXT_SQL = """
+            INSERT INTO paragraph_context (context_hash, paragraph_text, created_at)
+            VALUES (?, ?, NOW())
+            ON CONFLICT (context_hash) DO NOTHING
+            RETURNING context_hash
+            """;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            log.error("SHA-256 algorithm not available", e);
+            throw new IllegalStateException("Cannot calculate hash for paragraph context", e);
+        }
+    });
+
+    /**
+     * 128 premiers bits d'un hash de paragraphe : clé compacte des contextes déjà en base
+     */
+    private record ContextKey(long high, long low) {
+
+        static ContextKey of(String contextHash) {
+            return new ContextKey(HexFormat.fromHexDigitsToLong(contextHash, 0, 16),
+                    HexFormat.fromHexDigitsToLong(contextHash, 16, 32));
+        }
+    }
+
     private final WordTranslationRepository wordTranslationRepository;
-    private final ParagraphContextRepository paragraphContextRepository;
     private final WordContextRepository wordContextRepository;
+    private final JdbcTemplate jdbcTemplate;
+    // LRU des contextes de paragraphe connus en base : ni SELECT ni INSERT pour un paragraphe déjà vu
+    private final Map<ContextKey, Boolean> knownParagraphContexts;
 
     public TranslationContextService(WordTranslationRepository wordTranslationRepository,
-                                   ParagraphContextRepository paragraphContextRepository,
-                                   WordContextRepository wordContextRepository) {
+                                   WordContextRepository wordContextRepository,
+                                   JdbcTemplate jdbcTemplate,
+                                   @Value("${paragraph-context.cache.max-entries:50000}") int maxKnownParagraphContexts) {
         this.wordTranslationRepository = wordTranslationRepository;
-        this.paragraphContextRepository = paragraphContextRepository;
         this.wordContextRepository = wordContextRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.knownParagraphContexts = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ContextKey, Boolean> eldest) {
+                return size() > maxKnownParagraphContexts;
+            }
+        });
     }
 
     /**
@@ -49,22 +98,16 @@ public class TranslationContextService {
         log.debug("Finding or creating translation for analysis {} in {}: '{}'", 
                 wordAnalysisId, languageCode, translationText);
 
-        // Chercher une traduction existante
-        Optional<WordTranslation> existingTranslation = wordTranslationRepository
-                .findByWordAnalysisIdAndLanguageCodeAndTranslationText(wordAnalysisId, languageCode, translationText);
+        // Un seul INSERT ... ON CONFLICT DO NOTHING renvoyant la ligne nouvelle ou existante ;
+        // vide seulement si une transaction concurrente l'a validée entre-temps : on la relit
+        WordTranslation translation = wordTranslationRepository
+                .findOrInsert(UUID.randomUUID(), wordAnalysisId, languageCode, translationText, confidenceScore, source)
+                .or(() -> wordTranslationRepository
+                        .findByWordAnalysisIdAndLanguageCodeAndTranslationText(wordAnalysisId, languageCode, translationText))
+                .orElseThrow(() -> new IllegalStateException("Translation neither inserted nor found for analysis " + wordAnalysisId));
+        log.debug("Resolved translation with ID: {} for analysis {}", translation.getId(), wordAnalysisId);
 
-        if (existingTranslation.isPresent()) {
-            log.debug("Found existing translation with ID: {}", existingTranslation.get().getId());
-            return existingTranslation.get();
-        }
-
-        // Créer une nouvelle traduction
-        WordTranslation newTranslation = new WordTranslation(wordAnalysisId, languageCode, 
-                                                            translationText, confidenceScore, source);
-        WordTranslation savedTranslation = wordTranslationRepository.save(newTranslation);
-        log.info("Created new translation with ID: {} for analysis {}", savedTranslation.getId(), wordAnalysisId);
-        
-        return savedTranslation;
+        return translation;
     }
 
     /**
@@ -76,24 +119,42 @@ public class TranslationContextService {
         if (paragraphText == null || paragraphText.trim().isEmpty()) {
             paragraphText = ""; // Normaliser les textes vides
         }
+        return findOrCreateParagraphContext(contextHashOf(paragraphText), paragraphText);
+    }
 
-        String contextHash = calculateSHA256Hash(paragraphText);
-        log.debug("Finding or creating paragraph context with hash: {}", contextHash);
+    /**
+     * Variante pour un hash déjà connu (index de mots du livre) : pas de re-hachage du paragraphe.
+     * Un paragraphe déjà vu par cette instance ne coûte aucune requête ; sinon un seul
+     * INSERT ... ON CONFLICT DO NOTHING, sans SELECT préalable ni course entre lecture et écriture.
+     * Le contexte renvoyé n'est pas attaché à la session : seul son hash sert aux appelants.
+     */
+    @Transactional
+    public ParagraphContext findOrCreateParagraphContext(String contextHash, String paragraphText) {
+        if (paragraphText == null || paragraphText.trim().isEmpty()) {
+            paragraphText = "";
+        }
+        ContextKey key = ContextKey.of(contextHash);
+        if (knownParagraphContexts.get(key) != null) {
+            log.debug("Paragraph context {} already known", contextHash);
+            return new ParagraphContext(contextHash, paragraphText);
+        }
 
-        // Chercher un contexte existant
-        Optional<ParagraphContext> existingContext = paragraphContextRepository.findByContextHash(contextHash);
+        List<String> inserted = jdbcTemplate.queryForList(INSERT_PARAGRAPH_CONTEXT_SQL, String.class,
+                contextHash, paragraphText);
+        log.debug("{} paragraph context with hash: {}", inserted.isEmpty() ? "Found existing" : "Created new", contextHash);
 
-        if (existingContext.isPresent()) {
-            log.debug("Found existing paragraph context with hash: {}", contextHash);
-            return existingContext.get();
+        // Mémorisé seulement après commit : un rollback ne doit pas laisser croire que la ligne existe
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    knownParagraphContexts.put(key, Boolean.TRUE);
+                }
+            });
+        } else {
+            knownParagraphContexts.put(key, Boolean.TRUE);
         }
-
-        // Créer un nouveau contexte
-        ParagraphContext newContext = new ParagraphContext(contextHash, paragraphText);
-        ParagraphContext savedContext = paragraphContextRepository.save(newContext);
-        log.debug("Created new paragraph context with hash: {}", contextHash);
-        
-        return savedContext;
+        return new ParagraphContext(contextHash, paragraphText);
     }
 
     /**
@@ -107,30 +168,11 @@ public class TranslationContextService {
         log.debug("Creating or updating word context for instance: {} in book {} page {}", 
                 wordInstanceId, bookId, pageNumber);
 
-        // Vérifier si un contexte existe déjà pour cette instance
-        Optional<WordContext> existingContext = wordContextRepository
-                .findByBookIdAndPageNumberAndWordInstanceId(bookId, pageNumber, wordInstanceId);
-
-        if (existingContext.isPresent()) {
-            // Mettre à jour le contexte existant
-            WordContext context = existingContext.get();
-            context.setWordTranslationId(translation.getId());
-            context.setWordAnalysisId(wordAnalysisId);
-            context.setContextHash(paragraphContext.getContextHash());
-            context.setWordTextInContext(wordTextInContext);
-            
-            WordContext updatedContext = wordContextRepository.save(context);
-            log.info("Updated existing word context with ID: {}", updatedContext.getId());
-            return updatedContext;
-        } else {
-            // Créer un nouveau contexte
-            WordContext newContext = new WordContext(bookId, pageNumber, wordInstanceId,
-                    wordTextInContext, wordAnalysisId, translation.getId(), paragraphContext.getContextHash());
-            
-            WordContext savedContext = wordContextRepository.save(newContext);
-            log.info("Created new word context with ID: {}", savedContext.getId());
-            return savedContext;
-        }
+        // Création ou mise à jour en une seule requête (ON CONFLICT sur l'instance de mot)
+        WordContext context = wordContextRepository.upsert(UUID.randomUUID(), bookId, pageNumber, wordInstanceId,
+                wordTextInContext, wordAnalysisId, translation.getId(), paragraphContext.getContextHash());
+        log.info("Upserted word context with ID: {}", context.getId());
+        return context;
     }
 
     /**
@@ -159,26 +201,59 @@ public class TranslationContextService {
     }
 
     /**
-     * Calcule le hash SHA-256 d'un texte pour la déduplication
+     * Meilleure traduction de chaque analyse d'un lot, indexée par id d'analyse.
+     * Les ids sont envoyés par paquets de {@value #IN_BATCH_SIZE} pour borner la taille des clauses IN.
      */
-    private String calculateSHA256Hash(String text) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(text.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
+    @Transactional(readOnly = true)
+    public Map<UUID, WordTranslation> findBestTranslations(Collection<UUID> wordAnalysisIds, String languageCode) {
+        Map<UUID, WordTranslation> translations = new HashMap<>();
+        for (List<UUID> batch : batches(wordAnalysisIds)) {
+            for (WordTranslation translation : wordTranslationRepository.findBestTranslations(batch, languageCode)) {
+                translations.put(translation.getWordAnalysisId(), translation);
+            }
+        }
+        return translations;
+    }
+
+    /**
+     * Contextes (avec paragraphe) d'un lot d'instances de mots d'un livre, indexés par
+     * {@link #wordContextKey(Integer, String)}
+     */
+    @Transactional(readOnly = true)
+    public Map<String, WordContext> findWordContextsWithParagraph(UUID bookId, Collection<String> wordInstanceIds) {
+        Map<String, WordContext> contexts = new HashMap<>();
+        for (List<String> batch : batches(wordInstanceIds)) {
+            for (WordContext context : wordContextRepository.findWithParagraphByBookIdAndWordInstanceIdIn(bookId, batch)) {
+                contexts.put(wordContextKey(context.getPageNumber(), context.getWordInstanceId()), context);
             }
-            
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            log.error("SHA-256 algorithm not available", e);
-            throw new RuntimeException("Cannot calculate hash for paragraph context", e);
         }
+        return contexts;
+    }
+
+    public static String wordContextKey(Integer pageNumber, String wordInstanceId) {
+        return pageNumber + ":" + wordInstanceId;
+    }
+
+    private static <T> List<List<T>> batches(Collection<T> values) {
+        List<T> distinct = new ArrayList<>(new LinkedHashSet<>(values));
+        List<List<T>> batches = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += IN_BATCH_SIZE) {
+            batches.add(distinct.subList(from, Math.min(from + IN_BATCH_SIZE, distinct.size())));
+        }
+        return batches;
+    }
+
+    /**
+     * Hash de déduplication d'un texte de paragraphe (clé de paragraph_context)
+     */
+    public String contextHashOf(String paragraphText) {
+        return calculateSHA256Hash(paragraphText == null || paragraphText.trim().isEmpty() ? "" : paragraphText);
+    }
+
+    /**
+     * Calcule le hash SHA-256 d'un texte pour la déduplication (hexadécimal, clé de paragraph_context)
+     */
+    private String calculateSHA256Hash(String text) {
+        return HexFormat.of().formatHex(SHA_256.get().digest(text.getBytes(StandardCharsets.UTF_8)));
     }
 }
\ No newline at end of file
@@ -1,4 +1,4 @@
-// com.backcover.service.UserService.java - Gestion de la Race Condition findOrCreateUser
+// com.backcover.service.UserService.java - findOrCreateUser par upsert (ON CONFLICT)
 
 package com.backcover.service;
 
@@ -7,12 +7,12 @@ import com.backcover.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.dao.DataIntegrityViolationException; // <<< Importer l'exception
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.annotation.Propagation;
 
 import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class UserService {
@@ -40,34 +40,23 @@ public class UserService {
         return Optional.empty();
     }
 
-    // Public method to find or create user by email with race condition handling
+    // Public method to find or create user by email. Called on nearly every authenticated request:
+    // existing users cost one read-only SELECT; only a miss runs INSERT ... ON CONFLICT DO NOTHING,
+    // so concurrent first logins never hit a constraint violation
     public User findOrCreateUserByEmail(String email) {
         log.info("Attempting to find or create user for email: {}", email);
         
-        // First try to get existing user
         Optional<User> existingUser = findUserByEmail(email);
         if (existingUser.isPresent()) {
-            log.info("Found existing user with ID {} for email {}", existingUser.get().getId(), email);
             return existingUser.get();
         }
         
-        // If user doesn't exist, try to create
-        try {
-            return createUser(email);
-        } catch (DataIntegrityViolationException e) {
-            // In case of race condition, retry fetching user
-            log.warn("DataIntegrityViolationException during user creation for email {}, likely race condition. Re-fetching user.", email);
-            
-            // New transaction for search
-            Optional<User> userCreatedByOtherThread = findUserByEmail(email);
-            if (userCreatedByOtherThread.isPresent()) {
-                log.info("Found user created by concurrent thread for email {}.", email);
-                return userCreatedByOtherThread.get();
-            } else {
-                log.error("CRITICAL: User for email {} not found even after DataIntegrityViolationException during creation!", email);
-                throw new RuntimeException("Failed to find or create user after potential race condition for email: " + email, e);
-            }
-        }
+        // Empty only if a concurrent transaction committed the user during the statement: read it again
+        User user = userRepository.findOrInsertByEmail(UUID.randomUUID(), email)
+                .or(() -> findUserByEmail(email))
+                .orElseThrow(() -> new IllegalStateException("User neither inserted nor found for email: " + email));
+        log.info("Resolved user with ID {} for email {}", user.getId(), email);
+        return user;
     }
     
     // Deprecated method for backward compatibility
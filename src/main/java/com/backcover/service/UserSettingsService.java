@@ -2,6 +2,7 @@ package com.backcover.service; // ou sous-package approprié
 
 import com.backcover.dto.user.UserSettingsDto;
 import com.backcover.model.User;
+import com.backcover.model.settings.ReadingTheme;
 import com.backcover.model.settings.UserSettings;
 import com.backcover.repository.UserRepository;
 import com.backcover.repository.UserSettingsRepository;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
+import java.util.UUID;
 
 @Service
 @Transactional
@@ -50,10 +52,16 @@ public class UserSettingsService {
 
     // Cette méthode peut rester publique si utile ailleurs, ou privée si seulement utilisée ici
     public UserSettings findOrCreateUserSettings(User user) {
-        return userSettingsRepository.findByUserId(user.getId())
-                .orElseGet(() -> {
-                    UserSettings newSettings = new UserSettings(user);
-                    return userSettingsRepository.save(newSettings);
-                });
+        Optional<UserSettings> existingSettings = userSettingsRepository.findByUserId(user.getId());
+        if (existingSettings.isPresent()) {
+            return existingSettings.get();
+        }
+
+        // Premier accès : INSERT ... ON CONFLICT DO NOTHING dans sa propre transaction d'écriture (l'appelant
+        // peut être en lecture seule), renvoyant la ligne nouvelle ou existante ;
+        // vide seulement si une transaction concurrente l'a validée entre-temps : on la relit
+        return userSettingsRepository.findOrInsert(UUID.randomUUID(), user.getId(), ReadingTheme.LIGHT.name())
+                .or(() -> userSettingsRepository.findByUserId(user.getId()))
+                .orElseThrow(() -> new IllegalStateException("User settings neither inserted nor found for user " + user.getId()));
     }
 }
\ No newline at end of file
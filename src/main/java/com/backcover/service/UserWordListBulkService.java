@@ -0,0 +1,214 @@
+package com.backcover.service;
+
+import com.backcover.dto.wordlist.BulkAddWordsToListRequestDto;
+import com.backcover.dto.wordlist.BulkAddWordsToListRequestDto.WordEntry;
+import com.backcover.dto.wordlist.BulkAddWordsToListResultDto;
+import com.backcover.dto.wordlist.BulkAddWordsToListResultDto.SkippedWord;
+import com.backcover.dto.wordlist.UserWordListItemDto;
+import com.backcover.model.Book;
+import com.backcover.model.BookVisibilityStatus;
+import com.backcover.model.User;
+import com.backcover.model.WordTranslation;
+import com.backcover.model.user.UserWordList;
+import com.backcover.repository.BookRepository;
+import com.backcover.repository.UserRepository;
+import com.backcover.repository.UserWordListItemRepository;
+import com.backcover.repository.UserWordListRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Ajout et suppression de mots par lots dans les listes (toute une page de vocabulaire en une requête).
+ * L'accès au livre est vérifié une fois, les traductions sont résolues en une requête groupée et les items
+ * insérés par INSERT multi-lignes ... ON CONFLICT DO NOTHING : un mot déjà présent est simplement ignoré.
+ */
+@Service
+public class UserWordListBulkService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserWordListBulkService.class);
+
+    private static final int INSERT_BATCH_SIZE = 100;
+
+    private static final String INSERT_ITEMS_PREFIX =
+            "INSERT INTO user_word_list_item (id, list_id, user_id, book_id, page_number, word_instance_id, "
+            + "word_text, word_analysis_id, added_at) VALUES ";
+    private static final String ITEM_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ITEMS_SUFFIX =
+            " ON CONFLICT (list_id, book_id, word_instance_id) DO NOTHING RETURNING id";
+
+    private final UserRepository userRepository;
+    private final BookRepository bookRepository;
+    private final UserWordListRepository userWordListRepository;
+    private final UserWordListItemRepository userWordListItemRepository;
+    private final UserWordListService userWordListService;
+    private final TranslationContextService translationContextService;
+    private final BookWordIndexService bookWordIndexService;
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserWordListBulkService(UserRepository userRepository,
+                                   BookRepository bookRepository,
+                                   UserWordListRepository userWordListRepository,
+                                   UserWordListItemRepository userWordListItemRepository,
+                                   UserWordListService userWordListService,
+                                   TranslationContextService translationContextService,
+                                   BookWordIndexService bookWordIndexService,
+                                   JdbcTemplate jdbcTemplate) {
+        this.userRepository = userRepository;
+        this.bookRepository = bookRepository;
+        this.userWordListRepository = userWordListRepository;
+        this.userWordListItemRepository = userWordListItemRepository;
+        this.userWordListService = userWordListService;
+        this.translationContextService = translationContextService;
+        this.bookWordIndexService = bookWordIndexService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Mot validé, prêt à être inséré
+     */
+    private record ResolvedWord(UUID itemId, WordEntry entry, int pageNumber, String wordText) {
+    }
+
+    /**
+     * Ajoute plusieurs mots d'un livre à la liste du livre (ou à la liste par défaut) dans la langue cible.
+     * Les mots sans traduction dans cette langue ou introuvables dans l'index du livre sont ignorés et
+     * renvoyés dans skipped.
+     */
+    @Transactional
+    public BulkAddWordsToListResultDto addWords(String supabaseUserId, BulkAddWordsToListRequestDto request,
+                                                boolean useBookSpecificList) {
+        long start = System.currentTimeMillis();
+        String targetLanguageCode = request.getTargetLanguageCode();
+
+        // Find the user - supabaseUserId now contains email
+        User user = userRepository.findByEmail(supabaseUserId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        Book book = bookRepository.findById(request.getBookId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Book not found"));
+
+        // Check if user has access to the book if it's private
+        if (book.getVisibilityStatus() == BookVisibilityStatus.PRIVATE) {
+            boolean isOwner = book.getUser() != null && book.getUser().getId().equals(user.getId());
+            if (!isOwner) {
+                log.warn("User {} attempted to bulk add words from private book {} they don't own",
+                        user.getId(), book.getId());
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied to this book");
+            }
+        }
+
+        // Un seul exemplaire par wordInstanceId (le dernier l'emporte)
+        Map<String, WordEntry> entries = new LinkedHashMap<>();
+        for (WordEntry entry : request.getWords()) {
+            entries.put(entry.getWordInstanceId(), entry);
+        }
+
+        // Traductions de toutes les analyses en une requête
+        Map<UUID, WordTranslation> translations = translationContextService.findBestTranslations(
+                entries.values().stream().map(WordEntry::getWordAnalysisId).toList(), targetLanguageCode);
+
+        List<ResolvedWord> resolved = new ArrayList<>(entries.size());
+        List<SkippedWord> skipped = new ArrayList<>();
+        for (WordEntry entry : entries.values()) {
+            if (!translations.containsKey(entry.getWordAnalysisId())) {
+                skipped.add(new SkippedWord(entry.getWordInstanceId(), "WORD_NEVER_TRANSLATED"));
+                continue;
+            }
+            Integer pageNumber = entry.getPageNumber();
+            String wordText = entry.getWordText();
+            if (pageNumber == null || wordText == null || wordText.isBlank()) {
+                Optional<BookWordIndexService.IndexedWord> indexed =
+                        bookWordIndexService.resolve(book.getId(), entry.getWordInstanceId());
+                if (indexed.isEmpty() || indexed.get().wordText() == null) {
+                    skipped.add(new SkippedWord(entry.getWordInstanceId(), "UNKNOWN_WORD"));
+                    continue;
+                }
+                pageNumber = pageNumber != null ? pageNumber : indexed.get().pageNumber();
+                wordText = wordText != null && !wordText.isBlank() ? wordText : indexed.get().wordText();
+            }
+            resolved.add(new ResolvedWord(UUID.randomUUID(), entry, pageNumber, wordText));
+        }
+
+        UserWordList targetList = useBookSpecificList
+                ? userWordListService.findOrCreateBookSpecificList(user, book, targetLanguageCode)
+                : userWordListService.findOrCreateDefaultList(user, targetLanguageCode);
+        // La liste doit exister en base avant l'insertion JDBC des items
+        userWordListRepository.flush();
+
+        Instant addedAt = Instant.now();
+        List<UserWordListItemDto> added = new ArrayList<>(resolved.size());
+        for (int from = 0; from < resolved.size(); from += INSERT_BATCH_SIZE) {
+            List<ResolvedWord> batch = resolved.subList(from, Math.min(from + INSERT_BATCH_SIZE, resolved.size()));
+            Map<UUID, ResolvedWord> byId = new HashMap<>();
+            batch.forEach(word -> byId.put(word.itemId(), word));
+            for (UUID insertedId : insertItems(batch, targetList, user, book, addedAt)) {
+                ResolvedWord word = byId.get(insertedId);
+                added.add(new UserWordListItemDto(insertedId, book.getId(), book.getTitle(), word.pageNumber(),
+                        word.entry().getWordInstanceId(), word.wordText(), addedAt));
+            }
+        }
+
+        int alreadyPresent = resolved.size() - added.size();
+        log.info("Bulk added {} words to {} list {} for user {} ({} already present, {} skipped) in {}ms",
+                added.size(), useBookSpecificList ? "book-specific" : "default", targetList.getId(), user.getId(),
+                alreadyPresent, skipped.size(), System.currentTimeMillis() - start);
+        return new BulkAddWordsToListResultDto(targetList.getId(), added, alreadyPresent, skipped);
+    }
+
+    /**
+     * Supprime plusieurs items appartenant à l'utilisateur (tombstones enregistrées pour la synchronisation)
+     * @return nombre d'items supprimés ; les ids inconnus ou appartenant à un autre utilisateur sont ignorés
+     */
+    @Transactional
+    public int removeWords(String supabaseUserId, List<UUID> itemIds) {
+        int deletedCount = userWordListItemRepository.deleteWithTombstoneByIdInAndUserEmail(itemIds, supabaseUserId);
+        log.info("Bulk removed {} of {} word list items for user {}", deletedCount, itemIds.size(), supabaseUserId);
+        return deletedCount;
+    }
+
+    /**
+     * Insère un lot d'items en une requête multi-lignes
+     * @return ids des items réellement insérés (hors conflits)
+     */
+    private List<UUID> insertItems(List<ResolvedWord> batch, UserWordList list, User user, Book book, Instant addedAt) {
+        StringBuilder sql = new StringBuilder(INSERT_ITEMS_PREFIX.length() + INSERT_ITEMS_SUFFIX.length()
+                + batch.size() * (ITEM_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_ITEMS_PREFIX);
+        Object[] args = new Object[batch.size() * 9];
+        Timestamp timestamp = Timestamp.from(addedAt);
+        int i = 0;
+        for (int row = 0; row < batch.size(); row++) {
+            ResolvedWord word = batch.get(row);
+            if (row > 0) {
+                sql.append(", ");
+            }
+            sql.append(ITEM_PLACEHOLDERS);
+            args[i++] = word.itemId();
+            args[i++] = list.getId();
+            args[i++] = user.getId();
+            args[i++] = book.getId();
+            args[i++] = word.pageNumber();
+            args[i++] = word.entry().getWordInstanceId();
+            args[i++] = word.wordText();
+            args[i++] = word.entry().getWordAnalysisId();
+            args[i++] = timestamp;
+        }
+        sql.append(INSERT_ITEMS_SUFFIX);
+        return jdbcTemplate.queryForList(sql.toString(), UUID.class, args);
+    }
+}
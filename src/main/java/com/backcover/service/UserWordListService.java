@@ -2,9 +2,12 @@ package com.backcover.service;
 
 import com.backcover.dto.ConsultedWordDetailsDto;
 import com.backcover.dto.wordlist.AddWordToListRequestDto;
+import com.backcover.dto.wordlist.UserWordListChangesDto;
 import com.backcover.dto.wordlist.UserWordListItemDto;
 import com.backcover.dto.wordlist.UserWordListItemWithDetailsDto;
+import com.backcover.dto.wordlist.UserWordListPageDto;
 import com.backcover.dto.wordlist.UserWordListSummaryDto;
+import com.backcover.dto.wordlist.WordListCursor;
 import com.backcover.model.*;
 import com.backcover.model.user.UserWordList;
 import com.backcover.model.user.UserWordListItem;
@@ -18,12 +21,21 @@ import com.backcover.repository.UserRepository;
 import com.backcover.repository.UserWordListItemRepository;
 import com.backcover.repository.UserWordListRepository;
 import com.backcover.repository.WordAnalysisRepository;
+import com.backcover.service.WordAnalysisProjectionService.WordAnalysisProjection;
 import com.backcover.model.BookMetadataTranslation;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -34,6 +46,9 @@ import java.util.UUID;
 public class UserWordListService {
     
     private static final Logger log = LoggerFactory.getLogger(UserWordListService.class);
+
+    // Chevauchement de la fenêtre since= (commits tardifs, décalage d'horloge entre instances)
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
     
     private final UserWordListRepository userWordListRepository;
     private final UserWordListItemRepository userWordListItemRepository;
@@ -42,8 +57,13 @@ public class UserWordListService {
     private final WordAnalysisRepository wordAnalysisRepository;
     private final DictionaryWordRepository dictionaryWordRepository;
     private final TranslationContextService translationContextService;
+    private final WordAnalysisProjectionService wordAnalysisProjectionService;
     private final ObjectMapper objectMapper;
     private final BookMetadataTranslationRepository bookMetadataTranslationRepository;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxSyncChanges;
+    private final Duration tombstoneRetention;
 
     public UserWordListService(
             UserWordListRepository userWordListRepository,
@@ -53,8 +73,13 @@ public class UserWordListService {
             WordAnalysisRepository wordAnalysisRepository,
             DictionaryWordRepository dictionaryWordRepository,
             TranslationContextService translationContextService,
+            WordAnalysisProjectionService wordAnalysisProjectionService,
             ObjectMapper objectMapper,
-            BookMetadataTranslationRepository bookMetadataTranslationRepository) {
+            BookMetadataTranslationRepository bookMetadataTranslationRepository,
+            @Value("${wordlist.page.default-size:50}") int defaultPageSize,
+            @Value("${wordlist.page.max-size:200}") int maxPageSize,
+            @Value("${wordlist.sync.max-changes:500}") int maxSyncChanges,
+            @Value("${wordlist.sync.tombstone-retention-days:30}") int tombstoneRetentionDays) {
         this.userWordListRepository = userWordListRepository;
         this.userWordListItemRepository = userWordListItemRepository;
         this.userRepository = userRepository;
@@ -62,8 +87,13 @@ public class UserWordListService {
         this.wordAnalysisRepository = wordAnalysisRepository;
         this.dictionaryWordRepository = dictionaryWordRepository;
         this.translationContextService = translationContextService;
+        this.wordAnalysisProjectionService = wordAnalysisProjectionService;
         this.objectMapper = objectMapper;
         this.bookMetadataTranslationRepository = bookMetadataTranslationRepository;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxSyncChanges = maxSyncChanges;
+        this.tombstoneRetention = Duration.ofDays(tombstoneRetentionDays);
     }
     
     /**
@@ -92,15 +122,12 @@ public class UserWordListService {
         
         final String finalLanguageCode = languageCode; // Make effectively final for lambda
         
-        return userWordListRepository.findByUserIdAndLanguageCodeAndIsDefaultTrue(user.getId(), finalLanguageCode)
-                .orElseGet(() -> {
-                    log.info("Creating default word list for user ID: {}, Supabase ID: {}, language: {}", 
-                            user.getId(), user.getSupabaseUserId(), finalLanguageCode);
-                    
-                    UserWordList defaultList = new UserWordList(user, 
-                        "Default List (" + finalLanguageCode.toUpperCase() + ")", true, finalLanguageCode);
-                    return userWordListRepository.save(defaultList);
-                });
+        // Single INSERT ... ON CONFLICT DO NOTHING returning the new or existing list;
+        // empty only if a concurrent transaction committed it meanwhile, so read it again
+        return userWordListRepository.findOrInsertDefaultList(UUID.randomUUID(), user.getId(),
+                        "Default List (" + finalLanguageCode.toUpperCase() + ")", finalLanguageCode)
+                .or(() -> userWordListRepository.findByUserIdAndLanguageCodeAndIsDefaultTrue(user.getId(), finalLanguageCode))
+                .orElseThrow(() -> new IllegalStateException("Default word list neither inserted nor found for user " + user.getId()));
     }
     
     /**
@@ -119,16 +146,13 @@ public class UserWordListService {
         
         final String finalLanguageCode = languageCode;
         
-        return userWordListRepository.findByUserSupabaseUserIdAndLanguageCodeAndBookId(
-                user.getSupabaseUserId(), finalLanguageCode, book.getId())
-                .orElseGet(() -> {
-                    log.info("Creating book-specific word list for user ID: {}, Supabase ID: {}, book ID: {}, language: {}", 
-                            user.getId(), user.getSupabaseUserId(), book.getId(), finalLanguageCode);
-                    
-                    String listName = book.getTitle() + " (" + finalLanguageCode.toUpperCase() + ")";
-                    UserWordList bookList = new UserWordList(user, listName, false, finalLanguageCode, book);
-                    return userWordListRepository.save(bookList);
-                });
+        String listName = book.getTitle() + " (" + finalLanguageCode.toUpperCase() + ")";
+        return userWordListRepository.findOrInsertBookList(UUID.randomUUID(), user.getId(), listName,
+                        finalLanguageCode, book.getId())
+                .or(() -> userWordListRepository.findByUserSupabaseUserIdAndLanguageCodeAndBookId(
+                        user.getSupabaseUserId(), finalLanguageCode, book.getId()))
+                .orElseThrow(() -> new IllegalStateException("Book word list neither inserted nor found for user "
+                        + user.getId() + " and book " + book.getId()));
     }
     
     /**
@@ -345,13 +369,11 @@ public class UserWordListService {
             return List.of();
         }
         
-        // Get items and map to DTOs with details in the target language
+        // Get items (with book and analysis) and map to DTOs with details in the target language
         List<UserWordListItem> wordItems = userWordListItemRepository
-                .findByWordListIdOrderByPageNumberAscAddedAtDesc(defaultListOpt.get().getId());
+                .findWithDetailsByWordListId(defaultListOpt.get().getId());
         
-        return wordItems.stream()
-                .map(item -> buildUserWordListItemWithDetailsDto(item, targetLanguageCode))
-                .toList();
+        return buildUserWordListItemsWithDetails(wordItems, targetLanguageCode);
     }
     
     /**
@@ -390,13 +412,11 @@ public class UserWordListService {
             return List.of();
         }
         
-        // Get items and map to DTOs with details
+        // Get items (with book and analysis) and map to DTOs with details
         List<UserWordListItem> wordItems = userWordListItemRepository
-                .findByWordListIdOrderByPageNumberAscAddedAtDesc(bookListOpt.get().getId());
+                .findWithDetailsByWordListId(bookListOpt.get().getId());
         
-        return wordItems.stream()
-                .map(item -> buildUserWordListItemWithDetailsDto(item, targetLanguageCode))
-                .toList();
+        return buildUserWordListItemsWithDetails(wordItems, targetLanguageCode);
     }
     
     /**
@@ -410,19 +430,10 @@ public class UserWordListService {
         User user = userRepository.findByEmail(supabaseUserId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
-        // Get all word lists for the user
-        List<UserWordList> userWordLists = userWordListRepository.findByUserId(user.getId());
+        // Get all word lists for the user (with their book)
+        List<UserWordList> userWordLists = userWordListRepository.findWithBookByUserId(user.getId());
 
-        // Map to DTOs with item counts and filter out empty lists
-        return userWordLists.stream()
-                .map(wordList -> {
-                    long itemCount = userWordListItemRepository.countByWordListId(wordList.getId());
-                    UserWordListSummaryDto dto = UserWordListSummaryDto.fromEntity(wordList, itemCount);
-                    applyBookTitleTranslation(dto, wordList, uiLang);
-                    return dto;
-                })
-                .filter(dto -> dto.getItemCount() > 0) // Only return lists with items
-                .toList();
+        return buildNonEmptyListSummaries(userWordLists, uiLang);
     }
     
     /**
@@ -439,25 +450,125 @@ public class UserWordListService {
         User user = userRepository.findByEmail(supabaseUserId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
-        // Get word lists for the user in specific language
-        List<UserWordList> userWordLists = userWordListRepository.findByUserIdAndLanguageCode(user.getId(), languageCode);
+        // Get word lists for the user in specific language (with their book)
+        List<UserWordList> userWordLists = userWordListRepository.findWithBookByUserIdAndLanguageCode(user.getId(), languageCode);
 
         if (userWordLists.isEmpty()) {
             log.info("No word lists found for user {} in language {}", supabaseUserId, languageCode);
             return List.of();
         }
 
-        // Map to DTOs with item counts and filter out empty lists
-        return userWordLists.stream()
+        return buildNonEmptyListSummaries(userWordLists, uiLang);
+    }
+
+    /**
+     * Map lists to summary DTOs, with all item counts fetched in one grouped query,
+     * and filter out empty lists
+     */
+    private List<UserWordListSummaryDto> buildNonEmptyListSummaries(List<UserWordList> wordLists, String uiLang) {
+        if (wordLists.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Long> itemCounts = new HashMap<>();
+        for (Object[] row : userWordListItemRepository.countByWordListIds(
+                wordLists.stream().map(UserWordList::getId).toList())) {
+            itemCounts.put((UUID) row[0], (Long) row[1]);
+        }
+
+        return wordLists.stream()
+                .filter(wordList -> itemCounts.containsKey(wordList.getId())) // Only return lists with items
                 .map(wordList -> {
-                    long itemCount = userWordListItemRepository.countByWordListId(wordList.getId());
-                    UserWordListSummaryDto dto = UserWordListSummaryDto.fromEntity(wordList, itemCount);
+                    UserWordListSummaryDto dto = UserWordListSummaryDto.fromEntity(wordList, itemCounts.get(wordList.getId()));
                     applyBookTitleTranslation(dto, wordList, uiLang);
                     return dto;
                 })
-                .filter(dto -> dto.getItemCount() > 0) // Only return lists with items
                 .toList();
     }
+
+    /**
+     * Get one page of a word list with details, in the list's language.
+     * Pages are ordered by (pageNumber, addedAt DESC, id) and addressed by an opaque cursor,
+     * so items added or removed between two calls never shift the following pages.
+     * @param cursor nextCursor of the previous page, null for the first page
+     * @param limit page size (defaults and caps from wordlist.page.*)
+     */
+    @Transactional
+    public UserWordListPageDto getWordListPage(String supabaseUserId, UUID listId, String cursor, Integer limit) {
+        Instant serverTime = Instant.now();
+        UserWordList wordList = userWordListRepository.findByIdAndUserEmail(listId, supabaseUserId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Word list not found"));
+
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        // Un élément de plus pour savoir s'il reste une page
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<UserWordListItem> wordItems;
+        if (cursor == null || cursor.isBlank()) {
+            wordItems = userWordListItemRepository.findPageByWordListId(listId, fetchLimit);
+        } else {
+            WordListCursor position;
+            try {
+                position = WordListCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+            wordItems = userWordListItemRepository.findPageByWordListIdAfter(
+                    listId, position.pageNumber(), position.addedAt(), position.id(), fetchLimit);
+        }
+
+        boolean hasMore = wordItems.size() > pageSize;
+        List<UserWordListItemWithDetailsDto> items = buildUserWordListItemsWithDetails(
+                hasMore ? wordItems.subList(0, pageSize) : wordItems, wordList.getLanguageCode());
+        String nextCursor = hasMore ? WordListCursor.of(items.get(items.size() - 1)).encode() : null;
+
+        log.debug("SERVICE: Word list page - listId: {}, cursor: {}, returned: {}, hasMore: {}",
+                listId, cursor != null, items.size(), hasMore);
+        return new UserWordListPageDto(listId, wordList.getLanguageCode(), items, nextCursor, serverTime);
+    }
+
+    /**
+     * Get the changes of a word list since a previous sync: items added and ids of items removed.
+     * The window starts slightly before since= so that items committed late are not missed;
+     * clients apply changes by item id, so the overlap is harmless.
+     */
+    @Transactional
+    public UserWordListChangesDto getWordListChanges(String supabaseUserId, UUID listId, Instant since) {
+        Instant serverTime = Instant.now();
+        UserWordList wordList = userWordListRepository.findByIdAndUserEmail(listId, supabaseUserId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Word list not found"));
+
+        // Les suppressions plus anciennes que la rétention ont été purgées
+        if (since.isBefore(serverTime.minus(tombstoneRetention))) {
+            log.info("SERVICE: since={} is older than tombstone retention for list {}, full resync required", since, listId);
+            return UserWordListChangesDto.fullResync(listId, since, serverTime);
+        }
+
+        Instant windowStart = since.minus(SYNC_OVERLAP);
+        List<UserWordListItem> addedItems = userWordListItemRepository
+                .findAddedToWordListSince(listId, windowStart, Limit.of(maxSyncChanges + 1));
+        if (addedItems.size() > maxSyncChanges) {
+            log.info("SERVICE: More than {} items added to list {} since {}, full resync required", maxSyncChanges, listId, since);
+            return UserWordListChangesDto.fullResync(listId, since, serverTime);
+        }
+        List<UUID> removed = userWordListItemRepository.findRemovedFromWordListSince(listId, windowStart);
+
+        List<UserWordListItemWithDetailsDto> added = buildUserWordListItemsWithDetails(addedItems, wordList.getLanguageCode());
+
+        log.debug("SERVICE: Word list changes - listId: {}, since: {}, added: {}, removed: {}",
+                listId, since, added.size(), removed.size());
+        return new UserWordListChangesDto(listId, since, serverTime, false, added, removed);
+    }
+
+    /**
+     * Purge the tombstones that are older than the sync retention window
+     */
+    @Scheduled(cron = "${wordlist.sync.tombstone-purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeExpiredTombstones() {
+        int purged = userWordListItemRepository.deleteTombstonesRemovedBefore(Instant.now().minus(tombstoneRetention));
+        if (purged > 0) {
+            log.info("Purged {} word list item tombstones older than {} days", purged, tombstoneRetention.toDays());
+        }
+    }
     
     /**
      * Get words from a specific book for a user with word analysis details
@@ -517,18 +628,11 @@ public class UserWordListService {
         // Get all word items for this book and user, ordered by page then chronologically desc
         log.debug("SERVICE: Querying word list items for supabaseUserId: {} and bookId: {}", supabaseUserId, bookId);
         List<UserWordListItem> wordItems = userWordListItemRepository
-                .findByUserSupabaseUserIdAndBookIdOrderByPageNumberAscAddedAtDesc(supabaseUserId, bookId);
+                .findWithDetailsByUserEmailAndBookId(supabaseUserId, bookId);
         log.info("SERVICE: Found {} word items for book {} and user {}", wordItems.size(), bookId, supabaseUserId);
         
         // Map to DTOs with details in the target language
-        List<UserWordListItemWithDetailsDto> result = wordItems.stream()
-                .map(item -> {
-                    log.debug("SERVICE: Mapping word item - id: {}, wordText: {}, pageNumber: {}, hasAnalysis: {}", 
-                            item.getId(), item.getWordText(), item.getPageNumber(), 
-                            item.getWordAnalysis() != null);
-                    return buildUserWordListItemWithDetailsDto(item, targetLanguageCode);
-                })
-                .toList();
+        List<UserWordListItemWithDetailsDto> result = buildUserWordListItemsWithDetails(wordItems, targetLanguageCode);
         
         log.info("SERVICE: Returning {} word items with details for book {} and user {} in language {}", 
                 result.size(), bookId, supabaseUserId, targetLanguageCode);
@@ -598,7 +702,7 @@ public class UserWordListService {
      */
     @Transactional
     public boolean removeWordFromList(String supabaseUserId, UUID listItemId) {
-        int deletedCount = userWordListItemRepository.deleteByIdAndWordListUserSupabaseUserId(listItemId, supabaseUserId);
+        int deletedCount = userWordListItemRepository.deleteWithTombstoneByIdAndUserEmail(listItemId, supabaseUserId);
         
         if (deletedCount > 0) {
             log.info("Removed word list item {} for user with Supabase ID: {}", listItemId, supabaseUserId);
@@ -623,8 +727,8 @@ public class UserWordListService {
             return false;
         }
         
-        // 2. Simple DELETE by ID only - no JOIN needed
-        int deletedCount = userWordListItemRepository.deleteByItemId(listItemId);
+        // 2. Simple DELETE by ID only - no JOIN needed (tombstone recorded for delta sync)
+        int deletedCount = userWordListItemRepository.deleteWithTombstoneById(listItemId);
         
         if (deletedCount > 0) {
             log.info("Optimized removal of word list item {} for user {}", listItemId, supabaseUserId);
@@ -644,7 +748,7 @@ public class UserWordListService {
         log.info("Removing word item {} from list {} for user {}", itemId, listId, supabaseUserId);
         
         // Direct deletion with listId and itemId - most efficient approach
-        int deletedCount = userWordListItemRepository.deleteByIdAndWordListIdAndWordListUserSupabaseUserId(
+        int deletedCount = userWordListItemRepository.deleteWithTombstoneByIdAndListIdAndUserEmail(
             itemId, listId, supabaseUserId);
         
         if (deletedCount > 0) {
@@ -699,15 +803,27 @@ public class UserWordListService {
         }
 
         // Récupérer les mots consultés pour ce livre ET pour les listes dans la langue demandée
+        // (items, livre et analyses en une seule requête)
         List<UserWordListItem> consultedWords = userWordListItemRepository
-                .findByUserSupabaseUserIdAndBookIdAndListLanguageOrderByPageNumberAscAddedAtDesc(supabaseUserId, bookId, finalTargetLanguageCode);
+                .findWithDetailsByUserEmailAndBookIdAndListLanguage(supabaseUserId, bookId, finalTargetLanguageCode);
         log.info("SERVICE: Found {} consulted words for book {} and user {} in lists with language {}", 
                 consultedWords.size(), bookId, supabaseUserId, finalTargetLanguageCode);
 
+        // Traductions et contextes chargés par lots pour toute la liste, puis assemblage en mémoire
+        Map<UUID, WordTranslation> translations = translationContextService
+                .findBestTranslations(analysisIdsOf(consultedWords), finalTargetLanguageCode);
+        Map<String, WordContext> contexts = translationContextService.findWordContextsWithParagraph(bookId,
+                consultedWords.stream()
+                        .filter(item -> item.getWordAnalysis() != null)
+                        .map(UserWordListItem::getWordInstanceId)
+                        .toList());
+        Map<UUID, WordAnalysisProjection> projections = wordAnalysisProjectionService
+                .findProjections(analysisIdsOf(consultedWords), finalTargetLanguageCode);
+
         // Transformer chaque mot consulté en DTO avec détails complets
         List<ConsultedWordDetailsDto> result = consultedWords.stream().map(wordItem -> {
             try {
-                return buildConsultedWordDetailsDto(wordItem, finalTargetLanguageCode);
+                return buildConsultedWordDetailsDto(wordItem, finalTargetLanguageCode, translations, contexts, projections);
             } catch (Exception e) {
                 log.error("Failed to build details for word item {}: {}", wordItem.getId(), e.getMessage(), e);
                 return null; // Skip this item in case of error
@@ -722,7 +838,10 @@ public class UserWordListService {
     /**
      * Construit un ConsultedWordDetailsDto à partir d'un UserWordListItem
      */
-    private ConsultedWordDetailsDto buildConsultedWordDetailsDto(UserWordListItem wordItem, String targetLanguageCode) {
+    private ConsultedWordDetailsDto buildConsultedWordDetailsDto(UserWordListItem wordItem, String targetLanguageCode,
+                                                                 Map<UUID, WordTranslation> translations,
+                                                                 Map<String, WordContext> contexts,
+                                                                 Map<UUID, WordAnalysisProjection> projections) {
         ConsultedWordDetailsDto dto = new ConsultedWordDetailsDto();
 
         // Informations de base du mot consulté
@@ -738,25 +857,31 @@ public class UserWordListService {
             dto.setWordAnalysisId(wordAnalysis.getId());
             dto.setAnalysisSource(wordAnalysis.getSource());
 
-            // Parser les données d'analyse JSON
-            try {
-                if (wordAnalysis.getAnalysisData() != null && !wordAnalysis.getAnalysisData().isBlank()) {
-                    JsonNode analysisJson = objectMapper.readTree(wordAnalysis.getAnalysisData());
-                    dto.setWordType(analysisJson.path("type").asText(null));
-                    dto.setRoot(analysisJson.path("root").asText(null));
-                    dto.setCanonicalForm(analysisJson.path("canonical_form_from_llm").asText(null));
-                    dto.setAnalysisDetails(analysisJson.path("details"));
+            // Champs d'analyse lus dans la projection (JSON parsé seulement si l'analyse n'est pas encore projetée)
+            WordAnalysisProjection projection = projections.get(wordAnalysis.getId());
+            if (projection != null) {
+                dto.setWordType(projection.type());
+                dto.setRoot(projection.root());
+                dto.setCanonicalForm(projection.canonicalForm());
+                dto.setAnalysisDetails(projection.detailsNode());
+            } else {
+                try {
+                    if (wordAnalysis.getAnalysisData() != null && !wordAnalysis.getAnalysisData().isBlank()) {
+                        JsonNode analysisJson = objectMapper.readTree(wordAnalysis.getAnalysisData());
+                        dto.setWordType(analysisJson.path("type").asText(null));
+                        dto.setRoot(analysisJson.path("root").asText(null));
+                        dto.setCanonicalForm(analysisJson.path("canonical_form_from_llm").asText(null));
+                        dto.setAnalysisDetails(analysisJson.path("details"));
+                    }
+                } catch (JsonProcessingException e) {
+                    log.warn("Failed to parse analysis data for word analysis {}: {}", wordAnalysis.getId(), e.getMessage());
                 }
-            } catch (JsonProcessingException e) {
-                log.warn("Failed to parse analysis data for word analysis {}: {}", wordAnalysis.getId(), e.getMessage());
             }
 
-            // Récupérer la traduction dans la langue cible
-            Optional<WordTranslation> translationOpt = translationContextService
-                    .findBestTranslation(wordAnalysis.getId(), targetLanguageCode);
+            // Traduction dans la langue cible (préchargée pour toute la liste)
+            WordTranslation translation = translations.get(wordAnalysis.getId());
             
-            if (translationOpt.isPresent()) {
-                WordTranslation translation = translationOpt.get();
+            if (translation != null) {
                 dto.setWordTranslationId(translation.getId());
                 dto.setTranslationText(translation.getTranslationText());
                 dto.setTranslationLanguageCode(translation.getLanguageCode());
@@ -767,12 +892,11 @@ public class UserWordListService {
                         wordAnalysis.getId(), targetLanguageCode);
             }
 
-            // Récupérer le contexte du paragraphe via WordContext
-            Optional<WordContext> contextOpt = translationContextService
-                    .findWordContextWithDetails(wordItem.getBook().getId(), wordItem.getPageNumber(), wordItem.getWordInstanceId());
+            // Contexte du paragraphe via WordContext (préchargé avec son paragraphe)
+            WordContext context = contexts.get(
+                    TranslationContextService.wordContextKey(wordItem.getPageNumber(), wordItem.getWordInstanceId()));
             
-            if (contextOpt.isPresent()) {
-                WordContext context = contextOpt.get();
+            if (context != null) {
                 dto.setWordContextId(context.getId());
                 
                 // Récupérer le texte du paragraphe
@@ -785,11 +909,37 @@ public class UserWordListService {
         return dto;
     }
     
+    /**
+     * Construit les DTO détaillés d'une liste d'items : les meilleures traductions de toutes
+     * les analyses sont chargées en une requête, puis assemblées en mémoire
+     */
+    List<UserWordListItemWithDetailsDto> buildUserWordListItemsWithDetails(List<UserWordListItem> items,
+                                                                           String targetLanguageCode) {
+        List<UUID> analysisIds = analysisIdsOf(items);
+        Map<UUID, WordTranslation> translations = translationContextService
+                .findBestTranslations(analysisIds, targetLanguageCode);
+        Map<UUID, WordAnalysisProjection> projections = wordAnalysisProjectionService
+                .findProjections(analysisIds, targetLanguageCode);
+        return items.stream()
+                .map(item -> buildUserWordListItemWithDetailsDto(item, targetLanguageCode, translations, projections))
+                .toList();
+    }
+
+    private static List<UUID> analysisIdsOf(List<UserWordListItem> items) {
+        return items.stream()
+                .map(UserWordListItem::getWordAnalysis)
+                .filter(Objects::nonNull)
+                .map(WordAnalysis::getId)
+                .toList();
+    }
+
     /**
      * Construit un UserWordListItemWithDetailsDto à partir d'un UserWordListItem
      * avec traduction dans la langue spécifiée
      */
-    private UserWordListItemWithDetailsDto buildUserWordListItemWithDetailsDto(UserWordListItem item, String targetLanguageCode) {
+    private UserWordListItemWithDetailsDto buildUserWordListItemWithDetailsDto(UserWordListItem item, String targetLanguageCode,
+                                                                               Map<UUID, WordTranslation> translations,
+                                                                               Map<UUID, WordAnalysisProjection> projections) {
         if (item == null) {
             return null;
         }
@@ -803,17 +953,18 @@ public class UserWordListService {
         try {
             // Récupérer la traduction dans la langue cible
             WordAnalysis analysis = item.getWordAnalysis();
-            Optional<WordTranslation> translationOpt = translationContextService.findBestTranslation(
-                analysis.getId(), targetLanguageCode);
+            WordTranslation translation = translations.get(analysis.getId());
             
-            String translationText = translationOpt.map(WordTranslation::getTranslationText).orElse(null);
+            String translationText = translation != null ? translation.getTranslationText() : null;
             
             log.debug("Found translation for word '{}' in language '{}': '{}'", 
                 item.getWordText(), targetLanguageCode, translationText);
             
-            // Utiliser la méthode fromEntity qui parse automatiquement le JSON
-            // Cela nous donne la structure propre au lieu du JSON string
-            UserWordListItemWithDetailsDto dto = UserWordListItemWithDetailsDto.fromEntity(item, targetLanguageCode);
+            // Détails construits depuis la projection ; fromEntity ne parse le JSON que si l'analyse n'est pas encore projetée
+            WordAnalysisProjection projection = projections.get(analysis.getId());
+            UserWordListItemWithDetailsDto dto = projection != null
+                    ? UserWordListItemWithDetailsDto.fromEntity(item, wordAnalysisProjectionService.toDetailsDto(projection))
+                    : UserWordListItemWithDetailsDto.fromEntity(item, targetLanguageCode);
             
             // Si on a une traduction spécifique, on peut l'injecter dans analysisDetails
             if (dto.getAnalysisDetails() != null && translationText != null) {
@@ -0,0 +1,92 @@
+package com.backcover.service;
+
+import com.backcover.dto.wordlist.VocabularyStatsDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Statistiques de vocabulaire d'un utilisateur, lues dans les agrégats user_vocabulary_stats /
+ * user_vocabulary_book_stats maintenus par trigger à chaque ajout ou suppression d'item :
+ * jamais de parcours des listes ni des items.
+ */
+@Service
+public class VocabularyStatsService {
+
+    private static final String TOTALS_SQL = """
+            SELECT s.language_code, s.item_count, s.distinct_lemmas, s.last_added_at
+            FROM user_vocabulary_stats s
+            JOIN users u ON u.id = s.user_id
+            WHERE u.email = ? AND (CAST(? AS VARCHAR) IS NULL OR s.language_code = ?) AND s.item_count > 0
+            ORDER BY s.language_code
+            """;
+
+    private static final String BOOK_SQL = """
+            SELECT s.language_code, s.book_id, b.title, s.item_count, s.distinct_lemmas, s.last_added_at
+            FROM user_vocabulary_book_stats s
+            JOIN users u ON u.id = s.user_id
+            JOIN book b ON b.id = s.book_id
+            WHERE u.email = ? AND s.language_code = ? AND s.book_id = ?
+            """;
+
+    private static final String BOOKS_SQL = """
+            SELECT s.language_code, s.book_id, b.title, s.item_count, s.distinct_lemmas, s.last_added_at
+            FROM user_vocabulary_book_stats s
+            JOIN users u ON u.id = s.user_id
+            JOIN book b ON b.id = s.book_id
+            WHERE u.email = ? AND s.language_code = ? AND s.item_count > 0
+            ORDER BY s.last_added_at DESC NULLS LAST
+            """;
+
+    private static final RowMapper<VocabularyStatsDto> BOOK_ROW_MAPPER = (rs, rowNum) -> new VocabularyStatsDto(
+            rs.getString("language_code"),
+            rs.getObject("book_id", UUID.class),
+            rs.getString("title"),
+            rs.getInt("item_count"),
+            rs.getInt("distinct_lemmas"),
+            toInstant(rs.getTimestamp("last_added_at")));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public VocabularyStatsService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Totaux de l'utilisateur, une ligne par langue de liste (ou seulement la langue demandée)
+     */
+    public List<VocabularyStatsDto> getTotals(String email, String languageCode) {
+        return jdbcTemplate.query(TOTALS_SQL, (rs, rowNum) -> new VocabularyStatsDto(
+                rs.getString("language_code"),
+                null,
+                null,
+                rs.getInt("item_count"),
+                rs.getInt("distinct_lemmas"),
+                toInstant(rs.getTimestamp("last_added_at"))), email, languageCode, languageCode);
+    }
+
+    /**
+     * Statistiques d'un livre dans une langue (zéros si l'utilisateur n'a encore rien enregistré)
+     */
+    public VocabularyStatsDto getBookStats(String email, UUID bookId, String languageCode) {
+        return jdbcTemplate.query(BOOK_SQL, BOOK_ROW_MAPPER, email, languageCode, bookId).stream()
+                .findFirst()
+                .orElseGet(() -> new VocabularyStatsDto(languageCode, bookId, null, 0, 0, null));
+    }
+
+    /**
+     * Statistiques par livre dans une langue, derniers livres où un mot a été ajouté d'abord
+     */
+    public List<VocabularyStatsDto> getBooksStats(String email, String languageCode) {
+        return jdbcTemplate.query(BOOKS_SQL, BOOK_ROW_MAPPER, email, languageCode);
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
@@ -0,0 +1,131 @@
+package com.backcover.service;
+
+import com.backcover.dto.wordlist.WordAnalysisDetailsDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.util.RawValue;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Lecture des projections d'analyse (word_analysis_projection / word_analysis_language_details),
+ * maintenues par trigger à chaque écriture de word_analysis.analysis_data : les champs sont lus
+ * en colonnes typées et le sous-arbre details de la langue est renvoyé tel quel, sans readTree.
+ */
+@Service
+public class WordAnalysisProjectionService {
+
+    // Détails dans la langue demandée, sinon en français, sinon la première langue disponible
+    private static final String PROJECTION_SQL = """
+            SELECT p.word_analysis_id, p.word_type, p.root, p.jidar, p.masdar, p.wazn, p.canonical_form,
+                   p.lexical_fields, d.language_code, d.meaning, d.grammatical_function, d.details
+            FROM word_analysis_projection p
+            LEFT JOIN LATERAL (
+                SELECT l.language_code, l.meaning, l.grammatical_function, l.details
+                FROM word_analysis_language_details l
+                WHERE l.word_analysis_id = p.word_analysis_id
+                ORDER BY l.language_code = ? DESC, l.language_code = 'fr' DESC, l.language_code
+                LIMIT 1
+            ) d ON TRUE
+            WHERE p.word_analysis_id = ANY (?)
+            """;
+
+    private static final RowMapper<WordAnalysisProjection> ROW_MAPPER = (rs, rowNum) -> {
+        Array lexicalFields = rs.getArray("lexical_fields");
+        return new WordAnalysisProjection(
+                rs.getObject("word_analysis_id", UUID.class),
+                rs.getString("word_type"),
+                rs.getString("root"),
+                rs.getString("jidar"),
+                rs.getString("masdar"),
+                rs.getString("wazn"),
+                rs.getString("canonical_form"),
+                lexicalFields != null ? List.of((String[]) lexicalFields.getArray()) : List.of(),
+                rs.getString("language_code"),
+                rs.getString("meaning"),
+                rs.getString("grammatical_function"),
+                rs.getString("details"));
+    };
+
+    /**
+     * Projection d'une analyse dans une langue
+     * @param detailsLanguageCode langue des détails retenus (null si l'analyse n'a aucun détail)
+     * @param details sous-arbre details en JSON brut
+     */
+    public record WordAnalysisProjection(UUID wordAnalysisId, String type, String root, String jidar, String masdar,
+                                         String wazn, String canonicalForm, List<String> lexicalFields,
+                                         String detailsLanguageCode, String meaning, String function,
+                                         String details) {
+
+        /**
+         * Sous-arbre details prêt à être sérialisé tel quel dans les réponses
+         */
+        public JsonNode detailsNode() {
+            return details != null ? JsonNodeFactory.instance.rawValueNode(new RawValue(details)) : null;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LexicalFieldTranslationService lexicalFieldTranslationService;
+
+    public WordAnalysisProjectionService(JdbcTemplate jdbcTemplate,
+                                         LexicalFieldTranslationService lexicalFieldTranslationService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.lexicalFieldTranslationService = lexicalFieldTranslationService;
+    }
+
+    public Optional<WordAnalysisProjection> findProjection(UUID wordAnalysisId, String languageCode) {
+        return Optional.ofNullable(findProjections(List.of(wordAnalysisId), languageCode).get(wordAnalysisId));
+    }
+
+    /**
+     * Projections de plusieurs analyses en une requête
+     * @return projections indexées par id d'analyse (absentes si l'analyse n'est pas encore projetée)
+     */
+    public Map<UUID, WordAnalysisProjection> findProjections(Collection<UUID> wordAnalysisIds, String languageCode) {
+        Map<UUID, WordAnalysisProjection> projections = new HashMap<>();
+        if (wordAnalysisIds.isEmpty()) {
+            return projections;
+        }
+        Object[] ids = new LinkedHashSet<>(wordAnalysisIds).toArray();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(PROJECTION_SQL);
+            statement.setString(1, languageCode);
+            statement.setArray(2, connection.createArrayOf("uuid", ids));
+            return statement;
+        }, ROW_MAPPER).forEach(projection -> projections.put(projection.wordAnalysisId(), projection));
+        return projections;
+    }
+
+    /**
+     * DTO de détails des listes de mots construit depuis la projection
+     */
+    public WordAnalysisDetailsDto toDetailsDto(WordAnalysisProjection projection) {
+        WordAnalysisDetailsDto dto = new WordAnalysisDetailsDto();
+        dto.setType(projection.type());
+        dto.setJidar(projection.jidar());
+        dto.setRoot(projection.root());
+        dto.setMasdar(projection.masdar());
+        dto.setWazn(projection.wazn());
+        dto.setCanonicalForm(projection.canonicalForm());
+        dto.setMeaning(projection.meaning());
+        dto.setFunction(projection.function());
+        dto.setAdditionalDetails(projection.detailsNode());
+        if (!projection.lexicalFields().isEmpty()) {
+            dto.setLexicalFields(projection.lexicalFields());
+            dto.setLexicalFieldsTranslated(lexicalFieldTranslationService.translateToAllLanguages(projection.lexicalFields()));
+        }
+        return dto;
+    }
+}
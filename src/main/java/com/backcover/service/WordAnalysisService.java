@@ -2,17 +2,19 @@
 package com.backcover.service; // Ou com.backcover.service.ia.impl
 
 import com.backcover.config.LanguageConfig;
+import com.backcover.config.concurrency.ConcurrencyLimiter;
 import com.backcover.dto.WordAnalysisDto; // <<< IMPORTER LE NOUVEAU DTO
 import com.backcover.model.*;
 import com.backcover.model.prompt.PromptTemplate;
 import com.backcover.repository.*;
-import com.backcover.repository.PromptTemplateRepository;
 import com.backcover.service.ia.DetailedWordAnalyzerService; // <<< IMPORTER L'INTERFACE
+import com.backcover.service.prompt.PromptTemplateCache;
 import com.backcover.service.prompt.PromptUsageTracker;
 import com.backcover.model.WordTranslation;
 import com.backcover.service.AIModelConfigurationService;
 import com.backcover.model.AIFlowConfiguration.FlowType;
 import com.backcover.exception.ConfigurationNotFoundException;
+import com.backcover.exception.ServiceUnavailableException;
 import com.backcover.exception.WordAnalysisException;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -31,6 +33,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 // ...
@@ -45,6 +48,7 @@ public class WordAnalysisService implements DetailedWordAnalyzerService { // <<<
     private static final Logger log = LoggerFactory.getLogger(WordAnalysisService.class);
 
     @Value("${gemini.api.key}") private String apiKey;
+    @Value("${gemini.api.base-url:https://generativelanguage.googleapis.com/v1beta/models/}") private String geminiBaseUrl;
 
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
@@ -53,12 +57,14 @@ public class WordAnalysisService implements DetailedWordAnalyzerService { // <<<
     private final WordAnalysisRepository wordAnalysisRepository;
     private final ContextualWordMeaningRepository contextualWordMeaningRepository;
     private final TranslationContextService translationContextService;
+    private final WordAnalysisProjectionService wordAnalysisProjectionService;
     private final PromptTemplateService promptTemplateService;
     private final LanguageConfig languageConfig;
     private final LexicalFieldTranslationService lexicalFieldTranslationService;
     private final PromptUsageTracker promptUsageTracker;
-    private final PromptTemplateRepository promptTemplateRepository;
+    private final PromptTemplateCache promptTemplateCache;
     private final AIModelConfigurationService aiModelConfigService;
+    private final ConcurrencyLimiter geminiLimiter;
 
     public WordAnalysisService(RestTemplate restTemplate, ObjectMapper objectMapper,
                                BookRepository bookRepository,
@@ -66,24 +72,28 @@ public class WordAnalysisService implements DetailedWordAnalyzerService { // <<<
                                WordAnalysisRepository wordAnalysisRepository,
                                ContextualWordMeaningRepository contextualWordMeaningRepository,
                                TranslationContextService translationContextService,
+                               WordAnalysisProjectionService wordAnalysisProjectionService,
                                PromptTemplateService promptTemplateService,
                                LanguageConfig languageConfig,
                                LexicalFieldTranslationService lexicalFieldTranslationService,
                                PromptUsageTracker promptUsageTracker,
-                               PromptTemplateRepository promptTemplateRepository,
-                               AIModelConfigurationService aiModelConfigService) {
+                               PromptTemplateCache promptTemplateCache,
+                               AIModelConfigurationService aiModelConfigService,
+                               @Qualifier("geminiLimiter") ConcurrencyLimiter geminiLimiter) {
         this.restTemplate = restTemplate;
+        this.geminiLimiter = geminiLimiter;
         this.objectMapper = objectMapper;
         this.bookRepository = bookRepository;
         this.dictionaryWordRepository = dictionaryWordRepository;
         this.wordAnalysisRepository = wordAnalysisRepository;
         this.contextualWordMeaningRepository = contextualWordMeaningRepository;
         this.translationContextService = translationContextService;
+        this.wordAnalysisProjectionService = wordAnalysisProjectionService;
         this.promptTemplateService = promptTemplateService;
         this.languageConfig = languageConfig;
         this.lexicalFieldTranslationService = lexicalFieldTranslationService;
         this.promptUsageTracker = promptUsageTracker;
-        this.promptTemplateRepository = promptTemplateRepository;
+        this.promptTemplateCache = promptTemplateCache;
         this.aiModelConfigService = aiModelConfigService;
     }
 
@@ -92,6 +102,15 @@ public class WordAnalysisService implements DetailedWordAnalyzerService { // <<<
     public WordAnalysisDto analyzeWord(String wordTextInContext, String paragraphText, String bookTitle,
                                        UUID bookId, Integer pageNumber, String wordInstanceId, String targetLanguageCode)
             throws IOException, IllegalArgumentException {
+        return analyzeWord(wordTextInContext, paragraphText, null, bookTitle, bookId, pageNumber, wordInstanceId, targetLanguageCode);
+    }
+
+    @Override
+    @Transactional
+    public WordAnalysisDto analyzeWord(String wordTextInContext, String paragraphText, String paragraphContextHash,
+                                       String bookTitle, UUID bookId, Integer pageNumber, String wordInstanceId,
+                                       String targetLanguageCode)
+            throws IOException, IllegalArgumentException {
 
         if (bookId == null) {
             throw new IllegalArgumentException("Contexte invalide fourni.");
@@ -127,39 +146,27 @@ public class WordAnalysisService implements DetailedWordAnalyzerService { // <<<
                 Optional<WordTranslation> bestTranslationOpt = translationContextService
                         .findBestTranslation(wordAnalysisId, targetTranslationLanguage);
                 
-                if (bestTranslationOpt.isPresent() && analysisEntity.getAnalysisData() != null) {
-                    // Vérifier si on a les details dans la langue demandée
-                    try {
-                        JsonNode analysisData = objectMapper.readTree(analysisEntity.getAnalysisData());
-                        boolean hasDetailsInTargetLanguage = false;
-                        
-                        if (analysisData.has("details_by_language")) {
-                            JsonNode detailsByLang = analysisData.get("details_by_language");
-                            hasDetailsInTargetLanguage = detailsByLang.has(targetTranslationLanguage);
-                        } else if (analysisData.has("details") && "fr".equals(targetTranslationLanguage)) {
-                            // Ancien format, supposé être en français
-                            hasDetailsInTargetLanguage = true;
-                        }
-                        
-                        if (hasDetailsInTargetLanguage) {
-                            log.info("Cache HIT pour l'instance '{}' avec details dans la langue '{}'. Retour des données cachées.", 
-                                    wordInstanceId, targetTranslationLanguage);
-                            // Convertir le JSON stocké et la traduction en WordAnalysisDto
-                            return convertToWordAnalysisDto(
-                                    analysisData,                                            // JSON de l'analyse
-                                    bestTranslationOpt.get().getTranslationText(),          // Texte de la traduction
-                                    wordTextInContext,                                       // Mot original avec Tashkeel
-                                    analysisEntity,                                          // Entité pour récupérer l'ID
-                                    targetTranslationLanguage                                // Langue cible
-                            );
-                        } else {
-                            log.info("Cache HIT pour l'instance '{}' mais details manquants pour la langue '{}'. Appel à l'IA pour obtenir les details.", 
-                                    wordInstanceId, targetTranslationLanguage);
-                            // Continuer vers l'appel IA pour obtenir les details dans la bonne langue
-                        }
-                    } catch (JsonProcessingException e) {
-                        log.error("Échec du parsing des données d'analyse cachées pour l'instance {}: {}", wordInstanceId, e.getMessage());
-                        // Continuer pour appeler l'API si le parsing du cache échoue
+                // Projection de l'analyse (colonnes typées + details de la langue, maintenus à l'écriture)
+                Optional<WordAnalysisProjectionService.WordAnalysisProjection> projectionOpt = wordAnalysisProjectionService
+                        .findProjection(wordAnalysisId, targetTranslationLanguage);
+
+                if (bestTranslationOpt.isPresent() && projectionOpt.isPresent()) {
+                    // Vérifier si on a les details dans la langue demandée (l'ancien format est projeté en français)
+                    WordAnalysisProjectionService.WordAnalysisProjection projection = projectionOpt.get();
+                    if (targetTranslationLanguage.equals(projection.detailsLanguageCode())) {
+                        log.info("Cache HIT pour l'instance '{}' avec details dans la langue '{}'. Retour des données cachées.", 
+                                wordInstanceId, targetTranslationLanguage);
+                        // Convertir la projection et la traduction en WordAnalysisDto
+                        return convertToWordAnalysisDto(
+                                projection,                                              // Projection de l'analyse
+                                bestTranslationOpt.get().getTranslationText(),          // Texte de la traduction
+                                wordTextInContext,                                       // Mot original avec Tashkeel
+                                analysisEntity                                           // Entité pour récupérer l'ID
+                        );
+                    } else {
+                        log.info("Cache HIT pour l'instance '{}' mais details manquants pour la langue '{}'. Appel à l'IA pour obtenir les details.", 
+                                wordInstanceId, targetTranslationLanguage);
+                        // Continuer vers l'appel IA pour obtenir les details dans la bonne langue
                     }
                 } else {
                     log.warn("Cache HIT pour l'instance '{}' mais traduction ou données d'analyse manquantes. Appel à l'IA.", wordInstanceId);
@@ -179,6 +186,10 @@ public class WordAnalysisService implements DetailedWordAnalyzerService { // <<<
         String bookGenre = book.getGenre();
         String bookDescription = book.getDescription();
         String bookAuthor = book.getAuthorName();
+        // Requêtes réduites à (bookId, wordInstanceId, langue) : le titre vient du livre
+        if (bookTitle == null || bookTitle.isBlank()) {
+            bookTitle = book.getTitle();
+        }
 
         JsonNode llmResponseJson; // Le JSON complet retourné par l'IA (contenant word, type, translation, root, details, canonical_form)
         try {
@@ -220,6 +231,7 @@ public class WordAnalysisService implements DetailedWordAnalyzerService { // <<<
             analysisDataNode.set("masdar", llmResponseJson.path("masdar"));   // Nom d'action
             analysisDataNode.set("wazn", llmResponseJson.path("wazn"));       // Schème morphologique
             analysisDataNode.set("details", llmResponseJson.path("details"));
+            analysisDataNode.set("lexical_fields", llmResponseJson.path("lexical_fields"));
             analysisDataNode.put("canonical_form_from_llm", canonicalForm); // Stocker pour référence
             String analysisDataJsonString = objectMapper.writeValueAsString(analysisDataNode);
 
@@ -236,13 +248,10 @@ public class WordAnalysisService implements DetailedWordAnalyzerService { // <<<
                     );
                 } else {
                     // Créer une nouvelle analyse
-                    DictionaryWord dictionaryWord = dictionaryWordRepository.findByWordTextAndLanguageCode(canonicalForm, "ar")
-                            .orElseGet(() -> {
-                                DictionaryWord newWord = new DictionaryWord();
-                                newWord.setWordText(canonicalForm);
-                                newWord.setLanguageCode("ar");
-                                return dictionaryWordRepository.save(newWord);
-                            });
+                    // Insertion ou lecture du mot en une requête ; relecture si validé entre-temps par une autre transaction
+                    DictionaryWord dictionaryWord = dictionaryWordRepository.findOrInsert(UUID.randomUUID(), canonicalForm, "ar")
+                            .or(() -> dictionaryWordRepository.findByWordTextAndLanguageCode(canonicalForm, "ar"))
+                            .orElseThrow(() -> new IllegalStateException("Dictionary word neither inserted nor found: " + canonicalForm));
                     // Passer les details et la langue cible à la méthode
                     wordAnalysisEntity = findOrCreateWordAnalysisEntity(
                         dictionaryWord.getId(), 
@@ -266,7 +275,10 @@ public class WordAnalysisService implements DetailedWordAnalyzerService { // <<<
                     );
                     
                     // Créer ou trouver le contexte de paragraphe
-                    var paragraphContext = translationContextService.findOrCreateParagraphContext(paragraphText);
+                    // Hash fourni par l'index de mots du livre : pas de re-hachage du paragraphe
+                    var paragraphContext = paragraphContextHash != null
+                            ? translationContextService.findOrCreateParagraphContext(paragraphContextHash, paragraphText)
+                            : translationContextService.findOrCreateParagraphContext(paragraphText);
                     
                     // Créer ou mettre à jour le contexte de mot
                     translationContextService.createOrUpdateWordContext(
@@ -329,6 +341,9 @@ public class WordAnalysisService implements DetailedWordAnalyzerService { // <<<
                 if (newData.has("wazn") && !newData.get("wazn").isNull()) {
                     updatedData.set("wazn", newData.get("wazn"));
                 }
+                if (newData.has("lexical_fields") && newData.get("lexical_fields").isArray()) {
+                    updatedData.set("lexical_fields", newData.get("lexical_fields"));
+                }
 
                 // Créer ou mettre à jour details_by_language
                 ObjectNode detailsByLanguage;
@@ -387,8 +402,30 @@ public class WordAnalysisService implements DetailedWordAnalyzerService { // <<<
         }
     }
 
-    // Méthode pour convertir le JsonNode de l'IA (ou de la DB) en WordAnalysisDto
-    private WordAnalysisDto convertToWordAnalysisDto(JsonNode analysisSourceNode, String translation, String originalWord, 
+    // Méthode pour convertir la projection d'une analyse en cache en WordAnalysisDto (sans parsing du JSON stocké)
+    WordAnalysisDto convertToWordAnalysisDto(WordAnalysisProjectionService.WordAnalysisProjection projection, String translation,
+                                             String originalWord, com.backcover.model.WordAnalysis wordAnalysisEntity) {
+        WordAnalysisDto dto = new WordAnalysisDto();
+        if (wordAnalysisEntity != null) {
+            dto.setId(wordAnalysisEntity.getId());
+        }
+        dto.setWord(originalWord); // Toujours utiliser le mot original cliqué
+        dto.setType(projection.type() != null ? projection.type() : "unknown");
+        dto.setTranslation(translation);
+        dto.setJidar(projection.jidar());
+        dto.setRoot(projection.root());
+        dto.setMasdar(projection.masdar());
+        dto.setWazn(projection.wazn());
+        dto.setDetails(projection.detailsNode()); // JSON brut de la langue, sérialisé tel quel
+        dto.setCanonicalForm(projection.canonicalForm());
+        dto.setLexicalFields(projection.lexicalFields());
+        dto.setLexicalFieldsTranslated(lexicalFieldTranslationService.translateToAllLanguages(projection.lexicalFields()));
+        return dto;
+    }
+
+    // Méthode pour convertir le JsonNode de l'IA en WordAnalysisDto
+    // (package-private : mesurée par les benchmarks JMH, voir src/jmh)
+    WordAnalysisDto convertToWordAnalysisDto(JsonNode analysisSourceNode, String translation, String originalWord, 
                                                     com.backcover.model.WordAnalysis wordAnalysisEntity, String targetLanguageCode) throws JsonProcessingException {
         WordAnalysisDto dto = new WordAnalysisDto();
         
@@ -467,8 +504,8 @@ public class WordAnalysisService implements DetailedWordAnalyzerService { // <<<
         log.debug("Appel à l'API Gemini pour le mot : '{}' [Livre : '{}', Genre: '{}', Auteur: '{}'] avec langue cible '{}'", word, bookTitle, bookGenre, bookAuthor, targetLanguageCode);
         
         // Get prompt template for tracking
-        PromptTemplate promptTemplate = promptTemplateRepository
-                .findByIdentifierAndIsActiveTrue("WORD_ANALYSIS_V1")
+        PromptTemplate promptTemplate = promptTemplateCache
+                .findActive("WORD_ANALYSIS_V1")
                 .orElse(null);
         
         if (promptTemplate == null) {
@@ -494,13 +531,14 @@ public class WordAnalysisService implements DetailedWordAnalyzerService { // <<<
         // Start tracking if we have a prompt template
         if (promptTemplate != null) {
             trackingContext = promptUsageTracker.startTracking(
-                promptTemplate, modelId, requestJson, userId, bookId, wordInstanceId);
+                FlowType.WORD_ANALYSIS, promptTemplate.getIdentifier(), modelId, promptTemplate.getVersion());
+        } else {
+            trackingContext = promptUsageTracker.startTracking(
+                FlowType.WORD_ANALYSIS, "WORD_ANALYSIS_V1", modelId, PromptUsageTracker.BUILTIN_PROMPT);
         }
         
         // Construct URL dynamically with model from DB configuration
-        String baseUrl = "https://generativelanguage.googleapis.com/v1beta/models/";
-        String dynamicApiUrl = baseUrl + modelId + ":generateContent";
-        String urlWithKey = dynamicApiUrl + "?key=" + apiKey;
+        String dynamicApiUrl = geminiBaseUrl + modelId + ":generateContent";
         
         // LOG THE ACTUAL API CALL
         log.info("🌐 GEMINI API CALL - Full URL: {}", dynamicApiUrl);
@@ -509,27 +547,36 @@ public class WordAnalysisService implements DetailedWordAnalyzerService { // <<<
         
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
+        // Clé en en-tête plutôt qu'en query string : l'URL apparaît dans les spans et métriques HTTP client
+        headers.set("x-goog-api-key", apiKey);
         HttpEntity<String> entity = new HttpEntity<>(requestJson, headers);
 
         try {
-            ResponseEntity<String> response = restTemplate.exchange(urlWithKey, HttpMethod.POST, entity, String.class);
+            ResponseEntity<String> response;
+            try (ConcurrencyLimiter.Permit permit = geminiLimiter.acquire()) {
+                response = restTemplate.exchange(dynamicApiUrl, HttpMethod.POST, entity, String.class);
+            }
             String responseBody = response.getBody();
             
             // Extract token information from response (if available)
             int inputTokens = 0;
             int outputTokens = 0;
+            int totalTokens = 0;
+            String finishReason = null;
             try {
                 JsonNode responseJson = objectMapper.readTree(responseBody);
                 JsonNode usageMetadata = responseJson.path("usageMetadata");
                 if (!usageMetadata.isMissingNode()) {
                     inputTokens = usageMetadata.path("promptTokenCount").asInt(0);
                     outputTokens = usageMetadata.path("candidatesTokenCount").asInt(0);
+                    totalTokens = usageMetadata.path("totalTokenCount").asInt(0);
                     log.info("=== GEMINI WORD ANALYSIS TOKEN COUNT ===");
                     log.info("Prompt tokens: {}", inputTokens);
                     log.info("Response tokens: {}", outputTokens);
                     log.info("Total tokens: {}", inputTokens + outputTokens);
                     log.info("=== FIN TOKEN COUNT ===");
                 }
+                finishReason = responseJson.path("candidates").path(0).path("finishReason").asText(null);
             } catch (Exception tokenEx) {
                 log.warn("Could not extract token usage from Gemini response: {}", tokenEx.getMessage());
             }
@@ -539,35 +586,44 @@ public class WordAnalysisService implements DetailedWordAnalyzerService { // <<<
             // Complete tracking with success if we have a tracking context
             if (trackingContext != null) {
                 promptUsageTracker.completeTracking(
-                    trackingContext, 
-                    responseBody, 
-                    inputTokens, 
-                    outputTokens, 
-                    0.05, // temperature used in buildWordAnalysisPrompt
-                    16384 // maxTokens used in buildWordAnalysisPrompt
+                    trackingContext,
+                    inputTokens,
+                    outputTokens,
+                    totalTokens,
+                    finishReason
                 );
             }
             
             return result;
         } catch (RestClientException e) {
             log.error("Erreur réseau lors de l'appel à l'API Gemini pour le mot '{}': {}", word, e.getMessage());
+            boolean timeout = e.getMessage() != null && e.getMessage().toLowerCase().contains("timeout");
             if (trackingContext != null) {
-                promptUsageTracker.completeTrackingWithError(trackingContext, "Network error: " + e.getMessage(), 0);
+                promptUsageTracker.completeTrackingWithError(trackingContext,
+                    e instanceof HttpStatusCodeException httpError
+                        ? PromptUsageTracker.httpErrorType(httpError.getStatusCode().value())
+                        : timeout ? "timeout" : "network");
             }
-            if (e.getMessage() != null && e.getMessage().toLowerCase().contains("timeout")) {
+            if (timeout) {
                 throw new WordAnalysisException(WordAnalysisException.ErrorType.API_TIMEOUT, e);
             }
             throw new WordAnalysisException(WordAnalysisException.ErrorType.NETWORK_ERROR, e);
         } catch (JsonProcessingException e) {
             log.error("Erreur parsing réponse Gemini pour le mot '{}': {}", word, e.getMessage());
             if (trackingContext != null) {
-                promptUsageTracker.completeTrackingWithError(trackingContext, "Parsing error: " + e.getMessage(), 0);
+                promptUsageTracker.completeTrackingWithError(trackingContext, "parse");
             }
             throw new WordAnalysisException(WordAnalysisException.ErrorType.INVALID_RESPONSE, e);
+        } catch (ServiceUnavailableException e) {
+            log.warn("Appels Gemini saturés, analyse du mot '{}' refusée: {}", word, e.getMessage());
+            if (trackingContext != null) {
+                promptUsageTracker.completeTrackingWithError(trackingContext, "throttled");
+            }
+            throw new WordAnalysisException(WordAnalysisException.ErrorType.NETWORK_ERROR, e);
         } catch (Exception e) {
             log.error("Erreur inattendue lors de l'appel à l'API Gemini pour le mot '{}': {}", word, e.getMessage());
             if (trackingContext != null) {
-                promptUsageTracker.completeTrackingWithError(trackingContext, "Processing error: " + e.getMessage(), 0);
+                promptUsageTracker.completeTrackingWithError(trackingContext, "internal");
             }
             throw new WordAnalysisException(WordAnalysisException.ErrorType.INTERNAL_ERROR, e);
         }
@@ -617,7 +673,8 @@ public class WordAnalysisService implements DetailedWordAnalyzerService { // <<<
         return objectMapper.writeValueAsString(requestBody);
     }
 
-    private JsonNode parseAndExtractJsonResponse(String rawGeminiResponse) throws IOException {
+    // package-private : mesurée par les benchmarks JMH, voir src/jmh
+    JsonNode parseAndExtractJsonResponse(String rawGeminiResponse) throws IOException {
         // ... (votre code de parsing existant, qui retourne le JsonNode interne de la réponse de Gemini) ...
         // Ce JsonNode devrait contenir word, type, translation, root, details, canonical_form
         if (rawGeminiResponse == null || rawGeminiResponse.isBlank()) { /* ... */ throw new IOException("Réponse vide."); }
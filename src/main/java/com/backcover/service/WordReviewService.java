@@ -0,0 +1,124 @@
+package com.backcover.service;
+
+import com.backcover.dto.wordlist.ReviewCardDto;
+import com.backcover.dto.wordlist.ReviewScheduleDto;
+import com.backcover.dto.wordlist.UserWordListItemWithDetailsDto;
+import com.backcover.model.User;
+import com.backcover.model.user.UserWordListItem;
+import com.backcover.repository.UserRepository;
+import com.backcover.repository.UserWordListItemRepository;
+import com.backcover.service.SpacedRepetitionScheduler.Grade;
+import com.backcover.service.SpacedRepetitionScheduler.ReviewState;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Révisions espacées des mots des listes : file des cartes dues (un parcours d'index par session)
+ * et enregistrement des réponses.
+ */
+@Service
+public class WordReviewService {
+
+    private static final Logger log = LoggerFactory.getLogger(WordReviewService.class);
+
+    private final UserRepository userRepository;
+    private final UserWordListItemRepository userWordListItemRepository;
+    private final UserWordListService userWordListService;
+    private final SpacedRepetitionScheduler scheduler;
+    private final int defaultSessionSize;
+    private final int maxSessionSize;
+
+    public WordReviewService(UserRepository userRepository,
+                             UserWordListItemRepository userWordListItemRepository,
+                             UserWordListService userWordListService,
+                             SpacedRepetitionScheduler scheduler,
+                             @Value("${review.session.default-size:20}") int defaultSessionSize,
+                             @Value("${review.session.max-size:100}") int maxSessionSize) {
+        this.userRepository = userRepository;
+        this.userWordListItemRepository = userWordListItemRepository;
+        this.userWordListService = userWordListService;
+        this.scheduler = scheduler;
+        this.defaultSessionSize = defaultSessionSize;
+        this.maxSessionSize = maxSessionSize;
+    }
+
+    /**
+     * Prochaines cartes dues, les plus en retard d'abord, avec traduction et analyse
+     * dans la langue de leur liste
+     * @param languageCode filtre optionnel sur la langue des listes
+     * @param limit nombre de cartes (défaut et plafond : review.session.*)
+     */
+    @Transactional
+    public List<ReviewCardDto> getDueCards(String supabaseUserId, String languageCode, Integer limit) {
+        // Find the user - supabaseUserId now contains email
+        User user = userRepository.findByEmail(supabaseUserId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        int sessionSize = limit == null ? defaultSessionSize : Math.max(1, Math.min(limit, maxSessionSize));
+        Instant now = Instant.now();
+        List<UserWordListItem> dueItems = languageCode == null
+                ? userWordListItemRepository.findDueForReview(user.getId(), now, Limit.of(sessionSize))
+                : userWordListItemRepository.findDueForReviewInLanguage(user.getId(), now, languageCode, Limit.of(sessionSize));
+
+        // Une requête de traductions par langue de liste, puis réassemblage dans l'ordre d'échéance
+        Map<String, List<UserWordListItem>> byLanguage = new LinkedHashMap<>();
+        for (UserWordListItem item : dueItems) {
+            byLanguage.computeIfAbsent(item.getWordList().getLanguageCode(), key -> new ArrayList<>()).add(item);
+        }
+        Map<UUID, UserWordListItemWithDetailsDto> details = new HashMap<>();
+        byLanguage.forEach((language, items) -> userWordListService
+                .buildUserWordListItemsWithDetails(items, language)
+                .forEach(dto -> details.put(dto.getId(), dto)));
+
+        List<ReviewCardDto> cards = dueItems.stream()
+                .map(item -> new ReviewCardDto(details.get(item.getId()), item.getWordList().getLanguageCode(),
+                        ReviewScheduleDto.fromEntity(item)))
+                .toList();
+        log.debug("SERVICE: {} review cards due for user {} (language filter: {})", cards.size(), user.getId(), languageCode);
+        return cards;
+    }
+
+    /**
+     * Enregistre la réponse de l'utilisateur sur une carte due et la replanifie.
+     * Une carte pas encore due est refusée (409) sans changer son calendrier.
+     */
+    @Transactional
+    public ReviewScheduleDto answer(String supabaseUserId, UUID itemId, Grade grade) {
+        UserWordListItem item = userWordListItemRepository.findByIdAndUserEmail(itemId, supabaseUserId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Word list item not found"));
+
+        Instant now = Instant.now();
+        ReviewState current = new ReviewState(item.getReviewEase(), item.getReviewIntervalDays(),
+                item.getReviewRepetitions(), item.getReviewLapses(), item.getReviewDueAt());
+        if (!scheduler.isDue(current, now)) {
+            log.debug("SERVICE: Review of item {} rejected - not due before {}", itemId, current.dueAt());
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Card is not due for review yet");
+        }
+        ReviewState next = scheduler.next(current, grade, now);
+        item.setReviewEase(next.ease());
+        item.setReviewIntervalDays(next.intervalDays());
+        item.setReviewRepetitions(next.repetitions());
+        item.setReviewLapses(next.lapses());
+        item.setReviewDueAt(next.dueAt());
+        item.setLastReviewedAt(now);
+        UserWordListItem savedItem = userWordListItemRepository.save(item);
+
+        log.debug("SERVICE: Review of item {} answered {} - next due {} (interval {} days, ease {})",
+                itemId, grade, next.dueAt(), next.intervalDays(), next.ease());
+        return ReviewScheduleDto.fromEntity(savedItem);
+    }
+}
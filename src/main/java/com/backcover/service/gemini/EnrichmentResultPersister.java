@@ -47,11 +47,7 @@ public class EnrichmentResultPersister {
         log.info("[PERSIST] Saving structured result to R2: {}", r2Key);
 
         try {
-            // Convert pages to JSON with pretty printing
-            ObjectMapper prettyMapper = objectMapper.copy()
-                .enable(SerializationFeature.INDENT_OUTPUT);
-
-            String jsonContent = prettyMapper.writeValueAsString(result.pages());
+            String jsonContent = toPrettyJson(result.pages());
 
             // Upload to R2 with metadata
             Map<String, String> metadata = Map.of(
@@ -108,10 +104,7 @@ public class EnrichmentResultPersister {
         merged.sort(Comparator.comparingInt(StructuredPage::getPageNumber));
 
         try {
-            ObjectMapper prettyMapper = objectMapper.copy()
-                .enable(SerializationFeature.INDENT_OUTPUT);
-
-            String jsonContent = prettyMapper.writeValueAsString(merged);
+            String jsonContent = toPrettyJson(merged);
 
             Map<String, String> metadata = Map.of(
                 "content-type", "application/json",
@@ -133,6 +126,16 @@ public class EnrichmentResultPersister {
         }
     }
 
+    /**
+     * Serializes pages to the pretty-printed structured.json content.
+     * Package-private so the JMH benchmarks (src/jmh) measure the exact persisted format.
+     */
+    String toPrettyJson(List<StructuredPage> pages) throws JsonProcessingException {
+        ObjectMapper prettyMapper = objectMapper.copy()
+            .enable(SerializationFeature.INDENT_OUTPUT);
+        return prettyMapper.writeValueAsString(pages);
+    }
+
     /**
      * Checks if a structured result already exists for a book.
      *
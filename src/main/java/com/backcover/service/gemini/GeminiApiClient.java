@@ -1,14 +1,20 @@
 package com.backcover.service.gemini;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
+import com.backcover.config.concurrency.ConcurrencyLimiter;
 import com.backcover.config.gemini.GeminiSyncConfig;
 import com.backcover.dto.gemini.GeminiRequest;
 import com.backcover.dto.gemini.GeminiResponse;
+import com.backcover.exception.ServiceUnavailableException;
+import com.backcover.model.AIFlowConfiguration.FlowType;
+import com.backcover.service.prompt.PromptUsageTracker;
+import com.backcover.service.prompt.PromptUsageTracker.TrackingContext;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,51 +27,77 @@ public class GeminiApiClient {
 
     private final GeminiSyncConfig config;
     private final RestClient restClient;
+    private final PromptUsageTracker usageTracker;
+    private final ConcurrencyLimiter geminiLimiter;
 
-    public GeminiApiClient(GeminiSyncConfig config) {
+    public GeminiApiClient(GeminiSyncConfig config, PromptUsageTracker usageTracker,
+                           RestClient.Builder restClientBuilder,
+                           @Qualifier("geminiLimiter") ConcurrencyLimiter geminiLimiter) {
         this.config = config;
-        this.restClient = RestClient.builder()
+        this.usageTracker = usageTracker;
+        this.geminiLimiter = geminiLimiter;
+        // Builder Spring Boot : requêtes observées (spans http.client) et propagation du contexte de trace
+        this.restClient = restClientBuilder
             .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
             .build();
     }
 
     /**
-     * Sends a generateContent request to Gemini API.
+     * Sends a generateContent request to Gemini API, recorded under the PDF_ENRICHMENT flow.
      *
      * @param request The request payload
      * @return The Gemini response
      * @throws GeminiApiException if the request fails
      */
     public GeminiResponse generateContent(GeminiRequest request) {
-        // Construct full URL: baseUrl + model + :generateContent?key=apiKey
-        String url = config.getBaseUrl() + config.getModel() + ":generateContent?key=" + config.getApiKey();
+        return generateContent(request, FlowType.PDF_ENRICHMENT);
+    }
+
+    /**
+     * Sends a generateContent request to Gemini API.
+     *
+     * @param request The request payload
+     * @param flow    Flow the call is recorded under in LLM metrics
+     * @return The Gemini response
+     * @throws GeminiApiException if the request fails
+     */
+    public GeminiResponse generateContent(GeminiRequest request, FlowType flow) {
+        // Construct full URL: baseUrl + model + :generateContent (API key sent as header, kept out of traced URIs)
+        String url = config.getBaseUrl() + config.getModel() + ":generateContent";
 
         log.info("[GEMINI-SYNC] Sending request to model: {}", config.getModel());
 
         Exception lastException = null;
+        String lastErrorType = "network";
+        TrackingContext tracking = usageTracker.startTracking(flow, config.getModel(), PromptUsageTracker.BUILTIN_PROMPT);
 
         for (int attempt = 1; attempt <= config.getMaxRetries(); attempt++) {
             try {
                 log.debug("[GEMINI-SYNC] Attempt {}/{}", attempt, config.getMaxRetries());
 
-                GeminiResponse response = restClient.post()
-                    .uri(url)
-                    .body(request)
-                    .retrieve()
-                    .onStatus(HttpStatusCode::isError, (req, res) -> {
-                        String body;
-                        try {
-                            body = new String(res.getBody().readAllBytes());
-                        } catch (Exception e) {
-                            body = "Unable to read error body";
-                        }
-                        log.error("[GEMINI-SYNC] API error: {} - {}", res.getStatusCode(), body);
-                        throw new GeminiApiException(
-                            "Gemini API error: " + res.getStatusCode() + " - " + body,
-                            res.getStatusCode().value()
-                        );
-                    })
-                    .body(GeminiResponse.class);
+                GeminiResponse response;
+                // One permit per attempt: backoff waits do not hold a concurrency slot
+                try (ConcurrencyLimiter.Permit permit = geminiLimiter.acquire()) {
+                    response = restClient.post()
+                        .uri(url)
+                        .header("x-goog-api-key", config.getApiKey())
+                        .body(request)
+                        .retrieve()
+                        .onStatus(HttpStatusCode::isError, (req, res) -> {
+                            String body;
+                            try {
+                                body = new String(res.getBody().readAllBytes());
+                            } catch (Exception e) {
+                                body = "Unable to read error body";
+                            }
+                            log.error("[GEMINI-SYNC] API error: {} - {}", res.getStatusCode(), body);
+                            throw new GeminiApiException(
+                                "Gemini API error: " + res.getStatusCode() + " - " + body,
+                                res.getStatusCode().value()
+                            );
+                        })
+                        .body(GeminiResponse.class);
+                }
 
                 if (response != null) {
                     logResponse(response);
@@ -74,43 +106,68 @@ public class GeminiApiClient {
                         log.warn("[GEMINI-SYNC] Response was truncated (MAX_TOKENS)");
                     }
 
+                    recordSuccess(tracking, response);
                     return response;
                 }
 
             } catch (GeminiApiException e) {
                 lastException = e;
+                lastErrorType = PromptUsageTracker.httpErrorType(e.getStatusCode());
                 // Don't retry on client errors (4xx)
                 if (e.getStatusCode() >= 400 && e.getStatusCode() < 500) {
+                    usageTracker.completeTrackingWithError(tracking, lastErrorType);
                     throw e;
                 }
                 log.warn("[GEMINI-SYNC] Request failed, attempt {}/{}: {}",
                     attempt, config.getMaxRetries(), e.getMessage());
 
+            } catch (ServiceUnavailableException e) {
+                lastException = e;
+                lastErrorType = "throttled";
+                log.warn("[GEMINI-SYNC] No Gemini permit available, attempt {}/{}: {}",
+                    attempt, config.getMaxRetries(), e.getMessage());
+
             } catch (Exception e) {
                 lastException = e;
+                lastErrorType = e.getMessage() != null && e.getMessage().toLowerCase().contains("timeout")
+                    ? "timeout" : "network";
                 log.warn("[GEMINI-SYNC] Request failed, attempt {}/{}: {}",
                     attempt, config.getMaxRetries(), e.getMessage());
             }
 
             // Wait before retry (exponential backoff)
             if (attempt < config.getMaxRetries()) {
+                usageTracker.recordRetry(tracking, lastErrorType);
                 long delay = config.getRetryDelayMs() * (long) Math.pow(2, attempt - 1);
                 log.debug("[GEMINI-SYNC] Waiting {}ms before retry", delay);
                 try {
                     Thread.sleep(delay);
                 } catch (InterruptedException ie) {
                     Thread.currentThread().interrupt();
+                    usageTracker.completeTrackingWithError(tracking, "interrupted");
                     throw new GeminiApiException("Request interrupted", ie);
                 }
             }
         }
 
+        usageTracker.completeTrackingWithError(tracking, lastErrorType);
         throw new GeminiApiException(
             "Gemini API request failed after " + config.getMaxRetries() + " attempts",
             lastException
         );
     }
 
+    private void recordSuccess(TrackingContext tracking, GeminiResponse response) {
+        GeminiResponse.UsageMetadata usage = response.getUsageMetadata();
+        usageTracker.completeTracking(
+            tracking,
+            usage != null && usage.getPromptTokenCount() != null ? usage.getPromptTokenCount() : 0,
+            usage != null && usage.getCandidatesTokenCount() != null ? usage.getCandidatesTokenCount() : 0,
+            usage != null && usage.getTotalTokenCount() != null ? usage.getTotalTokenCount() : 0,
+            response.getFinishReason()
+        );
+    }
+
     private void logResponse(GeminiResponse response) {
         if (response.getUsageMetadata() != null) {
             log.info("[GEMINI-SYNC] Response received - Tokens: input={}, output={}, total={}",
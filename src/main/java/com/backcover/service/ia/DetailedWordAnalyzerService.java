@@ -31,4 +31,22 @@ public interface DetailedWordAnalyzerService {
                                 Integer pageNumber,
                                 String wordInstanceId,
                                 String targetLanguageCode) throws IOException, IllegalArgumentException;
+
+    /**
+     * Variante pour un mot résolu par l'index de mots du livre : le hash du paragraphe
+     * (clé de paragraph_context) est déjà connu et n'a pas à être recalculé.
+     * Par défaut, le hash est ignoré.
+     *
+     * @param paragraphContextHash Le hash SHA-256 de paragraphContext, ou null s'il est inconnu.
+     */
+    default WordAnalysisDto analyzeWord(String wordTextInContext,
+                                        String paragraphContext,
+                                        String paragraphContextHash,
+                                        String bookTitle,
+                                        UUID bookId,
+                                        Integer pageNumber,
+                                        String wordInstanceId,
+                                        String targetLanguageCode) throws IOException, IllegalArgumentException {
+        return analyzeWord(wordTextInContext, paragraphContext, bookTitle, bookId, pageNumber, wordInstanceId, targetLanguageCode);
+    }
 }
\ No newline at end of file
@@ -1,16 +1,14 @@
 package com.backcover.service.prompt;
 
 import com.backcover.model.prompt.PromptTemplate;
-import com.backcover.repository.PromptTemplateRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
 
 /**
- * Service for resolving prompts dynamically from the database.
+ * Service for resolving prompts dynamically from the database, through {@link PromptTemplateCache}.
  * NO FALLBACK POLICY: If database is unavailable, the service will fail.
  */
 @Service
@@ -18,10 +16,10 @@ public class DynamicPromptResolver {
 
     private static final Logger log = LoggerFactory.getLogger(DynamicPromptResolver.class);
 
-    private final PromptTemplateRepository promptTemplateRepository;
+    private final PromptTemplateCache promptTemplateCache;
 
-    public DynamicPromptResolver(PromptTemplateRepository promptTemplateRepository) {
-        this.promptTemplateRepository = promptTemplateRepository;
+    public DynamicPromptResolver(PromptTemplateCache promptTemplateCache) {
+        this.promptTemplateCache = promptTemplateCache;
     }
     
     /**
@@ -30,12 +28,10 @@ public class DynamicPromptResolver {
      * @return The prompt template
      * @throws PromptNotFoundException if prompt not found
      */
-    @Cacheable(value = "promptTemplates", key = "#identifier")
     public PromptTemplate resolvePrompt(String identifier) {
         log.debug("Resolving prompt template for identifier: {}", identifier);
         
-        Optional<PromptTemplate> template = promptTemplateRepository
-                .findByIdentifierAndIsActiveTrue(identifier);
+        Optional<PromptTemplate> template = promptTemplateCache.findActive(identifier);
         
         if (template.isPresent()) {
             log.debug("Found active prompt template: {} v{}", 
@@ -53,7 +49,6 @@ public class DynamicPromptResolver {
      * @param languageCode The target language code (not used anymore - targetLanguageCode removed from DB)
      * @return The prompt template
      */
-    @Cacheable(value = "promptTemplates", key = "#identifier + '_' + #languageCode")
     public PromptTemplate resolvePromptForLanguage(String identifier, String languageCode) {
         log.debug("Resolving prompt template for identifier: {} (language parameter ignored - not in DB)", 
                 identifier);
@@ -97,9 +92,7 @@ public class DynamicPromptResolver {
      * @return true if prompt exists and is active
      */
     public boolean promptExists(String identifier) {
-        return promptTemplateRepository
-                .findByIdentifierAndIsActiveTrue(identifier)
-                .isPresent();
+        return promptTemplateCache.findActive(identifier).isPresent();
     }
     
     /**
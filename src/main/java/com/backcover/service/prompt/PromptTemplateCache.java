@@ -0,0 +1,122 @@
+package com.backcover.service.prompt;
+
+import com.backcover.model.prompt.PromptTemplate;
+import com.backcover.repository.PromptTemplateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory cache of the active prompt template of each identifier, preloaded once the application
+ * is ready and read through on a miss (absent identifiers are cached too).
+ * Every write to prompt_library must call {@link #invalidate(String)}: the local entry is evicted
+ * after commit and a NOTIFY on {@value #CHANNEL} reaches the other instances
+ * through {@link PromptTemplateChangeListener}.
+ * Cached templates are detached entities shared between threads: read them, never modify them.
+ */
+@Service
+public class PromptTemplateCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PromptTemplateCache.class);
+
+    static final String CHANNEL = "prompt_template_changed";
+
+    private final PromptTemplateRepository promptTemplateRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Optional<PromptTemplate>> activeTemplates = new ConcurrentHashMap<>();
+    // Bumped by every eviction: a load that started before it must not store what it read
+    private long generation;
+
+    public PromptTemplateCache(PromptTemplateRepository promptTemplateRepository, JdbcTemplate jdbcTemplate) {
+        this.promptTemplateRepository = promptTemplateRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Load every active template after startup runners (prompt initialization) have completed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        long loadGeneration = currentGeneration();
+        List<PromptTemplate> templates = promptTemplateRepository.findByIsActiveTrueOrderByCategory();
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                templates.forEach(template -> activeTemplates.putIfAbsent(template.getIdentifier(), Optional.of(template)));
+            }
+        }
+        log.info("Prompt template cache preloaded with {} active templates", templates.size());
+    }
+
+    /**
+     * Active template of an identifier, from memory once it has been read
+     * @param identifier The prompt identifier (e.g., "WORD_ANALYSIS_V1")
+     * @return The active template, empty if the identifier has none
+     */
+    public Optional<PromptTemplate> findActive(String identifier) {
+        Optional<PromptTemplate> cached = activeTemplates.get(identifier);
+        if (cached != null) {
+            return cached;
+        }
+        long loadGeneration = currentGeneration();
+        Optional<PromptTemplate> loaded = promptTemplateRepository.findByIdentifierAndIsActiveTrue(identifier);
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                activeTemplates.put(identifier, loaded);
+            }
+        }
+        log.debug("Prompt template cache miss for {} (active: {})", identifier, loaded.isPresent());
+        return loaded;
+    }
+
+    /**
+     * Invalidate an identifier on this instance and on the others after a write to prompt_library.
+     * Inside a transaction both happen on commit (NOTIFY is transactional), so no instance
+     * reloads the previous version in between.
+     * @param identifier The prompt identifier, or null when the written identifiers are unknown
+     */
+    public void invalidate(String identifier) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) rs -> null,
+                CHANNEL, identifier != null ? identifier : "");
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(identifier);
+                }
+            });
+        } else {
+            evict(identifier);
+        }
+    }
+
+    /**
+     * Drop a local entry without notifying the other instances (notification received)
+     * @param identifier The prompt identifier, or null to drop every entry
+     */
+    public synchronized void evict(String identifier) {
+        generation++;
+        if (identifier == null || identifier.isEmpty()) {
+            activeTemplates.clear();
+            log.info("Prompt template cache cleared");
+        } else {
+            activeTemplates.remove(identifier);
+            log.info("Prompt template cache entry evicted: {}", identifier);
+        }
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+}
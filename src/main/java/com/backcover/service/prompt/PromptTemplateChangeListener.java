@@ -0,0 +1,107 @@
+package com.backcover.service.prompt;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Listens to prompt template changes made by any instance (NOTIFY sent by
+ * {@link PromptTemplateCache#invalidate(String)}) and evicts the local cache entry.
+ * Uses its own connection outside the pool, which must reach Postgres directly or through a
+ * session-mode pooler: LISTEN does not work through a transaction-mode pooler.
+ * Notifications missed while disconnected are covered by clearing the cache on reconnection.
+ */
+@Component
+@ConditionalOnProperty(name = "prompt-cache.listen.enabled", havingValue = "true", matchIfMissing = true)
+public class PromptTemplateChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PromptTemplateChangeListener.class);
+
+    private final PromptTemplateCache promptTemplateCache;
+    private final DataSourceProperties dataSourceProperties;
+    private volatile boolean running;
+    private Thread worker;
+
+    @Value("${prompt-cache.listen.poll-timeout-ms:10000}")
+    private int pollTimeoutMs;
+
+    @Value("${prompt-cache.listen.retry-delay-ms:30000}")
+    private long retryDelayMs;
+
+    public PromptTemplateChangeListener(PromptTemplateCache promptTemplateCache,
+                                        DataSourceProperties dataSourceProperties) {
+        this.promptTemplateCache = promptTemplateCache;
+        this.dataSourceProperties = dataSourceProperties;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::listen, "prompt-template-listener");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + PromptTemplateCache.CHANNEL);
+                }
+                log.info("Listening to prompt template changes on channel {}", PromptTemplateCache.CHANNEL);
+                if (reconnecting) {
+                    promptTemplateCache.evict(null);
+                }
+                reconnecting = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications == null || notifications.length == 0) {
+                        // Nothing received: make sure the connection is still alive
+                        if (!connection.isValid(5)) {
+                            throw new SQLException("Prompt template listener connection is no longer valid");
+                        }
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        promptTemplateCache.evict(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Prompt template listener disconnected, retrying in {} ms: {}", retryDelayMs, e.getMessage());
+                try {
+                    Thread.sleep(retryDelayMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.backcover.service.prompt;
+
+import com.backcover.dto.prompt.CostTrend;
+import com.backcover.dto.prompt.TokenUsageTrend;
+import com.backcover.dto.prompt.TopPromptDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Usage dashboards computed from the hourly rollups (prompt_usage_hourly) only,
+ * never from the raw prompt_usage_event rows.
+ */
+@Service
+public class PromptUsageStatsService {
+
+    public enum Granularity {
+        HOUR, DAY;
+
+        String sqlUnit() {
+            return name().toLowerCase();
+        }
+    }
+
+    private static final String TOKEN_TREND_SQL = """
+            SELECT date_trunc(?, hour_start) AS period_start,
+                   SUM(input_tokens) AS input_tokens,
+                   SUM(output_tokens) AS output_tokens,
+                   SUM(request_count) AS request_count
+            FROM prompt_usage_hourly
+            WHERE hour_start >= ? AND hour_start < ? AND (CAST(? AS VARCHAR) IS NULL OR prompt_identifier = ?)
+            GROUP BY 1
+            ORDER BY 1
+            """;
+
+    private static final String COST_TREND_SQL = """
+            SELECT date_trunc(?, hour_start) AS period_start,
+                   SUM(total_cost_usd) AS total_cost,
+                   MIN(min_cost_usd) AS min_cost,
+                   MAX(max_cost_usd) AS max_cost,
+                   SUM(request_count) AS request_count
+            FROM prompt_usage_hourly
+            WHERE hour_start >= ? AND hour_start < ? AND (CAST(? AS VARCHAR) IS NULL OR prompt_identifier = ?)
+            GROUP BY 1
+            ORDER BY 1
+            """;
+
+    private static final String TOP_PROMPTS_SQL = """
+            WITH per_model AS (
+                SELECT prompt_identifier, usage_type, llm_model,
+                       SUM(request_count) AS requests,
+                       SUM(success_count) AS successes,
+                       SUM(input_tokens + output_tokens) AS tokens,
+                       SUM(total_execution_time_ms) AS execution_ms,
+                       SUM(total_cost_usd) AS cost
+                FROM prompt_usage_hourly
+                WHERE hour_start >= ? AND hour_start < ?
+                GROUP BY prompt_identifier, usage_type, llm_model
+            )
+            SELECT prompt_identifier, usage_type,
+                   SUM(requests) AS requests,
+                   SUM(successes) AS successes,
+                   SUM(tokens) AS tokens,
+                   SUM(execution_ms) AS execution_ms,
+                   SUM(cost) AS cost,
+                   (ARRAY_AGG(llm_model ORDER BY requests DESC))[1] AS top_model
+            FROM per_model
+            GROUP BY prompt_identifier, usage_type
+            ORDER BY requests DESC
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PromptUsageStatsService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<TokenUsageTrend> getTokenUsageTrend(Instant from, Instant to, Granularity granularity, String promptIdentifier) {
+        return jdbcTemplate.query(TOKEN_TREND_SQL, (rs, rowNum) -> {
+            long inputTokens = rs.getLong("input_tokens");
+            long outputTokens = rs.getLong("output_tokens");
+            long requests = rs.getLong("request_count");
+            return new TokenUsageTrend(
+                    rs.getTimestamp("period_start").toLocalDateTime(),
+                    inputTokens,
+                    outputTokens,
+                    inputTokens + outputTokens,
+                    requests == 0 ? 0.0 : (double) inputTokens / requests,
+                    requests == 0 ? 0.0 : (double) outputTokens / requests,
+                    requests);
+        }, granularity.sqlUnit(), Timestamp.from(from), Timestamp.from(to), promptIdentifier, promptIdentifier);
+    }
+
+    public List<CostTrend> getCostTrend(Instant from, Instant to, Granularity granularity, String promptIdentifier) {
+        return jdbcTemplate.query(COST_TREND_SQL, (rs, rowNum) -> {
+            BigDecimal totalCost = rs.getBigDecimal("total_cost");
+            long requests = rs.getLong("request_count");
+            return new CostTrend(
+                    rs.getTimestamp("period_start").toLocalDateTime(),
+                    totalCost,
+                    requests == 0 ? BigDecimal.ZERO : totalCost.divide(BigDecimal.valueOf(requests), 8, RoundingMode.HALF_UP),
+                    rs.getBigDecimal("min_cost"),
+                    rs.getBigDecimal("max_cost"),
+                    requests);
+        }, granularity.sqlUnit(), Timestamp.from(from), Timestamp.from(to), promptIdentifier, promptIdentifier);
+    }
+
+    public List<TopPromptDto> getTopPrompts(Instant from, Instant to, int limit) {
+        return jdbcTemplate.query(TOP_PROMPTS_SQL, (rs, rowNum) -> {
+            long requests = rs.getLong("requests");
+            TopPromptDto dto = new TopPromptDto();
+            dto.setIdentifier(rs.getString("prompt_identifier"));
+            dto.setName(rs.getString("prompt_identifier"));
+            dto.setCategory(rs.getString("usage_type"));
+            dto.setRequestCount(requests);
+            dto.setTotalCost(rs.getBigDecimal("cost"));
+            dto.setSuccessRate(requests == 0 ? 0.0 : rs.getLong("successes") * 100.0 / requests);
+            dto.setAverageResponseTime(requests == 0 ? 0.0 : (double) rs.getLong("execution_ms") / requests);
+            dto.setTotalTokens(rs.getLong("tokens"));
+            dto.setMostUsedModel(rs.getString("top_model"));
+            return dto;
+        }, Timestamp.from(from), Timestamp.from(to), limit);
+    }
+}
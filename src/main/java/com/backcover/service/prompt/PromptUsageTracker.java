@@ -1,75 +1,382 @@
 package com.backcover.service.prompt;
 
+import com.backcover.model.AIFlowConfiguration.FlowType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Stub implementation of PromptUsageTracker
- * Tracking functionality has been removed
+ * Instrumentation of LLM calls through Micrometer.
+ * Every Gemini call records a latency histogram, token counts, finish reason, retries and errors,
+ * tagged by flow, model id and prompt version. Exposed through actuator (/actuator/prometheus).
+ * Each call is also enqueued as a usage event, persisted in batches by {@link PromptUsageWriter},
+ * and observed as an {@code llm.call} span so it shows up in the request trace.
  */
 @Service
 public class PromptUsageTracker {
     
     private static final Logger log = LoggerFactory.getLogger(PromptUsageTracker.class);
-    
+
+    public static final String METRIC_REQUESTS = "llm.requests";
+    public static final String METRIC_TOKENS = "llm.tokens";
+    public static final String METRIC_FINISH_REASONS = "llm.finish.reasons";
+    public static final String METRIC_RETRIES = "llm.retries";
+    public static final String METRIC_ERRORS = "llm.errors";
+    public static final String OBSERVATION_NAME = "llm.call";
+
+    /** Prompt version tag for prompts hard-coded in the application rather than stored in DB */
+    public static final String BUILTIN_PROMPT = "builtin";
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry meterRegistry;
+    private final PromptUsageWriter usageWriter;
+    private final ObservationRegistry observationRegistry;
+
+    public PromptUsageTracker(MeterRegistry meterRegistry, PromptUsageWriter usageWriter,
+                              ObservationRegistry observationRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.usageWriter = usageWriter;
+        this.observationRegistry = observationRegistry;
+    }
+
     /**
-     * Stub method - no longer tracks usage
+     * Context of an LLM call in progress. Only the first completion is recorded,
+     * so nested error handlers cannot count the same call twice.
      */
-    public void trackUsage(String promptIdentifier, String promptVersion, String llmModel,
-                          String usageType, int inputTokens, int outputTokens,
-                          long executionTimeMs, boolean success, Double estimatedCostUsd,
-                          Map<String, Object> metadata) {
-        // No-op - usage tracking removed
-        log.debug("Usage tracking disabled for prompt: {}", promptIdentifier);
+    public static final class TrackingContext {
+        private final FlowType flow;
+        private final String promptIdentifier;
+        private final String modelId;
+        private final String promptVersion;
+        private final long startNanos;
+        private final Observation observation;
+        private final AtomicBoolean completed = new AtomicBoolean(false);
+
+        private TrackingContext(FlowType flow, String promptIdentifier, String modelId, String promptVersion,
+                                long startNanos, Observation observation) {
+            this.flow = flow;
+            this.promptIdentifier = promptIdentifier;
+            this.modelId = modelId;
+            this.promptVersion = promptVersion;
+            this.startNanos = startNanos;
+            this.observation = observation;
+        }
+
+        public FlowType getFlow() { return flow; }
+        public String getPromptIdentifier() { return promptIdentifier; }
+        public String getModelId() { return modelId; }
+        public String getPromptVersion() { return promptVersion; }
+
+        private boolean markCompleted() {
+            return completed.compareAndSet(false, true);
+        }
+
+        private Tags tags() {
+            return Tags.of(
+                "flow", flow != null ? flow.name() : UNKNOWN,
+                "model", modelId != null ? modelId : UNKNOWN,
+                "prompt_version", promptVersion != null ? promptVersion : UNKNOWN);
+        }
     }
-    
+
     /**
-     * Stub method - no longer tracks async usage
+     * Aggregated performance of a model since startup, per flow and prompt version
      */
-    public CompletableFuture<Void> trackUsageAsync(String promptIdentifier, String promptVersion,
-                                                   String llmModel, String usageType,
-                                                   int inputTokens, int outputTokens,
-                                                   long executionTimeMs, boolean success,
-                                                   Double estimatedCostUsd, Map<String, Object> metadata) {
-        // No-op - usage tracking removed
-        return CompletableFuture.completedFuture(null);
+    public record ModelPerformance(
+            String modelId,
+            long totalRequests,
+            long failedRequests,
+            double averageResponseTimeMs,
+            long promptTokens,
+            long candidatesTokens,
+            long retries,
+            Map<String, Long> finishReasons,
+            Map<String, Long> errors,
+            List<FlowPerformance> flows) {
+
+        public double successRate() {
+            return totalRequests == 0 ? 100.0 : (totalRequests - failedRequests) * 100.0 / totalRequests;
+        }
     }
-    
+
+    public record FlowPerformance(
+            String flow,
+            String promptVersion,
+            String outcome,
+            long count,
+            double meanMs,
+            double maxMs,
+            Map<String, Double> percentilesMs) {}
+
     /**
-     * Stub class for TrackingContext
+     * Starts timing an LLM call whose prompt is identified by its flow
      */
-    public static class TrackingContext {
-        // Empty stub class
+    public TrackingContext startTracking(FlowType flow, String modelId, String promptVersion) {
+        return startTracking(flow, flow != null ? flow.name() : UNKNOWN, modelId, promptVersion);
     }
-    
+
     /**
-     * Stub method - returns empty tracking context
+     * Starts timing an LLM call
      */
-    public TrackingContext startTracking(Object... params) {
-        return new TrackingContext();
+    public TrackingContext startTracking(FlowType flow, String promptIdentifier, String modelId, String promptVersion) {
+        String flowName = flow != null ? flow.name() : UNKNOWN;
+        // Pas de scope ouvert : l'appel peut se terminer dans un autre bloc, voire un autre thread
+        Observation observation = Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                .contextualName("gemini " + flowName.toLowerCase())
+                .lowCardinalityKeyValue("flow", flowName)
+                .lowCardinalityKeyValue("model", modelId != null ? modelId : UNKNOWN)
+                .highCardinalityKeyValue("prompt", promptIdentifier != null ? promptIdentifier : UNKNOWN)
+                .highCardinalityKeyValue("prompt_version", promptVersion != null ? promptVersion : UNKNOWN)
+                .start();
+        return new TrackingContext(flow, promptIdentifier, modelId, promptVersion, System.nanoTime(), observation);
     }
-    
+
     /**
-     * Stub method - completes tracking
+     * Records a successful call: latency, token counts and finish reason
      */
-    public void completeTracking(Object context, String response, int inputTokens, 
-                                int outputTokens, double cost, int statusCode) {
-        // No-op - tracking removed
+    public void completeTracking(TrackingContext context, int promptTokens, int candidatesTokens,
+                                 int totalTokens, String finishReason) {
+        if (context == null || !context.markCompleted()) {
+            return;
+        }
+        Tags tags = context.tags();
+        long executionTimeMs = recordLatency(context, "success");
+        context.observation
+                .highCardinalityKeyValue("tokens.prompt", String.valueOf(promptTokens))
+                .highCardinalityKeyValue("tokens.candidates", String.valueOf(candidatesTokens))
+                .highCardinalityKeyValue("finish_reason", finishReason != null ? finishReason : UNKNOWN);
+        context.observation.stop();
+        enqueueUsage(context, promptTokens, candidatesTokens, executionTimeMs, true);
+
+        incrementTokens(tags, "prompt", promptTokens);
+        incrementTokens(tags, "candidates", candidatesTokens);
+        incrementTokens(tags, "total", totalTokens > 0 ? totalTokens : promptTokens + candidatesTokens);
+
+        Counter.builder(METRIC_FINISH_REASONS)
+                .description("LLM responses by finish reason")
+                .tags(tags)
+                .tag("reason", finishReason != null ? finishReason : UNKNOWN)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Records a failed call: latency and error type (http_4xx, http_5xx, timeout, network, invalid_response...)
+     */
+    public void completeTrackingWithError(TrackingContext context, String errorType) {
+        if (context == null || !context.markCompleted()) {
+            return;
+        }
+        long executionTimeMs = recordLatency(context, "error");
+        context.observation.highCardinalityKeyValue("error_type", errorType != null ? errorType : UNKNOWN);
+        context.observation.stop();
+        enqueueUsage(context, 0, 0, executionTimeMs, false);
+        Counter.builder(METRIC_ERRORS)
+                .description("Failed LLM calls by error type")
+                .tags(context.tags())
+                .tag("error_type", errorType != null ? errorType : UNKNOWN)
+                .register(meterRegistry)
+                .increment();
+        log.debug("LLM call failed - flow={}, model={}, error={}", context.getFlow(), context.getModelId(), errorType);
+    }
+
+    /**
+     * Records a retry of the call (the final outcome is recorded by complete*)
+     */
+    public void recordRetry(TrackingContext context, String reason) {
+        if (context == null) {
+            return;
+        }
+        context.observation.event(Observation.Event.of("retry", "retry: " + (reason != null ? reason : UNKNOWN)));
+        Counter.builder(METRIC_RETRIES)
+                .description("LLM call retries")
+                .tags(context.tags())
+                .tag("reason", reason != null ? reason : UNKNOWN)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Classifies an HTTP status into an error type tag
+     */
+    public static String httpErrorType(int statusCode) {
+        if (statusCode >= 400 && statusCode < 500) {
+            return statusCode == 429 ? "http_429" : "http_4xx";
+        }
+        if (statusCode >= 500) {
+            return "http_5xx";
+        }
+        return "network";
+    }
+
+    private long recordLatency(TrackingContext context, String outcome) {
+        context.observation.lowCardinalityKeyValue("outcome", outcome);
+        long elapsedNanos = System.nanoTime() - context.startNanos;
+        Timer.builder(METRIC_REQUESTS)
+                .description("LLM call latency, retries included")
+                .tags(context.tags())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .minimumExpectedValue(Duration.ofMillis(50))
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    private void enqueueUsage(TrackingContext context, int inputTokens, int outputTokens,
+                              long executionTimeMs, boolean success) {
+        usageWriter.enqueue(new PromptUsageWriter.UsageEvent(
+                Instant.now(),
+                context.flow != null ? context.flow.name() : UNKNOWN,
+                context.promptIdentifier,
+                context.promptVersion,
+                context.modelId,
+                inputTokens,
+                outputTokens,
+                executionTimeMs,
+                success,
+                null));
+    }
+
+    private void incrementTokens(Tags tags, String type, int count) {
+        if (count <= 0) {
+            return;
+        }
+        Counter.builder(METRIC_TOKENS)
+                .description("LLM tokens consumed")
+                .baseUnit("tokens")
+                .tags(tags)
+                .tag("type", type)
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    /**
+     * Aggregates the metrics of a model since startup (backs /api/models/{modelId}/performance)
+     */
+    public ModelPerformance getModelPerformance(String modelId) {
+        long totalRequests = 0;
+        long failedRequests = 0;
+        double totalTimeMs = 0;
+        List<FlowPerformance> flows = new ArrayList<>();
+
+        for (Timer timer : meterRegistry.find(METRIC_REQUESTS).tag("model", modelId).timers()) {
+            long count = timer.count();
+            totalRequests += count;
+            totalTimeMs += timer.totalTime(TimeUnit.MILLISECONDS);
+            String outcome = timer.getId().getTag("outcome");
+            if ("error".equals(outcome)) {
+                failedRequests += count;
+            }
+
+            Map<String, Double> percentiles = new TreeMap<>();
+            for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+                percentiles.put("p" + Math.round(value.percentile() * 100), value.value(TimeUnit.MILLISECONDS));
+            }
+            flows.add(new FlowPerformance(
+                    timer.getId().getTag("flow"),
+                    timer.getId().getTag("prompt_version"),
+                    outcome,
+                    count,
+                    timer.mean(TimeUnit.MILLISECONDS),
+                    timer.max(TimeUnit.MILLISECONDS),
+                    percentiles));
+        }
+
+        long promptTokens = 0;
+        long candidatesTokens = 0;
+        for (Counter counter : meterRegistry.find(METRIC_TOKENS).tag("model", modelId).counters()) {
+            String type = counter.getId().getTag("type");
+            if ("prompt".equals(type)) {
+                promptTokens += (long) counter.count();
+            } else if ("candidates".equals(type)) {
+                candidatesTokens += (long) counter.count();
+            }
+        }
+
+        long retries = (long) meterRegistry.find(METRIC_RETRIES).tag("model", modelId).counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+
+        return new ModelPerformance(
+                modelId,
+                totalRequests,
+                failedRequests,
+                totalRequests == 0 ? 0 : totalTimeMs / totalRequests,
+                promptTokens,
+                candidatesTokens,
+                retries,
+                sumByTag(METRIC_FINISH_REASONS, modelId, "reason"),
+                sumByTag(METRIC_ERRORS, modelId, "error_type"),
+                flows);
+    }
+
+    private Map<String, Long> sumByTag(String metric, String modelId, String tag) {
+        Map<String, Long> totals = new TreeMap<>();
+        for (Counter counter : meterRegistry.find(metric).tag("model", modelId).counters()) {
+            totals.merge(counter.getId().getTag(tag), (long) counter.count(), Long::sum);
+        }
+        return totals;
+    }
+
+    /**
+     * Records a usage event for persistence (non-blocking: enqueued, written in batches)
+     */
+    public void trackUsage(String promptIdentifier, String promptVersion, String llmModel,
+                          String usageType, int inputTokens, int outputTokens,
+                          long executionTimeMs, boolean success, Double estimatedCostUsd,
+                          Map<String, Object> metadata) {
+        boolean queued = usageWriter.enqueue(new PromptUsageWriter.UsageEvent(
+                Instant.now(),
+                usageType != null ? usageType : UsageType.OTHER.getValue(),
+                promptIdentifier,
+                promptVersion,
+                llmModel,
+                inputTokens,
+                outputTokens,
+                executionTimeMs,
+                success,
+                estimatedCostUsd != null ? BigDecimal.valueOf(estimatedCostUsd) : null));
+        if (!queued) {
+            log.debug("Usage event dropped for prompt: {}", promptIdentifier);
+        }
     }
     
     /**
-     * Stub method - completes tracking with error
+     * Same as {@link #trackUsage}: enqueuing never blocks, the returned future is already complete
      */
-    public void completeTrackingWithError(Object context, String error, int statusCode) {
-        // No-op - tracking removed
+    public CompletableFuture<Void> trackUsageAsync(String promptIdentifier, String promptVersion,
+                                                   String llmModel, String usageType,
+                                                   int inputTokens, int outputTokens,
+                                                   long executionTimeMs, boolean success,
+                                                   Double estimatedCostUsd, Map<String, Object> metadata) {
+        trackUsage(promptIdentifier, promptVersion, llmModel, usageType, inputTokens, outputTokens,
+                executionTimeMs, success, estimatedCostUsd, metadata);
+        return CompletableFuture.completedFuture(null);
     }
     
     /**
-     * Stub method - returns default usage type
+     * Usage type of an event (defaults to the flow name for tracked calls)
      */
     public enum UsageType {
         WORD_ANALYSIS("WORD_ANALYSIS"),
@@ -88,4 +395,4 @@ public class PromptUsageTracker {
             return value;
         }
     }
-}
\ No newline at end of file
+}
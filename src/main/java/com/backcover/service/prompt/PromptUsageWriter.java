@@ -0,0 +1,333 @@
+package com.backcover.service.prompt;
+
+import com.backcover.model.prompt.ModelConfiguration;
+import com.backcover.repository.ModelConfigurationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Asynchronous, batched persistence of LLM usage events.
+ * Callers only enqueue into a bounded lock-free ring buffer (dropped when full, never blocking a word tap);
+ * a scheduled writer drains it, computes the cost from the model pricing in llm_models, then
+ * multi-row inserts the raw events and upserts the hourly rollups in a single transaction.
+ */
+@Component
+public class PromptUsageWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(PromptUsageWriter.class);
+    private static final BigDecimal ONE_MILLION = BigDecimal.valueOf(1_000_000);
+
+    private static final String INSERT_EVENTS_PREFIX =
+            "INSERT INTO prompt_usage_event (occurred_at, usage_type, prompt_identifier, prompt_version, llm_model, "
+            + "input_tokens, output_tokens, execution_time_ms, success, estimated_cost_usd) VALUES ";
+    private static final String EVENT_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_ROLLUPS_PREFIX =
+            "INSERT INTO prompt_usage_hourly (hour_start, usage_type, prompt_identifier, prompt_version, llm_model, "
+            + "request_count, success_count, input_tokens, output_tokens, total_execution_time_ms, "
+            + "total_cost_usd, min_cost_usd, max_cost_usd) VALUES ";
+    private static final String ROLLUP_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPSERT_ROLLUPS_SUFFIX =
+            " ON CONFLICT (hour_start, usage_type, prompt_identifier, prompt_version, llm_model) DO UPDATE SET "
+            + "request_count = prompt_usage_hourly.request_count + EXCLUDED.request_count, "
+            + "success_count = prompt_usage_hourly.success_count + EXCLUDED.success_count, "
+            + "input_tokens = prompt_usage_hourly.input_tokens + EXCLUDED.input_tokens, "
+            + "output_tokens = prompt_usage_hourly.output_tokens + EXCLUDED.output_tokens, "
+            + "total_execution_time_ms = prompt_usage_hourly.total_execution_time_ms + EXCLUDED.total_execution_time_ms, "
+            + "total_cost_usd = prompt_usage_hourly.total_cost_usd + EXCLUDED.total_cost_usd, "
+            + "min_cost_usd = LEAST(prompt_usage_hourly.min_cost_usd, EXCLUDED.min_cost_usd), "
+            + "max_cost_usd = GREATEST(prompt_usage_hourly.max_cost_usd, EXCLUDED.max_cost_usd)";
+
+    /**
+     * One LLM call. {@code estimatedCostUsd} may be null: it is then computed from the model pricing.
+     */
+    public record UsageEvent(
+            Instant occurredAt,
+            String usageType,
+            String promptIdentifier,
+            String promptVersion,
+            String llmModel,
+            int inputTokens,
+            int outputTokens,
+            long executionTimeMs,
+            boolean success,
+            BigDecimal estimatedCostUsd) {}
+
+    private record Pricing(BigDecimal inputPerMillion, BigDecimal outputPerMillion) {}
+
+    private record RollupKey(Instant hourStart, String usageType, String promptIdentifier,
+                             String promptVersion, String llmModel) implements Comparable<RollupKey> {
+        @Override
+        public int compareTo(RollupKey other) {
+            int result = hourStart.compareTo(other.hourStart);
+            if (result == 0) result = usageType.compareTo(other.usageType);
+            if (result == 0) result = promptIdentifier.compareTo(other.promptIdentifier);
+            if (result == 0) result = promptVersion.compareTo(other.promptVersion);
+            if (result == 0) result = llmModel.compareTo(other.llmModel);
+            return result;
+        }
+    }
+
+    private static final class Rollup {
+        long requests;
+        long successes;
+        long inputTokens;
+        long outputTokens;
+        long executionTimeMs;
+        BigDecimal totalCost = BigDecimal.ZERO;
+        BigDecimal minCost;
+        BigDecimal maxCost;
+
+        void add(UsageEvent event, BigDecimal cost) {
+            requests++;
+            if (event.success()) successes++;
+            inputTokens += event.inputTokens();
+            outputTokens += event.outputTokens();
+            executionTimeMs += event.executionTimeMs();
+            if (cost != null) {
+                totalCost = totalCost.add(cost);
+                minCost = minCost == null ? cost : minCost.min(cost);
+                maxCost = maxCost == null ? cost : maxCost.max(cost);
+            }
+        }
+    }
+
+    private final BoundedRingBuffer<UsageEvent> buffer;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ModelConfigurationRepository modelConfigurationRepository;
+    private final Counter droppedEvents;
+    private final Counter writtenEvents;
+    private final Counter failedEvents;
+
+    private volatile Map<String, Pricing> pricingByModel = Collections.emptyMap();
+    private volatile long pricingLoadedAtMillis;
+
+    @Value("${prompt-usage.enabled:true}")
+    private boolean enabled;
+
+    @Value("${prompt-usage.batch-size:500}")
+    private int batchSize;
+
+    @Value("${prompt-usage.pricing-refresh-seconds:300}")
+    private long pricingRefreshSeconds;
+
+    public PromptUsageWriter(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             ModelConfigurationRepository modelConfigurationRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${prompt-usage.buffer-capacity:8192}") int bufferCapacity) {
+        this.buffer = new BoundedRingBuffer<>(bufferCapacity);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.modelConfigurationRepository = modelConfigurationRepository;
+        this.droppedEvents = Counter.builder("llm.usage.events.dropped")
+                .description("Usage events dropped because the buffer was full")
+                .register(meterRegistry);
+        this.writtenEvents = Counter.builder("llm.usage.events.written")
+                .description("Usage events persisted")
+                .register(meterRegistry);
+        this.failedEvents = Counter.builder("llm.usage.events.failed")
+                .description("Usage events lost because their batch could not be written")
+                .register(meterRegistry);
+        Gauge.builder("llm.usage.buffer.size", buffer, BoundedRingBuffer::size)
+                .description("Usage events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Enqueues an event without blocking.
+     *
+     * @return false if usage persistence is disabled or the buffer is full (event dropped)
+     */
+    public boolean enqueue(UsageEvent event) {
+        if (!enabled) {
+            return false;
+        }
+        if (!buffer.offer(event)) {
+            droppedEvents.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Drains the buffer in batches. Runs on the scheduler and once more on shutdown.
+     */
+    @Scheduled(fixedDelayString = "${prompt-usage.flush-interval-ms:2000}")
+    public synchronized void flush() {
+        List<UsageEvent> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            if (batch.size() < batchSize) {
+                break;
+            }
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("[PROMPT-USAGE] Flushing {} pending usage events before shutdown", buffer.size());
+        flush();
+    }
+
+    private void write(List<UsageEvent> batch) {
+        Map<String, Pricing> pricing = currentPricing();
+        List<BigDecimal> costs = new ArrayList<>(batch.size());
+        for (UsageEvent event : batch) {
+            costs.add(event.estimatedCostUsd() != null ? event.estimatedCostUsd() : computeCost(event, pricing));
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                insertEvents(batch, costs);
+                upsertRollups(batch, costs);
+            });
+            writtenEvents.increment(batch.size());
+            log.debug("[PROMPT-USAGE] Wrote {} usage events", batch.size());
+        } catch (DataAccessException e) {
+            // Pas de remise en file : un lot en échec ne doit pas bloquer les suivants
+            failedEvents.increment(batch.size());
+            log.warn("[PROMPT-USAGE] Failed to write {} usage events: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private void insertEvents(List<UsageEvent> batch, List<BigDecimal> costs) {
+        StringBuilder sql = new StringBuilder(INSERT_EVENTS_PREFIX.length() + batch.size() * (EVENT_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_EVENTS_PREFIX);
+        Object[] args = new Object[batch.size() * 10];
+        int i = 0;
+        for (int row = 0; row < batch.size(); row++) {
+            UsageEvent event = batch.get(row);
+            if (row > 0) {
+                sql.append(", ");
+            }
+            sql.append(EVENT_PLACEHOLDERS);
+            args[i++] = Timestamp.from(event.occurredAt());
+            args[i++] = truncate(event.usageType(), 50);
+            args[i++] = truncate(event.promptIdentifier(), 100);
+            args[i++] = event.promptVersion() != null ? truncate(event.promptVersion(), 20) : null;
+            args[i++] = truncate(event.llmModel(), 100);
+            args[i++] = event.inputTokens();
+            args[i++] = event.outputTokens();
+            args[i++] = event.executionTimeMs();
+            args[i++] = event.success();
+            args[i++] = costs.get(row);
+        }
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    private void upsertRollups(List<UsageEvent> batch, List<BigDecimal> costs) {
+        // Agrégation en mémoire : une ligne par clé dans l'upsert (et ordre stable pour éviter les deadlocks)
+        Map<RollupKey, Rollup> rollups = new TreeMap<>();
+        for (int row = 0; row < batch.size(); row++) {
+            UsageEvent event = batch.get(row);
+            RollupKey key = new RollupKey(
+                    event.occurredAt().truncatedTo(ChronoUnit.HOURS),
+                    truncate(event.usageType(), 50),
+                    truncate(event.promptIdentifier(), 100),
+                    event.promptVersion() != null ? truncate(event.promptVersion(), 20) : "",
+                    truncate(event.llmModel(), 100));
+            rollups.computeIfAbsent(key, k -> new Rollup()).add(event, costs.get(row));
+        }
+
+        StringBuilder sql = new StringBuilder(UPSERT_ROLLUPS_PREFIX);
+        Object[] args = new Object[rollups.size() * 13];
+        int i = 0;
+        boolean first = true;
+        for (Map.Entry<RollupKey, Rollup> entry : rollups.entrySet()) {
+            RollupKey key = entry.getKey();
+            Rollup rollup = entry.getValue();
+            if (!first) {
+                sql.append(", ");
+            }
+            first = false;
+            sql.append(ROLLUP_PLACEHOLDERS);
+            args[i++] = Timestamp.from(key.hourStart());
+            args[i++] = key.usageType();
+            args[i++] = key.promptIdentifier();
+            args[i++] = key.promptVersion();
+            args[i++] = key.llmModel();
+            args[i++] = rollup.requests;
+            args[i++] = rollup.successes;
+            args[i++] = rollup.inputTokens;
+            args[i++] = rollup.outputTokens;
+            args[i++] = rollup.executionTimeMs;
+            args[i++] = rollup.totalCost;
+            args[i++] = rollup.minCost;
+            args[i++] = rollup.maxCost;
+        }
+        sql.append(UPSERT_ROLLUPS_SUFFIX);
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    private BigDecimal computeCost(UsageEvent event, Map<String, Pricing> pricing) {
+        Pricing modelPricing = pricing.get(event.llmModel());
+        if (modelPricing == null) {
+            return null;
+        }
+        BigDecimal cost = BigDecimal.ZERO;
+        if (modelPricing.inputPerMillion() != null) {
+            cost = cost.add(modelPricing.inputPerMillion().multiply(BigDecimal.valueOf(event.inputTokens())));
+        }
+        if (modelPricing.outputPerMillion() != null) {
+            cost = cost.add(modelPricing.outputPerMillion().multiply(BigDecimal.valueOf(event.outputTokens())));
+        }
+        return cost.divide(ONE_MILLION, MathContext.DECIMAL64).setScale(8, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Model pricing, reloaded from llm_models at most every {@code pricing-refresh-seconds}
+     */
+    private Map<String, Pricing> currentPricing() {
+        long now = System.currentTimeMillis();
+        if (now - pricingLoadedAtMillis < pricingRefreshSeconds * 1000) {
+            return pricingByModel;
+        }
+        try {
+            Map<String, Pricing> loaded = new HashMap<>();
+            for (ModelConfiguration model : modelConfigurationRepository.findAll()) {
+                if (model.getInputPricePerMillionUsd() != null || model.getOutputPricePerMillionUsd() != null) {
+                    loaded.put(model.getModelCode(),
+                            new Pricing(model.getInputPricePerMillionUsd(), model.getOutputPricePerMillionUsd()));
+                }
+            }
+            pricingByModel = loaded;
+        } catch (DataAccessException e) {
+            log.warn("[PROMPT-USAGE] Could not reload model pricing, keeping previous values: {}", e.getMessage());
+        }
+        pricingLoadedAtMillis = now;
+        return pricingByModel;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null) {
+            return "unknown";
+        }
+        return value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
@@ -22,10 +22,13 @@ public class PromptVersioningService {
     private static final Logger log = LoggerFactory.getLogger(PromptVersioningService.class);
     
     private final PromptTemplateRepository promptTemplateRepository;
+    private final PromptTemplateCache promptTemplateCache;
     
     public PromptVersioningService(
-            PromptTemplateRepository promptTemplateRepository) {
+            PromptTemplateRepository promptTemplateRepository,
+            PromptTemplateCache promptTemplateCache) {
         this.promptTemplateRepository = promptTemplateRepository;
+        this.promptTemplateCache = promptTemplateCache;
     }
     
     /**
@@ -77,6 +80,7 @@ public class PromptVersioningService {
         }
         
         PromptTemplate savedVersion = promptTemplateRepository.save(newVersion);
+        promptTemplateCache.invalidate(identifier);
         
         log.info("Created new version {} for prompt {} by user {}", 
                 savedVersion.getVersion(), identifier, createdBy);
@@ -129,6 +133,7 @@ public class PromptVersioningService {
         versionToActivate.setIsActive(true);
         
         promptTemplateRepository.saveAll(allVersions);
+        promptTemplateCache.invalidate(identifier);
         
         log.info("Successfully activated version {} for prompt {}", version, identifier);
     }
@@ -152,6 +157,7 @@ public class PromptVersioningService {
         versionToDeprecate.setIsActive(false);
         
         promptTemplateRepository.save(versionToDeprecate);
+        promptTemplateCache.invalidate(identifier);
         
         log.info("Successfully deprecated version {} for prompt {}", version, identifier);
     }
@@ -0,0 +1,482 @@
+package com.backcover.service.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.crt.S3CrtHttpConfiguration;
+import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/**
+ * Service de stockage CloudFlare R2 asynchrone, basé sur le client S3 CRT.
+ * Les gros fichiers sont envoyés en multipart parallèle, les corps sont streamés
+ * (AsyncRequestBody / AsyncResponseTransformer) et les suppressions groupées en DeleteObjects.
+ * Les méthodes de CloudStorageService restent disponibles en version bloquante.
+ */
+@Service("asyncR2Storage")
+public class AsyncR2StorageService implements CloudStorageService {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncR2StorageService.class);
+    private static final int DELETE_BATCH_SIZE = 1000; // Limite S3 par requête DeleteObjects
+
+    @Value("${R2_ENDPOINT}")
+    private String endpoint;
+
+    @Value("${R2_ACCESS_KEY_ID}")
+    private String accessKeyId;
+
+    @Value("${R2_SECRET_ACCESS_KEY}")
+    private String secretAccessKey;
+
+    @Value("${R2_BUCKET_NAME}")
+    private String bucketName;
+
+    @Value("${R2_REGION:us-east-1}")
+    private String region;
+
+    @Value("${r2.async.max-concurrency:32}")
+    private int maxConcurrency;
+
+    @Value("${r2.async.part-size-mb:8}")
+    private long partSizeMb;
+
+    @Value("${r2.async.target-throughput-gbps:1.0}")
+    private double targetThroughputGbps;
+
+    @Value("${r2.async.connection-timeout-seconds:10}")
+    private long connectionTimeoutSeconds;
+
+    private S3AsyncClient s3AsyncClient;
+    private S3Presigner s3Presigner;
+
+    @PostConstruct
+    public void init() {
+        try {
+            StaticCredentialsProvider credentials = StaticCredentialsProvider.create(
+                AwsBasicCredentials.create(accessKeyId, secretAccessKey));
+
+            this.s3AsyncClient = S3AsyncClient.crtBuilder()
+                .region(Region.of(region))
+                .endpointOverride(URI.create(endpoint))
+                .credentialsProvider(credentials)
+                .forcePathStyle(true)
+                .checksumValidationEnabled(false) // R2 ne renvoie pas toujours les checksums CRT
+                .maxConcurrency(maxConcurrency)
+                .minimumPartSizeInBytes(partSizeMb * 1024 * 1024)
+                .targetThroughputInGbps(targetThroughputGbps)
+                .httpConfiguration(S3CrtHttpConfiguration.builder()
+                    .connectionTimeout(Duration.ofSeconds(connectionTimeoutSeconds))
+                    .build())
+                .build();
+
+            this.s3Presigner = S3Presigner.builder()
+                .region(Region.of(region))
+                .endpointOverride(URI.create(endpoint))
+                .credentialsProvider(credentials)
+                .build();
+
+            log.info("[R2-ASYNC] ✅ Client CRT initialisé - Bucket: {}, concurrence: {}, parts: {} MB",
+                    bucketName, maxConcurrency, partSizeMb);
+        } catch (Exception e) {
+            log.error("[R2-ASYNC] ❌ Erreur initialisation: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to initialize async R2 storage", e);
+        }
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        if (s3AsyncClient != null) {
+            s3AsyncClient.close();
+            log.info("[R2-ASYNC] Client CRT fermé");
+        }
+        if (s3Presigner != null) {
+            s3Presigner.close();
+        }
+    }
+
+    // ===================================================================
+    // API asynchrone
+    // ===================================================================
+
+    /**
+     * Upload depuis la mémoire ; découpé en multipart parallèle au-delà de la taille de part
+     */
+    public CompletableFuture<PutObjectResponse> uploadFileAsync(String key, byte[] content, Map<String, String> metadata) {
+        log.debug("[R2-ASYNC] Upload: key='{}', size={} bytes", key, content.length);
+        return s3AsyncClient.putObject(putRequest(key, metadata), AsyncRequestBody.fromBytes(content))
+            .whenComplete((response, error) -> logUpload(key, response, error));
+    }
+
+    /**
+     * Upload streamé depuis un fichier local, sans charger son contenu en mémoire
+     */
+    public CompletableFuture<PutObjectResponse> uploadFileAsync(String key, Path file, Map<String, String> metadata) {
+        log.debug("[R2-ASYNC] Upload fichier: key='{}', source={}", key, file);
+        return s3AsyncClient.putObject(putRequest(key, metadata), AsyncRequestBody.fromFile(file))
+            .whenComplete((response, error) -> logUpload(key, response, error));
+    }
+
+    public CompletableFuture<Optional<byte[]>> downloadFileAsync(String key) {
+        GetObjectRequest request = GetObjectRequest.builder()
+            .bucket(bucketName)
+            .key(key)
+            .build();
+
+        return s3AsyncClient.getObject(request, AsyncResponseTransformer.toBytes())
+            .thenApply(response -> Optional.of(response.asByteArray()))
+            .exceptionally(error -> {
+                if (unwrap(error) instanceof NoSuchKeyException) {
+                    log.warn("[R2-ASYNC] ⚠️ Fichier non trouvé: {}", key);
+                } else {
+                    log.error("[R2-ASYNC] ❌ Erreur download {}: {}", key, unwrap(error).getMessage());
+                }
+                return Optional.empty();
+            });
+    }
+
+    /**
+     * Ouvre un flux de lecture sur l'objet : le contenu est consommé au fil de l'eau
+     */
+    public CompletableFuture<ResponseInputStream<GetObjectResponse>> openStreamAsync(String key) {
+        GetObjectRequest request = GetObjectRequest.builder()
+            .bucket(bucketName)
+            .key(key)
+            .build();
+        return s3AsyncClient.getObject(request, AsyncResponseTransformer.toBlockingInputStream());
+    }
+
+    /**
+     * Téléchargement streamé vers un fichier local
+     */
+    public CompletableFuture<GetObjectResponse> downloadToFileAsync(String key, Path destination) {
+        GetObjectRequest request = GetObjectRequest.builder()
+            .bucket(bucketName)
+            .key(key)
+            .build();
+        return s3AsyncClient.getObject(request, AsyncResponseTransformer.toFile(destination));
+    }
+
+    /**
+     * Suppression groupée (DeleteObjects, 1000 clés par requête), sans HEAD préalable.
+     * Retourne le nombre de clés supprimées.
+     */
+    public CompletableFuture<Integer> deleteFilesAsync(Collection<String> keys) {
+        List<String> distinctKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+        if (distinctKeys.isEmpty()) {
+            return CompletableFuture.completedFuture(0);
+        }
+
+        List<CompletableFuture<Integer>> batches = new ArrayList<>();
+        for (int start = 0; start < distinctKeys.size(); start += DELETE_BATCH_SIZE) {
+            List<ObjectIdentifier> identifiers = distinctKeys
+                .subList(start, Math.min(start + DELETE_BATCH_SIZE, distinctKeys.size()))
+                .stream()
+                .map(key -> ObjectIdentifier.builder().key(key).build())
+                .collect(Collectors.toList());
+
+            DeleteObjectsRequest request = DeleteObjectsRequest.builder()
+                .bucket(bucketName)
+                .delete(Delete.builder().objects(identifiers).quiet(true).build())
+                .build();
+
+            batches.add(s3AsyncClient.deleteObjects(request).thenApply(response -> {
+                for (S3Error error : response.errors()) {
+                    log.warn("[R2-ASYNC] ⚠️ Suppression échouée {}: {} {}", error.key(), error.code(), error.message());
+                }
+                return identifiers.size() - response.errors().size();
+            }));
+        }
+
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture[0]))
+            .thenApply(ignored -> batches.stream().mapToInt(CompletableFuture::join).sum())
+            .whenComplete((deleted, error) -> {
+                if (error != null) {
+                    log.error("[R2-ASYNC] ❌ Erreur suppression groupée: {}", unwrap(error).getMessage());
+                } else {
+                    log.debug("[R2-ASYNC] ✅ {} fichiers supprimés", deleted);
+                }
+            });
+    }
+
+    /**
+     * Supprime tous les objets sous un préfixe (listing paginé + DeleteObjects)
+     */
+    public CompletableFuture<Integer> deleteByPrefixAsync(String prefix) {
+        ListObjectsV2Request request = ListObjectsV2Request.builder()
+            .bucket(bucketName)
+            .prefix(prefix)
+            .build();
+
+        List<String> keys = Collections.synchronizedList(new ArrayList<>());
+        return s3AsyncClient.listObjectsV2Paginator(request)
+            .contents()
+            .subscribe(object -> keys.add(object.key()))
+            .thenCompose(ignored -> deleteFilesAsync(keys));
+    }
+
+    // ===================================================================
+    // CloudStorageService (bloquant)
+    // ===================================================================
+
+    @Override
+    public void uploadFile(String key, byte[] content, Map<String, String> metadata) {
+        try {
+            uploadFileAsync(key, content, metadata).join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Failed to upload to R2: " + key + " - " + unwrap(e).getMessage(), unwrap(e));
+        }
+    }
+
+    @Override
+    public Optional<byte[]> downloadFile(String key) {
+        return downloadFileAsync(key).join();
+    }
+
+    @Override
+    public boolean fileExists(String key) {
+        HeadObjectRequest request = HeadObjectRequest.builder()
+            .bucket(bucketName)
+            .key(key)
+            .build();
+        try {
+            s3AsyncClient.headObject(request).join();
+            return true;
+        } catch (CompletionException e) {
+            if (!(unwrap(e) instanceof NoSuchKeyException)) {
+                log.error("[R2-ASYNC] ❌ Erreur vérification existence {}: {}", key, unwrap(e).getMessage());
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public boolean deleteFile(String key) {
+        DeleteObjectRequest request = DeleteObjectRequest.builder()
+            .bucket(bucketName)
+            .key(key)
+            .build();
+        try {
+            s3AsyncClient.deleteObject(request).join();
+            log.debug("[R2-ASYNC] ✅ Fichier supprimé: {}", key);
+            return true;
+        } catch (CompletionException e) {
+            log.error("[R2-ASYNC] ❌ Erreur suppression {}: {}", key, unwrap(e).getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public List<String> listFiles(String prefix, int maxResults) {
+        ListObjectsV2Request request = ListObjectsV2Request.builder()
+            .bucket(bucketName)
+            .prefix(prefix)
+            .maxKeys(maxResults)
+            .build();
+        try {
+            return s3AsyncClient.listObjectsV2(request).join().contents().stream()
+                .map(S3Object::key)
+                .collect(Collectors.toList());
+        } catch (CompletionException e) {
+            log.error("[R2-ASYNC] ❌ Erreur listing avec préfixe {}: {}", prefix, unwrap(e).getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public boolean copyFile(String sourceKey, String destKey) {
+        CopyObjectRequest request = CopyObjectRequest.builder()
+            .sourceBucket(bucketName)
+            .sourceKey(sourceKey)
+            .destinationBucket(bucketName)
+            .destinationKey(destKey)
+            .build();
+        try {
+            s3AsyncClient.copyObject(request).join();
+            log.debug("[R2-ASYNC] ✅ Fichier copié: {} -> {}", sourceKey, destKey);
+            return true;
+        } catch (CompletionException e) {
+            log.error("[R2-ASYNC] ❌ Erreur copie {} -> {}: {}", sourceKey, destKey, unwrap(e).getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public Optional<ObjectMetadata> getMetadata(String key) {
+        HeadObjectRequest request = HeadObjectRequest.builder()
+            .bucket(bucketName)
+            .key(key)
+            .build();
+        try {
+            HeadObjectResponse response = s3AsyncClient.headObject(request).join();
+            return Optional.of(new ObjectMetadata(response.eTag(), response.contentLength(),
+                    response.contentType(), response.lastModified(), response.metadata()));
+        } catch (CompletionException e) {
+            if (!(unwrap(e) instanceof NoSuchKeyException)) {
+                log.error("[R2-ASYNC] ❌ Erreur HEAD {}: {}", key, unwrap(e).getMessage());
+            }
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<byte[]> downloadRange(String key, long start, long endInclusive) {
+        GetObjectRequest request = GetObjectRequest.builder()
+            .bucket(bucketName)
+            .key(key)
+            .range("bytes=" + start + "-" + endInclusive)
+            .build();
+        try {
+            return Optional.of(s3AsyncClient.getObject(request, AsyncResponseTransformer.toBytes()).join().asByteArray());
+        } catch (CompletionException e) {
+            log.error("[R2-ASYNC] ❌ Erreur download plage {} [{}-{}]: {}", key, start, endInclusive, unwrap(e).getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<ConditionalRead> downloadIfChanged(String key, String ifNoneMatch, Instant ifModifiedSince) {
+        GetObjectRequest.Builder requestBuilder = GetObjectRequest.builder()
+            .bucket(bucketName)
+            .key(key);
+        if (ifNoneMatch != null && !ifNoneMatch.isBlank()) {
+            requestBuilder.ifNoneMatch(ifNoneMatch);
+        }
+        if (ifModifiedSince != null) {
+            requestBuilder.ifModifiedSince(ifModifiedSince);
+        }
+        try {
+            var response = s3AsyncClient.getObject(requestBuilder.build(), AsyncResponseTransformer.toBytes()).join();
+            GetObjectResponse meta = response.response();
+            return Optional.of(ConditionalRead.changed(response.asByteArray(), new ObjectMetadata(meta.eTag(),
+                    meta.contentLength(), meta.contentType(), meta.lastModified(), meta.metadata())));
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof S3Exception s3Error && s3Error.statusCode() == 304) {
+                return Optional.of(ConditionalRead.unchanged(ifNoneMatch));
+            }
+            if (!(cause instanceof NoSuchKeyException)) {
+                log.error("[R2-ASYNC] ❌ Erreur download conditionnel {}: {}", key, cause.getMessage());
+            }
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<InputStream> openStream(String key) {
+        try {
+            return Optional.of(openStreamAsync(key).join());
+        } catch (CompletionException e) {
+            if (!(unwrap(e) instanceof NoSuchKeyException)) {
+                log.error("[R2-ASYNC] ❌ Erreur ouverture flux {}: {}", key, unwrap(e).getMessage());
+            }
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<InputStream> openRangeStream(String key, long start, long endInclusive) {
+        GetObjectRequest request = GetObjectRequest.builder()
+            .bucket(bucketName)
+            .key(key)
+            .range("bytes=" + start + "-" + endInclusive)
+            .build();
+        try {
+            return Optional.of(s3AsyncClient.getObject(request, AsyncResponseTransformer.toBlockingInputStream()).join());
+        } catch (CompletionException e) {
+            if (!(unwrap(e) instanceof NoSuchKeyException)) {
+                log.error("[R2-ASYNC] ❌ Erreur ouverture flux plage {} [{}-{}]: {}", key, start, endInclusive, unwrap(e).getMessage());
+            }
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String generatePresignedUrl(String key, Duration duration) {
+        try {
+            GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
+                .signatureDuration(duration)
+                .getObjectRequest(GetObjectRequest.builder().bucket(bucketName).key(key).build())
+                .build();
+            return s3Presigner.presignGetObject(presignRequest).url().toString();
+        } catch (Exception e) {
+            log.error("[R2-ASYNC] ❌ Erreur génération URL présignée pour {}: {}", key, e.getMessage());
+            throw new RuntimeException("Failed to generate presigned URL", e);
+        }
+    }
+
+    // ===================================================================
+    // Helpers
+    // ===================================================================
+
+    private PutObjectRequest putRequest(String key, Map<String, String> metadata) {
+        Map<String, String> safeMetadata = metadata != null ? metadata : Map.of();
+        if (!safeMetadata.isEmpty() && !isAscii(safeMetadata)) {
+            log.warn("[R2-ASYNC] ⚠️ Metadata non-ASCII pour '{}': {}", key, safeMetadata);
+        }
+
+        PutObjectRequest.Builder builder = PutObjectRequest.builder()
+            .bucket(bucketName)
+            .key(key)
+            .metadata(safeMetadata);
+        if (safeMetadata.containsKey("content-type")) {
+            builder.contentType(safeMetadata.get("content-type"));
+        }
+        return builder.build();
+    }
+
+    // Les metadata non-ASCII cassent la signature S3 ; simple parcours des caractères, sans regex
+    private static boolean isAscii(Map<String, String> metadata) {
+        for (String value : metadata.values()) {
+            if (value == null) {
+                continue;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) > 0x7F) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void logUpload(String key, PutObjectResponse response, Throwable error) {
+        if (error != null) {
+            Throwable cause = unwrap(error);
+            if (cause instanceof S3Exception s3Error) {
+                log.error("[R2-ASYNC] ❌ Erreur S3 upload '{}': Status={}, Code={}, Message={}",
+                        key, s3Error.statusCode(),
+                        s3Error.awsErrorDetails() != null ? s3Error.awsErrorDetails().errorCode() : "N/A",
+                        s3Error.getMessage());
+            } else {
+                log.error("[R2-ASYNC] ❌ Erreur upload {}: {}", key, cause.getMessage());
+            }
+        } else {
+            log.debug("[R2-ASYNC] ✅ Upload réussi: {} (ETag: {})", key, response.eTag());
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -1,6 +1,8 @@
 package com.backcover.service.storage;
 
+import java.io.InputStream;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -10,6 +12,27 @@ import java.util.Optional;
  * (Copie indépendante de l'interface du batch processor)
  */
 public interface CloudStorageService {
+
+    /**
+     * Métadonnées d'un objet stocké (ETag tel que renvoyé par le stockage, guillemets inclus)
+     */
+    record ObjectMetadata(String eTag, long contentLength, String contentType,
+                          Instant lastModified, Map<String, String> userMetadata) {}
+
+    /**
+     * Résultat d'une lecture conditionnelle : soit l'objet n'a pas changé (contenu null),
+     * soit son contenu complet avec ses métadonnées
+     */
+    record ConditionalRead(boolean notModified, byte[] content, ObjectMetadata metadata) {
+
+        public static ConditionalRead unchanged(String eTag) {
+            return new ConditionalRead(true, null, new ObjectMetadata(eTag, 0, null, null, Map.of()));
+        }
+
+        public static ConditionalRead changed(byte[] content, ObjectMetadata metadata) {
+            return new ConditionalRead(false, content, metadata);
+        }
+    }
     
     /**
      * Upload un fichier vers le cloud storage
@@ -45,4 +68,30 @@ public interface CloudStorageService {
      * Génère une URL présignée pour téléchargement
      */
     String generatePresignedUrl(String key, Duration duration);
-}
\ No newline at end of file
+
+    /**
+     * Récupère les métadonnées d'un fichier (HEAD), vide s'il n'existe pas
+     */
+    Optional<ObjectMetadata> getMetadata(String key);
+
+    /**
+     * Télécharge une plage d'octets d'un fichier (bornes incluses)
+     */
+    Optional<byte[]> downloadRange(String key, long start, long endInclusive);
+
+    /**
+     * Lecture conditionnelle (If-None-Match / If-Modified-Since) : évite de retransférer un objet inchangé.
+     * Vide si le fichier n'existe pas.
+     */
+    Optional<ConditionalRead> downloadIfChanged(String key, String ifNoneMatch, Instant ifModifiedSince);
+
+    /**
+     * Ouvre un flux de lecture sur un fichier ; l'appelant doit le fermer
+     */
+    Optional<InputStream> openStream(String key);
+
+    /**
+     * Ouvre un flux de lecture sur une plage d'octets d'un fichier (bornes incluses) ; l'appelant doit le fermer
+     */
+    Optional<InputStream> openRangeStream(String key, long start, long endInclusive);
+}
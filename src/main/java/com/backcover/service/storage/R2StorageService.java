@@ -1,5 +1,6 @@
 package com.backcover.service.storage;
 
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,8 +21,10 @@ import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequ
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -30,6 +33,7 @@ import java.util.stream.Collectors;
  * Utilise l'API S3-compatible de R2
  * (Copie indépendante du service R2 du batch processor)
  */
+@Observed(name = "r2.storage")
 @Service("mainR2Storage")
 public class R2StorageService implements CloudStorageService {
     
@@ -279,4 +283,134 @@ public class R2StorageService implements CloudStorageService {
             throw new RuntimeException("Failed to generate presigned URL", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Récupère les métadonnées d'un fichier (HEAD)
+     */
+    public Optional<ObjectMetadata> getMetadata(String key) {
+        try {
+            HeadObjectRequest request = HeadObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build();
+                
+            HeadObjectResponse response = s3Client.headObject(request);
+            return Optional.of(new ObjectMetadata(response.eTag(), response.contentLength(),
+                    response.contentType(), response.lastModified(), response.metadata()));
+            
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (Exception e) {
+            log.error("[R2-STORAGE] ❌ Erreur HEAD {}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Télécharge une plage d'octets d'un fichier (bornes incluses)
+     */
+    public Optional<byte[]> downloadRange(String key, long start, long endInclusive) {
+        try {
+            GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .range("bytes=" + start + "-" + endInclusive)
+                .build();
+                
+            try (ResponseInputStream<GetObjectResponse> response = s3Client.getObject(request)) {
+                byte[] content = response.readAllBytes();
+                log.debug("[R2-STORAGE] ✅ Download plage réussi: {} [{}-{}] ({} bytes)", key, start, endInclusive, content.length);
+                return Optional.of(content);
+            }
+            
+        } catch (NoSuchKeyException e) {
+            log.warn("[R2-STORAGE] ⚠️ Fichier non trouvé: {}", key);
+            return Optional.empty();
+        } catch (Exception e) {
+            log.error("[R2-STORAGE] ❌ Erreur download plage {} [{}-{}]: {}", key, start, endInclusive, e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Lecture conditionnelle : R2 répond 304 si l'objet n'a pas changé, sans renvoyer le contenu
+     */
+    public Optional<ConditionalRead> downloadIfChanged(String key, String ifNoneMatch, Instant ifModifiedSince) {
+        try {
+            GetObjectRequest.Builder requestBuilder = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key);
+            if (ifNoneMatch != null && !ifNoneMatch.isBlank()) {
+                requestBuilder.ifNoneMatch(ifNoneMatch);
+            }
+            if (ifModifiedSince != null) {
+                requestBuilder.ifModifiedSince(ifModifiedSince);
+            }
+                
+            try (ResponseInputStream<GetObjectResponse> response = s3Client.getObject(requestBuilder.build())) {
+                byte[] content = response.readAllBytes();
+                GetObjectResponse meta = response.response();
+                log.debug("[R2-STORAGE] ✅ Download conditionnel: {} modifié ({} bytes)", key, content.length);
+                return Optional.of(ConditionalRead.changed(content, new ObjectMetadata(meta.eTag(),
+                        meta.contentLength(), meta.contentType(), meta.lastModified(), meta.metadata())));
+            }
+            
+        } catch (NoSuchKeyException e) {
+            log.warn("[R2-STORAGE] ⚠️ Fichier non trouvé: {}", key);
+            return Optional.empty();
+        } catch (S3Exception e) {
+            if (e.statusCode() == 304) {
+                log.debug("[R2-STORAGE] ✅ Download conditionnel: {} non modifié", key);
+                return Optional.of(ConditionalRead.unchanged(ifNoneMatch));
+            }
+            log.error("[R2-STORAGE] ❌ Erreur download conditionnel {}: {}", key, e.getMessage());
+            return Optional.empty();
+        } catch (Exception e) {
+            log.error("[R2-STORAGE] ❌ Erreur download conditionnel {}: {}", key, e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Ouvre un flux de lecture sur un fichier ; l'appelant doit le fermer
+     */
+    public Optional<InputStream> openStream(String key) {
+        try {
+            GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build();
+                
+            return Optional.of(s3Client.getObject(request));
+            
+        } catch (NoSuchKeyException e) {
+            log.warn("[R2-STORAGE] ⚠️ Fichier non trouvé: {}", key);
+            return Optional.empty();
+        } catch (Exception e) {
+            log.error("[R2-STORAGE] ❌ Erreur ouverture flux {}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Ouvre un flux de lecture sur une plage d'octets d'un fichier (bornes incluses) ; l'appelant doit le fermer
+     */
+    public Optional<InputStream> openRangeStream(String key, long start, long endInclusive) {
+        try {
+            GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .range("bytes=" + start + "-" + endInclusive)
+                .build();
+                
+            return Optional.of(s3Client.getObject(request));
+            
+        } catch (NoSuchKeyException e) {
+            log.warn("[R2-STORAGE] ⚠️ Fichier non trouvé: {}", key);
+            return Optional.empty();
+        } catch (Exception e) {
+            log.error("[R2-STORAGE] ❌ Erreur ouverture flux plage {} [{}-{}]: {}", key, start, endInclusive, e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -16,7 +16,7 @@ import java.nio.charset.StandardCharsets;
 public class MockTTSService extends TTSService {
 
     public MockTTSService(TTSCacheService ttsCacheService) {
-        super(null, ttsCacheService); // No real TTS client needed, but still use cache
+        super(null, ttsCacheService, Runnable::run); // No real TTS client needed, but still use cache
     }
 
     @Override
@@ -41,6 +41,11 @@ public class MockTTSService extends TTSService {
         return silentMp3;
     }
 
+    @Override
+    protected byte[] synthesizeAndCache(String text, String cacheKey) throws IOException {
+        return synthesizeSpeech(text);
+    }
+
     @Override
     public void init() {
         log.info("[STARTUP] MockTTSService - No initialization needed");
@@ -0,0 +1,498 @@
+package com.backcover.service.tts;
+
+import com.backcover.dto.PageAudioIndex;
+import com.backcover.dto.PageAudioIndex.WordTiming;
+import com.backcover.dto.gemini.StructuredBookResponse.StructuredBlock;
+import com.backcover.dto.gemini.StructuredBookResponse.StructuredPage;
+import com.backcover.dto.gemini.StructuredBookResponse.StructuredWord;
+import com.backcover.service.gemini.EnrichmentResultPersister;
+import com.backcover.service.storage.AsyncR2StorageService;
+import com.backcover.service.storage.CloudStorageService;
+import com.backcover.service.storage.R2StorageService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.api.gax.rpc.ApiException;
+import com.google.cloud.texttospeech.v1beta1.AudioConfig;
+import com.google.cloud.texttospeech.v1beta1.AudioEncoding;
+import com.google.cloud.texttospeech.v1beta1.SynthesisInput;
+import com.google.cloud.texttospeech.v1beta1.SynthesizeSpeechRequest;
+import com.google.cloud.texttospeech.v1beta1.SynthesizeSpeechResponse;
+import com.google.cloud.texttospeech.v1beta1.TextToSpeechClient;
+import com.google.cloud.texttospeech.v1beta1.Timepoint;
+import com.google.cloud.texttospeech.v1beta1.VoiceSelectionParams;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Audio d'une page entière, synthétisé en une fois avec des balises SSML &lt;mark&gt;
+ * portant les ids de mots (p1b0w0...). Le MP3 et son index temporel sont stockés dans R2 ;
+ * la lecture d'un mot est servie comme une plage de ce fichier unique.
+ */
+@Slf4j
+@Service
+public class PageAudioService {
+
+    private static final String PAGE_AUDIO_PREFIX = "tts/pages/";
+    private static final String END_MARK = "__end";
+    // "<speak>" + "<mark name=\"__end\"/>" + "</speak>"
+    private static final int SSML_ENVELOPE_BYTES = 40;
+
+    private static final int[] MPEG1_L3_BITRATES = {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320};
+    private static final int[] MPEG2_L3_BITRATES = {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160};
+    private static final int[][] SAMPLE_RATES = {
+            {11025, 12000, 8000},   // MPEG 2.5
+            {0, 0, 0},              // réservé
+            {22050, 24000, 16000},  // MPEG 2
+            {44100, 48000, 32000}   // MPEG 1
+    };
+
+    private final TextToSpeechClient ttsClient;
+    private final R2StorageService r2StorageService;
+    private final AsyncR2StorageService asyncR2Storage;
+    private final EnrichmentResultPersister resultPersister;
+    private final ObjectMapper objectMapper;
+
+    // Une seule synthèse par page à la fois
+    private final Map<String, CompletableFuture<Optional<PageAudioIndex>>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${tts.voice.language:ar-XA}")
+    private String voiceLanguage;
+
+    @Value("${tts.voice.name:ar-XA-Wavenet-B}")
+    private String voiceName;
+
+    @Value("${tts.page-audio.max-ssml-bytes:4500}")
+    private int maxSsmlBytes;
+
+    @Value("${tts.page-audio.block-pause-ms:400}")
+    private int blockPauseMs;
+
+    public PageAudioService(@Qualifier("timepointTextToSpeechClient") TextToSpeechClient ttsClient,
+                            @Qualifier("mainR2Storage") R2StorageService r2StorageService,
+                            @Qualifier("asyncR2Storage") AsyncR2StorageService asyncR2Storage,
+                            EnrichmentResultPersister resultPersister,
+                            ObjectMapper objectMapper) {
+        this.ttsClient = ttsClient;
+        this.r2StorageService = r2StorageService;
+        this.asyncR2Storage = asyncR2Storage;
+        this.resultPersister = resultPersister;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Retourne l'index audio de la page, en le synthétisant au premier appel.
+     * Vide si la structure du livre ou la page n'existe pas.
+     */
+    public Optional<PageAudioIndex> getOrCreatePageAudio(UUID bookId, int pageNumber) throws IOException {
+        Optional<PageAudioIndex> existing = loadIndex(bookId, pageNumber);
+        if (existing.isPresent()) {
+            return existing;
+        }
+
+        String key = indexKey(bookId, pageNumber);
+        CompletableFuture<Optional<PageAudioIndex>> synthesis = new CompletableFuture<>();
+        CompletableFuture<Optional<PageAudioIndex>> pending = inFlight.putIfAbsent(key, synthesis);
+        if (pending != null) {
+            return await(pending, key);
+        }
+
+        try {
+            Optional<PageAudioIndex> index = synthesizePage(bookId, pageNumber);
+            synthesis.complete(index);
+            return index;
+        } catch (IOException | RuntimeException e) {
+            synthesis.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, synthesis);
+        }
+    }
+
+    /**
+     * Taille en octets du fichier MP3 de la page (à appeler après getOrCreatePageAudio)
+     */
+    public Optional<Long> getPageAudioLength(UUID bookId, int pageNumber) {
+        return r2StorageService.getMetadata(audioKey(bookId, pageNumber))
+                .map(CloudStorageService.ObjectMetadata::contentLength);
+    }
+
+    /**
+     * Flux sur le fichier MP3 de la page, lu depuis R2 sans le charger en mémoire ; l'appelant doit le fermer
+     */
+    public Optional<InputStream> openPageAudio(UUID bookId, int pageNumber) {
+        return r2StorageService.openStream(audioKey(bookId, pageNumber));
+    }
+
+    /**
+     * Flux sur une plage d'octets du fichier MP3 de la page (bornes incluses) ; l'appelant doit le fermer
+     */
+    public Optional<InputStream> openPageAudio(UUID bookId, int pageNumber, long start, long endInclusive) {
+        return r2StorageService.openRangeStream(audioKey(bookId, pageNumber), start, endInclusive);
+    }
+
+    /**
+     * Extrait audio d'un seul mot, lu dans le fichier de la page sur des frontières de frames MP3
+     */
+    public Optional<byte[]> getWordAudio(UUID bookId, int pageNumber, String wordId) throws IOException {
+        Optional<PageAudioIndex> index = getOrCreatePageAudio(bookId, pageNumber);
+        if (index.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Optional<WordTiming> timing = index.get().getWords().stream()
+                .filter(w -> w.getId().equals(wordId))
+                .findFirst();
+        if (timing.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // GET ranged : seule la plage du mot transite depuis R2
+        return r2StorageService.downloadRange(audioKey(bookId, pageNumber),
+                timing.get().getByteStart(), timing.get().getByteEnd());
+    }
+
+    /**
+     * Supprime tous les audios de page d'un livre (listing + DeleteObjects, sans bloquer l'appelant)
+     */
+    public CompletableFuture<Integer> deletePageAudio(UUID bookId) {
+        return asyncR2Storage.deleteByPrefixAsync(PAGE_AUDIO_PREFIX + bookId + "/")
+                .whenComplete((deleted, error) -> {
+                    if (error != null) {
+                        log.warn("[PAGE-AUDIO] Failed to delete page audio for book {}: {}", bookId, error.getMessage());
+                    } else if (deleted > 0) {
+                        log.info("[PAGE-AUDIO] Deleted {} page audio files for book {}", deleted, bookId);
+                    }
+                });
+    }
+
+    private Optional<PageAudioIndex> synthesizePage(UUID bookId, int pageNumber) throws IOException {
+        if (ttsClient == null) {
+            throw new IOException("Page audio unavailable: no Text-to-Speech client configured");
+        }
+
+        List<StructuredPage> pages = resultPersister.load(bookId.toString());
+        if (pages == null) {
+            return Optional.empty();
+        }
+        Optional<StructuredPage> page = pages.stream()
+                .filter(p -> p.getPageNumber() == pageNumber)
+                .findFirst();
+        if (page.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<String> fragments = new ArrayList<>();
+        List<StructuredWord> words = collectWords(page.get(), fragments);
+        if (words.isEmpty()) {
+            return Optional.empty();
+        }
+
+        log.info("[PAGE-AUDIO] Synthesizing page {} of book {} ({} words)", pageNumber, bookId, words.size());
+
+        Map<String, Double> markTimes = new HashMap<>();
+        Map<String, Double> chunkEndByLastWord = new HashMap<>();
+        List<long[]> frameOffsets = new ArrayList<>();   // {offset, startMicros}
+        ByteArrayOutputStream audio = new ByteArrayOutputStream();
+        double chunkOffsetSeconds = 0;
+
+        for (List<Integer> chunk : buildChunks(fragments)) {
+            StringBuilder ssml = new StringBuilder("<speak>");
+            for (int wordIndex : chunk) {
+                ssml.append(fragments.get(wordIndex));
+            }
+            ssml.append("<mark name=\"").append(END_MARK).append("\"/></speak>");
+
+            SynthesizeSpeechResponse response = synthesize(ssml.toString());
+            byte[] chunkAudio = stripId3(response.getAudioContent().toByteArray());
+
+            double chunkDuration = indexFrames(chunkAudio, audio.size(), chunkOffsetSeconds, frameOffsets);
+            Double endMark = null;
+            for (Timepoint timepoint : response.getTimepointsList()) {
+                if (END_MARK.equals(timepoint.getMarkName())) {
+                    endMark = timepoint.getTimeSeconds();
+                } else {
+                    markTimes.put(timepoint.getMarkName(), chunkOffsetSeconds + timepoint.getTimeSeconds());
+                }
+            }
+            if (chunkDuration <= 0) {
+                chunkDuration = endMark != null ? endMark : 0;
+            }
+            double chunkEnd = chunkOffsetSeconds + (endMark != null ? endMark : chunkDuration);
+            chunkEndByLastWord.put(words.get(chunk.get(chunk.size() - 1)).getId(), chunkEnd);
+
+            audio.write(chunkAudio);
+            chunkOffsetSeconds += chunkDuration;
+        }
+
+        byte[] audioBytes = audio.toByteArray();
+        List<WordTiming> timings = new ArrayList<>(words.size());
+        for (int i = 0; i < words.size(); i++) {
+            StructuredWord word = words.get(i);
+            Double start = markTimes.get(word.getId());
+            if (start == null) {
+                log.warn("[PAGE-AUDIO] No timepoint returned for word {}", word.getId());
+                continue;
+            }
+            Double end = chunkEndByLastWord.get(word.getId());
+            if (end == null) {
+                end = i + 1 < words.size() ? markTimes.getOrDefault(words.get(i + 1).getId(), chunkOffsetSeconds) : chunkOffsetSeconds;
+            }
+            long byteStart = frameOffsetAt(frameOffsets, start);
+            long byteEnd = Math.max(byteStart, frameOffsetFrom(frameOffsets, end, audioBytes.length) - 1);
+            timings.add(new WordTiming(word.getId(), word.getText(), start, end, byteStart, byteEnd));
+        }
+
+        PageAudioIndex index = PageAudioIndex.builder()
+                .bookId(bookId.toString())
+                .pageNumber(pageNumber)
+                .voiceName(voiceName)
+                .audioFormat("audio/mpeg")
+                .audioSizeBytes(audioBytes.length)
+                .durationSeconds(chunkOffsetSeconds)
+                .words(timings)
+                .build();
+
+        Map<String, String> audioMetadata = new HashMap<>();
+        audioMetadata.put("content-type", "audio/mpeg");
+        audioMetadata.put("book-id", bookId.toString());
+        audioMetadata.put("page-number", String.valueOf(pageNumber));
+        audioMetadata.put("voice-name", voiceName);
+        r2StorageService.uploadFile(audioKey(bookId, pageNumber), audioBytes, audioMetadata);
+
+        // L'index est écrit en dernier : sa présence garantit que l'audio est complet
+        Map<String, String> indexMetadata = new HashMap<>();
+        indexMetadata.put("content-type", "application/json");
+        indexMetadata.put("book-id", bookId.toString());
+        indexMetadata.put("page-number", String.valueOf(pageNumber));
+        r2StorageService.uploadFile(indexKey(bookId, pageNumber), objectMapper.writeValueAsBytes(index), indexMetadata);
+
+        log.info("[PAGE-AUDIO] ✅ Page {} of book {} synthesized: {} words, {}s, {} KB",
+                pageNumber, bookId, timings.size(), String.format("%.1f", chunkOffsetSeconds), audioBytes.length / 1024);
+
+        return Optional.of(index);
+    }
+
+    /**
+     * Mots de la page dans l'ordre de lecture, avec leur fragment SSML (mark + texte).
+     * Une pause est insérée au début de chaque bloc et entre les hémistiches d'un vers.
+     */
+    private List<StructuredWord> collectWords(StructuredPage page, List<String> fragments) {
+        List<StructuredWord> words = new ArrayList<>();
+        if (page.getContent() == null) {
+            return words;
+        }
+        for (StructuredBlock block : page.getContent()) {
+            addWords(block.getWords(), words, fragments);
+            addWords(block.getSadr(), words, fragments);
+            addWords(block.getAjz(), words, fragments);
+        }
+        return words;
+    }
+
+    private void addWords(List<StructuredWord> source, List<StructuredWord> words, List<String> fragments) {
+        if (source == null || source.isEmpty()) {
+            return;
+        }
+        boolean first = true;
+        for (StructuredWord word : source) {
+            StringBuilder fragment = new StringBuilder();
+            if (first && !words.isEmpty()) {
+                fragment.append("<break time=\"").append(blockPauseMs).append("ms\"/>");
+            }
+            fragment.append("<mark name=\"").append(escapeXml(word.getId())).append("\"/>")
+                    .append(escapeXml(word.getText()))
+                    .append(' ');
+            words.add(word);
+            fragments.add(fragment.toString());
+            first = false;
+        }
+    }
+
+    /**
+     * Regroupe les mots en requêtes sous la limite d'entrée de Google TTS (5000 octets)
+     */
+    private List<List<Integer>> buildChunks(List<String> fragments) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        List<Integer> current = new ArrayList<>();
+        int currentBytes = SSML_ENVELOPE_BYTES;
+        for (int i = 0; i < fragments.size(); i++) {
+            int fragmentBytes = fragments.get(i).getBytes(StandardCharsets.UTF_8).length;
+            if (!current.isEmpty() && currentBytes + fragmentBytes > maxSsmlBytes) {
+                chunks.add(current);
+                current = new ArrayList<>();
+                currentBytes = SSML_ENVELOPE_BYTES;
+            }
+            current.add(i);
+            currentBytes += fragmentBytes;
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    private SynthesizeSpeechResponse synthesize(String ssml) throws IOException {
+        SynthesizeSpeechRequest request = SynthesizeSpeechRequest.newBuilder()
+                .setInput(SynthesisInput.newBuilder().setSsml(ssml).build())
+                .setVoice(VoiceSelectionParams.newBuilder()
+                        .setLanguageCode(voiceLanguage)
+                        .setName(voiceName)
+                        .build())
+                .setAudioConfig(AudioConfig.newBuilder()
+                        .setAudioEncoding(AudioEncoding.MP3)
+                        .build())
+                .addEnableTimePointing(SynthesizeSpeechRequest.TimepointType.SSML_MARK)
+                .build();
+        try {
+            return ttsClient.synthesizeSpeech(request);
+        } catch (ApiException e) {
+            throw new IOException("Page audio synthesis failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Parcourt les frames MP3 d'un segment, enregistre leur position dans le fichier final
+     * et retourne la durée du segment en secondes (0 si le flux n'est pas reconnu).
+     */
+    private double indexFrames(byte[] data, long baseOffset, double baseSeconds, List<long[]> frameOffsets) {
+        double seconds = 0;
+        int pos = 0;
+        while (pos + 4 <= data.length) {
+            int b1 = data[pos + 1] & 0xFF;
+            int b2 = data[pos + 2] & 0xFF;
+            if ((data[pos] & 0xFF) != 0xFF || (b1 & 0xE0) != 0xE0) {
+                pos++;
+                continue;
+            }
+            int version = (b1 >> 3) & 0x03;
+            int layer = (b1 >> 1) & 0x03;
+            int bitrateIndex = (b2 >> 4) & 0x0F;
+            int sampleRateIndex = (b2 >> 2) & 0x03;
+            if (version == 1 || layer != 1 || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+                pos++;
+                continue;
+            }
+            boolean mpeg1 = version == 3;
+            int bitrate = (mpeg1 ? MPEG1_L3_BITRATES : MPEG2_L3_BITRATES)[bitrateIndex] * 1000;
+            int sampleRate = SAMPLE_RATES[version][sampleRateIndex];
+            int padding = (b2 >> 1) & 0x01;
+            int frameLength = (mpeg1 ? 144 : 72) * bitrate / sampleRate + padding;
+            int samplesPerFrame = mpeg1 ? 1152 : 576;
+
+            frameOffsets.add(new long[]{baseOffset + pos, Math.round((baseSeconds + seconds) * 1_000_000)});
+            seconds += (double) samplesPerFrame / sampleRate;
+            pos += frameLength;
+        }
+        return seconds;
+    }
+
+    /**
+     * Offset de la frame contenant l'instant donné (début de plage)
+     */
+    private long frameOffsetAt(List<long[]> frameOffsets, double seconds) {
+        if (frameOffsets.isEmpty()) {
+            return 0;
+        }
+        long micros = Math.round(seconds * 1_000_000);
+        int index = firstFrameFrom(frameOffsets, micros);
+        if (index < frameOffsets.size() && frameOffsets.get(index)[1] == micros) {
+            return frameOffsets.get(index)[0];
+        }
+        return frameOffsets.get(Math.max(0, index - 1))[0];
+    }
+
+    /**
+     * Offset de la première frame commençant à partir de l'instant donné (fin exclusive de plage)
+     */
+    private long frameOffsetFrom(List<long[]> frameOffsets, double seconds, long audioLength) {
+        int index = firstFrameFrom(frameOffsets, Math.round(seconds * 1_000_000));
+        return index < frameOffsets.size() ? frameOffsets.get(index)[0] : audioLength;
+    }
+
+    private int firstFrameFrom(List<long[]> frameOffsets, long micros) {
+        int low = 0;
+        int high = frameOffsets.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (frameOffsets.get(mid)[1] >= micros) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private byte[] stripId3(byte[] data) {
+        if (data.length > 10 && data[0] == 'I' && data[1] == 'D' && data[2] == '3') {
+            int size = ((data[6] & 0x7F) << 21) | ((data[7] & 0x7F) << 14) | ((data[8] & 0x7F) << 7) | (data[9] & 0x7F);
+            int start = Math.min(data.length, size + 10);
+            return Arrays.copyOfRange(data, start, data.length);
+        }
+        return data;
+    }
+
+    private Optional<PageAudioIndex> loadIndex(UUID bookId, int pageNumber) {
+        Optional<byte[]> content = r2StorageService.downloadFile(indexKey(bookId, pageNumber));
+        if (content.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(content.get(), PageAudioIndex.class));
+        } catch (IOException e) {
+            log.warn("[PAGE-AUDIO] Unreadable index for book {} page {}: {}", bookId, pageNumber, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<PageAudioIndex> await(CompletableFuture<Optional<PageAudioIndex>> pending, String key) throws IOException {
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for page audio: " + key, e);
+        } catch (ExecutionException e) {
+            throw new IOException("Page audio synthesis failed: " + key, e.getCause());
+        }
+    }
+
+    private String versionSuffix() {
+        return DigestUtils.md5Hex(voiceName + "_v1").substring(0, 8);
+    }
+
+    private String audioKey(UUID bookId, int pageNumber) {
+        return PAGE_AUDIO_PREFIX + bookId + "/" + pageNumber + "-" + versionSuffix() + ".mp3";
+    }
+
+    private String indexKey(UUID bookId, int pageNumber) {
+        return PAGE_AUDIO_PREFIX + bookId + "/" + pageNumber + "-" + versionSuffix() + ".json";
+    }
+
+    private static String escapeXml(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("\"", "&quot;")
+                .replace("'", "&apos;");
+    }
+}
@@ -0,0 +1,113 @@
+package com.backcover.service.tts;
+
+import com.backcover.dto.TTSPrefetchResponse;
+import com.backcover.model.User;
+import com.backcover.service.QuotaService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Préchargement du cache TTS pour tous les mots d'une page.
+ * Les mots sont dédupliqués, puis chaque mot absent du cache R2 est synthétisé
+ * sur un pool borné, pour que la lecture au tap soit immédiate.
+ * Chaque synthèse consomme une consultation du quota du lecteur ; les mots déjà en cache sont gratuits
+ * et la synthèse s'arrête quand le quota est atteint.
+ */
+@Slf4j
+@Service
+public class TTSPrefetchService {
+
+    private final TTSService ttsService;
+    private final TTSCacheService ttsCacheService;
+    private final QuotaService quotaService;
+    private final Executor prefetchExecutor;
+
+    // Clés déjà en file ou en cours : évite de synthétiser deux fois un mot préchargé par deux lecteurs
+    private final Set<String> inFlightKeys = ConcurrentHashMap.newKeySet();
+
+    public TTSPrefetchService(TTSService ttsService,
+                              TTSCacheService ttsCacheService,
+                              QuotaService quotaService,
+                              @Qualifier("ttsPrefetchExecutor") Executor prefetchExecutor) {
+        this.ttsService = ttsService;
+        this.ttsCacheService = ttsCacheService;
+        this.quotaService = quotaService;
+        this.prefetchExecutor = prefetchExecutor;
+    }
+
+    /**
+     * Met en file la synthèse des mots d'une page et retourne immédiatement.
+     * La vérification du cache R2 se fait dans le pool, hors du thread de requête.
+     */
+    public TTSPrefetchResponse prefetch(List<String> words, User user) {
+        Map<String, String> textsByKey = new LinkedHashMap<>();
+        for (String word : words) {
+            if (word == null || word.isBlank()) {
+                continue;
+            }
+            String text = ttsService.normalizeText(word);
+            textsByKey.putIfAbsent(ttsService.generateCacheKey(text), text);
+        }
+
+        int queued = 0;
+        int skipped = 0;
+        for (Map.Entry<String, String> entry : textsByKey.entrySet()) {
+            String cacheKey = entry.getKey();
+            String text = entry.getValue();
+
+            if (!inFlightKeys.add(cacheKey)) {
+                skipped++;
+                continue;
+            }
+
+            try {
+                prefetchExecutor.execute(() -> warm(cacheKey, text, user));
+                queued++;
+            } catch (RejectedExecutionException e) {
+                inFlightKeys.remove(cacheKey);
+                skipped++;
+            }
+        }
+
+        if (skipped > 0) {
+            log.info("[TTS-PREFETCH] {} words skipped (already queued or pool saturated)", skipped);
+        }
+        log.info("[TTS-PREFETCH] Queued {} of {} unique words ({} requested)",
+                queued, textsByKey.size(), words.size());
+
+        return TTSPrefetchResponse.builder()
+                .requestedCount(words.size())
+                .uniqueCount(textsByKey.size())
+                .queuedCount(queued)
+                .skippedCount(skipped)
+                .build();
+    }
+
+    private void warm(String cacheKey, String text, User user) {
+        try {
+            if (ttsCacheService.isCached(cacheKey)) {
+                log.debug("[TTS-PREFETCH] Already cached: {}", text);
+                return;
+            }
+            if (!quotaService.tryConsumeWordConsultation(user)) {
+                log.debug("[TTS-PREFETCH] Quota reached, not synthesizing: {}", text);
+                return;
+            }
+            ttsService.synthesizeAndCache(text, cacheKey);
+            log.debug("[TTS-PREFETCH] Warmed cache for: {}", text);
+        } catch (Exception e) {
+            log.warn("[TTS-PREFETCH] Failed to prefetch '{}': {}", text, e.getMessage());
+        } finally {
+            inFlightKeys.remove(cacheKey);
+        }
+    }
+}
@@ -2,54 +2,133 @@ package com.backcover.service.tts;
 
 import com.google.cloud.texttospeech.v1.*;
 import com.google.protobuf.ByteString;
+import io.micrometer.observation.annotation.Observed;
 import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
+@Observed(name = "tts.synthesis")
 public class TTSService {
 
+    private static final int NEGATIVE_CACHE_PRUNE_THRESHOLD = 10_000;
+
     private final TextToSpeechClient ttsClient;
     private final TTSCacheService ttsCacheService;
-    
+    private final Executor cacheWriteExecutor;
+
+    // Synthèses en cours par clé de cache : les requêtes concurrentes sur le même mot partagent un seul appel Google.
+    // L'entrée reste présente jusqu'à la fin de l'upload R2, pour que les taps suivants ne re-synthétisent pas.
+    private final Map<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+
+    // Cache négatif : clé -> instant (ms) jusqu'auquel on ne retente pas une synthèse en échec
+    private final Map<String, Long> failedUntil = new ConcurrentHashMap<>();
+
     @Value("${tts.voice.language:ar-XA}")
     private String voiceLanguage;
-    
+
     @Value("${tts.voice.name:ar-XA-Wavenet-B}")
     private String voiceName;
-    
+
     @Value("${tts.audio.encoding:MP3}")
     private String audioEncoding;
-    
+
+    @Value("${tts.negative-cache.ttl-seconds:60}")
+    private long negativeCacheTtlSeconds;
+
+    public TTSService(TextToSpeechClient ttsClient,
+                      TTSCacheService ttsCacheService,
+                      @Qualifier("ttsCacheWriteExecutor") Executor cacheWriteExecutor) {
+        this.ttsClient = ttsClient;
+        this.ttsCacheService = ttsCacheService;
+        this.cacheWriteExecutor = cacheWriteExecutor;
+    }
+
     @PostConstruct
     public void init() {
         log.info("[STARTUP] TTSService @PostConstruct - START");
         log.info("[TTS] Using R2 for TTS cache storage");
-        log.info("[TTS] Voice configuration: language={}, name={}, encoding={}", 
+        log.info("[TTS] Voice configuration: language={}, name={}, encoding={}",
                 voiceLanguage, voiceName, audioEncoding);
         log.info("[STARTUP] TTSService @PostConstruct - SUCCESS");
     }
 
     public byte[] synthesizeSpeech(String text) throws IOException {
+        text = normalizeText(text);
         String cacheKey = generateCacheKey(text);
-        
+
+        // Synthèse déjà en cours (ou upload pas encore terminé) : on partage son résultat
+        CompletableFuture<byte[]> pending = inFlight.get(cacheKey);
+        if (pending != null) {
+            log.debug("[TTS] Joining in-flight synthesis for text: {}", text);
+            return awaitInFlight(pending, text);
+        }
+
         // Vérifier le cache R2
         Optional<byte[]> cachedAudio = ttsCacheService.getCachedAudio(cacheKey);
         if (cachedAudio.isPresent()) {
             log.debug("[TTS] Cache hit for text: {}", text);
             return cachedAudio.get();
         }
-        
+
         log.info("[TTS] Cache miss - Synthesizing speech for text: {}", text);
-        
+        return synthesizeAndCache(text, cacheKey);
+    }
+
+    /**
+     * Synthétise le texte via Google TTS et le sauvegarde dans le cache R2,
+     * sans relire le cache au préalable (l'appelant a déjà vérifié son absence).
+     * Une seule synthèse par clé à la fois ; l'upload R2 se fait hors du thread appelant.
+     */
+    protected byte[] synthesizeAndCache(String text, String cacheKey) throws IOException {
+        Long blockedUntil = failedUntil.get(cacheKey);
+        if (blockedUntil != null) {
+            if (blockedUntil > System.currentTimeMillis()) {
+                log.debug("[TTS] Negative cache hit for text: {}", text);
+                throw new IOException("TTS synthesis recently failed for text, retry later: " + text);
+            }
+            failedUntil.remove(cacheKey, blockedUntil);
+        }
+
+        CompletableFuture<byte[]> synthesis = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlight.putIfAbsent(cacheKey, synthesis);
+        if (existing != null) {
+            log.debug("[TTS] Joining in-flight synthesis for text: {}", text);
+            return awaitInFlight(existing, text);
+        }
+
+        byte[] audioData;
+        try {
+            audioData = callTextToSpeech(text);
+        } catch (RuntimeException | IOException e) {
+            rememberFailure(cacheKey);
+            inFlight.remove(cacheKey, synthesis);
+            synthesis.completeExceptionally(e);
+            throw e;
+        }
+
+        synthesis.complete(audioData);
+        scheduleCacheWrite(cacheKey, audioData, text, synthesis);
+        return audioData;
+    }
+
+    /**
+     * Appel Google Cloud TTS pour le texte donné
+     */
+    protected byte[] callTextToSpeech(String text) throws IOException {
         SynthesisInput input = SynthesisInput.newBuilder()
                 .setText(text)
                 .build();
@@ -64,20 +143,60 @@ public class TTSService {
                 .build();
 
         SynthesizeSpeechResponse response = ttsClient.synthesizeSpeech(input, voice, audioConfig);
-        
+
         ByteString audioContents = response.getAudioContent();
-        byte[] audioData = audioContents.toByteArray();
-        
-        // Sauvegarder dans le cache R2
-        ttsCacheService.cacheAudio(cacheKey, audioData, voiceName, text);
-        
-        return audioData;
+        return audioContents.toByteArray();
     }
-    
-    private String generateCacheKey(String text) {
-        return DigestUtils.md5Hex(text + "_" + voiceName + "_v1");
+
+    private void scheduleCacheWrite(String cacheKey, byte[] audioData, String text, CompletableFuture<byte[]> synthesis) {
+        Runnable write = () -> {
+            try {
+                // Sauvegarder dans le cache R2
+                ttsCacheService.cacheAudio(cacheKey, audioData, voiceName, text);
+            } finally {
+                inFlight.remove(cacheKey, synthesis);
+            }
+        };
+
+        try {
+            cacheWriteExecutor.execute(write);
+        } catch (RejectedExecutionException e) {
+            log.warn("[TTS] Cache write pool saturated, writing inline for key: {}", cacheKey);
+            write.run();
+        }
     }
-    
+
+    private void rememberFailure(String cacheKey) {
+        if (failedUntil.size() > NEGATIVE_CACHE_PRUNE_THRESHOLD) {
+            long now = System.currentTimeMillis();
+            failedUntil.values().removeIf(until -> until <= now);
+        }
+        failedUntil.put(cacheKey, System.currentTimeMillis() + negativeCacheTtlSeconds * 1000);
+    }
+
+    private byte[] awaitInFlight(CompletableFuture<byte[]> pending, String text) throws IOException {
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for TTS synthesis: " + text, e);
+        } catch (ExecutionException e) {
+            throw new IOException("TTS synthesis failed for text: " + text, e.getCause());
+        }
+    }
+
+    public String generateCacheKey(String text) {
+        return DigestUtils.md5Hex(normalizeText(text) + "_" + voiceName + "_v1");
+    }
+
+    /**
+     * Forme du texte synthétisée et hachée : seule définition, partagée par la prononciation
+     * à la demande et le préchargement, pour qu'ils lisent et écrivent la même clé
+     */
+    public String normalizeText(String text) {
+        return text != null ? text.strip() : null;
+    }
+
     /**
      * Méthode clearCache conservée pour compatibilité
      * Le nettoyage du cache R2 devrait être géré différemment (TTL, politique de rétention)
@@ -85,4 +204,4 @@ public class TTSService {
     public void clearCache() {
         log.info("[TTS] Cache clearing not implemented for R2 - manage via R2 lifecycle policies");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+-- Spaced-repetition (SM-2) schedule of each word list item
+ALTER TABLE user_word_list_item ADD COLUMN IF NOT EXISTS review_ease DOUBLE PRECISION NOT NULL DEFAULT 2.5;
+ALTER TABLE user_word_list_item ADD COLUMN IF NOT EXISTS review_interval_days INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE user_word_list_item ADD COLUMN IF NOT EXISTS review_repetitions INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE user_word_list_item ADD COLUMN IF NOT EXISTS review_lapses INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE user_word_list_item ADD COLUMN IF NOT EXISTS review_due_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE user_word_list_item ADD COLUMN IF NOT EXISTS last_reviewed_at TIMESTAMP WITH TIME ZONE;
+
+-- Existing items are due from the moment they were added
+UPDATE user_word_list_item SET review_due_at = added_at WHERE review_due_at IS NULL;
+ALTER TABLE user_word_list_item ALTER COLUMN review_due_at SET DEFAULT NOW();
+ALTER TABLE user_word_list_item ALTER COLUMN review_due_at SET NOT NULL;
+
+-- Due queue of a user: one range scan per review session
+CREATE INDEX IF NOT EXISTS idx_user_word_list_item_review_due
+    ON user_word_list_item(user_id, review_due_at);
+
+-- Comment
+COMMENT ON COLUMN user_word_list_item.review_ease IS 'SM-2 ease factor (>= 1.3)';
+COMMENT ON COLUMN user_word_list_item.review_due_at IS 'Next review date; new items are due immediately';
@@ -0,0 +1,54 @@
+-- One default list per (user, language) and one book list per (user, language, book), so that
+-- find-or-create can be a single INSERT ... ON CONFLICT instead of a racy select-then-insert.
+
+-- Duplicates left by past races are merged into the oldest list first: items it does not hold yet
+-- are moved (one per word), the remaining items are removed with their tombstone, then the extra lists.
+-- Delta sync must see the move: moved items get a fresh added_at (returned to clients that already
+-- synced the kept list) and a tombstone under their former list.
+CREATE TEMPORARY TABLE duplicate_word_list ON COMMIT DROP AS
+SELECT id, keep_id
+FROM (
+    SELECT id,
+           FIRST_VALUE(id) OVER (PARTITION BY user_id, language_code, book_id ORDER BY created_at, id) AS keep_id
+    FROM user_word_list
+    WHERE (is_default AND book_id IS NULL) OR book_id IS NOT NULL
+) ranked
+WHERE id <> keep_id;
+
+-- A moved item keeps its id, so its tombstone under the former list must not collide with a later
+-- removal from the kept list: tombstones are unique per (item, list)
+ALTER TABLE user_word_list_item_tombstone DROP CONSTRAINT IF EXISTS user_word_list_item_tombstone_pkey;
+ALTER TABLE user_word_list_item_tombstone ADD PRIMARY KEY (item_id, list_id);
+
+WITH moved AS (
+    UPDATE user_word_list_item i
+    SET list_id = m.keep_id, added_at = NOW()
+    FROM (
+        SELECT DISTINCT ON (d.keep_id, i2.book_id, i2.word_instance_id) i2.id, i2.list_id AS former_list_id, d.keep_id
+        FROM user_word_list_item i2
+        JOIN duplicate_word_list d ON d.id = i2.list_id
+        WHERE NOT EXISTS (SELECT 1 FROM user_word_list_item k
+                          WHERE k.list_id = d.keep_id AND k.book_id = i2.book_id
+                            AND k.word_instance_id = i2.word_instance_id)
+        ORDER BY d.keep_id, i2.book_id, i2.word_instance_id, i2.added_at
+    ) m
+    WHERE i.id = m.id
+    RETURNING i.id, m.former_list_id, i.user_id
+)
+INSERT INTO user_word_list_item_tombstone (item_id, list_id, user_id, removed_at)
+SELECT id, former_list_id, user_id, NOW() FROM moved;
+
+WITH deleted AS (
+    DELETE FROM user_word_list_item i USING duplicate_word_list d
+    WHERE i.list_id = d.id
+    RETURNING i.id, i.list_id, i.user_id
+)
+INSERT INTO user_word_list_item_tombstone (item_id, list_id, user_id, removed_at)
+SELECT id, list_id, user_id, NOW() FROM deleted;
+
+DELETE FROM user_word_list l USING duplicate_word_list d WHERE l.id = d.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_user_word_list_default
+    ON user_word_list (user_id, language_code) WHERE is_default AND book_id IS NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS ux_user_word_list_book
+    ON user_word_list (user_id, language_code, book_id) WHERE book_id IS NOT NULL;
@@ -0,0 +1,13 @@
+-- Search keys for Arabic text: diacritics (harakat, tanwin, shadda, sukun, dagger alef) and tatweel removed,
+-- hamza-carrying alef forms folded to a bare alef. IMMUTABLE so they can back generated columns and indexes.
+-- Calls are schema-qualified: pg_restore recomputes generated columns with an empty search_path.
+CREATE OR REPLACE FUNCTION arabic_search_normalize(p_text TEXT)
+RETURNS TEXT LANGUAGE sql IMMUTABLE PARALLEL SAFE AS $$
+    SELECT translate(regexp_replace(p_text, '[\u064B-\u065F\u0670\u0640]', '', 'g'), 'أإآٱ', 'اااا')
+$$;
+
+-- Root key: normalized letters only, so "ك ت ب", "ك-ت-ب" and "كَتَبَ" share the key "كتب"
+CREATE OR REPLACE FUNCTION arabic_root_key(p_text TEXT)
+RETURNS TEXT LANGUAGE sql IMMUTABLE PARALLEL SAFE AS $$
+    SELECT regexp_replace(public.arabic_search_normalize(p_text), '[\s\-_.,،/]', '', 'g')
+$$;
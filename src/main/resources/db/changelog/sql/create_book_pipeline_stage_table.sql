@@ -0,0 +1,23 @@
+-- Create book_pipeline_stage table: status of each background stage run after an upload
+CREATE TABLE IF NOT EXISTS book_pipeline_stage (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    book_id UUID NOT NULL REFERENCES book(id) ON DELETE CASCADE,
+    stage VARCHAR(50) NOT NULL,
+    status VARCHAR(50) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    error_message TEXT,
+    started_at TIMESTAMP WITH TIME ZONE,
+    finished_at TIMESTAMP WITH TIME ZONE,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+
+    -- One entry per book per stage
+    CONSTRAINT uk_book_pipeline_stage_book_stage UNIQUE (book_id, stage)
+);
+
+-- Index for recovery scans on unfinished stages
+CREATE INDEX IF NOT EXISTS idx_book_pipeline_stage_status ON book_pipeline_stage(status);
+
+-- Comment
+COMMENT ON TABLE book_pipeline_stage IS 'Per-stage status of the post-upload pipeline (cover, metadata, enrichment)';
+COMMENT ON COLUMN book_pipeline_stage.attempts IS 'Number of times the stage has been started';
@@ -0,0 +1,26 @@
+-- Dictionary search: every filter is answered by an index, never by scanning analysis_data
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Prefix of the Arabic surface form, diacritics ignored
+ALTER TABLE dictionary_word
+    ADD COLUMN IF NOT EXISTS search_form TEXT GENERATED ALWAYS AS (public.arabic_search_normalize(word_text)) STORED;
+CREATE INDEX IF NOT EXISTS idx_dictionary_word_search_form
+    ON dictionary_word (search_form text_pattern_ops) WHERE language_code = 'ar';
+
+-- Root and pattern (wazn) keys on the analysis projection, lexical fields as an array
+ALTER TABLE word_analysis_projection
+    ADD COLUMN IF NOT EXISTS root_key TEXT GENERATED ALWAYS AS (public.arabic_root_key(root)) STORED;
+ALTER TABLE word_analysis_projection
+    ADD COLUMN IF NOT EXISTS wazn_key TEXT GENERATED ALWAYS AS (public.arabic_search_normalize(wazn)) STORED;
+CREATE INDEX IF NOT EXISTS idx_word_analysis_projection_root_key ON word_analysis_projection (root_key);
+CREATE INDEX IF NOT EXISTS idx_word_analysis_projection_wazn_key ON word_analysis_projection (wazn_key);
+CREATE INDEX IF NOT EXISTS idx_word_analysis_projection_lexical_fields
+    ON word_analysis_projection USING gin (lexical_fields);
+
+-- Translation text in any language, case-insensitive substring
+CREATE INDEX IF NOT EXISTS idx_word_translation_text_trgm
+    ON word_translation USING gin (lower(translation_text) gin_trgm_ops);
+
+-- "Words I've seen": lemmas of the user's word lists
+CREATE INDEX IF NOT EXISTS idx_user_vocabulary_lemma_user_word
+    ON user_vocabulary_lemma (user_id, dictionary_word_id);
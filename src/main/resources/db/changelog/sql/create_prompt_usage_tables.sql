@@ -0,0 +1,58 @@
+-- Per-model pricing (USD per million tokens) used to compute the cost of each LLM call
+ALTER TABLE llm_models ADD COLUMN IF NOT EXISTS input_price_per_million_usd NUMERIC(12,6);
+ALTER TABLE llm_models ADD COLUMN IF NOT EXISTS output_price_per_million_usd NUMERIC(12,6);
+
+-- Public list prices at the time of this migration (editable per model)
+UPDATE llm_models SET input_price_per_million_usd = 0.10, output_price_per_million_usd = 0.40
+    WHERE model_code LIKE 'gemini-2.0-flash%' AND input_price_per_million_usd IS NULL;
+UPDATE llm_models SET input_price_per_million_usd = 0.30, output_price_per_million_usd = 2.50
+    WHERE model_code = 'gemini-2.5-flash' AND input_price_per_million_usd IS NULL;
+UPDATE llm_models SET input_price_per_million_usd = 1.25, output_price_per_million_usd = 10.00
+    WHERE model_code = 'gemini-2.5-pro' AND input_price_per_million_usd IS NULL;
+UPDATE llm_models SET input_price_per_million_usd = 2.50, output_price_per_million_usd = 10.00
+    WHERE model_code = 'gpt-4o' AND input_price_per_million_usd IS NULL;
+UPDATE llm_models SET input_price_per_million_usd = 0.15, output_price_per_million_usd = 0.60
+    WHERE model_code = 'gpt-4o-mini' AND input_price_per_million_usd IS NULL;
+
+-- Raw usage events, batch-inserted by the background writer (no FK: inserts must stay cheap)
+CREATE TABLE IF NOT EXISTS prompt_usage_event (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    occurred_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    usage_type VARCHAR(50) NOT NULL,
+    prompt_identifier VARCHAR(100) NOT NULL,
+    prompt_version VARCHAR(20),
+    llm_model VARCHAR(100) NOT NULL,
+    input_tokens INTEGER NOT NULL DEFAULT 0,
+    output_tokens INTEGER NOT NULL DEFAULT 0,
+    execution_time_ms BIGINT NOT NULL DEFAULT 0,
+    success BOOLEAN NOT NULL,
+    estimated_cost_usd NUMERIC(14,8)
+);
+
+CREATE INDEX IF NOT EXISTS idx_prompt_usage_event_occurred_at ON prompt_usage_event(occurred_at);
+
+-- Hourly rollups, upserted by the writer with each batch: dashboards never scan raw events
+CREATE TABLE IF NOT EXISTS prompt_usage_hourly (
+    hour_start TIMESTAMP WITH TIME ZONE NOT NULL,
+    usage_type VARCHAR(50) NOT NULL,
+    prompt_identifier VARCHAR(100) NOT NULL,
+    prompt_version VARCHAR(20) NOT NULL DEFAULT '',
+    llm_model VARCHAR(100) NOT NULL,
+    request_count BIGINT NOT NULL DEFAULT 0,
+    success_count BIGINT NOT NULL DEFAULT 0,
+    input_tokens BIGINT NOT NULL DEFAULT 0,
+    output_tokens BIGINT NOT NULL DEFAULT 0,
+    total_execution_time_ms BIGINT NOT NULL DEFAULT 0,
+    total_cost_usd NUMERIC(18,8) NOT NULL DEFAULT 0,
+    min_cost_usd NUMERIC(14,8),
+    max_cost_usd NUMERIC(14,8),
+
+    CONSTRAINT pk_prompt_usage_hourly PRIMARY KEY (hour_start, usage_type, prompt_identifier, prompt_version, llm_model)
+);
+
+CREATE INDEX IF NOT EXISTS idx_prompt_usage_hourly_prompt ON prompt_usage_hourly(prompt_identifier, hour_start);
+
+-- Comment
+COMMENT ON TABLE prompt_usage_event IS 'Raw LLM usage events, written asynchronously in batches';
+COMMENT ON TABLE prompt_usage_hourly IS 'Hourly LLM usage rollups (tokens, cost, latency) per prompt and model';
+COMMENT ON COLUMN prompt_usage_event.estimated_cost_usd IS 'NULL when the model has no pricing in llm_models';
@@ -0,0 +1,63 @@
+-- Reference counts behind distinct_lemmas: items of a user per (list language, dictionary word, book)
+CREATE TABLE IF NOT EXISTS user_vocabulary_lemma (
+    user_id UUID NOT NULL,
+    language_code VARCHAR(5) NOT NULL,
+    dictionary_word_id UUID NOT NULL,
+    book_id UUID NOT NULL,
+    item_count INTEGER NOT NULL,
+
+    CONSTRAINT pk_user_vocabulary_lemma PRIMARY KEY (user_id, language_code, dictionary_word_id, book_id)
+);
+
+-- Vocabulary of a user per book and list language
+CREATE TABLE IF NOT EXISTS user_vocabulary_book_stats (
+    user_id UUID NOT NULL,
+    language_code VARCHAR(5) NOT NULL,
+    book_id UUID NOT NULL,
+    item_count INTEGER NOT NULL DEFAULT 0,
+    distinct_lemmas INTEGER NOT NULL DEFAULT 0,
+    last_added_at TIMESTAMP WITH TIME ZONE,
+
+    CONSTRAINT pk_user_vocabulary_book_stats PRIMARY KEY (user_id, language_code, book_id)
+);
+
+-- Vocabulary of a user per list language, all books together
+CREATE TABLE IF NOT EXISTS user_vocabulary_stats (
+    user_id UUID NOT NULL,
+    language_code VARCHAR(5) NOT NULL,
+    item_count INTEGER NOT NULL DEFAULT 0,
+    distinct_lemmas INTEGER NOT NULL DEFAULT 0,
+    last_added_at TIMESTAMP WITH TIME ZONE,
+
+    CONSTRAINT pk_user_vocabulary_stats PRIMARY KEY (user_id, language_code)
+);
+
+-- Backfill from the existing word list items
+INSERT INTO user_vocabulary_lemma (user_id, language_code, dictionary_word_id, book_id, item_count)
+SELECT i.user_id, l.language_code, wa.dictionary_word_id, i.book_id, COUNT(*)
+FROM user_word_list_item i
+JOIN user_word_list l ON l.id = i.list_id
+JOIN word_analysis wa ON wa.id = i.word_analysis_id
+GROUP BY i.user_id, l.language_code, wa.dictionary_word_id, i.book_id
+ON CONFLICT DO NOTHING;
+
+INSERT INTO user_vocabulary_book_stats (user_id, language_code, book_id, item_count, distinct_lemmas, last_added_at)
+SELECT i.user_id, l.language_code, i.book_id, COUNT(*), COUNT(DISTINCT wa.dictionary_word_id), MAX(i.added_at)
+FROM user_word_list_item i
+JOIN user_word_list l ON l.id = i.list_id
+LEFT JOIN word_analysis wa ON wa.id = i.word_analysis_id
+GROUP BY i.user_id, l.language_code, i.book_id
+ON CONFLICT DO NOTHING;
+
+INSERT INTO user_vocabulary_stats (user_id, language_code, item_count, distinct_lemmas, last_added_at)
+SELECT i.user_id, l.language_code, COUNT(*), COUNT(DISTINCT wa.dictionary_word_id), MAX(i.added_at)
+FROM user_word_list_item i
+JOIN user_word_list l ON l.id = i.list_id
+LEFT JOIN word_analysis wa ON wa.id = i.word_analysis_id
+GROUP BY i.user_id, l.language_code
+ON CONFLICT DO NOTHING;
+
+-- Comment
+COMMENT ON TABLE user_vocabulary_book_stats IS 'Per user/language/book vocabulary aggregates, maintained by trg_user_word_list_item_vocabulary';
+COMMENT ON TABLE user_vocabulary_stats IS 'Per user/language vocabulary aggregates, maintained by trg_user_word_list_item_vocabulary';
+COMMENT ON COLUMN user_vocabulary_stats.last_added_at IS 'Last time a word was added (not rolled back by removals)';
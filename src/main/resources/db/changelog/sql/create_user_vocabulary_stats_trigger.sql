@@ -0,0 +1,101 @@
+-- Applies one item change to the vocabulary aggregates.
+-- p_delta: +1 (item added / analysis linked) or -1 (item removed / analysis unlinked);
+-- p_count_item: false when only the analysis of an existing item changes.
+CREATE OR REPLACE FUNCTION user_vocabulary_apply(p_user UUID, p_book UUID, p_list UUID, p_analysis UUID,
+                                                 p_delta INTEGER, p_count_item BOOLEAN, p_added_at TIMESTAMPTZ)
+RETURNS void LANGUAGE plpgsql AS $$
+DECLARE
+    v_language VARCHAR(5);
+    v_lemma UUID;
+    v_lemma_count INTEGER;
+    v_item_delta INTEGER := CASE WHEN p_count_item THEN p_delta ELSE 0 END;
+    v_book_lemma_delta INTEGER := 0;
+    v_total_lemma_delta INTEGER := 0;
+BEGIN
+    SELECT language_code INTO v_language FROM user_word_list WHERE id = p_list;
+    IF v_language IS NULL THEN
+        RETURN;
+    END IF;
+    IF p_analysis IS NOT NULL THEN
+        SELECT dictionary_word_id INTO v_lemma FROM word_analysis WHERE id = p_analysis;
+    END IF;
+
+    IF v_lemma IS NOT NULL THEN
+        -- Serializes changes of one lemma for one user: without it, two books adding (or removing)
+        -- the same lemma concurrently both pass the cross-book NOT EXISTS check and distinct_lemmas drifts
+        PERFORM pg_advisory_xact_lock(hashtext(p_user::text || v_language || v_lemma::text));
+        IF p_delta > 0 THEN
+            INSERT INTO user_vocabulary_lemma AS m (user_id, language_code, dictionary_word_id, book_id, item_count)
+            VALUES (p_user, v_language, v_lemma, p_book, 1)
+            ON CONFLICT (user_id, language_code, dictionary_word_id, book_id)
+            DO UPDATE SET item_count = m.item_count + 1
+            RETURNING item_count INTO v_lemma_count;
+            IF v_lemma_count = 1 THEN
+                v_book_lemma_delta := 1;
+                IF NOT EXISTS (SELECT 1 FROM user_vocabulary_lemma
+                               WHERE user_id = p_user AND language_code = v_language
+                                 AND dictionary_word_id = v_lemma AND book_id <> p_book) THEN
+                    v_total_lemma_delta := 1;
+                END IF;
+            END IF;
+        ELSE
+            UPDATE user_vocabulary_lemma SET item_count = item_count - 1
+            WHERE user_id = p_user AND language_code = v_language
+              AND dictionary_word_id = v_lemma AND book_id = p_book
+            RETURNING item_count INTO v_lemma_count;
+            IF v_lemma_count <= 0 THEN
+                DELETE FROM user_vocabulary_lemma
+                WHERE user_id = p_user AND language_code = v_language
+                  AND dictionary_word_id = v_lemma AND book_id = p_book;
+                v_book_lemma_delta := -1;
+                IF NOT EXISTS (SELECT 1 FROM user_vocabulary_lemma
+                               WHERE user_id = p_user AND language_code = v_language
+                                 AND dictionary_word_id = v_lemma) THEN
+                    v_total_lemma_delta := -1;
+                END IF;
+            END IF;
+        END IF;
+    END IF;
+
+    IF v_item_delta = 0 AND v_book_lemma_delta = 0 THEN
+        RETURN;
+    END IF;
+
+    INSERT INTO user_vocabulary_book_stats AS s (user_id, language_code, book_id, item_count, distinct_lemmas, last_added_at)
+    VALUES (p_user, v_language, p_book, GREATEST(v_item_delta, 0), GREATEST(v_book_lemma_delta, 0),
+            CASE WHEN v_item_delta > 0 THEN p_added_at END)
+    ON CONFLICT (user_id, language_code, book_id) DO UPDATE SET
+        item_count = GREATEST(s.item_count + v_item_delta, 0),
+        distinct_lemmas = GREATEST(s.distinct_lemmas + v_book_lemma_delta, 0),
+        last_added_at = CASE WHEN v_item_delta > 0 THEN GREATEST(s.last_added_at, p_added_at) ELSE s.last_added_at END;
+
+    INSERT INTO user_vocabulary_stats AS s (user_id, language_code, item_count, distinct_lemmas, last_added_at)
+    VALUES (p_user, v_language, GREATEST(v_item_delta, 0), GREATEST(v_total_lemma_delta, 0),
+            CASE WHEN v_item_delta > 0 THEN p_added_at END)
+    ON CONFLICT (user_id, language_code) DO UPDATE SET
+        item_count = GREATEST(s.item_count + v_item_delta, 0),
+        distinct_lemmas = GREATEST(s.distinct_lemmas + v_total_lemma_delta, 0),
+        last_added_at = CASE WHEN v_item_delta > 0 THEN GREATEST(s.last_added_at, p_added_at) ELSE s.last_added_at END;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION user_word_list_item_vocabulary_trigger()
+RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM user_vocabulary_apply(NEW.user_id, NEW.book_id, NEW.list_id, NEW.word_analysis_id, 1, TRUE, NEW.added_at);
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM user_vocabulary_apply(OLD.user_id, OLD.book_id, OLD.list_id, OLD.word_analysis_id, -1, TRUE, NULL);
+    ELSIF NEW.word_analysis_id IS DISTINCT FROM OLD.word_analysis_id THEN
+        PERFORM user_vocabulary_apply(OLD.user_id, OLD.book_id, OLD.list_id, OLD.word_analysis_id, -1, FALSE, NULL);
+        PERFORM user_vocabulary_apply(NEW.user_id, NEW.book_id, NEW.list_id, NEW.word_analysis_id, 1, FALSE, NULL);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_user_word_list_item_vocabulary ON user_word_list_item;
+
+CREATE TRIGGER trg_user_word_list_item_vocabulary
+    AFTER INSERT OR DELETE OR UPDATE OF word_analysis_id ON user_word_list_item
+    FOR EACH ROW EXECUTE FUNCTION user_word_list_item_vocabulary_trigger();
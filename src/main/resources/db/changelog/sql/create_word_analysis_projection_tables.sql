@@ -0,0 +1,24 @@
+-- Write-time projection of word_analysis.analysis_data: the top-level fields as typed columns
+-- and one row per language for the details subtree (kept verbatim as JSON text so readers
+-- can emit it without parsing). analysis_data stays the source of truth and is only used for querying.
+
+CREATE TABLE IF NOT EXISTS word_analysis_projection (
+    word_analysis_id UUID PRIMARY KEY REFERENCES word_analysis(id) ON DELETE CASCADE,
+    word_type VARCHAR(50),
+    root VARCHAR(100),
+    jidar VARCHAR(255),
+    masdar VARCHAR(255),
+    wazn VARCHAR(100),
+    canonical_form VARCHAR(255),
+    lexical_fields TEXT[],
+    projected_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS word_analysis_language_details (
+    word_analysis_id UUID NOT NULL REFERENCES word_analysis(id) ON DELETE CASCADE,
+    language_code VARCHAR(10) NOT NULL,
+    meaning TEXT,
+    grammatical_function TEXT,
+    details TEXT NOT NULL,
+    PRIMARY KEY (word_analysis_id, language_code)
+);
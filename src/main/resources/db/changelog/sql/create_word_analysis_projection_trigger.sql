@@ -0,0 +1,63 @@
+-- Rebuilds the projection of one analysis from its analysis_data.
+-- Legacy analyses without details_by_language keep their single "details" object, assumed French.
+CREATE OR REPLACE FUNCTION word_analysis_project(p_id UUID, p_data JSONB)
+RETURNS void LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO word_analysis_projection AS p (word_analysis_id, word_type, root, jidar, masdar, wazn,
+                                               canonical_form, lexical_fields, projected_at)
+    VALUES (p_id,
+            p_data->>'type',
+            p_data->>'root',
+            p_data->>'jidar',
+            p_data->>'masdar',
+            p_data->>'wazn',
+            COALESCE(p_data->>'canonical_form', p_data->>'canonical_form_from_llm'),
+            CASE WHEN jsonb_typeof(p_data->'lexical_fields') = 'array'
+                 THEN ARRAY(SELECT f FROM jsonb_array_elements_text(p_data->'lexical_fields') f WHERE f IS NOT NULL) END,
+            NOW())
+    ON CONFLICT (word_analysis_id) DO UPDATE SET
+        word_type = EXCLUDED.word_type,
+        root = EXCLUDED.root,
+        jidar = EXCLUDED.jidar,
+        masdar = EXCLUDED.masdar,
+        wazn = EXCLUDED.wazn,
+        canonical_form = EXCLUDED.canonical_form,
+        lexical_fields = EXCLUDED.lexical_fields,
+        projected_at = EXCLUDED.projected_at;
+
+    DELETE FROM word_analysis_language_details WHERE word_analysis_id = p_id;
+
+    IF jsonb_typeof(p_data->'details_by_language') = 'object' THEN
+        INSERT INTO word_analysis_language_details (word_analysis_id, language_code, meaning, grammatical_function, details)
+        SELECT p_id, d.key, d.value->>'meaning', d.value->>'function', d.value::text
+        FROM jsonb_each(p_data->'details_by_language') d
+        WHERE jsonb_typeof(d.value) <> 'null';
+    ELSIF jsonb_typeof(p_data->'details') <> 'null' THEN
+        INSERT INTO word_analysis_language_details (word_analysis_id, language_code, meaning, grammatical_function, details)
+        VALUES (p_id, 'fr', p_data->'details'->>'meaning', p_data->'details'->>'function', (p_data->'details')::text);
+    END IF;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION word_analysis_projection_trigger()
+RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM word_analysis_project(NEW.id, NEW.analysis_data);
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_word_analysis_projection_insert ON word_analysis;
+CREATE TRIGGER trg_word_analysis_projection_insert
+    AFTER INSERT ON word_analysis
+    FOR EACH ROW EXECUTE FUNCTION word_analysis_projection_trigger();
+
+-- Hibernate rewrites every column on update: only re-project when the JSON actually changed
+DROP TRIGGER IF EXISTS trg_word_analysis_projection_update ON word_analysis;
+CREATE TRIGGER trg_word_analysis_projection_update
+    AFTER UPDATE OF analysis_data ON word_analysis
+    FOR EACH ROW WHEN (OLD.analysis_data IS DISTINCT FROM NEW.analysis_data)
+    EXECUTE FUNCTION word_analysis_projection_trigger();
+
+-- Backfill of the existing analyses
+SELECT word_analysis_project(id, analysis_data) FROM word_analysis;
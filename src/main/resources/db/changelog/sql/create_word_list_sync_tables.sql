@@ -0,0 +1,26 @@
+-- Keyset pagination of a word list: (page_number ASC, added_at DESC, id ASC) cursor
+CREATE INDEX IF NOT EXISTS idx_user_word_list_item_cursor
+    ON user_word_list_item(list_id, page_number, added_at DESC, id);
+
+-- Delta sync: items added to a list after a given instant
+CREATE INDEX IF NOT EXISTS idx_user_word_list_item_list_added
+    ON user_word_list_item(list_id, added_at);
+
+-- Tombstones of removed word list items, read by the since= delta endpoint
+CREATE TABLE IF NOT EXISTS user_word_list_item_tombstone (
+    item_id UUID PRIMARY KEY,
+    list_id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    removed_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+-- Index for delta reads per list
+CREATE INDEX IF NOT EXISTS idx_user_word_list_item_tombstone_list
+    ON user_word_list_item_tombstone(list_id, removed_at);
+
+-- Index for retention purge
+CREATE INDEX IF NOT EXISTS idx_user_word_list_item_tombstone_removed
+    ON user_word_list_item_tombstone(removed_at);
+
+-- Comment
+COMMENT ON TABLE user_word_list_item_tombstone IS 'Removed word list items, kept for mobile delta sync until the retention purge';
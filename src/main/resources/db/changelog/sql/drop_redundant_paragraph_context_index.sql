@@ -0,0 +1,3 @@
+-- context_hash is already the primary key of paragraph_context: this second index on the same column
+-- only added a write to every paragraph interned
+DROP INDEX IF EXISTS idx_paragraph_context_hash;